@@ -0,0 +1,124 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.shekhargulati.reactivex.rxokhttp.HttpStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * Time from nothing to the answer of the first <code>ping()</code>, the cost a short-lived CLI or function pays on
+ * every run. Every measurement runs in a fresh JVM against an in-process daemon answering <code>200 OK</code> to
+ * everything, written with plain java.io so that it loads none of the classes of the client. <code>secondClient</code>
+ * builds a client on a transport that a first client has already used, like a tool making clients with different
+ * settings for the same daemon. Run with <code>gradle jmh</code>.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class ColdStartBenchmark {
+
+    @Benchmark
+    public HttpStatus firstClient(Daemon daemon) {
+        return RxDockerClient.newDockerClient(daemon.dockerHost, null).ping();
+    }
+
+    @Benchmark
+    public HttpStatus secondClient(WarmTransport warm) {
+        return RxDockerClient.newDockerClient(warm.transport).ping();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Daemon {
+        private ServerSocket server;
+        private String dockerHost;
+
+        @Setup(Level.Trial)
+        public void start() throws IOException {
+            server = new ServerSocket(0, 64, InetAddress.getLoopbackAddress());
+            dockerHost = "127.0.0.1:" + server.getLocalPort();
+            Thread acceptor = new Thread(this::accept, "benchmark-daemon");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() throws IOException {
+            server.close();
+        }
+
+        private void accept() {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    Thread worker = new Thread(() -> serve(socket), "benchmark-daemon-connection");
+                    worker.setDaemon(true);
+                    worker.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private static void serve(Socket socket) {
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), ISO_8859_1));
+                 OutputStream out = socket.getOutputStream()) {
+                while (in.readLine() != null) {
+                    long contentLength = 0;
+                    for (String line = in.readLine(); line != null && !line.isEmpty(); line = in.readLine()) {
+                        if (line.toLowerCase().startsWith("content-length:")) {
+                            contentLength = Long.parseLong(line.substring("content-length:".length()).trim());
+                        }
+                    }
+                    in.skip(contentLength);
+                    out.write("HTTP/1.1 200 OK\r\nContent-Type: text/plain\r\nContent-Length: 2\r\n\r\nOK".getBytes(ISO_8859_1));
+                    out.flush();
+                }
+            } catch (IOException e) {
+                // connection closed by the client
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class WarmTransport {
+        private DockerTransport transport;
+
+        @Setup(Level.Trial)
+        public void warm(Daemon daemon) {
+            transport = DockerTransport.create(daemon.dockerHost, null);
+            RxDockerClient.newDockerClient(transport).ping();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building endpoints with {@link com.shekhargulati.reactivex.docker.client.http.EndpointTemplate} to the
+ * <code>String.format</code> and trimmed <code>StringBuilder</code> code it replaced. Run with <code>gradle jmh</code>
+ * and <code>-prof gc</code> in <code>jmhArgs</code> to compare allocations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EndpointBenchmark {
+
+    private final String containerId = "4fa6e0f0c6786287e131c3852c58a2e01cc697a68231826813597e4994f1d6e2";
+    private final ContainerLogQueryParameters logQuery = new ContainerLogQueryParameters(true, true, true, 100, Instant.ofEpochSecond(1456827330, 123));
+
+    @Benchmark
+    public String stopWithFormat() {
+        return String.format(ContainerOperations.CONTAINER_STOP_ENDPOINT, containerId) + "?t=" + 10;
+    }
+
+    @Benchmark
+    public String stopWithTemplate() {
+        return Endpoints.CONTAINER_STOP.expand(containerId, 10);
+    }
+
+    @Benchmark
+    public String logsWithFormat() {
+        return String.format(ContainerOperations.CONTAINER_LOGS_ENDPOINT, containerId) + formattedLogQuery(logQuery);
+    }
+
+    @Benchmark
+    public String logsWithTemplate() {
+        return Endpoints.CONTAINER_LOGS.expand(containerId) + logQuery.toQueryParametersString();
+    }
+
+    private static String formattedLogQuery(ContainerLogQueryParameters parameters) {
+        StringBuilder queryBuilder = new StringBuilder("?");
+        queryBuilder.append("stderr=" + parameters.isStderr());
+        queryBuilder.append("&");
+        queryBuilder.append("stdout=" + parameters.isStdout());
+        queryBuilder.append("&");
+        queryBuilder.append("timestamps=" + parameters.isTimestamps());
+        queryBuilder.append("&");
+        if (parameters.isFollow()) {
+            queryBuilder.append("follow=true");
+            queryBuilder.append("&");
+        }
+        if (parameters.getTail() < 0) {
+            queryBuilder.append("tail=all");
+        } else {
+            queryBuilder.append("tail=" + parameters.getTail());
+        }
+        queryBuilder.append("&");
+        if (parameters.getSince().isPresent()) {
+            Instant since = parameters.getSince().get();
+            queryBuilder.append("since=" + String.format("%d.%09d", since.getEpochSecond(), since.getNano()));
+        }
+        String queryStr = queryBuilder.toString();
+        if (queryStr.endsWith("&")) {
+            queryStr = queryStr.substring(0, queryStr.lastIndexOf("&"));
+        }
+        return queryStr;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.shekhargulati.reactivex.docker.client.http.HttpEndpoint;
+import com.shekhargulati.reactivex.docker.client.representations.DockerVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Observable;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * The API version negotiated with one daemon, shared by the clients talking to it so that the daemon is asked for its
+ * version once. {@link DockerTransport} holds the negotiation of the Rx clients, the blocking and Flowable clients
+ * built on a transport share it too.
+ */
+final class ApiNegotiation {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiNegotiation.class);
+
+    private final String daemon;
+
+    private volatile EndpointTable endpointTable;
+    private final AtomicReference<Observable<EndpointTable>> negotiation = new AtomicReference<>();
+
+    /**
+     * @param daemon the address of the daemon, for the logs
+     */
+    ApiNegotiation(String daemon) {
+        this.daemon = daemon;
+    }
+
+    static ApiNegotiation of(HttpEndpoint endpoint) {
+        return new ApiNegotiation((endpoint.isSecure() ? "https" : "http") + "://" + endpoint.hostAndPort().getHost() + ":"
+                + endpoint.hostAndPort().getPort());
+    }
+
+    /**
+     * @return the endpoint table of the negotiated API version, null until a negotiation has succeeded
+     */
+    EndpointTable endpointTable() {
+        return endpointTable;
+    }
+
+    /**
+     * The endpoint table of the API version negotiated with the daemon. The daemon is asked for its version by the
+     * first request, and concurrent first requests wait for the same answer. A failed negotiation is forgotten so
+     * that the next request tries again.
+     */
+    Observable<EndpointTable> negotiate(Supplier<Observable<DockerVersion>> version) {
+        final EndpointTable known = endpointTable;
+        if (known != null) {
+            return Observable.just(known);
+        }
+        return Observable.defer(() -> negotiation.updateAndGet(current -> current != null ? current : version.get()
+                .map(EndpointTable::negotiate)
+                .doOnNext(table -> {
+                    endpointTable = table;
+                    logger.info("Negotiated API version {} with the daemon at {}", table, daemon);
+                })
+                .doOnError(e -> negotiation.set(null))
+                .cache()));
+    }
+
+    /**
+     * Blocking flavour of {@link #negotiate(Supplier)} for the clients without Rx, asking the daemon for its version
+     * on the calling thread.
+     */
+    EndpointTable negotiateBlocking(Callable<DockerVersion> version) {
+        final EndpointTable known = endpointTable;
+        return known != null ? known : negotiate(() -> Observable.fromCallable(version)).toBlocking().single();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import static com.shekhargulati.reactivex.docker.client.utils.Validations.validate;
+
+/**
+ * Version of the Docker Engine API, like <code>1.24</code>.
+ */
+public final class ApiVersion implements Comparable<ApiVersion> {
+
+    private final int major;
+    private final int minor;
+
+    private ApiVersion(int major, int minor) {
+        validate(major, m -> m < 0, "major can't be negative");
+        validate(minor, m -> m < 0, "minor can't be negative");
+        this.major = major;
+        this.minor = minor;
+    }
+
+    public static ApiVersion of(int major, int minor) {
+        return new ApiVersion(major, minor);
+    }
+
+    public static ApiVersion parse(String version) {
+        validate(version, v -> v == null || !v.matches("v?\\d+\\.\\d+"), () -> String.format("%s is not an API version", version));
+        String[] parts = (version.startsWith("v") ? version.substring(1) : version).split("\\.");
+        return new ApiVersion(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+    }
+
+    public int major() {
+        return major;
+    }
+
+    public int minor() {
+        return minor;
+    }
+
+    public boolean isAtLeast(ApiVersion other) {
+        return compareTo(other) >= 0;
+    }
+
+    @Override
+    public int compareTo(ApiVersion other) {
+        return major != other.major ? Integer.compare(major, other.major) : Integer.compare(minor, other.minor);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ApiVersion that = (ApiVersion) o;
+        return major == that.major && minor == that.minor;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * major + minor;
+    }
+
+    @Override
+    public String toString() {
+        return major + "." + minor;
+    }
+}
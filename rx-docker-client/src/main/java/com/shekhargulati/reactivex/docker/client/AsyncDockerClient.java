@@ -0,0 +1,170 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.shekhargulati.reactivex.docker.client.representations.*;
+import com.shekhargulati.reactivex.rxokhttp.HttpStatus;
+import com.shekhargulati.reactivex.rxokhttp.QueryParameter;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Predicate;
+
+/**
+ * {@link CompletionStage} flavour of the request/response operations of {@link RxDockerClient}. Every method returns
+ * immediately; the stage completes with the same value the blocking method would have returned, or exceptionally
+ * with the error it would have thrown. Cancelling the stage, through {@link CompletionStage#toCompletableFuture()},
+ * cancels the request. Methods returning a {@link java.util.stream.Stream} in {@link RxDockerClient} return a
+ * {@link List} here. Streaming operations like logs, stats or image builds stay on the Observable API.
+ * <p>
+ * Obtain an instance with {@link RxDockerClient#async()}.
+ */
+public interface AsyncDockerClient {
+
+    static AsyncDockerClient fromDefaultEnv() {
+        return RxDockerClient.fromDefaultEnv().async();
+    }
+
+    // Misc operations
+    CompletionStage<DockerVersion> serverVersion();
+
+    CompletionStage<DockerInfo> info();
+
+    CompletionStage<HttpStatus> checkAuth(AuthConfig authConfig);
+
+    CompletionStage<HttpStatus> ping();
+
+    // Container operations
+    CompletionStage<List<DockerContainer>> listRunningContainers();
+
+    CompletionStage<List<DockerContainer>> listAllContainers();
+
+    CompletionStage<List<DockerContainer>> listContainers(QueryParameters queryParameters);
+
+    CompletionStage<DockerContainerResponse> createContainer(DockerContainerRequest request, String name);
+
+    CompletionStage<DockerContainerResponse> createContainer(DockerContainerRequest request);
+
+    CompletionStage<DockerContainerResponse> createContainer(String jsonRequest, String name);
+
+    CompletionStage<DockerContainerResponse> createContainer(String jsonRequest);
+
+    CompletionStage<ContainerInspectResponse> inspectContainer(String containerId);
+
+    CompletionStage<ProcessListResponse> listProcesses(String containerId);
+
+    CompletionStage<HttpStatus> startContainer(String containerId);
+
+    CompletionStage<HttpStatus> stopContainer(String containerId, int waitInSecs);
+
+    CompletionStage<HttpStatus> restartContainer(String containerId, int waitInSecs);
+
+    CompletionStage<HttpStatus> killRunningContainer(String containerId);
+
+    CompletionStage<HttpStatus> removeContainer(String containerId);
+
+    CompletionStage<HttpStatus> removeContainer(String containerId, boolean removeVolume, boolean force);
+
+    CompletionStage<HttpStatus> renameContainer(String containerId, String newName);
+
+    CompletionStage<HttpStatus> waitContainer(String containerId);
+
+    /**
+     * @return a stage completing with the path of the exported tar file
+     */
+    CompletionStage<Path> exportContainer(String containerId, Path pathToExportTo);
+
+    CompletionStage<List<ContainerChange>> inspectChangesOnContainerFilesystem(String containerId);
+
+    CompletionStage<HttpStatus> resizeContainerTty(String containerId, QueryParameter... queryParameters);
+
+    CompletionStage<HttpStatus> pauseContainer(String containerId);
+
+    CompletionStage<HttpStatus> unpauseContainer(String containerId);
+
+    CompletionStage<ContainerArchiveInformation> containerArchiveInformation(String containerId, String path);
+
+    /**
+     * @return a stage completing with the path of the exported tar file
+     */
+    CompletionStage<Path> containerArchive(String containerId, String path, Path pathToExportTo);
+
+    CompletionStage<ExecCreateResponse> execCreate(String containerId, String... cmd);
+
+    CompletionStage<ExecCreateResponse> execCreate(String containerId, ExecCreateRequest request);
+
+    CompletionStage<ExecInspectResponse> execInspect(String execId);
+
+    // Image operations
+    CompletionStage<HttpStatus> pullImage(String fromImage);
+
+    CompletionStage<HttpStatus> pullImage(String fromImage, String tag);
+
+    CompletionStage<HttpStatus> pullImage(String fromImage, String user, String tag);
+
+    CompletionStage<HttpStatus> pullImage(String image, AuthConfig authConfig);
+
+    CompletionStage<HttpStatus> pullImage(String image, String tag, AuthConfig authConfig);
+
+    CompletionStage<HttpStatus> pullImage(String image, String user, String tag, AuthConfig authConfig);
+
+    CompletionStage<HttpStatus> pullImageFromRegistry(String image, String registry);
+
+    CompletionStage<List<DockerImage>> listImages(ImageListQueryParameters queryParameters);
+
+    CompletionStage<List<DockerImage>> listAllImages();
+
+    CompletionStage<List<DockerImage>> listImages(String imageName);
+
+    CompletionStage<List<DockerImage>> listImages();
+
+    CompletionStage<List<DockerImage>> listDanglingImages();
+
+    CompletionStage<HttpStatus> removeImage(String imageName);
+
+    CompletionStage<HttpStatus> removeImage(String imageName, boolean noPrune, boolean force);
+
+    CompletionStage<List<DockerImageInfo>> searchImages(String searchTerm);
+
+    CompletionStage<List<DockerImageInfo>> searchImages(String searchTerm, Predicate<DockerImageInfo> predicate);
+
+    CompletionStage<HttpStatus> tagImage(String image, ImageTagQueryParameters queryParameters);
+
+    CompletionStage<List<DockerImageHistory>> imageHistory(String image);
+
+    CompletionStage<DockerImageInspectDetails> inspectImage(String image);
+
+    CompletionStage<HttpStatus> pushImage(String image, AuthConfig authConfig);
+
+    CompletionStage<Path> getTarballForAllImagesInRepository(String image, Path exportDir);
+
+    CompletionStage<Path> getTarballContainingAllImages(Path exportDir, String filename, ImageTag... imageTags);
+
+    CompletionStage<HttpStatus> loadImagesAndTagsTarball(Path pathToTarArchive);
+
+    CompletionStage<HttpStatus> createImage(String name, Path imageToLoad);
+
+}
@@ -0,0 +1,178 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.shekhargulati.reactivex.docker.client.http.ConnectionPool;
+import com.shekhargulati.reactivex.docker.client.http.DockerTls;
+import com.shekhargulati.reactivex.docker.client.http.HttpEndpoint;
+import com.shekhargulati.reactivex.docker.client.representations.*;
+import com.shekhargulati.reactivex.rxokhttp.HttpStatus;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocking client for the request/response operations of the Docker Remote API. It does plain socket I/O on the
+ * calling thread over a {@link ConnectionPool} of keep-alive connections, holds no monitor while doing I/O and starts
+ * no threads, so it scales with the number of calling threads. It is meant to be called from many virtual threads;
+ * a call that waits on the daemon unmounts its virtual thread instead of pinning the carrier.
+ * <p>
+ * Unsuccessful responses of operations returning a representation throw
+ * {@link com.shekhargulati.reactivex.docker.client.http.HttpResponseException}, operations returning an
+ * {@link HttpStatus} return the status of the response. I/O errors are thrown wrapped in a RuntimeException.
+ */
+public interface BlockingDockerClient extends AutoCloseable {
+
+    int DEFAULT_MAX_CONNECTIONS = 64;
+    Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(60);
+    Duration DEFAULT_ACQUIRE_TIMEOUT = Duration.ofSeconds(10);
+    Duration DEFAULT_KEEP_ALIVE = Duration.ofSeconds(30);
+
+    /**
+     * Builds the client using the DOCKER_HOST environment variable
+     */
+    static BlockingDockerClient fromDefaultEnv() {
+        final HostAndPort hostAndPort = Optional.ofNullable(System.getenv("DOCKER_HOST"))
+                .map(HostAndPort::from)
+                .orElse(HostAndPort.using(RxDockerClient.DEFAULT_DOCKER_HOST, RxDockerClient.DEFAULT_DOCKER_PORT));
+        final String certPath = System.getenv("DOCKER_CERT_PATH");
+        if (certPath != null) {
+            return newBlockingClient(HttpEndpoint.secure(hostAndPort, DockerTls.fromCertPath(Paths.get(certPath))),
+                    DEFAULT_MAX_CONNECTIONS, DEFAULT_READ_TIMEOUT, DEFAULT_KEEP_ALIVE);
+        }
+        return newBlockingClient(hostAndPort);
+    }
+
+    static BlockingDockerClient newBlockingClient(final HostAndPort hostAndPort) {
+        return newBlockingClient(hostAndPort, DEFAULT_MAX_CONNECTIONS, DEFAULT_READ_TIMEOUT);
+    }
+
+    /**
+     * @param maxConnections maximum number of connections to the daemon, callers beyond it wait for a free connection
+     *                       for up to {@link #DEFAULT_ACQUIRE_TIMEOUT}
+     * @param readTimeout    maximum time to wait for the daemon to answer. Waiting for a container to exit has no
+     *                       limit, stopping and restarting one may take the time given to the container on top.
+     */
+    static BlockingDockerClient newBlockingClient(final HostAndPort hostAndPort, final int maxConnections, final Duration readTimeout) {
+        return newBlockingClient(HttpEndpoint.plain(hostAndPort), maxConnections, readTimeout, DEFAULT_KEEP_ALIVE);
+    }
+
+    /**
+     * @param endpoint  the daemon, {@link HttpEndpoint#secure(HostAndPort, DockerTls)} for a daemon secured with TLS
+     * @param keepAlive how long an idle connection is kept for the next call. Over TLS a longer keep-alive saves the
+     *                  handshakes of new connections.
+     */
+    static BlockingDockerClient newBlockingClient(final HttpEndpoint endpoint, final int maxConnections, final Duration readTimeout, final Duration keepAlive) {
+        return newBlockingClient(endpoint, maxConnections, readTimeout, DEFAULT_ACQUIRE_TIMEOUT, keepAlive);
+    }
+
+    /**
+     * @param acquireTimeout maximum time to wait for a free connection once <code>maxConnections</code> are in use
+     */
+    static BlockingDockerClient newBlockingClient(final HttpEndpoint endpoint, final int maxConnections, final Duration readTimeout,
+                                                  final Duration acquireTimeout, final Duration keepAlive) {
+        ConnectionPool pool = new ConnectionPool(endpoint, maxConnections, keepAlive.toMillis(), TimeUnit.MILLISECONDS);
+        return new DefaultBlockingDockerClient(pool, readTimeout, acquireTimeout, ApiNegotiation.of(endpoint));
+    }
+
+    /**
+     * Builds a client on the daemon of a transport, which shares the API version negotiated by the other clients of
+     * the transport instead of asking the daemon again.
+     */
+    static BlockingDockerClient newBlockingClient(final DockerTransport transport) {
+        ConnectionPool pool = new ConnectionPool(transport.streamEndpoint(), DEFAULT_MAX_CONNECTIONS, DEFAULT_KEEP_ALIVE.toMillis(), TimeUnit.MILLISECONDS);
+        return new DefaultBlockingDockerClient(pool, DEFAULT_READ_TIMEOUT, DEFAULT_ACQUIRE_TIMEOUT, transport.negotiation());
+    }
+
+    // Misc operations
+    DockerVersion serverVersion();
+
+    DockerInfo info();
+
+    HttpStatus ping();
+
+    // Container operations
+    List<DockerContainer> listRunningContainers();
+
+    List<DockerContainer> listAllContainers();
+
+    List<DockerContainer> listContainers(QueryParameters queryParameters);
+
+    DockerContainerResponse createContainer(DockerContainerRequest request);
+
+    DockerContainerResponse createContainer(DockerContainerRequest request, String name);
+
+    ContainerInspectResponse inspectContainer(String containerId);
+
+    ProcessListResponse listProcesses(String containerId);
+
+    HttpStatus startContainer(String containerId);
+
+    HttpStatus stopContainer(String containerId, int waitInSecs);
+
+    HttpStatus restartContainer(String containerId, int waitInSecs);
+
+    HttpStatus killRunningContainer(String containerId);
+
+    HttpStatus removeContainer(String containerId);
+
+    HttpStatus removeContainer(String containerId, boolean removeVolume, boolean force);
+
+    HttpStatus renameContainer(String containerId, String newName);
+
+    HttpStatus waitContainer(String containerId);
+
+    HttpStatus pauseContainer(String containerId);
+
+    HttpStatus unpauseContainer(String containerId);
+
+    List<ContainerChange> inspectChangesOnContainerFilesystem(String containerId);
+
+    ExecCreateResponse execCreate(String containerId, ExecCreateRequest request);
+
+    ExecInspectResponse execInspect(String execId);
+
+    // Image operations
+    List<DockerImage> listImages(ImageListQueryParameters queryParameters);
+
+    List<DockerImage> listImages();
+
+    DockerImageInspectDetails inspectImage(String image);
+
+    List<DockerImageHistory> imageHistory(String image);
+
+    HttpStatus tagImage(String image, ImageTagQueryParameters queryParameters);
+
+    HttpStatus removeImage(String imageName, boolean noPrune, boolean force);
+
+    /**
+     * Closes the pooled connections.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,63 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Keeps the first <code>capacity</code> bytes written to it and only counts the rest.
+ */
+class BoundedOutputBuffer {
+
+    private final byte[] bytes;
+    private int size;
+    private long total;
+
+    BoundedOutputBuffer(int capacity) {
+        this.bytes = new byte[capacity];
+    }
+
+    synchronized void append(ByteBuffer src) {
+        int remaining = src.remaining();
+        int n = Math.min(remaining, bytes.length - size);
+        src.get(bytes, size, n);
+        size += n;
+        total += remaining;
+    }
+
+    synchronized boolean isTruncated() {
+        return total > size;
+    }
+
+    synchronized long totalBytes() {
+        return total;
+    }
+
+    synchronized String asString() {
+        return new String(bytes, 0, size, UTF_8);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import java.util.Optional;
+
+public class ContainerAttachQueryParameters {
+    private boolean logs = false;
+    private boolean stream = true;
+    private boolean stdin = true;
+    private boolean stdout = true;
+    private boolean stderr = true;
+    private Optional<String> detachKeys = Optional.empty();
+
+    private static final ContainerAttachQueryParameters DEFAULT = new ContainerAttachQueryParameters();
+
+    public static ContainerAttachQueryParameters withDefaultValues() {
+        return DEFAULT;
+    }
+
+    private ContainerAttachQueryParameters() {
+    }
+
+    public ContainerAttachQueryParameters(boolean logs, boolean stream, boolean stdin, boolean stdout, boolean stderr, String detachKeys) {
+        this.logs = logs;
+        this.stream = stream;
+        this.stdin = stdin;
+        this.stdout = stdout;
+        this.stderr = stderr;
+        this.detachKeys = Optional.ofNullable(detachKeys);
+    }
+
+    public String toQueryParametersString() {
+        StringBuilder queryBuilder = new StringBuilder("?");
+        queryBuilder.append("logs=" + logs);
+        queryBuilder.append("&");
+        queryBuilder.append("stream=" + stream);
+        queryBuilder.append("&");
+        queryBuilder.append("stdin=" + stdin);
+        queryBuilder.append("&");
+        queryBuilder.append("stdout=" + stdout);
+        queryBuilder.append("&");
+        queryBuilder.append("stderr=" + stderr);
+        if (detachKeys.isPresent()) {
+            queryBuilder.append("&");
+            queryBuilder.append("detachKeys=" + detachKeys.get());
+        }
+        return queryBuilder.toString();
+    }
+}
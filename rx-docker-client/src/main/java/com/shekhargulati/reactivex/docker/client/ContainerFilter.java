@@ -0,0 +1,195 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.shekhargulati.reactivex.docker.client.FilterCriteria.Criterion;
+import com.shekhargulati.reactivex.docker.client.representations.DockerContainer;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+import static com.shekhargulati.reactivex.docker.client.utils.Validations.validate;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Filters the containers listed by {@link ContainerOperations#listContainersObs(QueryParameters, ContainerFilter)} on
+ * the daemon, combine filters with {@link #and(ContainerFilter)}:
+ * <pre>
+ * ContainerFilter.label("env", "prod").and(ContainerFilter.status(Status.RUNNING, Status.RESTARTING))
+ * </pre>
+ * Filters the daemon's API version does not support are evaluated by the client on the listed containers.
+ */
+public final class ContainerFilter {
+
+    public enum Status {
+        CREATED, RESTARTING, RUNNING, REMOVING, PAUSED, EXITED, DEAD;
+
+        String value() {
+            return name().toLowerCase(Locale.ENGLISH);
+        }
+    }
+
+    public enum Health {
+        STARTING, HEALTHY, UNHEALTHY, NONE;
+
+        String value() {
+            return name().toLowerCase(Locale.ENGLISH);
+        }
+    }
+
+    private final FilterCriteria<DockerContainer> criteria;
+
+    private ContainerFilter(FilterCriteria<DockerContainer> criteria) {
+        this.criteria = criteria;
+    }
+
+    private static ContainerFilter of(String key, List<String> values, ApiVersion since, Predicate<DockerContainer> fallback) {
+        validate(values, v -> v.isEmpty() || v.contains(null), () -> key + " filter needs at least one value and no null values");
+        return new ContainerFilter(FilterCriteria.of(Criterion.of(key, values, since, fallback)));
+    }
+
+    /**
+     * Containers that have the label, whatever its value.
+     */
+    public static ContainerFilter label(String key) {
+        return of("label", Arrays.asList(key), ApiVersion.of(1, 18), c -> labels(c).containsKey(key));
+    }
+
+    public static ContainerFilter label(String key, String value) {
+        return of("label", Arrays.asList(key + "=" + value), ApiVersion.of(1, 18), c -> value.equals(labels(c).get(key)));
+    }
+
+    public static ContainerFilter status(Status... statuses) {
+        List<String> values = Arrays.stream(statuses).map(Status::value).collect(toList());
+        return of("status", values, ApiVersion.of(1, 18), c -> values.contains(statusOf(c)));
+    }
+
+    /**
+     * Containers created from one of the images. Evaluated by the client, it only matches the image name or id the
+     * container was created with, not images built on top of it.
+     */
+    public static ContainerFilter ancestor(String... images) {
+        List<String> values = Arrays.asList(images);
+        return of("ancestor", values, ApiVersion.of(1, 21), c -> values.contains(c.getImage()) || values.contains(c.getImageId()));
+    }
+
+    /**
+     * Containers created before the given container.
+     */
+    public static ContainerFilter before(String containerId) {
+        return new ContainerFilter(FilterCriteria.of(Criterion.legacyParameter("before", containerId, ApiVersion.of(1, 22))));
+    }
+
+    /**
+     * Containers created after the given container.
+     */
+    public static ContainerFilter since(String containerId) {
+        return new ContainerFilter(FilterCriteria.of(Criterion.legacyParameter("since", containerId, ApiVersion.of(1, 22))));
+    }
+
+    public static ContainerFilter health(Health... health) {
+        List<String> values = Arrays.stream(health).map(Health::value).collect(toList());
+        return of("health", values, ApiVersion.of(1, 24), c -> values.contains(healthOf(c)));
+    }
+
+    /**
+     * Containers connected to one of the networks, by name.
+     */
+    public static ContainerFilter network(String... networks) {
+        List<String> values = Arrays.asList(networks);
+        return of("network", values, ApiVersion.of(1, 22), c -> c.getNetworkNames().stream().anyMatch(values::contains));
+    }
+
+    /**
+     * @throws IllegalArgumentException if both filters filter on the same key, other than label
+     */
+    public ContainerFilter and(ContainerFilter other) {
+        return new ContainerFilter(criteria.and(other.criteria));
+    }
+
+    /**
+     * This filter with its <code>before</code> criterion, if any, replaced by the given container.
+     */
+    ContainerFilter withBefore(String containerId) {
+        return new ContainerFilter(criteria.replacing(before(containerId).criteria));
+    }
+
+    public Map<String, List<String>> toMap() {
+        return criteria.toMap();
+    }
+
+    /**
+     * Splits this filter into what the daemon evaluates and what is left for the client.
+     *
+     * @throws UnsupportedOperationException if the API version can't evaluate a filter and the client can't either
+     */
+    public FilterPushDown<DockerContainer> pushDown(ApiVersion version) {
+        return criteria.pushDown(version);
+    }
+
+    @Override
+    public String toString() {
+        return criteria.toString();
+    }
+
+    private static Map<String, String> labels(DockerContainer container) {
+        return container.getLabels() == null ? Collections.emptyMap() : container.getLabels();
+    }
+
+    /**
+     * The State of a container is only listed since API version 1.23, older versions only have a description like
+     * <code>Up 2 hours (Paused)</code>.
+     */
+    static String statusOf(DockerContainer container) {
+        if (container.getState() != null) {
+            return container.getState();
+        }
+        String status = container.getStatus() == null ? "" : container.getStatus();
+        if (status.startsWith("Up")) {
+            return status.contains("(Paused)") ? Status.PAUSED.value() : Status.RUNNING.value();
+        } else if (status.startsWith("Exited")) {
+            return Status.EXITED.value();
+        } else if (status.startsWith("Restarting")) {
+            return Status.RESTARTING.value();
+        } else if (status.startsWith("Removal")) {
+            return Status.REMOVING.value();
+        } else if (status.startsWith("Dead")) {
+            return Status.DEAD.value();
+        }
+        return Status.CREATED.value();
+    }
+
+    static String healthOf(DockerContainer container) {
+        String status = container.getStatus() == null ? "" : container.getStatus();
+        if (status.contains("(healthy)")) {
+            return Health.HEALTHY.value();
+        } else if (status.contains("(unhealthy)")) {
+            return Health.UNHEALTHY.value();
+        } else if (status.contains("(health: starting)")) {
+            return Health.STARTING.value();
+        }
+        return Health.NONE.value();
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.shekhargulati.reactivex.docker.client.representations.ContainerLogLine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Observable;
+import rx.Scheduler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.function.BiFunction;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Streams the logs of many containers at once. Every container gets its own log request subscribed on the given
+ * scheduler, and at most <code>parallelism</code> requests are open at any time. A failing container does not stop
+ * the others, its error is reported once all streams have finished.
+ */
+class ContainerLogCollector {
+
+    static final int DEFAULT_BUFFER_SIZE = 1024;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private static final Logger logger = LoggerFactory.getLogger(ContainerLogCollector.class);
+
+    private final BiFunction<String, ContainerLogQueryParameters, Observable<String>> logs;
+    private final Scheduler scheduler;
+    private final int bufferSize;
+
+    ContainerLogCollector(BiFunction<String, ContainerLogQueryParameters, Observable<String>> logs, Scheduler scheduler, int bufferSize) {
+        this.logs = logs;
+        this.scheduler = scheduler;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Merges the log lines of all the containers. Lines are buffered per container, at most <code>bufferSize</code>
+     * lines each, while the subscriber is busy. A container whose buffer is full stops being read until the subscriber
+     * catches up, so a slow subscriber slows the containers down instead of growing the heap or losing lines.
+     */
+    Observable<ContainerLogLine> collect(Collection<String> containerIds, ContainerLogQueryParameters queryParameters, int parallelism) {
+        return Observable.mergeDelayError(Observable.from(containerIds)
+                .map(containerId -> logsOf(containerId, queryParameters)
+                        .lift(new BlockingBackpressureBuffer<>(bufferSize))
+                        .map(raw -> ContainerLogLine.parse(containerId, raw))), parallelism);
+    }
+
+    /**
+     * Writes the logs of every container to <code>outputDir/(id).log</code>. Lines are written on the thread that
+     * reads them from the socket, so a slow disk slows down the reads instead of queueing lines in memory.
+     *
+     * @return an Observable that emits each file once the logs of its container have been written
+     */
+    Observable<Path> collectToFiles(Collection<String> containerIds, ContainerLogQueryParameters queryParameters, int parallelism, Path outputDir) {
+        return Observable.mergeDelayError(Observable.from(containerIds)
+                .map(containerId -> writeToFile(containerId, queryParameters, outputDir.resolve(containerId + ".log"))), parallelism);
+    }
+
+    private Observable<Path> writeToFile(String containerId, ContainerLogQueryParameters queryParameters, Path file) {
+        return Observable.using(
+                () -> new LogFileWriter(file),
+                writer -> logsOf(containerId, queryParameters)
+                        .doOnNext(writer::write)
+                        .count()
+                        .map(lines -> {
+                            writer.flush();
+                            logger.debug("Wrote {} log lines of container {} to {}", lines, containerId, file);
+                            return file;
+                        }),
+                LogFileWriter::close,
+                true);
+    }
+
+    private Observable<String> logsOf(String containerId, ContainerLogQueryParameters queryParameters) {
+        return Observable.defer(() -> logs.apply(containerId, queryParameters)).subscribeOn(scheduler);
+    }
+
+    private static class LogFileWriter {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+        private final CharsetEncoder encoder = UTF_8.newEncoder();
+
+        private LogFileWriter(Path file) {
+            try {
+                this.channel = FileChannel.open(file, CREATE, WRITE, TRUNCATE_EXISTING);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        private void write(String line) {
+            try {
+                CharBuffer chars = CharBuffer.wrap(line);
+                encoder.reset();
+                while (encoder.encode(chars, buffer, true) == CoderResult.OVERFLOW) {
+                    drain();
+                }
+                if (!line.endsWith("\n")) {
+                    if (!buffer.hasRemaining()) {
+                        drain();
+                    }
+                    buffer.put((byte) '\n');
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        private void flush() {
+            try {
+                drain();
+                channel.force(false);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.shekhargulati.reactivex.docker.client.representations.ContainerLogLine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Observable;
+import rx.Scheduler;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Follows the logs of a container across dropped connections. Every delivered line moves a cursor made of the last
+ * seen timestamp and the number of lines already delivered with exactly that timestamp. On reconnect the logs are
+ * requested again with <code>since</code> set to the cursor and the lines the subscriber has already seen are skipped,
+ * so no line is lost and none is delivered twice as long as the daemon keeps the timestamps unique per line.
+ */
+class ContainerLogFollower {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContainerLogFollower.class);
+
+    private final BiFunction<String, ContainerLogQueryParameters, Observable<String>> logs;
+    private final Function<String, Observable<Boolean>> running;
+    private final Scheduler scheduler;
+
+    ContainerLogFollower(BiFunction<String, ContainerLogQueryParameters, Observable<String>> logs,
+                         Function<String, Observable<Boolean>> running,
+                         Scheduler scheduler) {
+        this.logs = logs;
+        this.running = running;
+        this.scheduler = scheduler;
+    }
+
+    Observable<ContainerLogLine> follow(final String containerId, final ContainerLogQueryParameters queryParameters, final LogFollowPolicy policy) {
+        final ContainerLogQueryParameters initial = queryParameters.withFollow(true).withTimestamps(true);
+        return Observable.defer(() -> {
+            final Cursor cursor = new Cursor();
+            return Observable.defer(() -> attempt(containerId, initial, cursor))
+                    .retryWhen(errors -> errors.flatMap(e -> backoff(containerId, cursor, policy, e)))
+                    .repeatWhen(completions -> completions
+                            .concatMap(c -> running.apply(containerId)
+                                    .retryWhen(errors -> errors.flatMap(e -> backoff(containerId, cursor, policy, e))))
+                            .takeWhile(isRunning -> isRunning)
+                            .concatMap(isRunning -> Observable.timer(policy.backoffMillis(0), TimeUnit.MILLISECONDS, scheduler)));
+        });
+    }
+
+    private Observable<ContainerLogLine> attempt(String containerId, ContainerLogQueryParameters initial, Cursor cursor) {
+        final Instant resumeFrom = cursor.lastTimestamp;
+        final int[] toSkip = {cursor.deliveredAtLastTimestamp};
+        final ContainerLogQueryParameters queryParameters = resumeFrom == null ? initial : initial.withSince(resumeFrom).withTail(-1);
+        if (resumeFrom != null) {
+            logger.debug("Resuming logs of container {} from {}", containerId, resumeFrom);
+        }
+        return logs.apply(containerId, queryParameters)
+                .map(ContainerLogLine::parse)
+                .filter(line -> {
+                    if (resumeFrom == null || !line.timestamp().isPresent()) {
+                        return true;
+                    }
+                    int comparison = line.timestamp().get().compareTo(resumeFrom);
+                    if (comparison < 0) {
+                        return false;
+                    }
+                    if (comparison == 0 && toSkip[0] > 0) {
+                        toSkip[0]--;
+                        return false;
+                    }
+                    return true;
+                })
+                .doOnNext(cursor::advance);
+    }
+
+    private Observable<Long> backoff(String containerId, Cursor cursor, LogFollowPolicy policy, Throwable e) {
+        int attempt = cursor.failedAttempts++;
+        if (attempt >= policy.getMaxRetries()) {
+            return Observable.error(e);
+        }
+        long delay = policy.backoffMillis(attempt);
+        logger.debug("Log stream of container {} failed, reconnecting in {} ms", containerId, delay, e);
+        return Observable.timer(delay, TimeUnit.MILLISECONDS, scheduler);
+    }
+
+    private static class Cursor {
+        private Instant lastTimestamp;
+        private int deliveredAtLastTimestamp;
+        private int failedAttempts;
+
+        private void advance(ContainerLogLine line) {
+            failedAttempts = 0;
+            if (!line.timestamp().isPresent()) {
+                return;
+            }
+            Instant timestamp = line.timestamp().get();
+            if (lastTimestamp == null || timestamp.isAfter(lastTimestamp)) {
+                lastTimestamp = timestamp;
+                deliveredAtLastTimestamp = 1;
+            } else if (timestamp.equals(lastTimestamp)) {
+                deliveredAtLastTimestamp++;
+            }
+        }
+    }
+}
@@ -31,8 +31,10 @@ public class ContainerLogQueryParameters {
     private boolean stderr = true;
     private boolean stdout = true;
     private boolean timestamps = true;
+    private boolean follow = false;
     private int tail = -1;
     private Optional<Instant> since = Optional.empty();
+    private String query;
 
     private static final ContainerLogQueryParameters DEFAULT = new ContainerLogQueryParameters();
 
@@ -44,34 +46,105 @@ public class ContainerLogQueryParameters {
     }
 
     public ContainerLogQueryParameters(boolean stderr, boolean stdout, boolean timestamps, int tail, Instant since) {
+        this(stderr, stdout, timestamps, false, tail, since);
+    }
+
+    public ContainerLogQueryParameters(boolean stderr, boolean stdout, boolean timestamps, boolean follow, int tail, Instant since) {
         this.stderr = stderr;
         this.stdout = stdout;
         this.timestamps = timestamps;
+        this.follow = follow;
         this.tail = tail;
         this.since = Optional.ofNullable(since);
     }
 
+    public ContainerLogQueryParameters withFollow(boolean follow) {
+        return new ContainerLogQueryParameters(stderr, stdout, timestamps, follow, tail, since.orElse(null));
+    }
+
+    public ContainerLogQueryParameters withTimestamps(boolean timestamps) {
+        return new ContainerLogQueryParameters(stderr, stdout, timestamps, follow, tail, since.orElse(null));
+    }
+
+    public ContainerLogQueryParameters withTail(int tail) {
+        return new ContainerLogQueryParameters(stderr, stdout, timestamps, follow, tail, since.orElse(null));
+    }
+
+    /**
+     * Returns a copy of these parameters that only asks for log lines written at or after <code>since</code>.
+     * The daemon accepts nanosecond precision, so the fractional part of the instant is kept.
+     *
+     * @param since instant to resume the logs from
+     * @return new query parameters
+     */
+    public ContainerLogQueryParameters withSince(Instant since) {
+        return new ContainerLogQueryParameters(stderr, stdout, timestamps, follow, tail, since);
+    }
+
+    public boolean isStderr() {
+        return stderr;
+    }
+
+    public boolean isStdout() {
+        return stdout;
+    }
+
+    public boolean isTimestamps() {
+        return timestamps;
+    }
+
+    public boolean isFollow() {
+        return follow;
+    }
+
+    public int getTail() {
+        return tail;
+    }
+
+    public Optional<Instant> getSince() {
+        return since;
+    }
+
+    /**
+     * The query is built once, these parameters are immutable.
+     */
     public String toQueryParametersString() {
-        StringBuilder queryBuilder = new StringBuilder("?");
-        queryBuilder.append("stderr=" + stderr);
-        queryBuilder.append("&");
-        queryBuilder.append("stdout=" + stdout);
-        queryBuilder.append("&");
-        queryBuilder.append("timestamps=" + timestamps);
-        queryBuilder.append("&");
+        String query = this.query;
+        if (query == null) {
+            query = createQuery();
+            this.query = query;
+        }
+        return query;
+    }
+
+    private String createQuery() {
+        StringBuilder query = new StringBuilder(96)
+                .append("?stderr=").append(stderr)
+                .append("&stdout=").append(stdout)
+                .append("&timestamps=").append(timestamps);
+        if (follow) {
+            query.append("&follow=true");
+        }
         if (tail < 0) {
-            queryBuilder.append("tail=all");
+            query.append("&tail=all");
         } else {
-            queryBuilder.append("tail=" + tail);
+            query.append("&tail=").append(tail);
         }
-        queryBuilder.append("&");
         if (since.isPresent()) {
-            queryBuilder.append("since=" + since.get().getEpochSecond());
+            appendUnixTimestamp(query.append("&since="), since.get());
         }
-        String queryStr = queryBuilder.toString();
-        if (queryStr.endsWith("&")) {
-            queryStr = queryStr.substring(0, queryStr.lastIndexOf("&"));
+        return query.toString();
+    }
+
+    private static void appendUnixTimestamp(StringBuilder builder, Instant instant) {
+        builder.append(instant.getEpochSecond());
+        if (instant.getNano() != 0) {
+            String nanos = String.valueOf(instant.getNano());
+            builder.append('.');
+            for (int i = nanos.length(); i < 9; i++) {
+                builder.append('0');
+            }
+            builder.append(nanos);
         }
-        return queryStr;
     }
 }
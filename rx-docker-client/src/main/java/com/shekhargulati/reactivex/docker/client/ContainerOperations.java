@@ -33,11 +33,14 @@ import org.slf4j.LoggerFactory;
 import rx.Observable;
 
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ContainerOperations {
-    String CONTAINER_ENDPOINT = "containers/json%s";
+    String CONTAINER_LIST_ENDPOINT = "containers/json";
+    String CONTAINER_ENDPOINT = CONTAINER_LIST_ENDPOINT + "%s";
     String CONTAINERS_ENDPOINT = "containers/%s";
     String CONTAINER_JSON_ENDPOINT = CONTAINERS_ENDPOINT + "/json";
     String CREATE_CONTAINER_ENDPOINT = "containers/create";
@@ -61,6 +64,7 @@ public interface ContainerOperations {
     String CONTAINER_EXEC_CREATE_ENDPOINT = CONTAINERS_ENDPOINT + "/exec";
     String CONTAINER_EXEC_ENDPOINT = "/exec/%s";
     String CONTAINER_EXEC_START_ENDPOINT = CONTAINER_EXEC_ENDPOINT + "/start";
+    String CONTAINER_EXEC_INSPECT_ENDPOINT = CONTAINER_EXEC_ENDPOINT + "/json";
 
     Logger logger = LoggerFactory.getLogger(ContainerOperations.class);
 
@@ -76,6 +80,39 @@ public interface ContainerOperations {
 
     Observable<DockerContainer> listContainersObs(QueryParameters queryParameters);
 
+    List<DockerContainer> listContainers(QueryParameters queryParameters, ContainerFilter filter);
+
+    /**
+     * Lists the containers matching <code>filter</code>. The criteria the daemon's API version understands are sent
+     * as <code>filters</code>, the rest are evaluated on the returned containers.
+     */
+    Observable<DockerContainer> listContainersObs(QueryParameters queryParameters, ContainerFilter filter);
+
+    /**
+     * Lists the containers newest first, <code>pageSize</code> containers per request. The next page is only listed
+     * once the containers of the previous one have been requested. The walk starts before the <code>before</code>
+     * container of the query parameters, when set, and their <code>limit</code> is replaced by the page size.
+     */
+    Observable<DockerContainer> pageContainersObs(QueryParameters queryParameters, int pageSize);
+
+    /**
+     * Like {@link #pageContainersObs(QueryParameters, int)}. A <code>before</code> filter starts the walk like the
+     * <code>before</code> query parameter, which takes precedence when both are set.
+     */
+    Observable<DockerContainer> pageContainersObs(QueryParameters queryParameters, ContainerFilter filter, int pageSize);
+
+    /**
+     * Like {@link #pageContainersObs(QueryParameters, int)}. Short-circuiting operations like <code>findFirst()</code>
+     * or <code>limit(n)</code> don't stop the request of the current page, only closing the stream does, so use it in
+     * a try-with-resources block unless it is fully consumed.
+     */
+    Stream<DockerContainer> pageContainers(QueryParameters queryParameters, int pageSize);
+
+    /**
+     * Like {@link #pageContainers(QueryParameters, int)}, close the stream when it is not fully consumed.
+     */
+    Stream<DockerContainer> pageContainers(QueryParameters queryParameters, ContainerFilter filter, int pageSize);
+
     DockerContainerResponse createContainer(DockerContainerRequest request, String name);
 
     DockerContainerResponse createContainer(DockerContainerRequest request);
@@ -117,7 +154,7 @@ public interface ContainerOperations {
     default void killAllRunningContainers() {
         listContainers(new QueryParameters()).forEach(container -> {
             String containerId = container.getId();
-            logger.info("killing running container with id {}", containerId);
+            logger.debug("killing running container with id {}", containerId);
             killRunningContainer(containerId);
         });
     }
@@ -133,7 +170,7 @@ public interface ContainerOperations {
     default void removeAllContainers() {
         listAllContainers().forEach(container -> {
             String containerId = container.getId();
-            logger.info("removing container with id {}", containerId);
+            logger.debug("removing container with id {}", containerId);
             removeContainer(containerId, true, true);
         });
     }
@@ -150,14 +187,70 @@ public interface ContainerOperations {
 
     Observable<ContainerStats> containerStatsObs(String containerId);
 
+    /**
+     * A single stats sample of a container. Daemons speaking API 1.41 answer right away, older ones take a second to
+     * measure the CPU usage.
+     */
+    Observable<ContainerStats> containerStatsSnapshotObs(String containerId);
+
+    ContainerStats containerStatsSnapshot(String containerId);
+
     Observable<String> containerLogsObs(String containerId, ContainerLogQueryParameters queryParameters);
 
     Observable<String> containerLogsObs(String containerId);
 
+    /**
+     * Follows the logs of a container and transparently reconnects when the stream drops, for example because the
+     * daemon restarted. The logs are resumed from the timestamp of the last delivered line and lines that were
+     * already delivered are skipped, so every line is delivered once. The stream completes when the container stops.
+     *
+     * <p><b>REST Endpoint:</b></p>
+     * <pre>GET /containers/(id)/logs?follow=true&amp;timestamps=true&amp;since=(last timestamp)</pre>
+     *
+     * @param containerId     id of the container
+     * @param queryParameters log query parameters used for the first request
+     * @param policy          reconnect backoff policy
+     * @return an Observable stream of log lines
+     */
+    Observable<ContainerLogLine> followContainerLogsObs(String containerId, ContainerLogQueryParameters queryParameters, LogFollowPolicy policy);
+
+    default Observable<ContainerLogLine> followContainerLogsObs(String containerId) {
+        return followContainerLogsObs(containerId, ContainerLogQueryParameters.withDefaultValues(), LogFollowPolicy.defaultPolicy());
+    }
+
     Observable<DockerContainerResponse> createContainerObs(DockerContainerRequest request, String name);
 
     Observable<DockerContainerResponse> createContainerObs(DockerContainerRequest request);
 
+    /**
+     * Streams the logs of many containers concurrently. Every line is tagged with the id of its container, see
+     * {@link ContainerLogLine#containerId()}. Lines are buffered per container while the subscriber is busy, and a
+     * container whose buffer is full is not read until the subscriber catches up.
+     *
+     * <p><b>REST Endpoint:</b></p>
+     * <pre>GET /containers/(id)/logs</pre>
+     *
+     * @param containerIds    ids of the containers
+     * @param queryParameters log query parameters used for every container
+     * @param parallelism     maximum number of log requests open at the same time
+     * @return an Observable stream of log lines of all the containers
+     */
+    Observable<ContainerLogLine> logsForAll(Collection<String> containerIds, ContainerLogQueryParameters queryParameters, int parallelism);
+
+    /**
+     * Writes the logs of many containers concurrently to <code>outputDir/(id).log</code>, one file per container.
+     *
+     * <p><b>REST Endpoint:</b></p>
+     * <pre>GET /containers/(id)/logs</pre>
+     *
+     * @param containerIds    ids of the containers
+     * @param queryParameters log query parameters used for every container
+     * @param parallelism     maximum number of log requests open at the same time
+     * @param outputDir       existing directory to write the log files to
+     * @return an Observable that emits the path of each file once it has been written
+     */
+    Observable<Path> logsForAll(Collection<String> containerIds, ContainerLogQueryParameters queryParameters, int parallelism, Path outputDir);
+
     List<ContainerChange> inspectChangesOnContainerFilesystem(String containerId);
 
     Observable<ContainerChange> inspectChangesOnContainerFilesystemObs(String containerId);
@@ -176,6 +269,20 @@ public interface ContainerOperations {
 
     Observable<String> attachContainerObs(String containerId, QueryParameter... queryParameters);
 
+    /**
+     * Attaches to a container over a hijacked connection, so you can both write to its stdin and read its
+     * stdout/stderr. The Observable connects when subscribed and emits the session once the daemon has upgraded the
+     * connection.
+     *
+     * <p><b>REST Endpoint:</b></p>
+     * <pre>POST /containers/(id)/attach with Upgrade: tcp</pre>
+     *
+     * @param containerId     id of the container
+     * @param queryParameters which streams to attach to
+     * @return an Observable emitting the duplex session
+     */
+    Observable<DockerStreamSession> attachContainerSessionObs(String containerId, ContainerAttachQueryParameters queryParameters);
+
     ContainerArchiveInformation containerArchiveInformation(String containerId, String path);
 
     Observable<Response> containerArchiveInformationObs(String containerId, String path);
@@ -229,4 +336,39 @@ public interface ContainerOperations {
      */
     Observable<String> execStartObs(String execId, ExecStartRequest request);
 
+    /**
+     * Starts the exec over a hijacked connection, so you can both write to its stdin and read its stdout/stderr.
+     * Create the exec with <code>AttachStdin</code> to be able to write to it.
+     *
+     * <p><b>REST Endpoint:</b></p>
+     * <pre>POST /exec/(id)/start with Upgrade: tcp</pre>
+     *
+     * @param execId  exec instance id
+     * @param request exec start request, can't be detached
+     * @return an Observable emitting the duplex session
+     */
+    Observable<DockerStreamSession> execStartSessionObs(String execId, ExecStartRequest request);
+
+    /**
+     * Returns low-level information about the exec command, including its exit code once it has finished
+     *
+     * <p><b>REST Endpoint:</b></p>
+     * <pre>GET /exec/(id)/json</pre>
+     *
+     * @param execId exec instance id
+     * @return exec instance details
+     */
+    ExecInspectResponse execInspect(String execId);
+
+    /**
+     * Returns low-level information about the exec command, including its exit code once it has finished
+     *
+     * <p><b>REST Endpoint:</b></p>
+     * <pre>GET /exec/(id)/json</pre>
+     *
+     * @param execId exec instance id
+     * @return an Observable of the exec instance details
+     */
+    Observable<ExecInspectResponse> execInspectObs(String execId);
+
 }
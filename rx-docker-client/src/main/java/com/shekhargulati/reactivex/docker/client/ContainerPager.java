@@ -0,0 +1,85 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.shekhargulati.reactivex.docker.client.representations.DockerContainer;
+import rx.Observable;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Walks the containers of a host in pages. The daemon lists containers newest first, so the id of the last container
+ * of a page is the <code>before</code> cursor of the next one and the walk ends with the first page that is not full.
+ * A page is only listed once the subscriber has requested all containers of the page before it, so no more than one
+ * page is held in memory.
+ */
+class ContainerPager {
+
+    private final Function<Optional<String>, Observable<List<DockerContainer>>> page;
+
+    /**
+     * @param page lists the containers created before the cursor, or the newest ones without a cursor, at most one
+     *             page size of them
+     */
+    ContainerPager(Function<Optional<String>, Observable<List<DockerContainer>>> page) {
+        this.page = page;
+    }
+
+    /**
+     * The filter of the page after the cursor. The cursor replaces a <code>before</code> filter the walk started from,
+     * the daemon only takes one.
+     */
+    static Optional<ContainerFilter> filterFor(Optional<ContainerFilter> filter, Optional<String> cursor) {
+        if (!cursor.isPresent()) {
+            return filter;
+        }
+        return Optional.of(filter.map(f -> f.withBefore(cursor.get())).orElseGet(() -> ContainerFilter.before(cursor.get())));
+    }
+
+    Observable<DockerContainer> pages(final Optional<String> start, final int pageSize) {
+        return Observable.defer(() -> {
+            final AtomicReference<Optional<String>> cursor = new AtomicReference<>(start);
+            final AtomicBoolean lastPage = new AtomicBoolean();
+            // concatMap asks for the next token ahead of time, so the last page is checked again when it is subscribed
+            return Observable.just(cursor).repeat()
+                    .takeWhile(c -> !lastPage.get())
+                    .concatMap(c -> Observable.defer(() -> lastPage.get() ? Observable.<DockerContainer>empty() : page(c, lastPage, pageSize)));
+        });
+    }
+
+    private Observable<DockerContainer> page(AtomicReference<Optional<String>> cursor, AtomicBoolean lastPage, int pageSize) {
+        return page.apply(cursor.get()).concatMap(containers -> {
+            lastPage.set(containers.size() < pageSize);
+            if (!containers.isEmpty()) {
+                cursor.set(Optional.of(containers.get(containers.size() - 1).getId()));
+            }
+            return Observable.from(containers);
+        });
+    }
+}
@@ -0,0 +1,361 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.shekhargulati.reactivex.docker.client.representations.*;
+import com.shekhargulati.reactivex.rxokhttp.HttpStatus;
+import com.shekhargulati.reactivex.rxokhttp.QueryParameter;
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscription;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Predicate;
+
+/**
+ * Adapts the Observables of {@link DefaultRxDockerClient} to {@link CompletionStage}s. Requests are subscribed on the
+ * given scheduler so that the caller never waits for the round-trip.
+ */
+class DefaultAsyncDockerClient implements AsyncDockerClient {
+
+    private final DefaultRxDockerClient client;
+    private final Scheduler scheduler;
+
+    DefaultAsyncDockerClient(DefaultRxDockerClient client, Scheduler scheduler) {
+        this.client = client;
+        this.scheduler = scheduler;
+    }
+
+    // Misc operations
+    @Override
+    public CompletionStage<DockerVersion> serverVersion() {
+        return single(client.serverVersionObs());
+    }
+
+    @Override
+    public CompletionStage<DockerInfo> info() {
+        return single(client.infoObs());
+    }
+
+    @Override
+    public CompletionStage<HttpStatus> checkAuth(final AuthConfig authConfig) {
+        return last(client.checkAuthStatusObs(authConfig));
+    }
+
+    @Override
+    public CompletionStage<HttpStatus> ping() {
+        return last(client.pingObs());
+    }
+
+    // Container operations
+    @Override
+    public CompletionStage<List<DockerContainer>> listRunningContainers() {
+        return list(client.listRunningContainerObs());
+    }
+
+    @Override
+    public CompletionStage<List<DockerContainer>> listAllContainers() {
+        return list(client.listAllContainersObs());
+    }
+
+    @Override
+    public CompletionStage<List<DockerContainer>> listContainers(final QueryParameters queryParameters) {
+        return list(client.listContainersObs(queryParameters));
+    }
+
+    @Override
+    public CompletionStage<DockerContainerResponse> createContainer(final DockerContainerRequest request, final String name) {
+        return single(client.createContainerObs(request, Optional.ofNullable(name)));
+    }
+
+    @Override
+    public CompletionStage<DockerContainerResponse> createContainer(final DockerContainerRequest request) {
+        return single(client.createContainerObs(request, Optional.empty()));
+    }
+
+    @Override
+    public CompletionStage<DockerContainerResponse> createContainer(final String jsonRequest, final String name) {
+        return last(client.createContainerObs(jsonRequest, name));
+    }
+
+    @Override
+    public CompletionStage<DockerContainerResponse> createContainer(final String jsonRequest) {
+        return last(client.createContainerObs(jsonRequest));
+    }
+
+    @Override
+    public CompletionStage<ContainerInspectResponse> inspectContainer(final String containerId) {
+        return single(client.inspectContainerObs(containerId));
+    }
+
+    @Override
+    public CompletionStage<ProcessListResponse> listProcesses(final String containerId) {
+        return single(client.listProcessesObs(containerId));
+    }
+
+    @Override
+    public CompletionStage<HttpStatus> startContainer(final String containerId) {
+        return single(client.startContainerObs(containerId));
+    }
+
+    @Override
+    public CompletionStage<HttpStatus> stopContainer(final String containerId, final int waitInSecs) {
+        return single(client.stopContainerObs(containerId, waitInSecs));
+    }
+
+    @Override
+    public CompletionStage<HttpStatus> restartContainer(final String containerId, final int waitInSecs) {
+        return single(client.restartContainerObs(containerId, waitInSecs));
+    }
+
+    @Override
+    public CompletionStage<HttpStatus> killRunningContainer(final String containerId) {
+        return single(client.killRunningContainerObs(containerId));
+    }
+
+    @Override
+    public CompletionStage<HttpStatus> removeContainer(final String containerId) {
+        return single(client.removeContainerObs(containerId));
+    }
+
+    @Override
+    public CompletionStage<HttpStatus> removeContainer(final String containerId, final boolean removeVolume, final boolean force) {
+        return single(client.removeContainerObs(containerId, removeVolume, force));
+    }
+
+    @Override
+    public CompletionStage<HttpStatus> renameContainer(final String containerId, final String newName) {
+        return single(client.renameContainerObs(containerId, newName));
+    }
+
+    @Override
+    public CompletionStage<HttpStatus> waitContainer(final String containerId) {
+        return single(client.waitContainerObs(containerId));
+    }
+
+    @Override
+    public CompletionStage<Path> exportContainer(final String containerId, final Path pathToExportTo) {
+        return single(client.exportContainerObs(containerId, pathToExportTo));
+    }
+
+    @Override
+    public CompletionStage<List<ContainerChange>> inspectChangesOnContainerFilesystem(final String containerId) {
+        return list(client.inspectChangesOnContainerFilesystemObs(containerId));
+    }
+
+    @Override
+    public CompletionStage<HttpStatus> resizeContainerTty(final String containerId, final QueryParameter... queryParameters) {
+        return last(client.resizeContainerTtyObs(containerId, queryParameters));
+    }
+
+    @Override
+    public CompletionStage<HttpStatus> pauseContainer(final String containerId) {
+        return last(client.pauseContainerObs(containerId));
+    }
+
+    @Override
+    public CompletionStage<HttpStatus> unpauseContainer(final String containerId) {
+        return last(client.unpauseContainerObs(containerId));
+    }
+
+    @Override
+    public CompletionStage<ContainerArchiveInformation> containerArchiveInformation(final String containerId, final String path) {
+        return single(client.containerArchiveInformationDetailsObs(containerId, path));
+    }
+
+    @Override
+    public CompletionStage<Path> containerArchive(final String containerId, final String path, final Path pathToExportTo) {
+        return single(client.containerArchiveObs(containerId, path, pathToExportTo));
+    }
+
+    @Override
+    public CompletionStage<ExecCreateResponse> execCreate(final String containerId, final String... cmd) {
+        return single(client.execCreateObs(containerId, cmd));
+    }
+
+    @Override
+    public CompletionStage<ExecCreateResponse> execCreate(final String containerId, final ExecCreateRequest request) {
+        return single(client.execCreateObs(containerId, request));
+    }
+
+    @Override
+    public CompletionStage<ExecInspectResponse> execInspect(final String execId) {
+        return single(client.execInspectObs(execId));
+    }
+
+    // Image operations
+    @Override
+    public CompletionStage<HttpStatus> pullImage(final String fromImage) {
+        return pullImage(fromImage, null, null, null);
+    }
+
+    @Override
+    public CompletionStage<HttpStatus> pullImage(final String fromImage, final String tag) {
+        return pullImage(fromImage, null, tag, null);
+    }
+
+    @Override
+    public CompletionStage<HttpStatus> pullImage(final String fromImage, final String user, final String tag) {
+        return pullImage(fromImage, user, tag, null);
+    }
+
+    @Override
+    public CompletionStage<HttpStatus> pullImage(final String image, final AuthConfig authConfig) {
+        return pullImage(image, null, null, authConfig);
+    }
+
+    @Override
+    public CompletionStage<HttpStatus> pullImage(final String image, final String tag, final AuthConfig authConfig) {
+        return pullImage(image, null, tag, authConfig);
+    }
+
+    @Override
+    public CompletionStage<HttpStatus> pullImage(final String image, final String user, final String tag, final AuthConfig authConfig) {
+        return single(client.progressStatusObs(client.pullImageObs(image, user, tag, authConfig)));
+    }
+
+    @Override
+    public CompletionStage<HttpStatus> pullImageFromRegistry(final String image, final String registry) {
+        return single(client.progressStatusObs(client.pullImageFromRegistryObs(image, registry)));
+    }
+
+    @Override
+    public CompletionStage<List<DockerImage>> listImages(final ImageListQueryParameters queryParameters) {
+        return list(client.listImagesObs(queryParameters));
+    }
+
+    @Override
+    public CompletionStage<List<DockerImage>> listAllImages() {
+        return listImages(ImageListQueryParameters.allImagesQueryParameters());
+    }
+
+    @Override
+    public CompletionStage<List<DockerImage>> listImages(final String imageName) {
+        return listImages(ImageListQueryParameters.queryParameterWithImageName(imageName));
+    }
+
+    @Override
+    public CompletionStage<List<DockerImage>> listImages() {
+        return listImages(ImageListQueryParameters.defaultQueryParameters());
+    }
+
+    @Override
+    public CompletionStage<List<DockerImage>> listDanglingImages() {
+        return listImages(ImageListQueryParameters.defaultQueryParameters().addFilter("dangling", "true"));
+    }
+
+    @Override
+    public CompletionStage<HttpStatus> removeImage(final String imageName) {
+        return last(client.removeImageObs(imageName));
+    }
+
+    @Override
+    public CompletionStage<HttpStatus> removeImage(final String imageName, final boolean noPrune, final boolean force) {
+        return last(client.removeImageObs(imageName, noPrune, force));
+    }
+
+    @Override
+    public CompletionStage<List<DockerImageInfo>> searchImages(final String searchTerm) {
+        return list(client.searchImagesObs(searchTerm));
+    }
+
+    @Override
+    public CompletionStage<List<DockerImageInfo>> searchImages(final String searchTerm, final Predicate<DockerImageInfo> predicate) {
+        return list(client.searchImagesObs(searchTerm, predicate));
+    }
+
+    @Override
+    public CompletionStage<HttpStatus> tagImage(final String image, final ImageTagQueryParameters queryParameters) {
+        return single(client.tagImageObs(image, queryParameters));
+    }
+
+    @Override
+    public CompletionStage<List<DockerImageHistory>> imageHistory(final String image) {
+        return list(client.imageHistoryObs(image));
+    }
+
+    @Override
+    public CompletionStage<DockerImageInspectDetails> inspectImage(final String image) {
+        return single(client.inspectImageObs(image));
+    }
+
+    @Override
+    public CompletionStage<HttpStatus> pushImage(final String image, final AuthConfig authConfig) {
+        return last(client.pushImageStatusObs(image, authConfig));
+    }
+
+    @Override
+    public CompletionStage<Path> getTarballForAllImagesInRepository(final String image, final Path exportDir) {
+        return single(client.getTarballForAllImagesInRepositoryObs(image, exportDir));
+    }
+
+    @Override
+    public CompletionStage<Path> getTarballContainingAllImages(final Path exportDir, final String filename, final ImageTag... imageTags) {
+        return single(client.getTarballContainingAllImagesObs(exportDir, filename, imageTags));
+    }
+
+    @Override
+    public CompletionStage<HttpStatus> loadImagesAndTagsTarball(final Path pathToTarArchive) {
+        return last(client.loadImagesAndTagsTarballObs(pathToTarArchive));
+    }
+
+    @Override
+    public CompletionStage<HttpStatus> createImage(final String name, final Path imageToLoad) {
+        return single(client.createAndTagImageObs(name, imageToLoad));
+    }
+
+    private <T> CompletionStage<T> single(Observable<T> observable) {
+        return toFuture(observable.single(), scheduler);
+    }
+
+    private <T> CompletionStage<T> last(Observable<T> observable) {
+        return toFuture(observable.last(), scheduler);
+    }
+
+    private <T> CompletionStage<List<T>> list(Observable<T> observable) {
+        return toFuture(observable.toList(), scheduler);
+    }
+
+    /**
+     * Subscribes to an Observable emitting exactly one item and completes the returned future with it. Cancelling the
+     * future unsubscribes.
+     */
+    static <T> CompletableFuture<T> toFuture(Observable<T> observable, Scheduler scheduler) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final Subscription subscription = observable
+                .subscribeOn(scheduler)
+                .subscribe(future::complete, future::completeExceptionally);
+        future.whenComplete((value, e) -> {
+            if (future.isCancelled()) {
+                subscription.unsubscribe();
+            }
+        });
+        return future;
+    }
+}
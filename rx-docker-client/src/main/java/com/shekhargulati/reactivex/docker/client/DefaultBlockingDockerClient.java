@@ -0,0 +1,313 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.shekhargulati.reactivex.docker.client.http.BlockingHttpClient;
+import com.shekhargulati.reactivex.docker.client.http.ConnectionPool;
+import com.shekhargulati.reactivex.docker.client.http.HttpResponse;
+import com.shekhargulati.reactivex.docker.client.representations.*;
+import com.shekhargulati.reactivex.docker.client.retry.RetryPolicy;
+import com.shekhargulati.reactivex.docker.client.utils.Gsons;
+import com.shekhargulati.reactivex.docker.client.utils.Strings;
+import com.shekhargulati.reactivex.rxokhttp.HttpStatus;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.shekhargulati.reactivex.docker.client.ContainerOperations.*;
+import static com.shekhargulati.reactivex.docker.client.ImageOperations.*;
+import static com.shekhargulati.reactivex.docker.client.MiscOperations.*;
+import static com.shekhargulati.reactivex.docker.client.utils.Validations.validate;
+
+class DefaultBlockingDockerClient implements BlockingDockerClient {
+
+    private static final String EMPTY_BODY = "";
+
+    private static final Type CONTAINER_LIST_TYPE = new TypeToken<List<DockerContainer>>() {
+    }.getType();
+    private static final Type CONTAINER_CHANGE_LIST_TYPE = new TypeToken<List<ContainerChange>>() {
+    }.getType();
+    private static final Type IMAGE_LIST_TYPE = new TypeToken<List<DockerImage>>() {
+    }.getType();
+    private static final Type IMAGE_HISTORY_LIST_TYPE = new TypeToken<List<DockerImageHistory>>() {
+    }.getType();
+
+    private final Gson gson = Gsons.dockerGson();
+    private final BlockingHttpClient httpClient;
+    private final Duration readTimeout;
+    private final ApiNegotiation negotiation;
+
+    DefaultBlockingDockerClient(final ConnectionPool pool, final Duration readTimeout, final Duration acquireTimeout,
+                                final ApiNegotiation negotiation) {
+        this.httpClient = new BlockingHttpClient(pool, (int) readTimeout.toMillis(), acquireTimeout.toMillis());
+        this.readTimeout = readTimeout;
+        this.negotiation = negotiation;
+    }
+
+    // Misc operations
+    @Override
+    public DockerVersion serverVersion() {
+        // unversioned, the API version is negotiated from its answer
+        HttpResponse response = call(() -> httpClient.get(absolute(VERSION_ENDPOINT))).ensureSuccessful();
+        return gson.fromJson(response.body(), DockerVersion.class);
+    }
+
+    @Override
+    public DockerInfo info() {
+        return get(INFO_ENDPOINT, DockerInfo.class);
+    }
+
+    @Override
+    public HttpStatus ping() {
+        return status(call(() -> httpClient.get(absolute(PING_ENDPOINT))));
+    }
+
+    // Container operations
+    @Override
+    public List<DockerContainer> listRunningContainers() {
+        return listContainers(QueryParametersBuilder.defaultQueryParameters());
+    }
+
+    @Override
+    public List<DockerContainer> listAllContainers() {
+        return listContainers(new QueryParametersBuilder().withAll(true).createQueryParameters());
+    }
+
+    @Override
+    public List<DockerContainer> listContainers(final QueryParameters queryParameters) {
+        return get(CONTAINER_LIST_ENDPOINT + queryParameters.toQuery(), CONTAINER_LIST_TYPE);
+    }
+
+    @Override
+    public DockerContainerResponse createContainer(final DockerContainerRequest request) {
+        return createContainer(request, null);
+    }
+
+    @Override
+    public DockerContainerResponse createContainer(final DockerContainerRequest request, final String name) {
+        validate(request, r -> r == null, () -> "DockerContainerRequest can't be null");
+        final String uri = name != null ? Endpoints.CREATE_CONTAINER_WITH_NAME.expand(name) : CREATE_CONTAINER_ENDPOINT;
+        return post(CREATE_CONTAINER_ENDPOINT, name, uri, request.toJson(), DockerContainerResponse.class);
+    }
+
+    @Override
+    public ContainerInspectResponse inspectContainer(final String containerId) {
+        validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
+        return get(Endpoints.CONTAINER_JSON.expand(containerId), ContainerInspectResponse.class);
+    }
+
+    @Override
+    public ProcessListResponse listProcesses(final String containerId) {
+        validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
+        return get(Endpoints.CONTAINER_LIST_PROCESS.expand(containerId), ProcessListResponse.class);
+    }
+
+    @Override
+    public HttpStatus startContainer(final String containerId) {
+        validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
+        return postForStatus(CONTAINER_START_ENDPOINT, Endpoints.CONTAINER_START.expand(containerId));
+    }
+
+    @Override
+    public HttpStatus stopContainer(final String containerId, final int waitInSecs) {
+        validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
+        return postForStatus(CONTAINER_STOP_ENDPOINT, Endpoints.CONTAINER_STOP.expand(containerId, waitInSecs), stopTimeoutMillis(waitInSecs));
+    }
+
+    @Override
+    public HttpStatus restartContainer(final String containerId, final int waitInSecs) {
+        validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
+        return postForStatus(CONTAINER_RESTART_ENDPOINT, Endpoints.CONTAINER_RESTART.expand(containerId, waitInSecs), stopTimeoutMillis(waitInSecs));
+    }
+
+    @Override
+    public HttpStatus killRunningContainer(final String containerId) {
+        validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
+        return postForStatus(CONTAINER_KILL_ENDPOINT, Endpoints.CONTAINER_KILL.expand(containerId));
+    }
+
+    @Override
+    public HttpStatus removeContainer(final String containerId) {
+        return removeContainer(containerId, false, false);
+    }
+
+    @Override
+    public HttpStatus removeContainer(final String containerId, final boolean removeVolume, final boolean force) {
+        validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
+        final String uri = Endpoints.CONTAINER_REMOVE.expand(containerId, removeVolume, force);
+        return status(call(() -> httpClient.delete(path(uri), false)));
+    }
+
+    @Override
+    public HttpStatus renameContainer(final String containerId, final String newName) {
+        validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
+        validate(newName, Strings::isEmptyOrNull, () -> "Please provide newName that you want't to use for container.");
+        return postForStatus(CONTAINER_RENAME_ENDPOINT, Endpoints.CONTAINER_RENAME.expand(containerId, newName));
+    }
+
+    @Override
+    public HttpStatus waitContainer(final String containerId) {
+        validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
+        // waits for the container to exit, however long that takes
+        return postForStatus(CONTAINER_WAIT_ENDPOINT, Endpoints.CONTAINER_WAIT.expand(containerId), 0);
+    }
+
+    @Override
+    public HttpStatus pauseContainer(final String containerId) {
+        validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
+        return postForStatus(CONTAINER_PAUSE_ENDPOINT, Endpoints.CONTAINER_PAUSE.expand(containerId));
+    }
+
+    @Override
+    public HttpStatus unpauseContainer(final String containerId) {
+        validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
+        return postForStatus(CONTAINER_UNPAUSE_ENDPOINT, Endpoints.CONTAINER_UNPAUSE.expand(containerId));
+    }
+
+    @Override
+    public List<ContainerChange> inspectChangesOnContainerFilesystem(final String containerId) {
+        validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
+        return get(Endpoints.CONTAINER_CHANGES.expand(containerId), CONTAINER_CHANGE_LIST_TYPE);
+    }
+
+    @Override
+    public ExecCreateResponse execCreate(final String containerId, final ExecCreateRequest request) {
+        validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
+        validate(request.getCmd(), c -> c == null || c.size() == 0, () -> "cmd can't be empty");
+        return post(CONTAINER_EXEC_CREATE_ENDPOINT, containerId, Endpoints.CONTAINER_EXEC_CREATE.expand(containerId), gson.toJson(request), ExecCreateResponse.class);
+    }
+
+    @Override
+    public ExecInspectResponse execInspect(final String execId) {
+        validate(execId, Strings::isEmptyOrNull, () -> "execId can't be null or empty.");
+        return get(Endpoints.CONTAINER_EXEC_INSPECT.expand(execId), ExecInspectResponse.class);
+    }
+
+    // Image operations
+    @Override
+    public List<DockerImage> listImages(final ImageListQueryParameters queryParameters) {
+        return get(IMAGE_LIST_ENDPOINT + queryParameters.toQuery(), IMAGE_LIST_TYPE);
+    }
+
+    @Override
+    public List<DockerImage> listImages() {
+        return listImages(ImageListQueryParameters.defaultQueryParameters());
+    }
+
+    @Override
+    public DockerImageInspectDetails inspectImage(final String image) {
+        validate(image, Strings::isEmptyOrNull, () -> "image can't be null or empty.");
+        return get(Endpoints.IMAGE_INSPECT.expand(image), DockerImageInspectDetails.class);
+    }
+
+    @Override
+    public List<DockerImageHistory> imageHistory(final String image) {
+        validate(image, Strings::isEmptyOrNull, () -> "image can't be null or empty.");
+        return get(Endpoints.IMAGE_HISTORY.expand(image), IMAGE_HISTORY_LIST_TYPE);
+    }
+
+    @Override
+    public HttpStatus tagImage(final String image, final ImageTagQueryParameters queryParameters) {
+        validate(image, Strings::isEmptyOrNull, () -> "image can't be null or empty.");
+        return postForStatus(IMAGE_TAG_ENDPOINT, Endpoints.IMAGE_TAG.expand(image) + queryParameters.toQuery());
+    }
+
+    @Override
+    public HttpStatus removeImage(final String imageName, final boolean noPrune, final boolean force) {
+        validate(imageName, Strings::isEmptyOrNull, () -> "imageName can't be null or empty.");
+        final String uri = Endpoints.IMAGE_REMOVE.expand(imageName, noPrune, force);
+        return status(call(() -> httpClient.delete(path(uri), false)));
+    }
+
+    @Override
+    public void close() {
+        httpClient.close();
+    }
+
+    private <T> T get(final String endpoint, final Type type) {
+        HttpResponse response = call(() -> httpClient.get(path(endpoint))).ensureSuccessful();
+        return gson.fromJson(response.body(), type);
+    }
+
+    /**
+     * @param endpointTemplate the endpoint constant, which tells whether the request may be sent twice
+     */
+    private <T> T post(final String endpointTemplate, final String resourceId, final String endpoint, final String json, final Type type) {
+        final boolean idempotent = RetryPolicy.isIdempotent(endpointTemplate, resourceId);
+        HttpResponse response = call(() -> httpClient.post(path(endpoint), json, idempotent)).ensureSuccessful();
+        return gson.fromJson(response.body(), type);
+    }
+
+    private HttpStatus postForStatus(final String endpointTemplate, final String endpoint) {
+        return postForStatus(endpointTemplate, endpoint, (int) readTimeout.toMillis());
+    }
+
+    private HttpStatus postForStatus(final String endpointTemplate, final String endpoint, final int readTimeoutMillis) {
+        final boolean idempotent = RetryPolicy.isIdempotent(endpointTemplate, null);
+        return status(call(() -> httpClient.post(path(endpoint), EMPTY_BODY, readTimeoutMillis, idempotent)));
+    }
+
+    /**
+     * The daemon answers a stop once the container has stopped, which takes up to <code>waitInSecs</code> before it
+     * is killed.
+     */
+    private int stopTimeoutMillis(final int waitInSecs) {
+        return (int) Math.min(Integer.MAX_VALUE, TimeUnit.SECONDS.toMillis(Math.max(waitInSecs, 0)) + readTimeout.toMillis());
+    }
+
+    private static HttpStatus status(final HttpResponse response) {
+        return HttpStatus.of(response.code(), response.head().message());
+    }
+
+    /**
+     * @return the path of the endpoint for the API version negotiated with the daemon, which is asked for its version
+     * by the first request
+     */
+    private String path(final String endpoint) {
+        return negotiation.negotiateBlocking(this::serverVersion).path(absolute(endpoint));
+    }
+
+    private static String absolute(final String endpoint) {
+        return endpoint.startsWith("/") ? endpoint : "/" + endpoint;
+    }
+
+    private static HttpResponse call(final HttpCall call) {
+        try {
+            return call.execute();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface HttpCall {
+        HttpResponse execute() throws IOException;
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.google.gson.Gson;
+import com.shekhargulati.reactivex.docker.client.http.HttpConnection;
+import com.shekhargulati.reactivex.docker.client.http.HttpEndpoint;
+import com.shekhargulati.reactivex.docker.client.http.ResponseHead;
+import com.shekhargulati.reactivex.docker.client.representations.ContainerStats;
+import com.shekhargulati.reactivex.docker.client.representations.DockerStreamFrame;
+import com.shekhargulati.reactivex.docker.client.representations.DockerVersion;
+import com.shekhargulati.reactivex.docker.client.utils.Gsons;
+import com.shekhargulati.reactivex.docker.client.utils.Strings;
+import io.reactivex.rxjava3.core.Emitter;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.functions.Consumer;
+import okio.BufferedSource;
+import okio.Okio;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static com.shekhargulati.reactivex.docker.client.ContainerOperations.CONTAINER_LOGS_ENDPOINT;
+import static com.shekhargulati.reactivex.docker.client.ContainerOperations.CONTAINER_STATS_ENDPOINT;
+import static com.shekhargulati.reactivex.docker.client.ImageOperations.IMAGE_PULL_ENDPOINT;
+import static com.shekhargulati.reactivex.docker.client.MiscOperations.VERSION_ENDPOINT;
+import static com.shekhargulati.reactivex.docker.client.utils.Validations.validate;
+
+class DefaultFlowableDockerClient implements FlowableDockerClient {
+
+    private final Gson gson = Gsons.dockerGson();
+    private final HttpEndpoint endpoint;
+    private final ApiNegotiation negotiation;
+    private final Scheduler scheduler;
+
+    DefaultFlowableDockerClient(HttpEndpoint endpoint, ApiNegotiation negotiation, Scheduler scheduler) {
+        this.endpoint = endpoint;
+        this.negotiation = negotiation;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Flowable<DockerStreamFrame> containerLogs(final String containerId, final ContainerLogQueryParameters queryParameters) {
+        validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
+        validate(queryParameters, q -> q == null, () -> "queryParameters can't be null.");
+        final String path = "/" + Endpoints.CONTAINER_LOGS.expand(containerId) + queryParameters.toQueryParametersString();
+        return stream("GET", path, Collections.singletonMap("Accept", "application/vnd.docker.raw-stream"), null,
+                response -> {
+                    DockerStreamFrameReader reader = new DockerStreamFrameReader(response.body,
+                            response.head.header("Content-Type").map(DockerStreamFrameReader.MULTIPLEXED_STREAM::equals).filter(m -> m));
+                    return emitter -> {
+                        DockerStreamFrame frame = reader.read();
+                        if (frame == null) {
+                            emitter.onComplete();
+                        } else {
+                            emitter.onNext(frame);
+                        }
+                    };
+                });
+    }
+
+    @Override
+    public Flowable<DockerStreamFrame> containerLogs(final String containerId) {
+        return containerLogs(containerId, ContainerLogQueryParameters.withDefaultValues());
+    }
+
+    @Override
+    public Flowable<ContainerStats> containerStats(final String containerId) {
+        validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
+        final String path = "/" + Endpoints.CONTAINER_STATS.expand(containerId);
+        return lines("GET", path, Collections.emptyMap(), null)
+                .map(json -> gson.fromJson(json, ContainerStats.class));
+    }
+
+    @Override
+    public Flowable<String> pullImage(final String fromImage, final String user, final String tag, final AuthConfig authConfig) {
+        validate(fromImage, Strings::isEmptyOrNull, () -> "fromImage can't be null or empty.");
+        final String path = "/" + Endpoints.IMAGE_PULL.expand(Optional.ofNullable(user).map(u -> u + "/").orElse(""), fromImage, Optional.ofNullable(tag).orElse("latest"));
+        Map<String, String> headers = new LinkedHashMap<>();
+        if (authConfig != null) {
+            headers.put("X-Registry-Auth", authConfig.xAuthHeader());
+        }
+        return lines("POST", path, headers, new byte[0]);
+    }
+
+    @Override
+    public Flowable<String> pullImage(final String fromImage) {
+        return pullImage(fromImage, null, null, null);
+    }
+
+    /**
+     * A stream of the non blank lines of the response body.
+     */
+    private Flowable<String> lines(final String method, final String path, final Map<String, String> headers, final byte[] body) {
+        return stream(method, path, headers, body, response -> emitter -> {
+            String line;
+            do {
+                line = response.body.readUtf8Line();
+            } while (line != null && line.trim().isEmpty());
+            if (line == null) {
+                emitter.onComplete();
+            } else {
+                emitter.onNext(line);
+            }
+        });
+    }
+
+    /**
+     * Sends the request when subscribed and emits the items read by <code>reader</code>, reading exactly one item per
+     * requested item. The connection is closed eagerly on cancel, which also unblocks a pending read.
+     */
+    private <T> Flowable<T> stream(final String method, final String path, final Map<String, String> headers, final byte[] body,
+                                   final Function<StreamingResponse, Consumer<Emitter<T>>> reader) {
+        return Flowable.using(
+                () -> StreamingResponse.open(endpoint, method, negotiation.negotiateBlocking(this::serverVersion).path(path), headers, body),
+                response -> {
+                    Consumer<Emitter<T>> read = reader.apply(response);
+                    return Flowable.<T>generate(emitter -> {
+                        try {
+                            read.accept(emitter);
+                        } catch (IOException e) {
+                            if (response.isClosed()) {
+                                emitter.onComplete();
+                            } else {
+                                throw e;
+                            }
+                        }
+                    });
+                },
+                StreamingResponse::close,
+                true)
+                .subscribeOn(scheduler);
+    }
+
+    /**
+     * Asks the daemon for its version on a connection of its own, the API version is negotiated from the answer.
+     */
+    private DockerVersion serverVersion() throws IOException {
+        try (HttpConnection connection = endpoint.connect()) {
+            connection.writeRequest("GET", "/" + VERSION_ENDPOINT, Collections.emptyMap(), null);
+            return gson.fromJson(connection.readBody(connection.readResponseHead()), DockerVersion.class);
+        }
+    }
+
+    private static class StreamingResponse {
+        private final HttpConnection connection;
+        private final ResponseHead head;
+        private final BufferedSource body;
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+
+        private StreamingResponse(HttpConnection connection, ResponseHead head) {
+            this.connection = connection;
+            this.head = head;
+            this.body = Okio.buffer(connection.body(head));
+        }
+
+        private static StreamingResponse open(HttpEndpoint endpoint, String method, String path, Map<String, String> headers, byte[] body) throws IOException {
+            HttpConnection connection = endpoint.connect();
+            try {
+                connection.writeRequest(method, path, headers, body);
+                ResponseHead head = connection.readResponseHead();
+                connection.readBodyIfUnsuccessful(head);
+                return new StreamingResponse(connection, head);
+            } catch (IOException | RuntimeException e) {
+                connection.close();
+                throw e;
+            }
+        }
+
+        private boolean isClosed() {
+            return closed.get();
+        }
+
+        private void close() throws IOException {
+            if (closed.compareAndSet(false, true)) {
+                connection.close();
+            }
+        }
+    }
+}
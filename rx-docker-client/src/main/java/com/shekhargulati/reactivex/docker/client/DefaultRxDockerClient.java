@@ -26,11 +26,15 @@ package com.shekhargulati.reactivex.docker.client;
 
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
+import com.shekhargulati.reactivex.docker.client.http.DockerTls;
+import com.shekhargulati.reactivex.docker.client.jfr.DockerEvents;
+import com.shekhargulati.reactivex.docker.client.cache.ImageCache;
+import com.shekhargulati.reactivex.docker.client.limits.ConcurrencyLimits;
+import com.shekhargulati.reactivex.docker.client.metrics.DockerClientMetrics;
+import com.shekhargulati.reactivex.docker.client.retry.RetryPolicy;
 import com.shekhargulati.reactivex.docker.client.representations.*;
-import com.shekhargulati.reactivex.docker.client.utils.Dates;
-import com.shekhargulati.reactivex.docker.client.utils.StreamUtils;
+import com.shekhargulati.reactivex.docker.client.utils.Gsons;
 import com.shekhargulati.reactivex.docker.client.utils.Strings;
 import com.shekhargulati.reactivex.rxokhttp.*;
 import com.shekhargulati.reactivex.rxokhttp.functions.*;
@@ -41,60 +45,180 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rx.Observable;
 import rx.Subscriber;
+import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.schedulers.Schedulers;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
-import static com.google.gson.FieldNamingPolicy.UPPER_CAMEL_CASE;
-import static com.shekhargulati.reactivex.docker.client.utils.StreamUtils.iteratorToStream;
+import static com.shekhargulati.reactivex.docker.client.utils.StreamUtils.observableToStream;
 import static com.shekhargulati.reactivex.docker.client.utils.Validations.validate;
-import static com.shekhargulati.reactivex.rxokhttp.ClientConfig.defaultConfig;
-import static java.util.stream.Collectors.toList;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 
 class DefaultRxDockerClient implements RxDockerClient {
 
     private static final String EMPTY_BODY = "";
 
-    private final Logger logger = LoggerFactory.getLogger(DefaultRxDockerClient.class);
-    private final String apiUri;
-    private final RxHttpClient httpClient;
+    private static final Logger logger = LoggerFactory.getLogger(DefaultRxDockerClient.class);
+    private final DockerTransport transport;
 
-    private final Gson gson = new GsonBuilder()
-            .setFieldNamingPolicy(UPPER_CAMEL_CASE)
-            .setDateFormat(Dates.DOCKER_DATE_TIME_FORMAT)
-            .setPrettyPrinting().create();
+    private final Lazy<DockerClientMetrics> metrics = Lazy.of(DockerClientMetrics::new);
+
+    private volatile RequestTracing tracing = RequestTracing.disabled();
+
+    private final Lazy<ConcurrencyLimits> concurrencyLimits = Lazy.of(ConcurrencyLimits::adaptive);
+
+    private final Lazy<RetryPolicy> retryPolicy = Lazy.of(RetryPolicy::create);
+
+    private final Lazy<RequestCoalescer> coalescer = Lazy.of(RequestCoalescer::new);
+
+    private volatile boolean requestCoalescing;
+
+    private volatile ImageCache imageCache = ImageCache.disabled();
+
+    private final Lazy<ContainerLogFollower> logFollower = Lazy.of(() -> new ContainerLogFollower(this::containerLogsObs,
+            containerId -> inspectContainerObs(containerId).map(response -> Boolean.TRUE.equals(response.state().running())),
+            Schedulers.computation()));
+
+    private final Lazy<AsyncDockerClient> asyncClient = Lazy.of(() -> new DefaultAsyncDockerClient(this, Schedulers.io()));
+
+    private final Lazy<ContainerLogCollector> logCollector = Lazy.of(() ->
+            new ContainerLogCollector(this::containerLogsObs, Schedulers.io(), ContainerLogCollector.DEFAULT_BUFFER_SIZE));
 
     DefaultRxDockerClient(final String dockerHost, final String dockerCertPath) {
-        this(Optional.ofNullable(dockerHost), Optional.ofNullable(dockerCertPath));
+        this(DockerTransport.create(dockerHost, dockerCertPath));
+    }
+
+    DefaultRxDockerClient(final DockerTransport transport) {
+        this.transport = transport;
     }
 
-    private DefaultRxDockerClient(final Optional<String> dockerHost, final Optional<String> dockerCertPath) {
-        final HostAndPort hostAndPort = dockerHost.map(HostAndPort::from).orElse(HostAndPort.using(DEFAULT_DOCKER_HOST, DEFAULT_DOCKER_PORT));
-        final String scheme = dockerCertPath.isPresent() ? "https" : "http";
+    private RxHttpClient httpClient() {
+        return transport.httpClient();
+    }
 
-        apiUri = scheme + "://" + hostAndPort.getHost() + ":" + hostAndPort.getPort();
-        logger.info("Docker API uri {}", apiUri);
-        httpClient = RxHttpClient.newRxClient(hostAndPort.getHost(), hostAndPort.getPort(), dockerCertPath, defaultConfig());
+    private static Gson gson() {
+        return Gsons.dockerGson();
     }
 
     @Override
     public String getApiUri() {
-        return apiUri;
+        return transport.getApiUri();
+    }
+
+    @Override
+    public DockerTransport transport() {
+        return transport;
+    }
+
+    @Override
+    public Optional<DockerTls> tls() {
+        return transport.tls();
+    }
+
+    @Override
+    public AsyncDockerClient async() {
+        return asyncClient.get();
+    }
+
+    @Override
+    public AsyncDockerClient async(final Executor executor) {
+        validate(executor, e -> e == null, () -> "executor can't be null.");
+        return new DefaultAsyncDockerClient(this, Schedulers.from(executor));
+    }
+
+    @Override
+    public DockerClientMetrics metrics() {
+        return metrics.get();
+    }
+
+    @Override
+    public void setRequestTracing(final RequestTracing tracing) {
+        validate(tracing, t -> t == null, () -> "tracing can't be null.");
+        this.tracing = tracing;
+    }
+
+    @Override
+    public ConcurrencyLimits concurrencyLimits() {
+        return concurrencyLimits.get();
+    }
+
+    @Override
+    public void setConcurrencyLimits(final ConcurrencyLimits concurrencyLimits) {
+        validate(concurrencyLimits, l -> l == null, () -> "concurrencyLimits can't be null.");
+        this.concurrencyLimits.set(concurrencyLimits);
+    }
+
+    @Override
+    public RetryPolicy retryPolicy() {
+        return retryPolicy.get();
+    }
+
+    @Override
+    public void setRetryPolicy(final RetryPolicy retryPolicy) {
+        validate(retryPolicy, p -> p == null, () -> "retryPolicy can't be null.");
+        this.retryPolicy.set(retryPolicy);
+    }
+
+    @Override
+    public boolean isRequestCoalescing() {
+        return requestCoalescing;
+    }
+
+    @Override
+    public void setRequestCoalescing(final boolean requestCoalescing) {
+        this.requestCoalescing = requestCoalescing;
+    }
+
+    @Override
+    public ImageCache imageCache() {
+        return imageCache;
+    }
+
+    @Override
+    public void setImageCache(final ImageCache imageCache) {
+        validate(imageCache, c -> c == null, () -> "imageCache can't be null.");
+        this.imageCache = imageCache;
     }
 
     // Misc operations
     @Override
     public Observable<DockerVersion> serverVersionObs() {
-        return httpClient
-                .get(VERSION_ENDPOINT,
-                        (StringResponseTransformer<DockerVersion>) json -> gson.fromJson(json, DockerVersion.class));
+        return coalesced(VERSION_ENDPOINT, () -> call(VERSION_ENDPOINT, null, 0, (table, in) -> httpClient()
+                .get(table.path(VERSION_ENDPOINT),
+                        (StringResponseTransformer<DockerVersion>) json -> fromJson(in, json, DockerVersion.class))));
+    }
+
+    @Override
+    public Optional<ApiVersion> apiVersion() {
+        final EndpointTable known = transport.endpointTable();
+        return known == null ? Optional.empty() : known.version();
+    }
+
+    @Override
+    public Observable<ApiVersion> negotiateApiVersionObs() {
+        return endpointTableObs().map(table -> table.version().get());
+    }
+
+    private Observable<EndpointTable> endpointTableObs() {
+        return transport.negotiate(this::serverVersionObs);
     }
 
     @Override
@@ -106,9 +230,9 @@ class DefaultRxDockerClient implements RxDockerClient {
 
     @Override
     public Observable<DockerInfo> infoObs() {
-        return httpClient
-                .get(INFO_ENDPOINT,
-                        (StringResponseTransformer<DockerInfo>) json -> gson.fromJson(json, DockerInfo.class));
+        return coalesced(INFO_ENDPOINT, () -> call(INFO_ENDPOINT, null, 0, (table, in) -> httpClient()
+                .get(table.path(INFO_ENDPOINT),
+                        (StringResponseTransformer<DockerInfo>) json -> fromJson(in, json, DockerInfo.class))));
     }
 
     @Override
@@ -120,34 +244,216 @@ class DefaultRxDockerClient implements RxDockerClient {
 
     @Override
     public HttpStatus checkAuth(final AuthConfig authConfig) {
-        return checkAuthObs(authConfig).onErrorReturn(e -> {
-            if (e instanceof ServiceException) {
-                logger.info("checkAuth threw RestServiceCommunicationException");
-                ServiceException restException = (ServiceException) e;
-                return HttpStatus.of(restException.getCode(), restException.getHttpMessage());
-            }
-            return HttpStatus.of(500, e.getMessage());
-        }).toBlocking().last();
+        return checkAuthStatusObs(authConfig).toBlocking().last();
+    }
+
+    Observable<HttpStatus> checkAuthStatusObs(final AuthConfig authConfig) {
+        return checkAuthObs(authConfig).onErrorReturn(e -> toHttpStatus("checkAuth", e));
     }
 
     @Override
     public Observable<HttpStatus> checkAuthObs(final AuthConfig authConfig) {
         validate(authConfig, cfg -> cfg == null, () -> "authConfig can't be null.");
         final String endpoint = CHECK_AUTH_ENDPOINT;
-        return httpClient.post(endpoint, authConfig.toJson());
+        final String body = authConfig.toJson();
+        return call(CHECK_AUTH_ENDPOINT, null, bytesOf(body), table -> httpClient().post(table.path(endpoint), body));
     }
 
     @Override
     public HttpStatus ping() {
+        return pingObs().toBlocking().last();
+    }
+
+    @Override
+    public Observable<HttpStatus> pingObs() {
         final String endpoint = PING_ENDPOINT;
-        return httpClient.getResponseHttpStatus(endpoint).onErrorReturn(e -> {
-            if (e instanceof ServiceException) {
-                logger.info("checkAuth threw RestServiceCommunicationException");
-                ServiceException restException = (ServiceException) e;
-                return HttpStatus.of(restException.getCode(), restException.getHttpMessage());
+        return call(PING_ENDPOINT, null, 0, table -> httpClient().getResponseHttpStatus(table.path(endpoint))).onErrorReturn(e -> toHttpStatus("ping", e));
+    }
+
+    private HttpStatus toHttpStatus(final String operation, final Throwable e) {
+        if (e instanceof ServiceException) {
+            logger.debug("{} threw RestServiceCommunicationException", operation);
+            ServiceException restException = (ServiceException) e;
+            return HttpStatus.of(restException.getCode(), restException.getHttpMessage());
+        }
+        return HttpStatus.of(500, e.getMessage());
+    }
+
+    /**
+     * Records the metrics, flight recorder events and traces of a request to the daemon, once the concurrency limit of
+     * its endpoint class lets it through, and retries it according to the retry policy. Every call to
+     * {@link #httpClient()} goes through here.
+     *
+     * @param resourceId id of the container, image or exec the request is about, may be null
+     */
+    private <T> Observable<T> call(final String endpointTemplate, final String resourceId, final long bytesOut, final Function<EndpointTable, Observable<T>> request) {
+        return call(endpointTemplate, resourceId, bytesOut, null, (table, in) -> request.apply(table));
+    }
+
+    /**
+     * @param request the request, its response transformer reads the JSON with {@link #fromJson(JsonIn, String, Class)}
+     */
+    private <T> Observable<T> call(final String endpointTemplate, final String resourceId, final long bytesOut, final BiFunction<EndpointTable, JsonIn, Observable<T>> request) {
+        return call(endpointTemplate, resourceId, bytesOut, null, request);
+    }
+
+    /**
+     * @param requestBody JSON body of the request, logged when the request is traced
+     */
+    private <T> Observable<T> call(final String endpointTemplate, final String resourceId, final String requestBody, final Function<EndpointTable, Observable<T>> request) {
+        return call(endpointTemplate, resourceId, bytesOf(requestBody), requestBody, (table, in) -> request.apply(table));
+    }
+
+    private <T> Observable<T> call(final String endpointTemplate, final String resourceId, final String requestBody, final BiFunction<EndpointTable, JsonIn, Observable<T>> request) {
+        return call(endpointTemplate, resourceId, bytesOf(requestBody), requestBody, request);
+    }
+
+    /**
+     * @param request the request, built against the endpoint table of the negotiated API version. Asking the daemon
+     *                for its version and pinging it don't wait for the negotiation, they use the unversioned paths until
+     *                it is done.
+     */
+    private <T> Observable<T> call(final String endpointTemplate, final String resourceId, final long bytesOut, final String requestBody, final BiFunction<EndpointTable, JsonIn, Observable<T>> request) {
+        final JsonIn in = new JsonIn(endpointTemplate);
+        final EndpointTable known = transport.endpointTable();
+        if (known != null) {
+            return send(endpointTemplate, resourceId, bytesOut, requestBody, in, request.apply(known, in));
+        }
+        if (VERSION_ENDPOINT.equals(endpointTemplate) || PING_ENDPOINT.equals(endpointTemplate)) {
+            return send(endpointTemplate, resourceId, bytesOut, requestBody, in, request.apply(EndpointTable.unversioned(), in));
+        }
+        return endpointTableObs().flatMap(table -> send(endpointTemplate, resourceId, bytesOut, requestBody, in, request.apply(table, in)));
+    }
+
+    private <T> Observable<T> send(final String endpointTemplate, final String resourceId, final long bytesOut, final String requestBody, final JsonIn in, final Observable<T> request) {
+        final Observable<T> limited = concurrencyLimits().limit(endpointTemplate, measured(endpointTemplate, resourceId, bytesOut, requestBody, in, request),
+                metrics()::recordQueued);
+        return retryPolicy().retrying(endpointTemplate, resourceId, limited, metrics()::recordRetry, metrics()::recordRetryDenied);
+    }
+
+    /**
+     * @param in the JSON the response transformer has read, counted into the bytes of the response when it emits
+     */
+    private <T> Observable<T> measured(final String endpointTemplate, final String resourceId, final long bytesOut, final String requestBody, final JsonIn in, final Observable<T> request) {
+        return Observable.defer(() -> {
+            final RequestTracing tracing = this.tracing;
+            final boolean traced = tracing.sample();
+            if (traced) {
+                tracing.request(endpointTemplate, resourceId, requestBody);
             }
-            return HttpStatus.of(500, e.getMessage());
-        }).toBlocking().last();
+            final long startedAt = traced ? System.nanoTime() : 0;
+            final DockerClientMetrics.Request timer = metrics().start(endpointTemplate, bytesOut);
+            final DockerEvents.Request event = DockerEvents.beginRequest(endpointTemplate, resourceId);
+            final AtomicInteger status = new AtomicInteger(HttpStatus.OK.code());
+            final AtomicLong bytesIn = new AtomicLong();
+            final Action1<Long> received = bytes -> {
+                if (bytes > 0) {
+                    timer.addBytesIn(bytes);
+                    bytesIn.addAndGet(bytes);
+                }
+            };
+            final Action1<Integer> finish = statusCode -> {
+                received.call(in.take());
+                if (timer.finish(statusCode)) {
+                    event.end(statusCode, bytesOut, bytesIn.get());
+                    if (traced) {
+                        tracing.response(endpointTemplate, resourceId, statusCode, System.nanoTime() - startedAt, bytesIn.get());
+                    }
+                }
+            };
+            return request
+                    .doOnNext(item -> {
+                        timer.responded();
+                        if (item instanceof HttpStatus) {
+                            status.set(((HttpStatus) item).code());
+                        }
+                        long bytes = bytesOf(item);
+                        if (bytes > 0) {
+                            received.call(bytes);
+                            DockerEvents.streamChunk(endpointTemplate, resourceId, bytes);
+                        }
+                        received.call(in.take());
+                    })
+                    .doOnCompleted(() -> finish.call(status.get()))
+                    .doOnError(e -> finish.call(e instanceof ServiceException ? ((ServiceException) e).getCode() : DockerClientMetrics.NO_RESPONSE))
+                    .doOnUnsubscribe(() -> finish.call(timer.hasResponded() ? status.get() : DockerClientMetrics.NO_RESPONSE));
+        });
+    }
+
+    /**
+     * Shares the response of an identical request in flight when request coalescing is on.
+     *
+     * @param uri the request with its parameters
+     */
+    private <T> Observable<T> coalesced(final String uri, final Supplier<Observable<T>> request) {
+        return requestCoalescing ? coalescer.get().coalesce(uri, request) : request.get();
+    }
+
+    /**
+     * Serves the response from the image cache when it is enabled.
+     *
+     * @param images the images the response is about
+     * @param load   the response weighed by the size of its JSON, see {@link #weighed(String, List)}
+     */
+    private <T> Observable<T> cachedImage(final String endpointTemplate, final String uri, final Function<List<T>, Collection<String>> images,
+                                          final Observable<ImageCache.Weighed<T>> load) {
+        return imageCache.cached(uri, load, images, hit -> metrics().recordCacheLookup(endpointTemplate, hit));
+    }
+
+    /**
+     * Weighs a response to cache by the size of the JSON it was read from. The weight travels with the values, so every
+     * subscriber of a coalesced request gets it.
+     */
+    private static <T> ImageCache.Weighed<T> weighed(final String json, final List<T> values) {
+        return ImageCache.Weighed.of(values, bytesOf(json));
+    }
+
+    private <T> T fromJson(final JsonIn in, final String json, final Class<T> type) {
+        in.read(json);
+        tracing.responseBody(in.endpointTemplate, json);
+        return gson().fromJson(json, type);
+    }
+
+    private <T> T fromJson(final JsonIn in, final String json, final Type type) {
+        in.read(json);
+        tracing.responseBody(in.endpointTemplate, json);
+        return gson().fromJson(json, type);
+    }
+
+    /**
+     * The JSON read by the response transformers of one call. A transformer runs before the values it read are
+     * emitted, so each attempt of the call takes the bytes when the values reach it, or when it finishes.
+     */
+    private static final class JsonIn {
+        private final String endpointTemplate;
+        private final AtomicLong bytes = new AtomicLong();
+
+        private JsonIn(final String endpointTemplate) {
+            this.endpointTemplate = endpointTemplate;
+        }
+
+        private void read(final String json) {
+            bytes.addAndGet(bytesOf(json));
+        }
+
+        private long take() {
+            return bytes.getAndSet(0);
+        }
+    }
+
+    private static long bytesOf(final Object item) {
+        if (item instanceof String) {
+            return Strings.utf8Length((String) item);
+        } else if (item instanceof Buffer) {
+            return ((Buffer) item).size();
+        } else if (item instanceof Response && ((Response) item).body() != null) {
+            return Math.max(0, ((Response) item).body().contentLength());
+        }
+        return 0;
+    }
+
+    private static long sizeOf(final Path path) {
+        return path.toFile().length();
     }
 
     // Container operations
@@ -178,11 +484,65 @@ class DefaultRxDockerClient implements RxDockerClient {
 
     @Override
     public Observable<DockerContainer> listContainersObs(QueryParameters queryParameters) {
-        final String query = queryParameters.toQuery();
-        final String endpoint = String.format(CONTAINER_ENDPOINT, query);
-        return httpClient.get(endpoint,
-                (StringResponseToCollectionTransformer<DockerContainer>) json -> gson.fromJson(json, new TypeToken<List<DockerContainer>>() {
-                }.getType()));
+        return containersObs(queryParameters.toQuery());
+    }
+
+    @Override
+    public List<DockerContainer> listContainers(QueryParameters queryParameters, ContainerFilter filter) {
+        return listContainersObs(queryParameters, filter).toList().toBlocking().single();
+    }
+
+    @Override
+    public Observable<DockerContainer> listContainersObs(QueryParameters queryParameters, ContainerFilter filter) {
+        validate(filter, f -> f == null, () -> "filter can't be null.");
+        return negotiateApiVersionObs().flatMap(version -> {
+            final FilterPushDown<DockerContainer> pushDown = filter.pushDown(version);
+            final Observable<DockerContainer> containers = containersObs(queryParameters.toQuery(pushDown));
+            return pushDown.hasResidual() ? containers.filter(pushDown.residual()::test) : containers;
+        });
+    }
+
+    @Override
+    public Observable<DockerContainer> pageContainersObs(QueryParameters queryParameters, int pageSize) {
+        return containerPagesObs(queryParameters, Optional.empty(), pageSize);
+    }
+
+    @Override
+    public Observable<DockerContainer> pageContainersObs(QueryParameters queryParameters, ContainerFilter filter, int pageSize) {
+        validate(filter, f -> f == null, () -> "filter can't be null.");
+        return containerPagesObs(queryParameters, Optional.of(filter), pageSize);
+    }
+
+    @Override
+    public Stream<DockerContainer> pageContainers(QueryParameters queryParameters, int pageSize) {
+        return observableToStream(pageContainersObs(queryParameters, pageSize));
+    }
+
+    @Override
+    public Stream<DockerContainer> pageContainers(QueryParameters queryParameters, ContainerFilter filter, int pageSize) {
+        return observableToStream(pageContainersObs(queryParameters, filter, pageSize));
+    }
+
+    private Observable<DockerContainer> containerPagesObs(QueryParameters queryParameters, Optional<ContainerFilter> filter, int pageSize) {
+        validate(pageSize, size -> size < 1, () -> "pageSize must be at least 1.");
+        final QueryParameters pageParameters = queryParameters.forPage(pageSize);
+        return negotiateApiVersionObs().flatMap(version -> {
+            // the cursor is always evaluated by the daemon, so the residual of the filter is the same for every page
+            final FilterPushDown<DockerContainer> pushDown = filter.map(f -> f.pushDown(version)).orElse(FilterPushDown.none());
+            final ContainerPager pager = new ContainerPager(cursor -> {
+                final FilterPushDown<DockerContainer> pagePushDown = ContainerPager.filterFor(filter, cursor).map(f -> f.pushDown(version)).orElse(FilterPushDown.none());
+                return containersObs(pageParameters.toQuery(pagePushDown)).toList();
+            });
+            final Observable<DockerContainer> containers = pager.pages(queryParameters.getBefore(), pageSize);
+            return pushDown.hasResidual() ? containers.filter(pushDown.residual()::test) : containers;
+        });
+    }
+
+    private Observable<DockerContainer> containersObs(String query) {
+        final String endpoint = CONTAINER_LIST_ENDPOINT + query;
+        return call(CONTAINER_LIST_ENDPOINT, null, 0, (table, in) -> httpClient().get(table.path(endpoint),
+                (StringResponseToCollectionTransformer<DockerContainer>) json -> fromJson(in, json, new TypeToken<List<DockerContainer>>() {
+                }.getType())));
     }
 
     @Override
@@ -228,9 +588,8 @@ class DefaultRxDockerClient implements RxDockerClient {
         if (jsonRequest == null || jsonRequest.length() == 0) {
             throw new IllegalArgumentException("jsonRequest can't be null or empty");
         }
-        logger.info("Creating container for json request >>\n'{}'", jsonRequest);
-        final String uri = name.isPresent() ? CREATE_CONTAINER_ENDPOINT + "?name=" + name.get() : CREATE_CONTAINER_ENDPOINT;
-        return httpClient.post(uri, jsonRequest, (ResponseBody body) -> gson.fromJson(body.string(), DockerContainerResponse.class));
+        final String uri = name.isPresent() ? Endpoints.CREATE_CONTAINER_WITH_NAME.expand(name.get()) : CREATE_CONTAINER_ENDPOINT;
+        return call(CREATE_CONTAINER_ENDPOINT, name.orElse(null), jsonRequest, (table, in) -> httpClient().post(table.path(uri), jsonRequest, (ResponseBody body) -> fromJson(in, body.string(), DockerContainerResponse.class)));
     }
 
     @Override
@@ -251,10 +610,10 @@ class DefaultRxDockerClient implements RxDockerClient {
     @Override
     public Observable<ContainerInspectResponse> inspectContainerObs(final String containerId) {
         validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
-        final String uri = String.format(CONTAINER_JSON_ENDPOINT, containerId);
-        return httpClient
-                .get(uri,
-                        (StringResponseTransformer<ContainerInspectResponse>) json -> gson.fromJson(json, ContainerInspectResponse.class));
+        final String uri = Endpoints.CONTAINER_JSON.expand(containerId);
+        return coalesced(uri, () -> call(CONTAINER_JSON_ENDPOINT, containerId, 0, (table, in) -> httpClient()
+                .get(table.path(uri),
+                        (StringResponseTransformer<ContainerInspectResponse>) json -> fromJson(in, json, ContainerInspectResponse.class))));
     }
 
     @Override
@@ -265,10 +624,10 @@ class DefaultRxDockerClient implements RxDockerClient {
     @Override
     public Observable<ProcessListResponse> listProcessesObs(final String containerId) {
         validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
-        final String uri = String.format(CONTAINER_LIST_PROCESS_ENDPOINT, containerId);
-        return httpClient
-                .get(uri,
-                        (StringResponseTransformer<ProcessListResponse>) json -> gson.fromJson(json, ProcessListResponse.class));
+        final String uri = Endpoints.CONTAINER_LIST_PROCESS.expand(containerId);
+        return coalesced(uri, () -> call(CONTAINER_LIST_PROCESS_ENDPOINT, containerId, 0, (table, in) -> httpClient()
+                .get(table.path(uri),
+                        (StringResponseTransformer<ProcessListResponse>) json -> fromJson(in, json, ProcessListResponse.class))));
     }
 
     @Override
@@ -278,8 +637,8 @@ class DefaultRxDockerClient implements RxDockerClient {
 
     @Override
     public Observable<HttpStatus> startContainerObs(final String containerId) {
-        final String uri = String.format(CONTAINER_START_ENDPOINT, containerId);
-        return httpClient.post(uri, EMPTY_BODY, ResponseTransformer.httpStatus());
+        final String uri = Endpoints.CONTAINER_START.expand(containerId);
+        return call(CONTAINER_START_ENDPOINT, containerId, 0, table -> httpClient().post(table.path(uri), EMPTY_BODY, ResponseTransformer.httpStatus()));
     }
 
     @Override
@@ -290,8 +649,8 @@ class DefaultRxDockerClient implements RxDockerClient {
     @Override
     public Observable<HttpStatus> stopContainerObs(final String containerId, final int waitInSecs) {
         validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
-        final String uri = String.format(CONTAINER_STOP_ENDPOINT, containerId) + "?t=" + waitInSecs;
-        return httpClient.post(uri, EMPTY_BODY, ResponseTransformer.httpStatus());
+        final String uri = Endpoints.CONTAINER_STOP.expand(containerId, waitInSecs);
+        return call(CONTAINER_STOP_ENDPOINT, containerId, 0, table -> httpClient().post(table.path(uri), EMPTY_BODY, ResponseTransformer.httpStatus()));
     }
 
     @Override
@@ -302,8 +661,8 @@ class DefaultRxDockerClient implements RxDockerClient {
     @Override
     public Observable<HttpStatus> restartContainerObs(final String containerId, final int waitInSecs) {
         validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
-        final String uri = String.format(CONTAINER_RESTART_ENDPOINT, containerId) + "?t=" + waitInSecs;
-        return httpClient.post(uri, EMPTY_BODY, ResponseTransformer.httpStatus());
+        final String uri = Endpoints.CONTAINER_RESTART.expand(containerId, waitInSecs);
+        return call(CONTAINER_RESTART_ENDPOINT, containerId, 0, table -> httpClient().post(table.path(uri), EMPTY_BODY, ResponseTransformer.httpStatus()));
     }
 
     @Override
@@ -314,8 +673,8 @@ class DefaultRxDockerClient implements RxDockerClient {
     @Override
     public Observable<HttpStatus> killRunningContainerObs(final String containerId) {
         validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
-        final String uri = String.format(CONTAINER_KILL_ENDPOINT, containerId);
-        return httpClient.post(uri, EMPTY_BODY, ResponseTransformer.httpStatus());
+        final String uri = Endpoints.CONTAINER_KILL.expand(containerId);
+        return call(CONTAINER_KILL_ENDPOINT, containerId, 0, table -> httpClient().post(table.path(uri), EMPTY_BODY, ResponseTransformer.httpStatus()));
     }
 
     @Override
@@ -337,8 +696,8 @@ class DefaultRxDockerClient implements RxDockerClient {
     @Override
     public Observable<HttpStatus> removeContainerObs(final String containerId, final boolean removeVolume, final boolean force) {
         validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
-        final String uri = String.format(CONTAINER_REMOVE_ENDPOINT, containerId) + "?v=" + removeVolume + "&force=" + force;
-        return httpClient.delete(uri);
+        final String uri = Endpoints.CONTAINER_REMOVE.expand(containerId, removeVolume, force);
+        return call(CONTAINER_REMOVE_ENDPOINT, containerId, 0, table -> httpClient().delete(table.path(uri)));
     }
 
     @Override
@@ -350,8 +709,8 @@ class DefaultRxDockerClient implements RxDockerClient {
     public Observable<HttpStatus> renameContainerObs(final String containerId, final String newName) {
         validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
         validate(newName, Strings::isEmptyOrNull, () -> "Please provide newName that you want't to use for container.");
-        final String uri = String.format(CONTAINER_RENAME_ENDPOINT, containerId) + "?name=" + newName;
-        return httpClient.post(uri, EMPTY_BODY, ResponseTransformer.httpStatus());
+        final String uri = Endpoints.CONTAINER_RENAME.expand(containerId, newName);
+        return call(CONTAINER_RENAME_ENDPOINT, containerId, 0, table -> httpClient().post(table.path(uri), EMPTY_BODY, ResponseTransformer.httpStatus()));
     }
 
     @Override
@@ -362,24 +721,50 @@ class DefaultRxDockerClient implements RxDockerClient {
     @Override
     public Observable<HttpStatus> waitContainerObs(final String containerId) {
         validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
-        final String uri = String.format(CONTAINER_WAIT_ENDPOINT, containerId);
-        return httpClient.post(uri, EMPTY_BODY, ResponseTransformer.httpStatus());
+        final String uri = Endpoints.CONTAINER_WAIT.expand(containerId);
+        return call(CONTAINER_WAIT_ENDPOINT, containerId, 0, table -> httpClient().post(table.path(uri), EMPTY_BODY, ResponseTransformer.httpStatus()));
     }
 
     @Override
     public void exportContainer(final String containerId, final Path pathToExportTo) {
+        writeToOutputDir(CONTAINER_EXPORT_ENDPOINT, containerId, containerExportStream(containerId), pathToExportTo.resolve(containerId + ".tar"));
+    }
+
+    Observable<Path> exportContainerObs(final String containerId, final Path pathToExportTo) {
+        return writeToFileObs(CONTAINER_EXPORT_ENDPOINT, containerId, containerExportStream(containerId), pathToExportTo.resolve(containerId + ".tar"));
+    }
+
+    private Observable<Buffer> containerExportStream(final String containerId) {
         validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
-        final String endpointUri = String.format(CONTAINER_EXPORT_ENDPOINT, containerId);
-        Observable<Buffer> bufferStream = httpClient.getResponseBufferStream(endpointUri);
-        String exportFilePath = pathToExportTo.toString() + "/" + containerId + ".tar";
-        writeToOutputDir(bufferStream, exportFilePath);
+        final String endpointUri = Endpoints.CONTAINER_EXPORT.expand(containerId);
+        return call(CONTAINER_EXPORT_ENDPOINT, containerId, 0, table -> httpClient().getResponseBufferStream(table.path(endpointUri)));
     }
 
     @Override
     public Observable<ContainerStats> containerStatsObs(final String containerId) {
         validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
-        final String endpointUri = String.format(CONTAINER_STATS_ENDPOINT, containerId);
-        return httpClient.getResponseStream(endpointUri).map(json -> gson.fromJson(json, ContainerStats.class));
+        final String endpointUri = Endpoints.CONTAINER_STATS.expand(containerId);
+        return call(CONTAINER_STATS_ENDPOINT, containerId, 0, table -> httpClient().getResponseStream(table.path(endpointUri))).map(json -> gson().fromJson(json, ContainerStats.class));
+    }
+
+    @Override
+    public Observable<ContainerStats> containerStatsSnapshotObs(final String containerId) {
+        validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
+        final String endpointUri = Endpoints.CONTAINER_STATS.expand(containerId);
+        return call(CONTAINER_STATS_ENDPOINT, containerId, 0, table -> {
+            if (table.supports(EndpointTable.Feature.ONE_SHOT_STATS)) {
+                return httpClient().get(table.path(endpointUri + "?stream=false&one-shot=true"), (StringResponseTransformer<String>) json -> json);
+            }
+            if (table.supports(EndpointTable.Feature.STATS_WITHOUT_STREAM)) {
+                return httpClient().get(table.path(endpointUri + "?stream=false"), (StringResponseTransformer<String>) json -> json);
+            }
+            return httpClient().getResponseStream(table.path(endpointUri)).filter(json -> !json.trim().isEmpty()).take(1);
+        }).map(json -> gson().fromJson(json, ContainerStats.class));
+    }
+
+    @Override
+    public ContainerStats containerStatsSnapshot(final String containerId) {
+        return containerStatsSnapshotObs(containerId).toBlocking().single();
     }
 
     @Override
@@ -390,28 +775,50 @@ class DefaultRxDockerClient implements RxDockerClient {
     @Override
     public Observable<String> containerLogsObs(final String containerId, ContainerLogQueryParameters queryParameters) {
         validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
-        final String endpointUri = String.format(CONTAINER_LOGS_ENDPOINT, containerId) + queryParameters.toQueryParametersString();
+        final String endpointUri = Endpoints.CONTAINER_LOGS.expand(containerId) + queryParameters.toQueryParametersString();
         Map<String, String> headers = Stream.of(new SimpleEntry<>("Accept", "application/vnd.docker.raw-stream"))
                 .collect(toMap(SimpleEntry::getKey, SimpleEntry::getValue));
-        return httpClient
-                .getResponseStream(endpointUri, headers);
+        return call(CONTAINER_LOGS_ENDPOINT, containerId, 0, table -> httpClient()
+                .getResponseStream(table.path(endpointUri), headers));
+    }
+
+    @Override
+    public Observable<ContainerLogLine> followContainerLogsObs(final String containerId, ContainerLogQueryParameters queryParameters, LogFollowPolicy policy) {
+        validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
+        validate(queryParameters, q -> q == null, () -> "queryParameters can't be null.");
+        validate(policy, p -> p == null, () -> "policy can't be null.");
+        return logFollower.get().follow(containerId, queryParameters, policy);
+    }
+
+    @Override
+    public Observable<ContainerLogLine> logsForAll(final Collection<String> containerIds, ContainerLogQueryParameters queryParameters, final int parallelism) {
+        validate(containerIds, ids -> ids == null || ids.stream().anyMatch(Strings::isEmptyOrNull), () -> "containerIds can't be null or contain empty ids.");
+        validate(queryParameters, q -> q == null, () -> "queryParameters can't be null.");
+        validate(parallelism, p -> p < 1, () -> "parallelism should be at least 1.");
+        return logCollector.get().collect(containerIds, queryParameters, parallelism);
+    }
+
+    @Override
+    public Observable<Path> logsForAll(final Collection<String> containerIds, ContainerLogQueryParameters queryParameters, final int parallelism, final Path outputDir) {
+        validate(containerIds, ids -> ids == null || ids.stream().anyMatch(Strings::isEmptyOrNull), () -> "containerIds can't be null or contain empty ids.");
+        validate(queryParameters, q -> q == null, () -> "queryParameters can't be null.");
+        validate(parallelism, p -> p < 1, () -> "parallelism should be at least 1.");
+        validate(outputDir, p -> p == null || !p.toFile().isDirectory(), () -> "outputDir should be an existing directory.");
+        return logCollector.get().collectToFiles(containerIds, queryParameters, parallelism, outputDir);
     }
 
     @Override
     public List<ContainerChange> inspectChangesOnContainerFilesystem(final String containerId) {
-        return StreamUtils.iteratorToStream(inspectChangesOnContainerFilesystemObs(containerId).toBlocking().getIterator()).collect(toList());
+        return inspectChangesOnContainerFilesystemObs(containerId).toList().toBlocking().single();
     }
 
     @Override
     public Observable<ContainerChange> inspectChangesOnContainerFilesystemObs(final String containerId) {
         validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
-        final String endpoint = String.format(CONTAINER_CHANGES_ENDPOINT, containerId);
-        return httpClient.get(endpoint,
-                (StringResponseToCollectionTransformer<ContainerChange>) json -> {
-                    logger.info("Received json >>> {}", json);
-                    return gson.fromJson(json, new TypeToken<List<ContainerChange>>() {
-                    }.getType());
-                });
+        final String endpoint = Endpoints.CONTAINER_CHANGES.expand(containerId);
+        return call(CONTAINER_CHANGES_ENDPOINT, containerId, 0, (table, in) -> httpClient().get(table.path(endpoint),
+                (StringResponseToCollectionTransformer<ContainerChange>) json -> fromJson(in, json, new TypeToken<List<ContainerChange>>() {
+                }.getType())));
     }
 
 
@@ -423,8 +830,8 @@ class DefaultRxDockerClient implements RxDockerClient {
     @Override
     public Observable<HttpStatus> resizeContainerTtyObs(final String containerId, QueryParameter... queryParameters) {
         validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
-        final String endpoint = String.format(CONTAINER_RESIZE_ENDPOINT, containerId);
-        return httpClient.post(endpoint, queryParameters);
+        final String endpoint = Endpoints.CONTAINER_RESIZE.expand(containerId);
+        return call(CONTAINER_RESIZE_ENDPOINT, containerId, 0, table -> httpClient().post(table.path(endpoint), queryParameters));
     }
 
     @Override
@@ -435,8 +842,8 @@ class DefaultRxDockerClient implements RxDockerClient {
     @Override
     public Observable<HttpStatus> pauseContainerObs(final String containerId) {
         validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
-        final String endpoint = String.format(CONTAINER_PAUSE_ENDPOINT, containerId);
-        return httpClient.post(endpoint);
+        final String endpoint = Endpoints.CONTAINER_PAUSE.expand(containerId);
+        return call(CONTAINER_PAUSE_ENDPOINT, containerId, 0, table -> httpClient().post(table.path(endpoint)));
     }
 
     @Override
@@ -447,52 +854,73 @@ class DefaultRxDockerClient implements RxDockerClient {
     @Override
     public Observable<HttpStatus> unpauseContainerObs(final String containerId) {
         validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
-        final String endpoint = String.format(CONTAINER_UNPAUSE_ENDPOINT, containerId);
-        return httpClient.post(endpoint);
+        final String endpoint = Endpoints.CONTAINER_UNPAUSE.expand(containerId);
+        return call(CONTAINER_UNPAUSE_ENDPOINT, containerId, 0, table -> httpClient().post(table.path(endpoint)));
     }
 
     @Override
     public Observable<String> attachContainerObs(final String containerId, QueryParameter... queryParameters) {
         validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
-        final String endpoint = String.format(CONTAINER_ATTACH_ENDPOINT, containerId);
-        return httpClient.postAndReceiveResponse(endpoint, queryParameters);
+        final String endpoint = Endpoints.CONTAINER_ATTACH.expand(containerId);
+        return call(CONTAINER_ATTACH_ENDPOINT, containerId, 0, table -> httpClient().postAndReceiveResponse(table.path(endpoint), queryParameters));
+    }
+
+    @Override
+    public Observable<DockerStreamSession> attachContainerSessionObs(final String containerId, ContainerAttachQueryParameters queryParameters) {
+        validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
+        validate(queryParameters, q -> q == null, () -> "queryParameters can't be null.");
+        final String path = "/" + Endpoints.CONTAINER_ATTACH.expand(containerId) + queryParameters.toQueryParametersString();
+        return hijack(path, "text/plain", null, Optional.empty());
     }
 
     @Override
     public ContainerArchiveInformation containerArchiveInformation(final String containerId, final String path) {
-        Response response = containerArchiveInformationObs(containerId, path).toBlocking().last();
+        return toContainerArchiveInformation(containerArchiveInformationObs(containerId, path).toBlocking().last());
+    }
+
+    Observable<ContainerArchiveInformation> containerArchiveInformationDetailsObs(final String containerId, final String path) {
+        return containerArchiveInformationObs(containerId, path).last().map(this::toContainerArchiveInformation);
+    }
+
+    private ContainerArchiveInformation toContainerArchiveInformation(final Response response) {
         String containerInfo = response.header("X-Docker-Container-Path-Stat");
 
         final String containerInfoJson = new String(Base64.getDecoder().decode(containerInfo), Charset.defaultCharset());
-        return gson.fromJson(containerInfoJson, ContainerArchiveInformation.class);
+        return gson().fromJson(containerInfoJson, ContainerArchiveInformation.class);
     }
 
     @Override
     public Observable<Response> containerArchiveInformationObs(final String containerId, final String path) {
         validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
-        final String endpoint = String.format(CONTAINER_ARCHIVE_ENDPOINT, containerId);
-        return httpClient.head(endpoint, QueryParameter.of("path", path));
+        final String endpoint = Endpoints.CONTAINER_ARCHIVE.expand(containerId);
+        return call(CONTAINER_ARCHIVE_ENDPOINT, containerId, 0, table -> httpClient().head(table.path(endpoint), QueryParameter.of("path", path)));
     }
 
     @Override
     public void containerArchive(final String containerId, final String path, Path pathToExportTo) {
+        writeToOutputDir(CONTAINER_ARCHIVE_ENDPOINT, containerId, containerArchiveStream(containerId, path), pathToExportTo.resolve(containerId + ".tar"));
+    }
+
+    Observable<Path> containerArchiveObs(final String containerId, final String path, final Path pathToExportTo) {
+        return writeToFileObs(CONTAINER_ARCHIVE_ENDPOINT, containerId, containerArchiveStream(containerId, path), pathToExportTo.resolve(containerId + ".tar"));
+    }
+
+    private Observable<Buffer> containerArchiveStream(final String containerId, final String path) {
         validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
-        final String endpointUri = String.format(CONTAINER_ARCHIVE_ENDPOINT, containerId);
-        Observable<Buffer> bufferStream = httpClient.getResponseBufferStream(endpointUri, QueryParameter.of("path", path));
-        String exportFilePath = pathToExportTo.toString() + "/" + containerId + ".tar";
-        writeToOutputDir(bufferStream, exportFilePath);
+        final String endpointUri = Endpoints.CONTAINER_ARCHIVE.expand(containerId);
+        return call(CONTAINER_ARCHIVE_ENDPOINT, containerId, 0, table -> httpClient().getResponseBufferStream(table.path(endpointUri), QueryParameter.of("path", path)));
     }
 
     @Override
     public Observable<ExecCreateResponse> execCreateObs(final String containerId, ExecCreateRequest request) {
         validate(containerId, Strings::isEmptyOrNull, () -> "containerId can't be null or empty.");
         validate(request.getCmd(), c -> c == null || c.size() == 0, () -> "cmd can't be empty");
-        final String endpointUri = String.format(CONTAINER_EXEC_CREATE_ENDPOINT, containerId);
-        String jsonBody = gson.toJson(request);
-        return httpClient.post(endpointUri, jsonBody, (ResponseBodyTransformer<ExecCreateResponse>) (responseBody) -> {
+        final String endpointUri = Endpoints.CONTAINER_EXEC_CREATE.expand(containerId);
+        String jsonBody = gson().toJson(request);
+        return call(CONTAINER_EXEC_CREATE_ENDPOINT, containerId, jsonBody, (table, in) -> httpClient().post(table.path(endpointUri), jsonBody, (ResponseBodyTransformer<ExecCreateResponse>) (responseBody) -> {
             String json = responseBody.string();
-            return gson.fromJson(json, ExecCreateResponse.class);
-        });
+            return fromJson(in, json, ExecCreateResponse.class);
+        }));
     }
 
     @Override
@@ -503,9 +931,9 @@ class DefaultRxDockerClient implements RxDockerClient {
     @Override
     public Observable<String> execStartObs(final String execId, ExecStartRequest request) {
         validate(execId, Strings::isEmptyOrNull, () -> "execId can't be null or empty.");
-        final String endpointUri = String.format(CONTAINER_EXEC_START_ENDPOINT, execId);
-        String jsonBody = gson.toJson(request);
-        return httpClient.postAndReceiveStream(endpointUri, jsonBody);
+        final String endpointUri = Endpoints.CONTAINER_EXEC_START.expand(execId);
+        String jsonBody = gson().toJson(request);
+        return call(CONTAINER_EXEC_START_ENDPOINT, execId, jsonBody, table -> httpClient().postAndReceiveStream(table.path(endpointUri), jsonBody));
     }
 
     @Override
@@ -513,6 +941,38 @@ class DefaultRxDockerClient implements RxDockerClient {
         return execStartObs(execId, ExecStartRequest.withDefaults());
     }
 
+    @Override
+    public Observable<DockerStreamSession> execStartSessionObs(final String execId, ExecStartRequest request) {
+        validate(execId, Strings::isEmptyOrNull, () -> "execId can't be null or empty.");
+        validate(request, r -> r == null || r.isDetach(), () -> "request can't be null or detached.");
+        final String path = Endpoints.CONTAINER_EXEC_START.expand(execId);
+        return hijack(path, "application/json", gson().toJson(request).getBytes(UTF_8), Optional.of(request.isTty()));
+    }
+
+    @Override
+    public ExecInspectResponse execInspect(final String execId) {
+        return execInspectObs(execId).toBlocking().single();
+    }
+
+    @Override
+    public Observable<ExecInspectResponse> execInspectObs(final String execId) {
+        validate(execId, Strings::isEmptyOrNull, () -> "execId can't be null or empty.");
+        final String endpointUri = Endpoints.CONTAINER_EXEC_INSPECT.expand(execId);
+        return call(CONTAINER_EXEC_INSPECT_ENDPOINT, execId, 0, (table, in) -> httpClient()
+                .get(table.path(endpointUri),
+                        (StringResponseTransformer<ExecInspectResponse>) json -> fromJson(in, json, ExecInspectResponse.class)));
+    }
+
+    private Observable<DockerStreamSession> hijack(final String path, final String contentType, final byte[] body, final Optional<Boolean> tty) {
+        return endpointTableObs().flatMap(table -> Observable.defer(() -> {
+            try {
+                return Observable.just(DockerStreamSession.open(transport.streamEndpoint(), table.path(path), contentType, body, tty));
+            } catch (IOException e) {
+                return Observable.error(e);
+            }
+        }));
+    }
+
     // Image Endpoint
     @Override
     public HttpStatus pullImage(final String fromImage) {
@@ -521,15 +981,27 @@ class DefaultRxDockerClient implements RxDockerClient {
 
     @Override
     public HttpStatus pullImageFromRegistry(final String image, final String registry) {
-        validate(image, Strings::isEmptyOrNull, () -> "image can't be null or empty.");
-        final String endpoint = String.format(IMAGE_PULL_FROM_REGISTRY_ENDPOINT, registry, image);
-        Observable<String> obs = httpClient.postAndReceiveResponse(endpoint, Collections.emptyMap(), r -> r.contains("errorDetail"));
+        Observable<String> obs = pullImageFromRegistryObs(image, registry);
         HttpStatusSubscriber subscriber = new HttpStatusSubscriber();
         obs.subscribe(subscriber);
         subscriber.unsubscribe();
         return subscriber.getStatus();
     }
 
+    Observable<String> pullImageFromRegistryObs(final String image, final String registry) {
+        validate(image, Strings::isEmptyOrNull, () -> "image can't be null or empty.");
+        final String endpoint = Endpoints.IMAGE_PULL_FROM_REGISTRY.expand(registry, image);
+        return call(IMAGE_CREATE_ENDPOINT, image, 0, table -> httpClient().postAndReceiveResponse(table.path(endpoint), Collections.emptyMap(), r -> r.contains("errorDetail")))
+                .doOnTerminate(() -> imageCache.invalidate(registry + "/" + image));
+    }
+
+    /**
+     * Reduces a progress stream, like the one of an image pull, to the status of the whole operation.
+     */
+    Observable<HttpStatus> progressStatusObs(final Observable<String> progress) {
+        return progress.lastOrDefault(EMPTY_BODY).map(last -> HttpStatus.OK).onErrorReturn(e -> toHttpStatus("progress stream", e));
+    }
+
     @Override
     public HttpStatus pullImage(final String image, AuthConfig authConfig) {
         return pullImage(image, null, authConfig);
@@ -581,12 +1053,14 @@ class DefaultRxDockerClient implements RxDockerClient {
 
     private Observable<String> pullImageObsInternal(final String fromImage, final Optional<String> repo, final Optional<String> tag, Optional<AuthConfig> authConfig) {
         validate(fromImage, Strings::isEmptyOrNull, () -> "fromImage can't be null or empty.");
-        final String endpoint = String.format(IMAGE_PULL_ENDPOINT, repo.map(u -> u + "/").orElse(""), fromImage, tag.orElse("latest"));
+        final String endpoint = Endpoints.IMAGE_PULL.expand(repo.map(u -> u + "/").orElse(""), fromImage, tag.orElse("latest"));
         Map<String, String> headers = new HashMap<>();
         if (authConfig.isPresent()) {
             headers.put("X-Registry-Auth", authConfig.get().xAuthHeader());
         }
-        return httpClient.postAndReceiveResponse(endpoint, headers);
+        final String reference = repo.map(u -> u + "/").orElse("") + fromImage + ":" + tag.orElse("latest");
+        return call(IMAGE_CREATE_ENDPOINT, fromImage, 0, table -> httpClient().postAndReceiveResponse(table.path(endpoint), headers))
+                .doOnTerminate(() -> imageCache.invalidate(reference));
     }
 
     @Override
@@ -611,16 +1085,34 @@ class DefaultRxDockerClient implements RxDockerClient {
 
     @Override
     public Stream<DockerImage> listImages(ImageListQueryParameters queryParameters) {
-        return iteratorToStream(listImagesObs(queryParameters).toBlocking().getIterator());
+        return observableToStream(listImagesObs(queryParameters));
     }
 
     @Override
     public Observable<DockerImage> listImagesObs(ImageListQueryParameters queryParameters) {
-        final String endpoint = IMAGE_LIST_ENDPOINT + queryParameters.toQuery();
-        return httpClient.get(endpoint,
-                (StringResponseToCollectionTransformer<DockerImage>) json -> gson.fromJson(json, new TypeToken<List<DockerImage>>() {
-                }.getType()));
+        return imagesObs(queryParameters.toQuery());
+    }
+
+    @Override
+    public Stream<DockerImage> listImages(ImageListQueryParameters queryParameters, ImageFilter filter) {
+        return observableToStream(listImagesObs(queryParameters, filter));
+    }
+
+    @Override
+    public Observable<DockerImage> listImagesObs(ImageListQueryParameters queryParameters, ImageFilter filter) {
+        validate(filter, f -> f == null, () -> "filter can't be null.");
+        return negotiateApiVersionObs().flatMap(version -> {
+            final FilterPushDown<DockerImage> pushDown = filter.pushDown(version);
+            final Observable<DockerImage> images = imagesObs(queryParameters.toQuery(pushDown));
+            return pushDown.hasResidual() ? images.filter(pushDown.residual()::test) : images;
+        });
+    }
 
+    private Observable<DockerImage> imagesObs(String query) {
+        final String endpoint = IMAGE_LIST_ENDPOINT + query;
+        return call(IMAGE_LIST_ENDPOINT, null, 0, (table, in) -> httpClient().get(table.path(endpoint),
+                (StringResponseToCollectionTransformer<DockerImage>) json -> fromJson(in, json, new TypeToken<List<DockerImage>>() {
+                }.getType())));
     }
 
     @Override
@@ -641,22 +1133,23 @@ class DefaultRxDockerClient implements RxDockerClient {
     @Override
     public Observable<HttpStatus> removeImageObs(final String imageName, final boolean noPrune, final boolean force) {
         validate(imageName, Strings::isEmptyOrNull, () -> "imageName can't be null or empty.");
-        final String endpoint = String.format(IMAGE_REMOVE_ENDPOINT, imageName) + "?noprune=" + noPrune + "&force=" + force;
-        return httpClient.delete(endpoint);
+        final String endpoint = Endpoints.IMAGE_REMOVE.expand(imageName, noPrune, force);
+        return call(IMAGE_REMOVE_ENDPOINT, imageName, 0, table -> httpClient().delete(table.path(endpoint)))
+                .doOnTerminate(() -> imageCache.invalidate(imageName));
     }
 
     @Override
     public Stream<DockerImageInfo> searchImages(final String searchTerm, Predicate<DockerImageInfo> predicate) {
-        return iteratorToStream(searchImagesObs(searchTerm, predicate).toBlocking().getIterator());
+        return observableToStream(searchImagesObs(searchTerm, predicate));
     }
 
     @Override
     public Observable<DockerImageInfo> searchImagesObs(final String searchTerm, Predicate<DockerImageInfo> predicate) {
         validate(searchTerm, Strings::isEmptyOrNull, () -> "searchTerm can't be null or empty.");
-        final String endpoint = String.format("%s?term=%s", IMAGE_SEARCH_ENDPOINT, searchTerm);
-        return httpClient.get(endpoint,
-                (StringResponseToCollectionTransformer<DockerImageInfo>) json -> gson.fromJson(json, new TypeToken<List<DockerImageInfo>>() {
-                }.getType())).filter(predicate::test);
+        final String endpoint = Endpoints.IMAGE_SEARCH.expand(searchTerm);
+        return cachedImage(IMAGE_SEARCH_ENDPOINT, endpoint, results -> Collections.emptySet(), call(IMAGE_SEARCH_ENDPOINT, null, 0, (table, in) -> httpClient().get(table.path(endpoint),
+                (StringResponseTransformer<ImageCache.Weighed<DockerImageInfo>>) json -> weighed(json, fromJson(in, json, new TypeToken<List<DockerImageInfo>>() {
+                }.getType()))))).filter(predicate::test);
     }
 
     @Override
@@ -668,14 +1161,16 @@ class DefaultRxDockerClient implements RxDockerClient {
     public Observable<String> buildImageObs(final String repositoryName, final Path pathToTarArchive, BuildImageQueryParameters queryParameters) {
         validate(pathToTarArchive, path -> path == null, () -> "path to archive can't be null");
         validate(pathToTarArchive, path -> !path.toFile().exists(), () -> String.format("%s can't be resolved to a tar file", pathToTarArchive.toAbsolutePath().toString()));
-        final String endpoint = String.format("%s?t=%s", IMAGE_BUILD_ENDPOINT, repositoryName) + queryParameters.toQueryParameterString();
-        return httpClient.postTarStream(endpoint, pathToTarArchive, (BufferTransformer<String>) buf -> buf.readString(Charset.defaultCharset()));
+        final String endpoint = Endpoints.IMAGE_BUILD.expand(repositoryName) + queryParameters.toQueryParameterString();
+        return call(IMAGE_BUILD_ENDPOINT, repositoryName, sizeOf(pathToTarArchive), table -> httpClient().postTarStream(table.path(endpoint), pathToTarArchive, (BufferTransformer<String>) buf -> buf.readString(Charset.defaultCharset())))
+                .doOnTerminate(() -> imageCache.invalidate(repositoryName));
     }
 
     @Override
     public Observable<String> buildImageObs(final String repositoryName, BuildImageQueryParameters queryParameters) {
-        final String endpoint = String.format("%s?t=%s", IMAGE_BUILD_ENDPOINT, repositoryName) + queryParameters.toQueryParameterString();
-        return httpClient.postAndReceiveResponse(endpoint);
+        final String endpoint = Endpoints.IMAGE_BUILD.expand(repositoryName) + queryParameters.toQueryParameterString();
+        return call(IMAGE_BUILD_ENDPOINT, repositoryName, 0, table -> httpClient().postAndReceiveResponse(table.path(endpoint)))
+                .doOnTerminate(() -> imageCache.invalidate(repositoryName));
     }
 
     @Override
@@ -686,22 +1181,26 @@ class DefaultRxDockerClient implements RxDockerClient {
     @Override
     public Observable<HttpStatus> tagImageObs(final String image, final ImageTagQueryParameters queryParameters) {
         validate(image, Strings::isEmptyOrNull, () -> "image can't be null or empty.");
-        final String endpoint = String.format(IMAGE_TAG_ENDPOINT, image) + queryParameters.toQuery();
-        return httpClient.post(endpoint);
+        final String endpoint = Endpoints.IMAGE_TAG.expand(image) + queryParameters.toQuery();
+        return call(IMAGE_TAG_ENDPOINT, image, 0, table -> httpClient().post(table.path(endpoint)))
+                .doOnTerminate(() -> {
+                    imageCache.invalidate(image);
+                    imageCache.invalidate(queryParameters.reference());
+                });
     }
 
     @Override
     public Stream<DockerImageHistory> imageHistory(final String image) {
-        return iteratorToStream(imageHistoryObs(image).toBlocking().getIterator());
+        return observableToStream(imageHistoryObs(image));
     }
 
     @Override
     public Observable<DockerImageHistory> imageHistoryObs(final String image) {
         validate(image, Strings::isEmptyOrNull, () -> "image can't be null or empty.");
-        final String endpoint = String.format(IMAGE_HISTORY_ENDPOINT, image);
-        return httpClient.get(endpoint,
-                (StringResponseToCollectionTransformer<DockerImageHistory>) json -> gson.fromJson(json, new TypeToken<List<DockerImageHistory>>() {
-                }.getType()));
+        final String endpoint = Endpoints.IMAGE_HISTORY.expand(image);
+        return cachedImage(IMAGE_HISTORY_ENDPOINT, endpoint, history -> Collections.singleton(image), call(IMAGE_HISTORY_ENDPOINT, image, 0, (table, in) -> httpClient().get(table.path(endpoint),
+                (StringResponseTransformer<ImageCache.Weighed<DockerImageHistory>>) json -> weighed(json, fromJson(in, json, new TypeToken<List<DockerImageHistory>>() {
+                }.getType())))));
     }
 
     @Override
@@ -712,57 +1211,78 @@ class DefaultRxDockerClient implements RxDockerClient {
     @Override
     public Observable<DockerImageInspectDetails> inspectImageObs(final String image) {
         validate(image, Strings::isEmptyOrNull, () -> "image can't be null or empty.");
-        final String endpoint = String.format(IMAGE_INSPECT_ENDPOINT, image);
-        return httpClient.get(endpoint,
-                (StringResponseTransformer<DockerImageInspectDetails>) json -> gson.fromJson(json, new TypeToken<DockerImageInspectDetails>() {
-                }.getType()));
+        final String endpoint = Endpoints.IMAGE_INSPECT.expand(image);
+        final Function<List<DockerImageInspectDetails>, Collection<String>> images = details -> details.stream()
+                .flatMap(d -> Stream.of(image, d.getId()))
+                .collect(toSet());
+        return cachedImage(IMAGE_INSPECT_ENDPOINT, endpoint, images, coalesced(endpoint, () -> call(IMAGE_INSPECT_ENDPOINT, image, 0, (table, in) -> httpClient().get(table.path(endpoint),
+                (StringResponseTransformer<ImageCache.Weighed<DockerImageInspectDetails>>) json -> weighed(json, Collections.singletonList(fromJson(in, json, DockerImageInspectDetails.class)))))));
     }
 
     @Override
     public HttpStatus pushImage(final String image, AuthConfig authConfig) {
+        return pushImageStatusObs(image, authConfig).toBlocking().last();
+    }
+
+    Observable<HttpStatus> pushImageStatusObs(final String image, AuthConfig authConfig) {
         validate(image, Strings::isEmptyOrNull, () -> "image can't be null or empty.");
-        final String endpoint = String.format(IMAGE_PUSH_ENDPOINT, image);
+        final String endpoint = Endpoints.IMAGE_PUSH.expand(image);
         Map<String, String> headers = new HashMap<>();
         if (Optional.ofNullable(authConfig).isPresent()) {
             headers.put("X-Registry-Auth", authConfig.xAuthHeader());
         }
-        return httpClient.post(endpoint, headers).toBlocking().last();
+        return call(IMAGE_PUSH_ENDPOINT, image, 0, table -> httpClient().post(table.path(endpoint), headers));
     }
 
     @Override
     public Observable<String> pushImageObs(final String image, AuthConfig authConfig) {
         validate(image, Strings::isEmptyOrNull, () -> "image can't be null or empty.");
-        final String endpoint = String.format(IMAGE_PUSH_ENDPOINT, image);
+        final String endpoint = Endpoints.IMAGE_PUSH.expand(image);
         Map<String, String> headers = new HashMap<>();
         if (Optional.ofNullable(authConfig).isPresent()) {
             headers.put("X-Registry-Auth", authConfig.xAuthHeader());
         }
-        return httpClient
-                .postAndReceiveResponse(endpoint, headers, r -> r.contains("errorDetail"));
+        return call(IMAGE_PUSH_ENDPOINT, image, 0, table -> httpClient()
+                .postAndReceiveResponse(table.path(endpoint), headers, r -> r.contains("errorDetail")));
     }
 
     @Override
     public Path getTarballForAllImagesInRepository(final String image, Path exportDir) {
-        validate(image, Strings::isEmptyOrNull, () -> "image can't be null or empty.");
-        validate(exportDir, p -> !p.toFile().exists(), () -> "exportDir should exists.");
-        final String endpoint = String.format(IMAGE_GET_ARCHIVE_TARBALL_FOR_REPOSITORY, image);
-        Observable<Buffer> bufferStream = httpClient.getResponseBufferStream(endpoint);
         Path exportFilePath = exportDir.resolve(image + ".tar");
-        writeToOutputDir(bufferStream, exportFilePath);
+        writeToOutputDir(IMAGE_GET_ARCHIVE_TARBALL_FOR_REPOSITORY, image, repositoryTarballStream(image, exportDir), exportFilePath);
         return exportFilePath;
     }
 
+    Observable<Path> getTarballForAllImagesInRepositoryObs(final String image, final Path exportDir) {
+        return writeToFileObs(IMAGE_GET_ARCHIVE_TARBALL_FOR_REPOSITORY, image, repositoryTarballStream(image, exportDir), exportDir.resolve(image + ".tar"));
+    }
+
+    private Observable<Buffer> repositoryTarballStream(final String image, final Path exportDir) {
+        validate(image, Strings::isEmptyOrNull, () -> "image can't be null or empty.");
+        validate(exportDir, p -> !p.toFile().exists(), () -> "exportDir should exists.");
+        final String endpoint = Endpoints.IMAGE_GET_ARCHIVE_TARBALL_FOR_REPOSITORY.expand(image);
+        return call(IMAGE_GET_ARCHIVE_TARBALL_FOR_REPOSITORY, image, 0, table -> httpClient().getResponseBufferStream(table.path(endpoint)));
+    }
+
     @Override
     public Path getTarballContainingAllImages(Path exportDir, String filename, ImageTag... imageTags) {
-        validate(filename, Strings::isEmptyOrNull, () -> "filename can't be null or empty.");
-        validate(exportDir, p -> !p.toFile().exists(), () -> "exportDir should exists.");
-        QueryParameter[] queryParameters = Arrays.stream(imageTags).map(i -> QueryParameter.of("names", String.format("%s%s", i.getImage(), i.getTag().map(t -> String.format(":%s", t)).orElse("")))).toArray(QueryParameter[]::new);
-        Observable<Buffer> bufferStream = httpClient.getResponseBufferStream(IMAGE_GET_ARCHIVE_TARBALL, queryParameters);
+        Observable<Buffer> bufferStream = imagesTarballStream(exportDir, filename, imageTags);
         Path exportFilePath = exportDir.resolve(filename + ".tar");
-        writeToOutputDir(bufferStream, exportFilePath.toAbsolutePath());
+        writeToOutputDir(IMAGE_GET_ARCHIVE_TARBALL, null, bufferStream, exportFilePath.toAbsolutePath());
         return exportFilePath;
     }
 
+    Observable<Path> getTarballContainingAllImagesObs(final Path exportDir, final String filename, final ImageTag... imageTags) {
+        return writeToFileObs(IMAGE_GET_ARCHIVE_TARBALL, null, imagesTarballStream(exportDir, filename, imageTags), exportDir.resolve(filename + ".tar"));
+    }
+
+    private Observable<Buffer> imagesTarballStream(final Path exportDir, final String filename, final ImageTag... imageTags) {
+        validate(filename, Strings::isEmptyOrNull, () -> "filename can't be null or empty.");
+        validate(exportDir, p -> !p.toFile().exists(), () -> "exportDir should exists.");
+        QueryParameter[] queryParameters = Arrays.stream(imageTags).map(i -> QueryParameter.of("names", i.getImage() + i.getTag().map(t -> ":" + t).orElse(""))).toArray(QueryParameter[]::new);
+        return call(IMAGE_GET_ARCHIVE_TARBALL, null, 0, table -> httpClient().getResponseBufferStream(table.path(IMAGE_GET_ARCHIVE_TARBALL), queryParameters));
+    }
+
     @Override
     public HttpStatus loadImagesAndTagsTarball(final Path pathToTarArchive) {
         return loadImagesAndTagsTarballObs(pathToTarArchive).toBlocking().last();
@@ -773,29 +1293,89 @@ class DefaultRxDockerClient implements RxDockerClient {
         validate(pathToTarArchive, path -> path == null, () -> "path to archive can't be null");
         validate(pathToTarArchive, path -> !path.toFile().exists(), () -> String.format("%s can't be resolved to a tar file", pathToTarArchive.toAbsolutePath().toString()));
         final String endpoint = IMAGE_LOAD;
-        return httpClient.postTarStream(endpoint, pathToTarArchive);
+        return call(IMAGE_LOAD, null, sizeOf(pathToTarArchive), table -> httpClient().postTarStream(table.path(endpoint), pathToTarArchive))
+                .doOnTerminate(() -> imageCache.invalidateAll());
     }
 
     @Override
     public HttpStatus createImage(final String name, final Path imageToLoad) {
-        String response = createImageObs(name, imageToLoad).toBlocking().last();
-        Map<String, String> o = gson.fromJson(response, new TypeToken<Map<String, String>>() {
-        }.getType());
-        tagImage(o.get("status"), ImageTagQueryParameters.with(name, "latest"));
-        return HttpStatus.OK;
+        return createAndTagImageObs(name, imageToLoad).toBlocking().single();
+    }
+
+    Observable<HttpStatus> createAndTagImageObs(final String name, final Path imageToLoad) {
+        return createImageObs(name, imageToLoad)
+                .last()
+                .flatMap(response -> {
+                    Map<String, String> o = gson().fromJson(response, new TypeToken<Map<String, String>>() {
+                    }.getType());
+                    return tagImageObs(o.get("status"), ImageTagQueryParameters.with(name, "latest"));
+                })
+                .map(tagged -> HttpStatus.OK);
     }
 
     @Override
     public Observable<String> createImageObs(final String name, final Path imageToLoad) {
         validate(imageToLoad, path -> path == null, () -> "imageToLoad path can't be null");
         validate(imageToLoad, path -> !path.toFile().exists(), () -> String.format("%s can't be resolved to a tar file", imageToLoad.toAbsolutePath().toString()));
-        final String endpoint = String.format(IMAGE_CREATE_ENDPOINT_FROM_SRC, "-", name);
-        return httpClient.postTarStream(endpoint, imageToLoad, ResponseTransformer.fromBody(ResponseBody::string));
+        final String endpoint = Endpoints.IMAGE_CREATE_FROM_SRC.expand("-", name);
+        return call(IMAGE_CREATE_ENDPOINT, name, sizeOf(imageToLoad), table -> httpClient().postTarStream(table.path(endpoint), imageToLoad, ResponseTransformer.fromBody(ResponseBody::string)))
+                .doOnTerminate(() -> imageCache.invalidate(name));
     }
 
 
-    private void writeToOutputDir(Observable<Buffer> bufferStream, final Path exportFilePath) {
-        writeToOutputDir(bufferStream, exportFilePath.toAbsolutePath().toString());
+    private Observable<Path> writeToFileObs(final String endpointTemplate, final String resourceId, final Observable<Buffer> buffers, final Path exportFilePath) {
+        final Observable<Buffer> bufferStream = exportStream(endpointTemplate, resourceId, buffers, exportFilePath);
+        return Observable.using(
+                () -> {
+                    try {
+                        return new FileOutputStream(exportFilePath.toFile());
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                },
+                out -> bufferStream
+                        .doOnNext(buffer -> {
+                            try {
+                                buffer.writeTo(out);
+                            } catch (IOException e) {
+                                throw new RuntimeException(e);
+                            }
+                        })
+                        .ignoreElements()
+                        .cast(Path.class)
+                        .concatWith(Observable.just(exportFilePath))
+                        .doOnCompleted(() -> logger.debug("Exported to path {}", exportFilePath)),
+                out -> {
+                    try {
+                        out.close();
+                    } catch (IOException e) {
+                        logger.warn("Unable to close {}", exportFilePath, e);
+                    }
+                });
+    }
+
+    private void writeToOutputDir(final String endpointTemplate, final String resourceId, Observable<Buffer> bufferStream, final Path exportFilePath) {
+        writeToOutputDir(exportStream(endpointTemplate, resourceId, bufferStream, exportFilePath), exportFilePath.toAbsolutePath().toString());
+    }
+
+    /**
+     * Records a flight recorder event covering the whole export, with the number of bytes written.
+     */
+    private Observable<Buffer> exportStream(final String endpointTemplate, final String resourceId, final Observable<Buffer> bufferStream, final Path exportFilePath) {
+        return Observable.defer(() -> {
+            final DockerEvents.Export event = DockerEvents.beginExport(endpointTemplate, resourceId, exportFilePath);
+            final AtomicLong bytes = new AtomicLong();
+            final AtomicBoolean ended = new AtomicBoolean();
+            final Action0 end = () -> {
+                if (ended.compareAndSet(false, true)) {
+                    event.end(bytes.get());
+                }
+            };
+            return bufferStream
+                    .doOnNext(buffer -> bytes.addAndGet(buffer.size()))
+                    .doOnTerminate(end)
+                    .doOnUnsubscribe(end);
+        });
     }
 
     private void writeToOutputDir(Observable<Buffer> bufferStream, final String exportFilePath) {
@@ -803,7 +1383,7 @@ class DefaultRxDockerClient implements RxDockerClient {
             Subscriber<Buffer> httpSubscriber = new Subscriber<Buffer>() {
                 @Override
                 public void onCompleted() {
-                    logger.info("Exported to path {}", exportFilePath);
+                    logger.debug("Exported to path {}", exportFilePath);
                 }
 
                 @Override
@@ -814,7 +1394,6 @@ class DefaultRxDockerClient implements RxDockerClient {
                 @Override
                 public void onNext(Buffer res) {
                     try {
-                        logger.info("Exporting to path {}", exportFilePath);
                         final byte[] buffer = new byte[1024];
                         int n;
                         while (-1 != (n = res.read(buffer))) {
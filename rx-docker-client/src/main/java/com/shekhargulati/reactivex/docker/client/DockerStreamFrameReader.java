@@ -0,0 +1,83 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.shekhargulati.reactivex.docker.client.representations.DockerStreamFrame;
+import com.shekhargulati.reactivex.docker.client.representations.DockerStreamFrame.StreamType;
+import okio.Buffer;
+import okio.BufferedSource;
+
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+/**
+ * Decodes the output of a container, either multiplexed into frames with an 8 byte header or, for a tty, raw.
+ */
+class DockerStreamFrameReader {
+
+    static final String MULTIPLEXED_STREAM = "application/vnd.docker.multiplexed-stream";
+
+    private static final int RAW_READ_SIZE = 8192;
+
+    private final BufferedSource source;
+    private Optional<Boolean> multiplexed;
+
+    /**
+     * @param multiplexed whether the output is multiplexed, when known. Otherwise it is guessed from the first byte.
+     */
+    DockerStreamFrameReader(BufferedSource source, Optional<Boolean> multiplexed) {
+        this.source = source;
+        this.multiplexed = multiplexed;
+    }
+
+    /**
+     * Reads the next frame, blocking until it is available.
+     *
+     * @return the frame or null when the output is closed
+     */
+    DockerStreamFrame read() throws IOException {
+        if (!source.request(1)) {
+            return null;
+        }
+        if (!multiplexed.isPresent()) {
+            // a frame header starts with the stream type 0, 1 or 2, tty output almost never does
+            multiplexed = Optional.of(source.buffer().getByte(0) <= 2);
+        }
+        if (multiplexed.get()) {
+            if (!source.request(8)) {
+                throw new ProtocolException("unexpected end of stream in frame header");
+            }
+            StreamType type = StreamType.fromHeader(source.readByte());
+            source.skip(3);
+            int size = source.readInt();
+            return new DockerStreamFrame(type, ByteBuffer.wrap(source.readByteArray(size)));
+        }
+        Buffer chunk = new Buffer();
+        source.read(chunk, RAW_READ_SIZE);
+        return new DockerStreamFrame(StreamType.RAW, ByteBuffer.wrap(chunk.readByteArray()));
+    }
+}
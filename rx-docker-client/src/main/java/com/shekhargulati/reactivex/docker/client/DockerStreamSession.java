@@ -0,0 +1,182 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.shekhargulati.reactivex.docker.client.http.HttpConnection;
+import com.shekhargulati.reactivex.docker.client.http.HttpEndpoint;
+import com.shekhargulati.reactivex.docker.client.http.ResponseHead;
+import com.shekhargulati.reactivex.docker.client.representations.DockerStreamFrame;
+import rx.Observable;
+import rx.observables.SyncOnSubscribe;
+import rx.schedulers.Schedulers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A hijacked connection to an attached container or a started exec instance. After the daemon upgrades the
+ * connection, whatever is written to the session goes to the process stdin and the process output is read back as
+ * {@link DockerStreamFrame}s.
+ * <p>
+ * Frames are only read from the socket when the subscriber requests them, so a slow subscriber makes the daemon
+ * stop writing through TCP flow control instead of filling the heap. Writes block while the socket send buffer is
+ * full and can be called from any thread.
+ */
+public class DockerStreamSession implements AutoCloseable {
+
+    private final HttpConnection connection;
+    private final DockerStreamFrameReader reader;
+    private final Lock writeLock = new ReentrantLock();
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    DockerStreamSession(HttpConnection connection, Optional<Boolean> multiplexed) {
+        this.connection = connection;
+        this.reader = new DockerStreamFrameReader(connection.source(), multiplexed);
+    }
+
+    /**
+     * Sends the request with <code>Upgrade: tcp</code> and waits for the daemon to hijack the connection.
+     *
+     * @param tty whether the process has a tty, when known. Without a tty the output is multiplexed.
+     */
+    static DockerStreamSession open(HttpEndpoint endpoint, String path, String contentType, byte[] body, Optional<Boolean> tty) throws IOException {
+        HttpConnection connection = endpoint.connect();
+        try {
+            Map<String, String> headers = new LinkedHashMap<>();
+            headers.put("Content-Type", contentType);
+            headers.put("Connection", "Upgrade");
+            headers.put("Upgrade", "tcp");
+            connection.writeRequest("POST", path, headers, body);
+            ResponseHead head = connection.readResponseHead();
+            if (head.code() != 101) {
+                // daemons that do not support the upgrade answer 200 and hijack anyway
+                connection.readBodyIfUnsuccessful(head);
+            }
+            Optional<Boolean> multiplexed = tty.map(t -> !t);
+            if (!multiplexed.isPresent() && head.header("Content-Type").map(DockerStreamFrameReader.MULTIPLEXED_STREAM::equals).orElse(false)) {
+                multiplexed = Optional.of(true);
+            }
+            return new DockerStreamSession(connection, multiplexed);
+        } catch (IOException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Output of the process. Frames are read on the io scheduler, one read per requested frame. The session is
+     * closed when the subscriber unsubscribes or the process exits.
+     */
+    public Observable<DockerStreamFrame> frames() {
+        return Observable.create(SyncOnSubscribe.<DockerStreamSession, DockerStreamFrame>createSingleState(
+                () -> this,
+                (session, observer) -> {
+                    try {
+                        DockerStreamFrame frame = session.readFrame();
+                        if (frame == null) {
+                            session.close();
+                            observer.onCompleted();
+                        } else {
+                            observer.onNext(frame);
+                        }
+                    } catch (IOException e) {
+                        boolean closedByUs = session.closed.get();
+                        session.close();
+                        if (closedByUs) {
+                            observer.onCompleted();
+                        } else {
+                            observer.onError(e);
+                        }
+                    }
+                },
+                DockerStreamSession::close))
+                .subscribeOn(Schedulers.io());
+    }
+
+    /**
+     * Reads the next frame, blocking until it is available.
+     *
+     * @return the frame or null when the process closed its output
+     */
+    DockerStreamFrame readFrame() throws IOException {
+        return reader.read();
+    }
+
+    /**
+     * Writes to the stdin of the process. The bytes between the position and the limit of the buffer are written and
+     * the position is moved to the limit.
+     */
+    public void write(ByteBuffer bytes) throws IOException {
+        byte[] array = new byte[bytes.remaining()];
+        bytes.get(array);
+        writeLock.lock();
+        try {
+            connection.sink().write(array);
+            connection.sink().flush();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void write(String text) throws IOException {
+        write(ByteBuffer.wrap(text.getBytes(UTF_8)));
+    }
+
+    /**
+     * Closes stdin of the process, which is how most commands learn that their input is finished. The output can
+     * still be read.
+     */
+    public void closeStdin() throws IOException {
+        writeLock.lock();
+        try {
+            connection.shutdownOutput();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            try {
+                connection.close();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.shekhargulati.reactivex.docker.client.http.DockerTls;
+import com.shekhargulati.reactivex.docker.client.http.HttpEndpoint;
+import com.shekhargulati.reactivex.docker.client.representations.DockerVersion;
+import com.shekhargulati.reactivex.rxokhttp.RxHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Observable;
+
+import javax.net.SocketFactory;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static com.shekhargulati.reactivex.docker.client.RxDockerClient.DEFAULT_DOCKER_HOST;
+import static com.shekhargulati.reactivex.docker.client.RxDockerClient.DEFAULT_DOCKER_PORT;
+import static com.shekhargulati.reactivex.rxokhttp.ClientConfig.defaultConfig;
+
+/**
+ * The connection to a daemon that several clients can share: the HTTP client and its connection pool, the TLS
+ * material and the API version negotiated with the daemon. Every client keeps its own metrics, limits, retry policy
+ * and cache, so clients with different settings for the same daemon pay for the connection once.
+ * <p>
+ * Nothing is set up before the first request needs it. Creating a transport and a client only parses the address of
+ * the daemon, the cert path is read and the HTTP client built by the first request.
+ */
+public final class DockerTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(DockerTransport.class);
+
+    private final HostAndPort hostAndPort;
+    private final Optional<String> certPath;
+
+    private volatile RxHttpClient httpClient;
+    private volatile Optional<DockerTls> tls;
+    private volatile HttpEndpoint streamEndpoint;
+
+    private final ApiNegotiation negotiation;
+
+    private DockerTransport(HostAndPort hostAndPort, Optional<String> certPath) {
+        this.hostAndPort = hostAndPort;
+        this.certPath = certPath;
+        this.negotiation = new ApiNegotiation(getApiUri());
+    }
+
+    /**
+     * Builds the transport using DOCKER_HOST and DOCKER_CERT_PATH environment variables
+     */
+    public static DockerTransport fromDefaultEnv() {
+        return create(System.getenv("DOCKER_HOST"), System.getenv("DOCKER_CERT_PATH"));
+    }
+
+    /**
+     * @param dockerHost     host:port of the daemon, null for the default one
+     * @param dockerCertPath directory of the TLS material of the daemon, null for a plain daemon
+     */
+    public static DockerTransport create(final String dockerHost, final String dockerCertPath) {
+        return new DockerTransport(Optional.ofNullable(dockerHost).map(HostAndPort::from).orElse(HostAndPort.using(DEFAULT_DOCKER_HOST, DEFAULT_DOCKER_PORT)),
+                Optional.ofNullable(dockerCertPath));
+    }
+
+    public String getApiUri() {
+        return (isSecure() ? "https" : "http") + "://" + hostAndPort.getHost() + ":" + hostAndPort.getPort();
+    }
+
+    public boolean isSecure() {
+        return certPath.isPresent();
+    }
+
+    /**
+     * @return the TLS configuration, read from the cert path on the first call
+     */
+    public Optional<DockerTls> tls() {
+        Optional<DockerTls> loaded = tls;
+        if (loaded == null) {
+            synchronized (this) {
+                loaded = tls;
+                if (loaded == null) {
+                    tls = loaded = certPath.map(path -> DockerTls.fromCertPath(Paths.get(path)));
+                }
+            }
+        }
+        return loaded;
+    }
+
+    RxHttpClient httpClient() {
+        RxHttpClient client = httpClient;
+        if (client == null) {
+            synchronized (this) {
+                client = httpClient;
+                if (client == null) {
+                    logger.info("Docker API uri {}", getApiUri());
+                    httpClient = client = RxHttpClient.newRxClient(hostAndPort.getHost(), hostAndPort.getPort(), certPath, defaultConfig());
+                }
+            }
+        }
+        return client;
+    }
+
+    /**
+     * The endpoint of the hijacked attach and exec streams, which don't go through {@link #httpClient()}.
+     */
+    HttpEndpoint streamEndpoint() {
+        HttpEndpoint endpoint = streamEndpoint;
+        if (endpoint == null) {
+            endpoint = new HttpEndpoint(hostAndPort, SocketFactory.getDefault(), HttpEndpoint.DEFAULT_CONNECT_TIMEOUT_MILLIS, tls());
+            streamEndpoint = endpoint;
+        }
+        return endpoint;
+    }
+
+    /**
+     * @return the endpoint table of the negotiated API version, null until a negotiation has succeeded
+     */
+    EndpointTable endpointTable() {
+        return negotiation.endpointTable();
+    }
+
+    /**
+     * The endpoint table of the API version negotiated with the daemon. The daemon is asked for its version once, by
+     * the first request of any client sharing the transport, and concurrent first requests wait for the same answer.
+     * A failed negotiation is forgotten so that the next request tries again.
+     */
+    Observable<EndpointTable> negotiate(Supplier<Observable<DockerVersion>> version) {
+        return negotiation.negotiate(version);
+    }
+
+    ApiNegotiation negotiation() {
+        return negotiation;
+    }
+}
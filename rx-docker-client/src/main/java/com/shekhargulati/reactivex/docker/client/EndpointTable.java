@@ -0,0 +1,118 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.shekhargulati.reactivex.docker.client.representations.DockerVersion;
+
+import java.util.Optional;
+
+/**
+ * The paths of the endpoints for the API version negotiated with a daemon, like
+ * <code>v1.41/containers/json</code>, and the features that version has. Pinning the version keeps the behaviour of
+ * the endpoints from changing with the daemon's default version.
+ */
+final class EndpointTable {
+
+    /**
+     * The newest API version whose endpoints this client knows.
+     */
+    static final ApiVersion MAX_API_VERSION = ApiVersion.of(1, 41);
+
+    private static final EndpointTable UNVERSIONED = new EndpointTable(Optional.empty());
+
+    private final Optional<ApiVersion> version;
+
+    private EndpointTable(Optional<ApiVersion> version) {
+        this.version = version;
+    }
+
+    /**
+     * Paths without a version prefix, answered with the daemon's default version.
+     */
+    static EndpointTable unversioned() {
+        return UNVERSIONED;
+    }
+
+    static EndpointTable pinned(ApiVersion version) {
+        return new EndpointTable(Optional.of(version));
+    }
+
+    /**
+     * Pins the daemon's version, or {@link #MAX_API_VERSION} for newer daemons, unless the daemon no longer accepts
+     * it, in which case the oldest version the daemon accepts is pinned.
+     */
+    static EndpointTable negotiate(DockerVersion daemon) {
+        final ApiVersion version = ApiVersion.parse(daemon.apiVersion());
+        final ApiVersion negotiated = version.isAtLeast(MAX_API_VERSION) ? MAX_API_VERSION : version;
+        if (daemon.minApiVersion() != null && !negotiated.isAtLeast(ApiVersion.parse(daemon.minApiVersion()))) {
+            return pinned(ApiVersion.parse(daemon.minApiVersion()));
+        }
+        return pinned(negotiated);
+    }
+
+    Optional<ApiVersion> version() {
+        return version;
+    }
+
+    boolean supports(Feature feature) {
+        return version.isPresent() && version.get().isAtLeast(feature.since);
+    }
+
+    /**
+     * @param endpoint an expanded endpoint, like <code>containers/abc123/json</code> or <code>/exec/abc123/start</code>
+     */
+    String path(String endpoint) {
+        if (!version.isPresent()) {
+            return endpoint;
+        }
+        final boolean absolute = endpoint.startsWith("/");
+        return (absolute ? "/v" : "v") + version.get() + "/" + (absolute ? endpoint.substring(1) : endpoint);
+    }
+
+    @Override
+    public String toString() {
+        return version.map(v -> "v" + v).orElse("unversioned");
+    }
+
+    /**
+     * Endpoint behaviour that depends on the API version.
+     */
+    enum Feature {
+        /**
+         * <code>stream=false</code> on container stats, a single sample instead of a stream.
+         */
+        STATS_WITHOUT_STREAM(ApiVersion.of(1, 19)),
+        /**
+         * <code>one-shot=true</code> on container stats, a sample without waiting a second for the previous CPU usage.
+         */
+        ONE_SHOT_STATS(ApiVersion.of(1, 41));
+
+        private final ApiVersion since;
+
+        Feature(ApiVersion since) {
+            this.since = since;
+        }
+    }
+}
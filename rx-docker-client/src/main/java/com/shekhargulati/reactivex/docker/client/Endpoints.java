@@ -0,0 +1,74 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.shekhargulati.reactivex.docker.client.http.EndpointTemplate;
+
+import static com.shekhargulati.reactivex.docker.client.http.EndpointTemplate.compile;
+
+/**
+ * The endpoint constants of {@link ContainerOperations} and {@link ImageOperations} compiled to templates, together
+ * with the query parameters the clients append to them.
+ */
+final class Endpoints {
+
+    static final EndpointTemplate CREATE_CONTAINER_WITH_NAME = compile(ContainerOperations.CREATE_CONTAINER_ENDPOINT + "?name=%s");
+    static final EndpointTemplate CONTAINER_JSON = compile(ContainerOperations.CONTAINER_JSON_ENDPOINT);
+    static final EndpointTemplate CONTAINER_LIST_PROCESS = compile(ContainerOperations.CONTAINER_LIST_PROCESS_ENDPOINT);
+    static final EndpointTemplate CONTAINER_START = compile(ContainerOperations.CONTAINER_START_ENDPOINT);
+    static final EndpointTemplate CONTAINER_STOP = compile(ContainerOperations.CONTAINER_STOP_ENDPOINT + "?t=%s");
+    static final EndpointTemplate CONTAINER_RESTART = compile(ContainerOperations.CONTAINER_RESTART_ENDPOINT + "?t=%s");
+    static final EndpointTemplate CONTAINER_KILL = compile(ContainerOperations.CONTAINER_KILL_ENDPOINT);
+    static final EndpointTemplate CONTAINER_REMOVE = compile(ContainerOperations.CONTAINER_REMOVE_ENDPOINT + "?v=%s&force=%s");
+    static final EndpointTemplate CONTAINER_RENAME = compile(ContainerOperations.CONTAINER_RENAME_ENDPOINT + "?name=%s");
+    static final EndpointTemplate CONTAINER_WAIT = compile(ContainerOperations.CONTAINER_WAIT_ENDPOINT);
+    static final EndpointTemplate CONTAINER_EXPORT = compile(ContainerOperations.CONTAINER_EXPORT_ENDPOINT);
+    static final EndpointTemplate CONTAINER_STATS = compile(ContainerOperations.CONTAINER_STATS_ENDPOINT);
+    static final EndpointTemplate CONTAINER_LOGS = compile(ContainerOperations.CONTAINER_LOGS_ENDPOINT);
+    static final EndpointTemplate CONTAINER_CHANGES = compile(ContainerOperations.CONTAINER_CHANGES_ENDPOINT);
+    static final EndpointTemplate CONTAINER_RESIZE = compile(ContainerOperations.CONTAINER_RESIZE_ENDPOINT);
+    static final EndpointTemplate CONTAINER_PAUSE = compile(ContainerOperations.CONTAINER_PAUSE_ENDPOINT);
+    static final EndpointTemplate CONTAINER_UNPAUSE = compile(ContainerOperations.CONTAINER_UNPAUSE_ENDPOINT);
+    static final EndpointTemplate CONTAINER_ATTACH = compile(ContainerOperations.CONTAINER_ATTACH_ENDPOINT);
+    static final EndpointTemplate CONTAINER_ARCHIVE = compile(ContainerOperations.CONTAINER_ARCHIVE_ENDPOINT);
+    static final EndpointTemplate CONTAINER_EXEC_CREATE = compile(ContainerOperations.CONTAINER_EXEC_CREATE_ENDPOINT);
+    static final EndpointTemplate CONTAINER_EXEC_START = compile(ContainerOperations.CONTAINER_EXEC_START_ENDPOINT);
+    static final EndpointTemplate CONTAINER_EXEC_INSPECT = compile(ContainerOperations.CONTAINER_EXEC_INSPECT_ENDPOINT);
+
+    static final EndpointTemplate IMAGE_PULL = compile(ImageOperations.IMAGE_PULL_ENDPOINT);
+    static final EndpointTemplate IMAGE_PULL_FROM_REGISTRY = compile(ImageOperations.IMAGE_PULL_FROM_REGISTRY_ENDPOINT);
+    static final EndpointTemplate IMAGE_CREATE_FROM_SRC = compile(ImageOperations.IMAGE_CREATE_ENDPOINT_FROM_SRC);
+    static final EndpointTemplate IMAGE_REMOVE = compile(ImageOperations.IMAGE_REMOVE_ENDPOINT + "?noprune=%s&force=%s");
+    static final EndpointTemplate IMAGE_SEARCH = compile(ImageOperations.IMAGE_SEARCH_ENDPOINT + "?term=%s");
+    static final EndpointTemplate IMAGE_BUILD = compile(ImageOperations.IMAGE_BUILD_ENDPOINT + "?t=%s");
+    static final EndpointTemplate IMAGE_TAG = compile(ImageOperations.IMAGE_TAG_ENDPOINT);
+    static final EndpointTemplate IMAGE_HISTORY = compile(ImageOperations.IMAGE_HISTORY_ENDPOINT);
+    static final EndpointTemplate IMAGE_INSPECT = compile(ImageOperations.IMAGE_INSPECT_ENDPOINT);
+    static final EndpointTemplate IMAGE_PUSH = compile(ImageOperations.IMAGE_PUSH_ENDPOINT);
+    static final EndpointTemplate IMAGE_GET_ARCHIVE_TARBALL_FOR_REPOSITORY = compile(ImageOperations.IMAGE_GET_ARCHIVE_TARBALL_FOR_REPOSITORY);
+
+    private Endpoints() {
+    }
+}
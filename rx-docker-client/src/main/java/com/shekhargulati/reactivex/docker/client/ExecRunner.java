@@ -0,0 +1,184 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.shekhargulati.reactivex.docker.client.representations.DockerStreamFrame;
+import com.shekhargulati.reactivex.docker.client.representations.ExecCreateRequest;
+import com.shekhargulati.reactivex.docker.client.representations.ExecCreateResponse;
+import com.shekhargulati.reactivex.docker.client.representations.ExecInspectResponse;
+import com.shekhargulati.reactivex.docker.client.representations.ExecResult;
+import com.shekhargulati.reactivex.docker.client.representations.ExecStartRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Observable;
+import rx.Scheduler;
+import rx.schedulers.Schedulers;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static com.shekhargulati.reactivex.docker.client.utils.Validations.validate;
+
+/**
+ * Runs a command in many containers and reports its exit code, output and duration per container. Every execution
+ * creates an exec instance, starts it over a hijacked connection that demultiplexes stdout and stderr into bounded
+ * buffers, and inspects the instance once the stream ends to read the exit code. Up to <code>concurrency</code>
+ * executions are in flight at the same time and each one is bounded by <code>timeout</code>.
+ * <p>
+ * A failed or timed out execution is reported as an {@link ExecResult} carrying the error, it never fails the whole
+ * run. The daemon has no API to stop an exec instance, so a command that times out keeps running in its container.
+ */
+public class ExecRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecRunner.class);
+
+    static final long INSPECT_POLL_MILLIS = 20;
+
+    private final BiFunction<String, ExecCreateRequest, Observable<ExecCreateResponse>> create;
+    private final Function<String, Observable<DockerStreamFrame>> start;
+    private final Function<String, Observable<ExecInspectResponse>> inspect;
+    private final Scheduler scheduler;
+    private final int concurrency;
+    private final Duration timeout;
+    private final int maxOutputBytes;
+
+    ExecRunner(BiFunction<String, ExecCreateRequest, Observable<ExecCreateResponse>> create,
+               Function<String, Observable<DockerStreamFrame>> start,
+               Function<String, Observable<ExecInspectResponse>> inspect,
+               Scheduler scheduler,
+               int concurrency,
+               Duration timeout,
+               int maxOutputBytes) {
+        validate(concurrency, c -> c < 1, "concurrency must be at least 1");
+        validate(timeout, t -> t == null || t.isNegative() || t.isZero(), "timeout must be positive");
+        validate(maxOutputBytes, m -> m < 0, "maxOutputBytes can't be negative");
+        this.create = create;
+        this.start = start;
+        this.inspect = inspect;
+        this.scheduler = scheduler;
+        this.concurrency = concurrency;
+        this.timeout = timeout;
+        this.maxOutputBytes = maxOutputBytes;
+    }
+
+    /**
+     * Creates a runner that executes 16 commands at a time, gives each one 30 seconds and keeps up to 64KB of
+     * stdout and of stderr per command.
+     */
+    public static ExecRunner create(ContainerOperations client) {
+        return new ExecRunner(
+                client::execCreateObs,
+                execId -> client.execStartSessionObs(execId, ExecStartRequest.withDefaults()).flatMap(DockerStreamSession::frames),
+                client::execInspectObs,
+                Schedulers.computation(),
+                16,
+                Duration.ofSeconds(30),
+                64 * 1024);
+    }
+
+    public ExecRunner withConcurrency(int concurrency) {
+        return new ExecRunner(create, start, inspect, scheduler, concurrency, timeout, maxOutputBytes);
+    }
+
+    public ExecRunner withTimeout(Duration timeout) {
+        return new ExecRunner(create, start, inspect, scheduler, concurrency, timeout, maxOutputBytes);
+    }
+
+    public ExecRunner withMaxOutputBytes(int maxOutputBytes) {
+        return new ExecRunner(create, start, inspect, scheduler, concurrency, timeout, maxOutputBytes);
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public int getMaxOutputBytes() {
+        return maxOutputBytes;
+    }
+
+    /**
+     * Runs the command in every container. Results are emitted in completion order, one per container.
+     *
+     * @param containerIds containers to run the command in
+     * @param cmd          command and its arguments
+     * @return an Observable of results
+     */
+    public Observable<ExecResult> run(final Collection<String> containerIds, final List<String> cmd) {
+        validate(containerIds, ids -> ids == null, "containerIds can't be null");
+        validate(cmd, c -> c == null || c.isEmpty(), "cmd can't be null or empty");
+        return Observable.from(containerIds).flatMap(containerId -> exec(containerId, cmd), concurrency);
+    }
+
+    public Observable<ExecResult> run(final Collection<String> containerIds, final String... cmd) {
+        return run(containerIds, Arrays.asList(cmd));
+    }
+
+    private Observable<ExecResult> exec(final String containerId, final List<String> cmd) {
+        return Observable.defer(() -> {
+            final long startedAt = System.nanoTime();
+            final BoundedOutputBuffer stdout = new BoundedOutputBuffer(maxOutputBytes);
+            final BoundedOutputBuffer stderr = new BoundedOutputBuffer(maxOutputBytes);
+            final String[] execId = {null};
+            return create.apply(containerId, ExecCreateRequest.withCmd(cmd).withAttachStdin(false))
+                    .map(ExecCreateResponse::getId)
+                    .doOnNext(id -> execId[0] = id)
+                    .concatMap(id -> start.apply(id)
+                            .doOnNext(frame -> (frame.type() == DockerStreamFrame.StreamType.STDERR ? stderr : stdout).append(frame.payload()))
+                            .ignoreElements()
+                            .cast(ExecInspectResponse.class)
+                            .concatWith(awaitExit(id)))
+                    .timeout(timeout.toMillis(), TimeUnit.MILLISECONDS, scheduler)
+                    .map(inspected -> ExecResult.completed(containerId, execId[0], inspected.exitCode(),
+                            stdout.asString(), stderr.asString(), stdout.isTruncated() || stderr.isTruncated(), elapsedSince(startedAt)))
+                    .onErrorReturn(e -> {
+                        logger.debug("exec of {} in container {} failed", cmd, containerId, e);
+                        return ExecResult.failed(containerId, execId[0],
+                                stdout.asString(), stderr.asString(), stdout.isTruncated() || stderr.isTruncated(), elapsedSince(startedAt), e);
+                    });
+        });
+    }
+
+    /**
+     * The exit code is recorded by the daemon slightly after the output stream ends, so inspect until it is there.
+     */
+    private Observable<ExecInspectResponse> awaitExit(final String execId) {
+        return Observable.defer(() -> inspect.apply(execId))
+                .repeatWhen(completions -> completions.delay(INSPECT_POLL_MILLIS, TimeUnit.MILLISECONDS, scheduler))
+                .takeFirst(inspected -> !inspected.running() && inspected.exitCode() != null);
+    }
+
+    private static Duration elapsedSince(long startedAt) {
+        return Duration.ofNanos(System.nanoTime() - startedAt);
+    }
+}
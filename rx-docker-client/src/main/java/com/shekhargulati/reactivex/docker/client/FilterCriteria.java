@@ -0,0 +1,131 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Criteria shared by {@link ContainerFilter} and {@link ImageFilter}. Every criterion is one key of the daemon's JSON
+ * filters with values that any may match, the criteria all have to match.
+ */
+final class FilterCriteria<T> {
+
+    private static final Set<String> REPEATABLE_KEYS = Collections.singleton("label");
+
+    private final List<Criterion<T>> criteria;
+
+    private FilterCriteria(List<Criterion<T>> criteria) {
+        this.criteria = Collections.unmodifiableList(criteria);
+    }
+
+    static <T> FilterCriteria<T> of(Criterion<T> criterion) {
+        return new FilterCriteria<>(Collections.singletonList(criterion));
+    }
+
+    FilterCriteria<T> and(FilterCriteria<T> other) {
+        List<Criterion<T>> combined = new ArrayList<>(criteria);
+        for (Criterion<T> criterion : other.criteria) {
+            if (!REPEATABLE_KEYS.contains(criterion.key) && criteria.stream().anyMatch(c -> c.key.equals(criterion.key))) {
+                throw new IllegalArgumentException(String.format("%s can only be filtered once, pass all its values to one filter", criterion.key));
+            }
+            combined.add(criterion);
+        }
+        return new FilterCriteria<>(combined);
+    }
+
+    /**
+     * Drops the criteria on the keys of the other criteria and adds those instead.
+     */
+    FilterCriteria<T> replacing(FilterCriteria<T> other) {
+        List<Criterion<T>> combined = new ArrayList<>();
+        criteria.stream().filter(c -> other.criteria.stream().noneMatch(o -> o.key.equals(c.key))).forEach(combined::add);
+        combined.addAll(other.criteria);
+        return new FilterCriteria<>(combined);
+    }
+
+    Map<String, List<String>> toMap() {
+        Map<String, List<String>> filters = new TreeMap<>();
+        criteria.forEach(c -> filters.computeIfAbsent(c.key, k -> new ArrayList<>()).addAll(c.values));
+        return filters;
+    }
+
+    /**
+     * @throws UnsupportedOperationException if a criterion is neither supported by the API version nor by the client
+     */
+    FilterPushDown<T> pushDown(ApiVersion version) {
+        Map<String, List<String>> serverFilters = new TreeMap<>();
+        Map<String, String> serverParameters = new TreeMap<>();
+        List<Predicate<T>> residuals = new ArrayList<>();
+        for (Criterion<T> criterion : criteria) {
+            if (version.isAtLeast(criterion.since)) {
+                serverFilters.computeIfAbsent(criterion.key, k -> new ArrayList<>()).addAll(criterion.values);
+            } else if (criterion.legacyParameter && criterion.values.size() == 1) {
+                serverParameters.put(criterion.key, criterion.values.get(0));
+            } else if (criterion.fallback != null) {
+                residuals.add(criterion.fallback);
+            } else {
+                throw new UnsupportedOperationException(String.format("the %s filter needs API version %s, the daemon supports %s", criterion.key, criterion.since, version));
+            }
+        }
+        return new FilterPushDown<>(serverFilters, serverParameters, resource -> residuals.stream().allMatch(p -> p.test(resource)), !residuals.isEmpty());
+    }
+
+    @Override
+    public String toString() {
+        return FilterPushDown.toJson(toMap());
+    }
+
+    static final class Criterion<T> {
+        private final String key;
+        private final List<String> values;
+        private final ApiVersion since;
+        private final Predicate<T> fallback;
+        private final boolean legacyParameter;
+
+        private Criterion(String key, List<String> values, ApiVersion since, Predicate<T> fallback, boolean legacyParameter) {
+            this.key = key;
+            this.values = values;
+            this.since = since;
+            this.fallback = fallback;
+            this.legacyParameter = legacyParameter;
+        }
+
+        /**
+         * @param since    first API version that supports the filter
+         * @param fallback evaluates the filter on the client for older versions, null if it can't
+         */
+        static <T> Criterion<T> of(String key, List<String> values, ApiVersion since, Predicate<T> fallback) {
+            return new Criterion<>(key, values, since, fallback, false);
+        }
+
+        /**
+         * A filter older API versions take as a query parameter of its own.
+         */
+        static <T> Criterion<T> legacyParameter(String key, String value, ApiVersion since) {
+            return new Criterion<>(key, Collections.singletonList(value), since, null, true);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.shekhargulati.reactivex.docker.client.utils.UrlEncoding;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * The part of a {@link ContainerFilter} or {@link ImageFilter} an API version can evaluate, sent to the daemon, and
+ * the rest, evaluated by the client on the listed resources.
+ */
+public class FilterPushDown<T> {
+
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+
+    private final Map<String, List<String>> serverFilters;
+    private final Map<String, String> serverParameters;
+    private final Predicate<T> residual;
+    private final boolean hasResidual;
+
+    FilterPushDown(Map<String, List<String>> serverFilters, Map<String, String> serverParameters, Predicate<T> residual, boolean hasResidual) {
+        this.serverFilters = Collections.unmodifiableMap(serverFilters);
+        this.serverParameters = Collections.unmodifiableMap(serverParameters);
+        this.residual = residual;
+        this.hasResidual = hasResidual;
+    }
+
+    /**
+     * @return a push down without any filter
+     */
+    static <T> FilterPushDown<T> none() {
+        return new FilterPushDown<>(Collections.emptyMap(), Collections.emptyMap(), t -> true, false);
+    }
+
+    /**
+     * @return the filters sent as the JSON <code>filters</code> query parameter
+     */
+    public Map<String, List<String>> serverFilters() {
+        return serverFilters;
+    }
+
+    /**
+     * @return filters older API versions take as query parameters of their own, like <code>before</code>
+     */
+    public Map<String, String> serverParameters() {
+        return serverParameters;
+    }
+
+    public Predicate<T> residual() {
+        return residual;
+    }
+
+    public boolean hasResidual() {
+        return hasResidual;
+    }
+
+    /**
+     * Appends the server side part of the filter to a query that already has at least one parameter.
+     *
+     * @param extraFilters filters of the query parameters, merged with the server filters
+     */
+    String appendTo(String query, Map<String, List<String>> extraFilters) {
+        StringBuilder builder = new StringBuilder(query);
+        serverParameters.forEach((name, value) -> UrlEncoding.appendQueryValue(builder.append('&').append(name).append('='), value));
+        Map<String, List<String>> filters = new TreeMap<>(extraFilters);
+        serverFilters.forEach((key, values) -> filters.merge(key, values, (a, b) -> {
+            List<String> merged = new ArrayList<>(a);
+            merged.addAll(b);
+            return merged;
+        }));
+        if (!filters.isEmpty()) {
+            UrlEncoding.appendQueryValue(builder.append("&filters="), GSON.toJson(filters));
+        }
+        return builder.toString();
+    }
+
+    static String toJson(Map<String, List<String>> filters) {
+        return GSON.toJson(filters);
+    }
+}
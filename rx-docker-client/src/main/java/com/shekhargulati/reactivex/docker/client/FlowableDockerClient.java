@@ -0,0 +1,108 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.shekhargulati.reactivex.docker.client.http.DockerTls;
+import com.shekhargulati.reactivex.docker.client.http.HttpEndpoint;
+import com.shekhargulati.reactivex.docker.client.representations.ContainerStats;
+import com.shekhargulati.reactivex.docker.client.representations.DockerStreamFrame;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+import java.nio.file.Paths;
+import java.util.Optional;
+
+/**
+ * RxJava 3 flavour of the streaming operations of {@link RxDockerClient}, for consumers that need backpressure.
+ * Every stream owns one connection to the daemon and reads from its socket only when the subscriber requests more
+ * items, so a slow subscriber stops the reads and the daemon is throttled by TCP flow control. Memory stays bounded by
+ * the socket buffers whatever the speed of the producer. Cancelling the subscription closes the connection.
+ * <p>
+ * Reads block, they happen on the RxJava 3 io scheduler. A {@link Flowable} is a Reactive Streams
+ * {@link org.reactivestreams.Publisher}.
+ */
+public interface FlowableDockerClient {
+
+    static FlowableDockerClient fromDefaultEnv() {
+        final HostAndPort hostAndPort = Optional.ofNullable(System.getenv("DOCKER_HOST"))
+                .map(HostAndPort::from)
+                .orElse(HostAndPort.using(RxDockerClient.DEFAULT_DOCKER_HOST, RxDockerClient.DEFAULT_DOCKER_PORT));
+        final String certPath = System.getenv("DOCKER_CERT_PATH");
+        if (certPath != null) {
+            return newFlowableClient(HttpEndpoint.secure(hostAndPort, DockerTls.fromCertPath(Paths.get(certPath))));
+        }
+        return newFlowableClient(hostAndPort);
+    }
+
+    static FlowableDockerClient newFlowableClient(final HostAndPort hostAndPort) {
+        return newFlowableClient(HttpEndpoint.plain(hostAndPort));
+    }
+
+    /**
+     * @param endpoint the daemon, {@link HttpEndpoint#secure(HostAndPort, DockerTls)} for a daemon secured with TLS.
+     *                 Every stream opens its own connection, sharing the {@link DockerTls} lets it resume the TLS
+     *                 session of an earlier stream.
+     */
+    static FlowableDockerClient newFlowableClient(final HttpEndpoint endpoint) {
+        return new DefaultFlowableDockerClient(endpoint, ApiNegotiation.of(endpoint), Schedulers.io());
+    }
+
+    /**
+     * Builds a client on the daemon of a transport, which shares the API version negotiated by the other clients of
+     * the transport instead of asking the daemon again.
+     */
+    static FlowableDockerClient newFlowableClient(final DockerTransport transport) {
+        return new DefaultFlowableDockerClient(transport.streamEndpoint(), transport.negotiation(), Schedulers.io());
+    }
+
+    /**
+     * Streams the logs of a container. The output of a container without a tty is demultiplexed into stdout and
+     * stderr frames, the output of a container with a tty comes as raw frames.
+     *
+     * <p><b>REST Endpoint:</b></p>
+     * <pre>GET /containers/(id)/logs</pre>
+     */
+    Flowable<DockerStreamFrame> containerLogs(String containerId, ContainerLogQueryParameters queryParameters);
+
+    Flowable<DockerStreamFrame> containerLogs(String containerId);
+
+    /**
+     * Streams the resource usage of a container, one sample per second while it runs.
+     *
+     * <p><b>REST Endpoint:</b></p>
+     * <pre>GET /containers/(id)/stats</pre>
+     */
+    Flowable<ContainerStats> containerStats(String containerId);
+
+    /**
+     * Pulls an image, emitting the JSON progress messages of the daemon.
+     *
+     * <p><b>REST Endpoint:</b></p>
+     * <pre>POST /images/create?fromImage=(image)&amp;tag=(tag)</pre>
+     */
+    Flowable<String> pullImage(String fromImage, String user, String tag, AuthConfig authConfig);
+
+    Flowable<String> pullImage(String fromImage);
+}
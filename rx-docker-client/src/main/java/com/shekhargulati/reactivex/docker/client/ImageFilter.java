@@ -0,0 +1,140 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.shekhargulati.reactivex.docker.client.FilterCriteria.Criterion;
+import com.shekhargulati.reactivex.docker.client.representations.DockerImage;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import static com.shekhargulati.reactivex.docker.client.utils.Validations.validate;
+
+/**
+ * Filters the images listed by {@link ImageOperations#listImagesObs(ImageListQueryParameters, ImageFilter)} on the
+ * daemon, combine filters with {@link #and(ImageFilter)}. Filters the daemon's API version does not support are
+ * evaluated by the client on the listed images where possible.
+ */
+public final class ImageFilter {
+
+    private static final String UNTAGGED = "<none>:<none>";
+
+    private final FilterCriteria<DockerImage> criteria;
+
+    private ImageFilter(FilterCriteria<DockerImage> criteria) {
+        this.criteria = criteria;
+    }
+
+    private static ImageFilter of(String key, List<String> values, ApiVersion since, Predicate<DockerImage> fallback) {
+        validate(values, v -> v.isEmpty() || v.contains(null), () -> key + " filter needs at least one value and no null values");
+        return new ImageFilter(FilterCriteria.of(Criterion.of(key, values, since, fallback)));
+    }
+
+    /**
+     * Images without a tag, or only with tagged images when <code>dangling</code> is false.
+     */
+    public static ImageFilter dangling(boolean dangling) {
+        return of("dangling", Collections.singletonList(String.valueOf(dangling)), ApiVersion.of(1, 16), i -> isDangling(i) == dangling);
+    }
+
+    public static ImageFilter label(String key) {
+        return of("label", Collections.singletonList(key), ApiVersion.of(1, 18), i -> labels(i).containsKey(key));
+    }
+
+    public static ImageFilter label(String key, String value) {
+        return of("label", Collections.singletonList(key + "=" + value), ApiVersion.of(1, 18), i -> value.equals(labels(i).get(key)));
+    }
+
+    /**
+     * Images created before the given image. Older API versions can't evaluate it.
+     */
+    public static ImageFilter before(String image) {
+        return of("before", Collections.singletonList(image), ApiVersion.of(1, 24), null);
+    }
+
+    /**
+     * Images created after the given image. Older API versions can't evaluate it.
+     */
+    public static ImageFilter since(String image) {
+        return of("since", Collections.singletonList(image), ApiVersion.of(1, 24), null);
+    }
+
+    /**
+     * Images with a tag matching one of the references, which may use <code>*</code> like <code>busybox:*</code>.
+     */
+    public static ImageFilter reference(String... references) {
+        List<String> values = Arrays.asList(references);
+        List<Pattern> patterns = new ArrayList<>();
+        values.forEach(reference -> patterns.add(globToPattern(reference.contains(":") ? reference : reference + ":*")));
+        return of("reference", values, ApiVersion.of(1, 25), i -> repoTags(i).stream().anyMatch(tag -> patterns.stream().anyMatch(p -> p.matcher(tag).matches())));
+    }
+
+    /**
+     * @throws IllegalArgumentException if both filters filter on the same key, other than label
+     */
+    public ImageFilter and(ImageFilter other) {
+        return new ImageFilter(criteria.and(other.criteria));
+    }
+
+    public Map<String, List<String>> toMap() {
+        return criteria.toMap();
+    }
+
+    /**
+     * Splits this filter into what the daemon evaluates and what is left for the client.
+     *
+     * @throws UnsupportedOperationException if the API version can't evaluate a filter and the client can't either
+     */
+    public FilterPushDown<DockerImage> pushDown(ApiVersion version) {
+        return criteria.pushDown(version);
+    }
+
+    @Override
+    public String toString() {
+        return criteria.toString();
+    }
+
+    private static boolean isDangling(DockerImage image) {
+        return repoTags(image).isEmpty() || repoTags(image).stream().allMatch(UNTAGGED::equals);
+    }
+
+    private static List<String> repoTags(DockerImage image) {
+        return image.repoTags() == null ? Collections.emptyList() : image.repoTags();
+    }
+
+    private static Map<String, String> labels(DockerImage image) {
+        return image.labels() == null ? Collections.emptyMap() : image.labels();
+    }
+
+    private static Pattern globToPattern(String glob) {
+        String[] parts = glob.split("\\*", -1);
+        StringBuilder regex = new StringBuilder(Pattern.quote(parts[0]));
+        for (int i = 1; i < parts.length; i++) {
+            regex.append(".*").append(Pattern.quote(parts[i]));
+        }
+        return Pattern.compile(regex.toString());
+    }
+}
@@ -77,6 +77,13 @@ public class ImageListQueryParameters {
         return this;
     }
 
+    /**
+     * @return the query with the server side part of an {@link ImageFilter} merged into its filters
+     */
+    String toQuery(FilterPushDown<?> pushDown) {
+        return pushDown.appendTo(new ImageListQueryParameters(imageName.orElse(null), all).toQuery(), filters);
+    }
+
     public String toQuery() {
         StringBuilder queryBuilder = new StringBuilder("?");
         queryBuilder.append("all=" + all);
@@ -36,9 +36,10 @@ public interface ImageOperations {
 
     String IMAGE_ENDPOINT = "images";
     String IMAGE_BUILD_ENDPOINT = "build";
-    String IMAGE_PULL_ENDPOINT = IMAGE_ENDPOINT + "/create?fromImage=%s%s&tag=%s";
-    String IMAGE_PULL_FROM_REGISTRY_ENDPOINT = IMAGE_ENDPOINT + "/create?fromImage=%s/%s";
-    String IMAGE_CREATE_ENDPOINT_FROM_SRC = IMAGE_ENDPOINT + "/create?fromSrc=%s&tag=%s";
+    String IMAGE_CREATE_ENDPOINT = IMAGE_ENDPOINT + "/create";
+    String IMAGE_PULL_ENDPOINT = IMAGE_CREATE_ENDPOINT + "?fromImage=%s%s&tag=%s";
+    String IMAGE_PULL_FROM_REGISTRY_ENDPOINT = IMAGE_CREATE_ENDPOINT + "?fromImage=%s/%s";
+    String IMAGE_CREATE_ENDPOINT_FROM_SRC = IMAGE_CREATE_ENDPOINT + "?fromSrc=%s&tag=%s";
     String IMAGE_LIST_ENDPOINT = IMAGE_ENDPOINT + "/json";
     String IMAGE_REMOVE_ENDPOINT = IMAGE_ENDPOINT + "/%s";
     String IMAGE_SEARCH_ENDPOINT = IMAGE_ENDPOINT + "/search";
@@ -59,16 +60,51 @@ public interface ImageOperations {
 
     HttpStatus pullImage(String fromImage);
 
+    /**
+     * Lists the images.
+     * <p>
+     * The stream subscribes to the request when its terminal operation starts. Short-circuiting operations like
+     * <code>findFirst()</code> or <code>limit(n)</code> don't stop the request, only closing the stream does, so use
+     * it in a try-with-resources block unless it is fully consumed:
+     * <pre>
+     * try (Stream&lt;DockerImage&gt; images = client.listImages()) {
+     *     images.filter(image -&gt; image.size() &gt; 1_000_000_000L).findFirst();
+     * }
+     * </pre>
+     */
     Stream<DockerImage> listImages(ImageListQueryParameters queryParameters);
 
     Observable<DockerImage> listImagesObs(ImageListQueryParameters queryParameters);
 
+    /**
+     * Like {@link #listImages(ImageListQueryParameters)}, close the stream when it is not fully consumed.
+     */
+    Stream<DockerImage> listImages(ImageListQueryParameters queryParameters, ImageFilter filter);
+
+    /**
+     * Lists the images matching <code>filter</code>. The criteria the daemon's API version understands are sent as
+     * <code>filters</code>, the rest are evaluated on the returned images.
+     */
+    Observable<DockerImage> listImagesObs(ImageListQueryParameters queryParameters, ImageFilter filter);
+
+    /**
+     * Like {@link #listImages(ImageListQueryParameters)}, close the stream when it is not fully consumed.
+     */
     Stream<DockerImage> listAllImages();
 
+    /**
+     * Like {@link #listImages(ImageListQueryParameters)}, close the stream when it is not fully consumed.
+     */
     Stream<DockerImage> listImages(String imageName);
 
+    /**
+     * Like {@link #listImages(ImageListQueryParameters)}, close the stream when it is not fully consumed.
+     */
     Stream<DockerImage> listImages();
 
+    /**
+     * Like {@link #listImages(ImageListQueryParameters)}, close the stream when it is not fully consumed.
+     */
     Stream<DockerImage> listDanglingImages();
 
     Observable<HttpStatus> removeImageObs(String imageName);
@@ -84,23 +120,36 @@ public interface ImageOperations {
     }
 
     default void removeImages(Predicate<DockerImage> predicate) {
-        listAllImages().filter(predicate).forEach(image -> {
-            System.out.println(String.format("Deleting image with tag %s", image.repoTags()));
-            removeImage(image.id(), false, true);
-        });
+        try (Stream<DockerImage> images = listAllImages()) {
+            images.filter(predicate).forEach(image -> {
+                System.out.println(String.format("Deleting image with tag %s", image.repoTags()));
+                removeImage(image.id(), false, true);
+            });
+        }
     }
 
     default void removeDanglingImages() {
-        listDanglingImages().forEach(image -> {
-            System.out.println(String.format("Deleting dangling image with id %s", image.id()));
-            removeImage(image.id(), false, true);
-        });
+        try (Stream<DockerImage> images = listDanglingImages()) {
+            images.forEach(image -> {
+                System.out.println(String.format("Deleting dangling image with id %s", image.id()));
+                removeImage(image.id(), false, true);
+            });
+        }
     }
 
+    /**
+     * Like {@link #searchImages(String, Predicate)}, close the stream when it is not fully consumed.
+     */
     default Stream<DockerImageInfo> searchImages(String searchTerm) {
         return searchImages(searchTerm, t -> true);
     }
 
+    /**
+     * Searches Docker Hub for images.
+     * <p>
+     * Like {@link #listImages(ImageListQueryParameters)}, the stream only stops the request when it is closed, so
+     * use it in a try-with-resources block unless it is fully consumed.
+     */
     Stream<DockerImageInfo> searchImages(String searchTerm, Predicate<DockerImageInfo> predicate);
 
     default Observable<DockerImageInfo> searchImagesObs(String searchTerm) {
@@ -114,6 +163,12 @@ public interface ImageOperations {
 
     HttpStatus tagImage(String image, ImageTagQueryParameters queryParameters);
 
+    /**
+     * The layers of an image, newest first.
+     * <p>
+     * Like {@link #listImages(ImageListQueryParameters)}, the stream only stops the request when it is closed, so
+     * use it in a try-with-resources block unless it is fully consumed.
+     */
     Stream<DockerImageHistory> imageHistory(String image);
 
     Observable<DockerImageHistory> imageHistoryObs(String image);
@@ -44,6 +44,13 @@ public class ImageTagQueryParameters {
         return this;
     }
 
+    /**
+     * @return the name the image is tagged with, like <code>repo:tag</code>
+     */
+    String reference() {
+        return tag == null ? repo : repo + ":" + tag;
+    }
+
     public String toQuery() {
         StringBuilder queryBuilder = new StringBuilder("?");
         queryBuilder.append("repo=" + repo);
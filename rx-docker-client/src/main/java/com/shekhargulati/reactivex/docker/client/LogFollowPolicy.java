@@ -0,0 +1,88 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import java.time.Duration;
+
+import static com.shekhargulati.reactivex.docker.client.utils.Validations.validate;
+
+/**
+ * Controls how {@link ContainerOperations#followContainerLogsObs(String, ContainerLogQueryParameters, LogFollowPolicy)}
+ * reconnects to the daemon after the log stream drops. The backoff doubles after every failed attempt, up to
+ * <code>maxBackoff</code>, and is reset once a line has been delivered.
+ */
+public class LogFollowPolicy {
+
+    private static final LogFollowPolicy DEFAULT = new LogFollowPolicy(Duration.ofMillis(500), Duration.ofSeconds(30), Integer.MAX_VALUE);
+
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final int maxRetries;
+
+    private LogFollowPolicy(Duration initialBackoff, Duration maxBackoff, int maxRetries) {
+        validate(initialBackoff, d -> d == null || d.isNegative(), "initialBackoff can't be null or negative");
+        validate(maxBackoff, d -> d == null || d.compareTo(initialBackoff) < 0, "maxBackoff can't be less than initialBackoff");
+        validate(maxRetries, r -> r < 0, "maxRetries can't be negative");
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxRetries = maxRetries;
+    }
+
+    public static LogFollowPolicy defaultPolicy() {
+        return DEFAULT;
+    }
+
+    public LogFollowPolicy withInitialBackoff(Duration initialBackoff) {
+        return new LogFollowPolicy(initialBackoff, maxBackoff, maxRetries);
+    }
+
+    public LogFollowPolicy withMaxBackoff(Duration maxBackoff) {
+        return new LogFollowPolicy(initialBackoff, maxBackoff, maxRetries);
+    }
+
+    public LogFollowPolicy withMaxRetries(int maxRetries) {
+        return new LogFollowPolicy(initialBackoff, maxBackoff, maxRetries);
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    long backoffMillis(int attempt) {
+        long backoff = initialBackoff.toMillis();
+        for (int i = 0; i < attempt && backoff < maxBackoff.toMillis(); i++) {
+            backoff *= 2;
+        }
+        return Math.min(backoff, maxBackoff.toMillis());
+    }
+}
@@ -29,6 +29,8 @@ import com.shekhargulati.reactivex.docker.client.representations.DockerVersion;
 import com.shekhargulati.reactivex.rxokhttp.HttpStatus;
 import rx.Observable;
 
+import java.util.Optional;
+
 public interface MiscOperations {
 
     String VERSION_ENDPOINT = "version";
@@ -50,4 +52,20 @@ public interface MiscOperations {
 
     HttpStatus ping();
 
+    /**
+     * Pings the daemon, a failed request is reported as a status rather than as an error.
+     */
+    Observable<HttpStatus> pingObs();
+
+    /**
+     * The API version negotiated with the daemon, empty until the first request has negotiated it.
+     */
+    Optional<ApiVersion> apiVersion();
+
+    /**
+     * Negotiates the API version with the daemon unless that is already done. Every endpoint is then called with the
+     * negotiated version in its path, the newest version both the client and the daemon speak.
+     */
+    Observable<ApiVersion> negotiateApiVersionObs();
+
 }
@@ -24,10 +24,9 @@
 
 package com.shekhargulati.reactivex.docker.client;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import com.shekhargulati.reactivex.docker.client.utils.UrlEncoding;
+
+import java.util.*;
 
 public class QueryParameters {
 
@@ -54,29 +53,40 @@ public class QueryParameters {
     }
 
     private String createQuery() {
-        StringBuilder queryBuilder = new StringBuilder("?");
-        queryBuilder.append("all=" + all);
-        queryBuilder.append("&");
-        queryBuilder.append("size=" + size);
-        queryBuilder.append("&");
+        StringBuilder query = new StringBuilder(64).append("?all=").append(all).append("&size=").append(size);
         if (since.isPresent()) {
-            queryBuilder.append("since=" + since.get());
-            queryBuilder.append("&");
+            UrlEncoding.appendQueryValue(query.append("&since="), since.get());
         }
         if (before.isPresent()) {
-            queryBuilder.append("before=" + before.get());
-            queryBuilder.append("&");
+            UrlEncoding.appendQueryValue(query.append("&before="), before.get());
         }
-        if (limit > 1) {
-            queryBuilder.append("limit=" + limit);
-            queryBuilder.append("&");
+        if (limit > 0) {
+            query.append("&limit=").append(limit);
         }
-        queryBuilder.append(this.filters.entrySet().stream().map(entry -> String.format("%s=%s", entry.getKey(), entry.getValue())).collect(Collectors.joining(";")));
-        String queryStr = queryBuilder.toString();
-        if (queryStr.endsWith("&")) {
-            queryStr = queryStr.substring(0, queryStr.lastIndexOf("&"));
+        if (!filters.isEmpty()) {
+            UrlEncoding.appendQueryValue(query.append("&filters="), FilterPushDown.toJson(filterValues()));
         }
-        return queryStr;
+        return query.toString();
+    }
+
+    /**
+     * @return the query with the server side part of a {@link ContainerFilter} merged into its filters
+     */
+    String toQuery(FilterPushDown<?> pushDown) {
+        return pushDown.appendTo(new QueryParameters(all, since.orElse(null), before.orElse(null), size, limit, Collections.emptyMap()).toQuery(), filterValues());
+    }
+
+    /**
+     * @return a copy listing at most <code>limit</code> containers, without the <code>before</code> cursor
+     */
+    QueryParameters forPage(int limit) {
+        return new QueryParameters(all, since.orElse(null), null, size, limit, filters);
+    }
+
+    private Map<String, List<String>> filterValues() {
+        Map<String, List<String>> values = new TreeMap<>();
+        filters.forEach((key, value) -> values.put(key, Collections.singletonList(value)));
+        return values;
     }
 
     public boolean isAll() {
@@ -0,0 +1,65 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import rx.Observable;
+import rx.functions.Action0;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Merges identical requests in flight into one. The first subscriber for a key sends the request, subscribers for
+ * the same key that arrive before it completes share its response, including its error, instead of sending their
+ * own. Once the request completes, or all its subscribers unsubscribed, the next subscriber sends a new one, so a
+ * response is never reused after it arrived.
+ */
+class RequestCoalescer {
+
+    private final ConcurrentMap<String, Observable<?>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param key     the request with its parameters, like <code>containers/abc123/json</code>
+     * @param request builds the request, only called for the first subscriber
+     */
+    @SuppressWarnings("unchecked")
+    <T> Observable<T> coalesce(final String key, final Supplier<Observable<T>> request) {
+        return Observable.defer(() -> (Observable<T>) inFlight.computeIfAbsent(key, k -> share(k, request.get())));
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    private <T> Observable<T> share(final String key, final Observable<T> request) {
+        final AtomicReference<Observable<T>> shared = new AtomicReference<>();
+        final Action0 forget = () -> inFlight.remove(key, shared.get());
+        // replay keeps the response for subscribers arriving between the item and the completion of a single response
+        shared.set(request.doOnTerminate(forget).doOnUnsubscribe(forget).replay(1).refCount());
+        return shared.get();
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.shekhargulati.reactivex.docker.client.utils.Validations.validate;
+
+/**
+ * Logs requests to the daemon and their responses at DEBUG on the {@value #LOGGER_NAME} logger. Tracing is off by
+ * default. When on, only a sample of the requests is traced and bodies are cut to <code>maxBodyChars</code>. Nothing is
+ * formatted for requests that are not traced. Registry credentials are never logged.
+ */
+public class RequestTracing {
+
+    public static final String LOGGER_NAME = "com.shekhargulati.reactivex.docker.client.trace";
+
+    private static final Logger logger = LoggerFactory.getLogger(LOGGER_NAME);
+
+    private static final RequestTracing DISABLED = new RequestTracing(0, 0);
+    private static final int DEFAULT_MAX_BODY_CHARS = 1024;
+
+    private final double sampleRate;
+    private final int maxBodyChars;
+
+    private RequestTracing(double sampleRate, int maxBodyChars) {
+        validate(sampleRate, r -> r < 0 || r > 1, "sampleRate should be between 0 and 1");
+        validate(maxBodyChars, c -> c < 0, "maxBodyChars can't be negative");
+        this.sampleRate = sampleRate;
+        this.maxBodyChars = maxBodyChars;
+    }
+
+    public static RequestTracing disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Traces every request, with bodies cut to 1024 characters.
+     */
+    public static RequestTracing allRequests() {
+        return new RequestTracing(1, DEFAULT_MAX_BODY_CHARS);
+    }
+
+    /**
+     * @param sampleRate fraction of the requests to trace, between 0 and 1
+     */
+    public RequestTracing withSampleRate(double sampleRate) {
+        return new RequestTracing(sampleRate, maxBodyChars);
+    }
+
+    /**
+     * @param maxBodyChars characters of a body to log, 0 to log no bodies
+     */
+    public RequestTracing withMaxBodyChars(int maxBodyChars) {
+        return new RequestTracing(sampleRate, maxBodyChars);
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getMaxBodyChars() {
+        return maxBodyChars;
+    }
+
+    /**
+     * @return true if the next request should be traced
+     */
+    boolean sample() {
+        return sampleRate > 0 && logger.isDebugEnabled() && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    void request(String endpoint, String resourceId, String body) {
+        if (body == null || maxBodyChars == 0) {
+            logger.debug("--> {} {}", endpoint, resourceId == null ? "" : resourceId);
+        } else {
+            logger.debug("--> {} {} {}", endpoint, resourceId == null ? "" : resourceId, abbreviate(body));
+        }
+    }
+
+    void response(String endpoint, String resourceId, int statusCode, long latencyNanos, long bytesIn) {
+        logger.debug("<-- {} {} {} in {} ms, {} bytes", statusCode, endpoint, resourceId == null ? "" : resourceId,
+                TimeUnit.NANOSECONDS.toMillis(latencyNanos), bytesIn);
+    }
+
+    /**
+     * Response bodies are decoded apart from the request, so they are sampled on their own.
+     */
+    void responseBody(String endpoint, String body) {
+        if (maxBodyChars > 0 && sample()) {
+            logger.debug("<-- {} {}", endpoint, abbreviate(body));
+        }
+    }
+
+    String abbreviate(String body) {
+        if (body.length() <= maxBodyChars) {
+            return body;
+        }
+        return body.substring(0, maxBodyChars) + "... (" + (body.length() - maxBodyChars) + " more chars)";
+    }
+}
@@ -24,6 +24,15 @@
 
 package com.shekhargulati.reactivex.docker.client;
 
+import com.shekhargulati.reactivex.docker.client.cache.ImageCache;
+import com.shekhargulati.reactivex.docker.client.http.DockerTls;
+import com.shekhargulati.reactivex.docker.client.limits.ConcurrencyLimits;
+import com.shekhargulati.reactivex.docker.client.metrics.DockerClientMetrics;
+import com.shekhargulati.reactivex.docker.client.retry.RetryPolicy;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
 public interface RxDockerClient extends MiscOperations, ContainerOperations, ImageOperations {
 
     String DEFAULT_DOCKER_HOST = "127.0.0.1";
@@ -42,6 +51,80 @@ public interface RxDockerClient extends MiscOperations, ContainerOperations, Ima
         return new DefaultRxDockerClient(dockerHost, dockerCertPath);
     }
 
+    /**
+     * Builds a client sharing the connection to the daemon, and the API version negotiated with it, with the other
+     * clients of <code>transport</code>. Its metrics and settings are its own.
+     */
+    static DefaultRxDockerClient newDockerClient(final DockerTransport transport) {
+        return new DefaultRxDockerClient(transport);
+    }
+
     String getApiUri();
 
+    DockerTransport transport();
+
+    /**
+     * @return the TLS configuration of a client built with a cert path. It applies to the attach and exec streams
+     * only, and its statistics count only their handshakes. The other requests go through rx-okhttp, which builds
+     * its own SSL context from the cert path.
+     */
+    Optional<DockerTls> tls();
+
+    /**
+     * @return a {@link java.util.concurrent.CompletionStage} based view of this client, running requests on the io scheduler
+     */
+    AsyncDockerClient async();
+
+    /**
+     * @param executor executor running the requests
+     * @return a {@link java.util.concurrent.CompletionStage} based view of this client, running requests on the given executor
+     */
+    AsyncDockerClient async(Executor executor);
+
+    /**
+     * @return latency, status codes and bytes transferred per endpoint of the requests made by this client
+     */
+    DockerClientMetrics metrics();
+
+    /**
+     * Replaces how requests and responses are logged, tracing is disabled by default.
+     */
+    void setRequestTracing(RequestTracing tracing);
+
+    /**
+     * @return the limiters of the requests sent to the daemon at once, per endpoint class
+     */
+    ConcurrencyLimits concurrencyLimits();
+
+    /**
+     * Replaces the concurrency limits, {@link ConcurrencyLimits#adaptive()} by default.
+     */
+    void setConcurrencyLimits(ConcurrencyLimits concurrencyLimits);
+
+    RetryPolicy retryPolicy();
+
+    /**
+     * Replaces how failed requests are retried, {@link RetryPolicy#create()} by default.
+     */
+    void setRetryPolicy(RetryPolicy retryPolicy);
+
+    boolean isRequestCoalescing();
+
+    /**
+     * Turns on or off sharing one response between identical calls in flight to <code>inspectContainerObs</code>,
+     * <code>inspectImageObs</code>, <code>listProcessesObs</code>, <code>infoObs</code> and
+     * <code>serverVersionObs</code>. Off by default. Callers sharing a response share the same decoded object.
+     */
+    void setRequestCoalescing(boolean requestCoalescing);
+
+    ImageCache imageCache();
+
+    /**
+     * Caches the responses of <code>inspectImageObs</code>, <code>imageHistoryObs</code> and
+     * <code>searchImagesObs</code>, {@link ImageCache#disabled()} by default. Removing, tagging, pulling, building
+     * and loading images through this client invalidates the responses about them, changes made by other clients are
+     * only seen once the responses expire or {@link ImageCache#invalidate(String)} is called.
+     */
+    void setImageCache(ImageCache imageCache);
+
 }
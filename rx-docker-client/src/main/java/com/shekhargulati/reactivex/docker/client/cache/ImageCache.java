@@ -0,0 +1,307 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.cache;
+
+import rx.Observable;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+import static com.shekhargulati.reactivex.docker.client.utils.Validations.validate;
+
+/**
+ * Keeps image responses that rarely change, like inspect and history, for <code>ttl</code>. The least recently used
+ * responses are evicted once their total weight, the size of their JSON, exceeds <code>maxBytes</code>.
+ * <p>
+ * Every response is filed under the images it is about, like the name it was asked for and the id of the image.
+ * Invalidating any of them drops the responses filed under all of them, so removing an image by id also drops the
+ * responses asked for by tag. A response that arrives after an invalidation it raced with is not kept.
+ * <p>
+ * Limits:
+ * <ul>
+ * <li>Responses are kept under the request they answer, so the same image asked for by id and by tag is kept
+ * twice and the second request is a miss.</li>
+ * <li>Only the image operations of the client holding the cache invalidate it. The daemon's <code>/events</code> are
+ * not followed, so an image pulled, tagged or removed by another client or the docker CLI is seen only when its
+ * responses expire after <code>ttl</code>. Keep the ttl short when other tools change the images of the daemon.</li>
+ * </ul>
+ */
+public class ImageCache {
+
+    private static final ImageCache DISABLED = new ImageCache(0, Duration.ofMinutes(10), System::nanoTime);
+
+    private final long maxBytes;
+    private final Duration ttl;
+    private final LongSupplier clock;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    ImageCache(long maxBytes, Duration ttl, LongSupplier clock) {
+        validate(maxBytes, b -> b < 0, "maxBytes can't be negative");
+        validate(ttl, t -> t == null || t.isNegative() || t.isZero(), "ttl must be positive");
+        this.maxBytes = maxBytes;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * Keeps up to 32 MiB of responses for 10 minutes.
+     */
+    public static ImageCache create() {
+        return new ImageCache(32 << 20, Duration.ofMinutes(10), System::nanoTime);
+    }
+
+    public static ImageCache disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * A new, empty cache keeping up to <code>maxBytes</code> of responses.
+     */
+    public ImageCache withMaxBytes(long maxBytes) {
+        return new ImageCache(maxBytes, ttl, clock);
+    }
+
+    /**
+     * A new, empty cache keeping responses for <code>ttl</code>.
+     */
+    public ImageCache withTtl(Duration ttl) {
+        return new ImageCache(maxBytes, ttl, clock);
+    }
+
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    /**
+     * Emits the kept response for the key, or subscribes to <code>load</code> and keeps what it emits when it
+     * completes.
+     *
+     * @param images   the images a response is about, it is dropped when any of them is invalidated
+     * @param weigher  size of a response in bytes
+     * @param onLookup told true on a hit and false on a miss
+     */
+    public <T> Observable<T> cached(String key, Observable<T> load, Function<? super List<T>, Collection<String>> images,
+                                    ToLongFunction<? super List<T>> weigher, Consumer<Boolean> onLookup) {
+        if (!isEnabled()) {
+            return load;
+        }
+        return cached(key, load.toList().map(values -> Weighed.of(values, weigher.applyAsLong(values))), images, onLookup);
+    }
+
+    /**
+     * Like {@link #cached(String, Observable, Function, ToLongFunction, Consumer)}, for a load that emits the whole
+     * response with its size, like the length of the JSON it was read from.
+     */
+    public <T> Observable<T> cached(String key, Observable<Weighed<T>> load, Function<? super List<T>, Collection<String>> images,
+                                    Consumer<Boolean> onLookup) {
+        if (!isEnabled()) {
+            return load.flatMapIterable(Weighed::values);
+        }
+        return Observable.defer(() -> {
+            final Optional<List<T>> kept = lookup(key);
+            onLookup.accept(kept.isPresent());
+            if (kept.isPresent()) {
+                return Observable.from(kept.get());
+            }
+            final long loadedIn = generation();
+            return load
+                    .doOnNext(response -> put(key, response.values(), images.apply(response.values()), response.bytes(), loadedIn))
+                    .flatMapIterable(Weighed::values);
+        });
+    }
+
+    /**
+     * Drops the responses about the image, a name like <code>nginx:1.9</code> or an id, and about the other names of
+     * the same image.
+     */
+    public synchronized void invalidate(String image) {
+        if (image == null) {
+            return;
+        }
+        generation++;
+        final Set<String> related = new HashSet<>();
+        related.add(normalize(image));
+        entries.values().stream().filter(entry -> entry.images.contains(normalize(image))).forEach(entry -> related.addAll(entry.images));
+        entries.values().removeIf(entry -> {
+            if (Collections.disjoint(entry.images, related)) {
+                return false;
+            }
+            weight -= entry.weight;
+            return true;
+        });
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(entries.size(), weight, hits, misses, evictions);
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized <T> Optional<List<T>> lookup(String key) {
+        final Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt - clock.getAsLong() <= 0) {
+            entries.remove(key);
+            weight -= entry.weight;
+        } else if (entry != null) {
+            hits++;
+            return Optional.of((List<T>) entry.values);
+        }
+        misses++;
+        return Optional.empty();
+    }
+
+    private synchronized long generation() {
+        return generation;
+    }
+
+    private synchronized void put(String key, List<?> values, Collection<String> images, long bytes, long loadedIn) {
+        if (loadedIn != generation || bytes > maxBytes) {
+            return;
+        }
+        final Set<String> normalized = new HashSet<>();
+        images.stream().filter(Objects::nonNull).forEach(image -> normalized.add(normalize(image)));
+        final Entry previous = entries.put(key, new Entry(Collections.unmodifiableList(new ArrayList<>(values)), normalized, bytes,
+                clock.getAsLong() + ttl.toNanos()));
+        weight += bytes - (previous != null ? previous.weight : 0);
+        final Iterator<Entry> eldest = entries.values().iterator();
+        while (weight > maxBytes && eldest.hasNext()) {
+            weight -= eldest.next().weight;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * <code>nginx</code> and <code>nginx:latest</code> name the same image.
+     */
+    static String normalize(String image) {
+        return image.lastIndexOf(':') > image.lastIndexOf('/') ? image : image + ":latest";
+    }
+
+    private static final class Entry {
+        private final List<?> values;
+        private final Set<String> images;
+        private final long weight;
+        private final long expiresAt;
+
+        private Entry(List<?> values, Set<String> images, long weight, long expiresAt) {
+            this.values = values;
+            this.images = images;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * The values of a response and its size in bytes.
+     */
+    public static final class Weighed<T> {
+        private final List<T> values;
+        private final long bytes;
+
+        private Weighed(List<T> values, long bytes) {
+            this.values = values;
+            this.bytes = bytes;
+        }
+
+        public static <T> Weighed<T> of(List<T> values, long bytes) {
+            validate(values, v -> v == null, "values can't be null");
+            return new Weighed<>(values, bytes);
+        }
+
+        public List<T> values() {
+            return values;
+        }
+
+        public long bytes() {
+            return bytes;
+        }
+    }
+
+    public static class Stats {
+        private final int entries;
+        private final long bytes;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+
+        Stats(int entries, long bytes, long hits, long misses, long evictions) {
+            this.entries = entries;
+            this.bytes = bytes;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+
+        public int entries() {
+            return entries;
+        }
+
+        public long bytes() {
+            return bytes;
+        }
+
+        public long hits() {
+            return hits;
+        }
+
+        public long misses() {
+            return misses;
+        }
+
+        /**
+         * @return responses dropped to make room, expired and invalidated ones are not counted
+         */
+        public long evictions() {
+            return evictions;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{" +
+                    "entries=" + entries +
+                    ", bytes=" + bytes +
+                    ", hits=" + hits +
+                    ", misses=" + misses +
+                    ", evictions=" + evictions +
+                    '}';
+        }
+    }
+}
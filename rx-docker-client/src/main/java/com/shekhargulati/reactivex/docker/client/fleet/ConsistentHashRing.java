@@ -0,0 +1,142 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.fleet;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static com.shekhargulati.reactivex.docker.client.utils.Validations.validate;
+
+/**
+ * Maps keys, like container names, to hosts so that adding or removing a host only moves the keys of that host. Every
+ * host owns <code>virtualNodes</code> points on a ring of 64 bit hashes and a key belongs to the first point at or
+ * after its own hash.
+ */
+public final class ConsistentHashRing {
+
+    public static final int DEFAULT_VIRTUAL_NODES = 160;
+
+    private final Set<String> hosts;
+    private final int virtualNodes;
+    private final long[] points;
+    private final String[] owners;
+
+    private ConsistentHashRing(Collection<String> hosts, int virtualNodes) {
+        validate(virtualNodes, v -> v < 1, "virtualNodes must be at least 1");
+        this.hosts = Collections.unmodifiableSet(new LinkedHashSet<>(hosts));
+        this.virtualNodes = virtualNodes;
+        TreeMap<Long, String> ring = new TreeMap<>();
+        for (String host : this.hosts) {
+            for (int i = 0; i < virtualNodes; i++) {
+                // on a collision the smaller host name wins, whatever the order the hosts were given in
+                ring.merge(hash(host + "#" + i), host, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            }
+        }
+        this.points = new long[ring.size()];
+        this.owners = new String[ring.size()];
+        int i = 0;
+        for (Map.Entry<Long, String> point : ring.entrySet()) {
+            points[i] = point.getKey();
+            owners[i++] = point.getValue();
+        }
+    }
+
+    public static ConsistentHashRing of(Collection<String> hosts) {
+        return of(hosts, DEFAULT_VIRTUAL_NODES);
+    }
+
+    public static ConsistentHashRing of(Collection<String> hosts, int virtualNodes) {
+        validate(hosts, h -> h == null || h.contains(null), "hosts can't be null");
+        return new ConsistentHashRing(hosts, virtualNodes);
+    }
+
+    public ConsistentHashRing withHost(String host) {
+        Set<String> changed = new LinkedHashSet<>(hosts);
+        changed.add(host);
+        return new ConsistentHashRing(changed, virtualNodes);
+    }
+
+    public ConsistentHashRing withoutHost(String host) {
+        Set<String> changed = new LinkedHashSet<>(hosts);
+        changed.remove(host);
+        return new ConsistentHashRing(changed, virtualNodes);
+    }
+
+    public Set<String> hosts() {
+        return hosts;
+    }
+
+    /**
+     * @throws IllegalStateException if the ring has no hosts
+     */
+    public String hostFor(String key) {
+        if (points.length == 0) {
+            throw new IllegalStateException("the ring has no hosts");
+        }
+        return owners[indexOf(key)];
+    }
+
+    /**
+     * @return up to <code>count</code> distinct hosts in ring order starting with the owner of the key, the order to
+     * fail over in
+     */
+    public List<String> hostsFor(String key, int count) {
+        List<String> preference = new ArrayList<>(Math.min(count, hosts.size()));
+        if (points.length == 0) {
+            return preference;
+        }
+        for (int i = indexOf(key), visited = 0; visited < points.length && preference.size() < count; i = (i + 1) % points.length, visited++) {
+            if (!preference.contains(owners[i])) {
+                preference.add(owners[i]);
+            }
+        }
+        return preference;
+    }
+
+    private int indexOf(String key) {
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index == points.length ? 0 : index;
+    }
+
+    /**
+     * 64 bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer so that similar keys spread out.
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.fleet;
+
+import com.shekhargulati.reactivex.docker.client.RxDockerClient;
+import com.shekhargulati.reactivex.docker.client.representations.ContainerStats;
+import com.shekhargulati.reactivex.docker.client.representations.CpuStats;
+import com.shekhargulati.reactivex.docker.client.representations.DockerContainerRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscription;
+import rx.schedulers.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import static com.shekhargulati.reactivex.docker.client.utils.Validations.validate;
+
+/**
+ * Creates containers on the host of a fleet chosen by a {@link PlacementPolicy}. The load of every host is kept in a
+ * cache that is refreshed in the background, placing a container never waits for the hosts to be sampled once the
+ * first refresh is done. A sample combines {@link RxDockerClient#infoObs()} with
+ * {@link RxDockerClient#containerStatsSnapshotObs(String)} of every running container. A snapshot of a daemon speaking
+ * API 1.41 has no previous CPU reading, the CPU usage is then measured since the snapshot of the previous refresh, so
+ * the first refresh doesn't see it.
+ * <p>
+ * Every placement reserves the memory limit of the container on its host until the next sample of that host, so
+ * placements between two refreshes don't all pick the same host. Hosts that fail to be sampled within the sample
+ * timeout are not placed on. Containers whose snapshot fails are counted in {@link HostLoad#containersUnsampled()}.
+ */
+public class ContainerPlacer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContainerPlacer.class);
+
+    private final DockerFleetClient fleet;
+    private final PlacementPolicy policy;
+    private final Duration refreshInterval;
+    private final Duration sampleTimeout;
+    private final BiFunction<String, RxDockerClient, Observable<HostLoad>> sampler;
+    private final Scheduler scheduler;
+    private final ConcurrentMap<String, HostLoad> loads = new ConcurrentHashMap<>();
+
+    ContainerPlacer(DockerFleetClient fleet, PlacementPolicy policy, Duration refreshInterval, Duration sampleTimeout,
+                    BiFunction<String, RxDockerClient, Observable<HostLoad>> sampler, Scheduler scheduler) {
+        validate(policy, p -> p == null, "policy can't be null");
+        validate(refreshInterval, r -> r == null || r.isNegative() || r.isZero(), "refreshInterval must be positive");
+        validate(sampleTimeout, t -> t == null || t.isNegative() || t.isZero(), "sampleTimeout must be positive");
+        this.fleet = fleet;
+        this.policy = policy;
+        this.refreshInterval = refreshInterval;
+        this.sampleTimeout = sampleTimeout;
+        this.sampler = sampler;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Creates a placer that spreads containers and samples the hosts every 30 seconds, 8 containers of a host at a
+     * time. A host gets 20 seconds to be sampled, a container 5 seconds.
+     */
+    public static ContainerPlacer create(DockerFleetClient fleet) {
+        validate(fleet, f -> f == null, "fleet can't be null");
+        final ConcurrentMap<String, Map<String, CpuStats>> previousCpu = new ConcurrentHashMap<>();
+        return new ContainerPlacer(fleet, PlacementPolicy.spread(), Duration.ofSeconds(30), Duration.ofSeconds(20),
+                (host, client) -> sample(host, client, 8, Duration.ofSeconds(5), previousCpu.computeIfAbsent(host, h -> new ConcurrentHashMap<>())),
+                Schedulers.computation());
+    }
+
+    public ContainerPlacer withPolicy(PlacementPolicy policy) {
+        return new ContainerPlacer(fleet, policy, refreshInterval, sampleTimeout, sampler, scheduler);
+    }
+
+    public ContainerPlacer withRefreshInterval(Duration refreshInterval) {
+        return new ContainerPlacer(fleet, policy, refreshInterval, sampleTimeout, sampler, scheduler);
+    }
+
+    /**
+     * @param sampleTimeout the time a host gets to answer for all its containers, hosts answering later are not placed
+     *                      on until the next refresh
+     */
+    public ContainerPlacer withSampleTimeout(Duration sampleTimeout) {
+        return new ContainerPlacer(fleet, policy, refreshInterval, sampleTimeout, sampler, scheduler);
+    }
+
+    /**
+     * Samples every host now and then every refresh interval, until the subscription is unsubscribed.
+     */
+    public Subscription start() {
+        return Observable.interval(0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS, scheduler)
+                .onBackpressureDrop()
+                .concatMap(tick -> refreshObs())
+                .subscribe(refreshed -> logger.debug("sampled the load of {} hosts", refreshed.size()),
+                        e -> logger.warn("stopped sampling the load of the hosts", e));
+    }
+
+    /**
+     * Samples every host once, a host gets up to the sample timeout to answer.
+     *
+     * @return the loads of the hosts that could be sampled
+     */
+    public Observable<Map<String, HostLoad>> refreshObs() {
+        return fleet.withTimeout(sampleTimeout).fanOut(fleet.hosts(), sampler)
+                .doOnNext(response -> {
+                    if (response.isSuccessful() && !response.values().isEmpty()) {
+                        loads.put(response.host(), response.values().get(0));
+                    } else {
+                        logger.debug("could not sample the load of host {}", response.host(), response.error().orElse(null));
+                        loads.remove(response.host());
+                    }
+                })
+                .toList()
+                .map(responses -> loads());
+    }
+
+    /**
+     * @return the cached load of every host that could be sampled, including the placements since
+     */
+    public Map<String, HostLoad> loads() {
+        return Collections.unmodifiableMap(new TreeMap<>(loads));
+    }
+
+    /**
+     * Chooses a host for the container from the cached loads without creating it.
+     */
+    public Optional<String> choose(DockerContainerRequest request) {
+        final long memory = memoryOf(request);
+        return policy.choose(candidates(memory)).map(HostLoad::host);
+    }
+
+    /**
+     * Creates the container on the host the policy chooses. The hosts are sampled first when they never were.
+     *
+     * @throws IllegalStateException through the observable when no host has enough free memory
+     */
+    public Observable<Placement> createContainerObs(DockerContainerRequest request, String name) {
+        validate(request, r -> r == null, "request can't be null");
+        final Observable<Map<String, HostLoad>> sampled = loads.isEmpty() ? refreshObs() : Observable.just(loads());
+        return sampled.flatMap(ignored -> {
+            final String host = reserve(memoryOf(request));
+            return fleet.client(host).createContainerObs(request, name).map(container -> new Placement(host, container));
+        });
+    }
+
+    public Observable<Placement> createContainerObs(DockerContainerRequest request) {
+        return createContainerObs(request, null);
+    }
+
+    private synchronized String reserve(long memory) {
+        final HostLoad chosen = policy.choose(candidates(memory))
+                .orElseThrow(() -> new IllegalStateException("no host has " + memory + " bytes of free memory, loads " + loads.values()));
+        loads.computeIfPresent(chosen.host(), (host, load) -> load.withPlacement(memory));
+        return chosen.host();
+    }
+
+    private List<HostLoad> candidates(long memory) {
+        final List<HostLoad> candidates = new ArrayList<>();
+        for (HostLoad load : loads.values()) {
+            if (load.freeMemory() >= memory && fleet.hosts().contains(load.host())) {
+                candidates.add(load);
+            }
+        }
+        return candidates;
+    }
+
+    private static long memoryOf(DockerContainerRequest request) {
+        return request.getHostConfig() == null || request.getHostConfig().getMemory() == null ? 0 : request.getHostConfig().getMemory();
+    }
+
+    /**
+     * @param statsTimeout the time a container gets to answer its snapshot, it is counted as unsampled after that
+     * @param previousCpu  the CPU usage of the containers of the host at the previous sample, by container id
+     */
+    static Observable<HostLoad> sample(String host, RxDockerClient client, int statsConcurrency, Duration statsTimeout,
+                                       Map<String, CpuStats> previousCpu) {
+        return client.infoObs().flatMap(info -> client.listRunningContainerObs()
+                .flatMap(container -> client.containerStatsSnapshotObs(container.getId())
+                        .subscribeOn(Schedulers.io())
+                        .timeout(statsTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                        .map(stats -> new ContainerSample(container.getId(), stats))
+                        .firstOrDefault(new ContainerSample(container.getId(), null))
+                        .onErrorReturn(e -> {
+                            logger.debug("could not sample container {} of host {}", container.getId(), host, e);
+                            return new ContainerSample(container.getId(), null);
+                        }), statsConcurrency)
+                .reduce(new Usage(previousCpu), Usage::add)
+                .map(usage -> {
+                    previousCpu.keySet().retainAll(usage.sampled);
+                    return new HostLoad(host, info.cpus(), info.memTotal(), usage.containers, usage.unsampled, usage.memory, usage.cpus, Instant.now());
+                }));
+    }
+
+    private static final class ContainerSample {
+        private final String containerId;
+        private final ContainerStats stats;
+
+        private ContainerSample(String containerId, ContainerStats stats) {
+            this.containerId = containerId;
+            this.stats = stats;
+        }
+    }
+
+    private static class Usage {
+        private final Map<String, CpuStats> previousCpu;
+        private final Set<String> sampled = new HashSet<>();
+        private int containers;
+        private int unsampled;
+        private long memory;
+        private double cpus;
+
+        Usage(Map<String, CpuStats> previousCpu) {
+            this.previousCpu = previousCpu;
+        }
+
+        Usage add(ContainerSample sample) {
+            containers++;
+            final ContainerStats stats = sample.stats;
+            if (stats == null) {
+                unsampled++;
+                return this;
+            }
+            if (stats.memoryStats() != null && stats.memoryStats().usage() != null) {
+                memory += stats.memoryStats().usage();
+            }
+            // a one-shot snapshot has no previous reading, the one of the previous sample stands in
+            final CpuStats precpu = hasUsage(stats.precpuStats()) ? stats.precpuStats() : previousCpu.get(sample.containerId);
+            cpus += cpusUsed(stats.cpuStats(), precpu);
+            if (hasUsage(stats.cpuStats())) {
+                previousCpu.put(sample.containerId, stats.cpuStats());
+                sampled.add(sample.containerId);
+            }
+            return this;
+        }
+
+        private static boolean hasUsage(CpuStats cpu) {
+            return cpu != null && cpu.cpuUsage() != null && cpu.cpuUsage().totalUsage() != null && cpu.systemCpuUsage() != null
+                    && cpu.systemCpuUsage() > 0;
+        }
+
+        /**
+         * The share of the host's CPU time the container used between the two readings, times the number of CPUs.
+         */
+        private static double cpusUsed(CpuStats cpu, CpuStats precpu) {
+            if (!hasUsage(cpu) || precpu == null || precpu.cpuUsage() == null || precpu.systemCpuUsage() == null
+                    || precpu.cpuUsage().totalUsage() == null) {
+                return 0;
+            }
+            long systemDelta = cpu.systemCpuUsage() - precpu.systemCpuUsage();
+            long containerDelta = cpu.cpuUsage().totalUsage() - precpu.cpuUsage().totalUsage();
+            int cpus = cpu.cpuUsage().percpuUsage() == null || cpu.cpuUsage().percpuUsage().isEmpty() ? 1 : cpu.cpuUsage().percpuUsage().size();
+            return systemDelta <= 0 || containerDelta <= 0 ? 0 : (double) containerDelta / systemDelta * cpus;
+        }
+    }
+}
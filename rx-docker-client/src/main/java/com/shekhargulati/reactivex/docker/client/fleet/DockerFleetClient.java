@@ -0,0 +1,212 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.fleet;
+
+import com.shekhargulati.reactivex.docker.client.ImageListQueryParameters;
+import com.shekhargulati.reactivex.docker.client.QueryParameters;
+import com.shekhargulati.reactivex.docker.client.RxDockerClient;
+import com.shekhargulati.reactivex.docker.client.representations.ContainerInspectResponse;
+import com.shekhargulati.reactivex.docker.client.representations.DockerContainer;
+import com.shekhargulati.reactivex.docker.client.representations.DockerImage;
+import com.shekhargulati.reactivex.rxokhttp.ServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Observable;
+import rx.Scheduler;
+import rx.schedulers.Schedulers;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static com.shekhargulati.reactivex.docker.client.utils.Validations.validate;
+
+/**
+ * A client for many Docker daemons. Queries fan out to every host concurrently, each host has <code>timeout</code> to
+ * answer all of its values and answers with a {@link HostResponse}. A failing or slow host never fails the whole query,
+ * its response carries the error instead.
+ * <p>
+ * Container names are routed to hosts with a {@link ConsistentHashRing}, so adding or removing a host only moves the
+ * names of that host.
+ */
+public class DockerFleetClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(DockerFleetClient.class);
+
+    private final Map<String, RxDockerClient> clients;
+    private final ConsistentHashRing ring;
+    private final Scheduler scheduler;
+    private final int concurrency;
+    private final Duration timeout;
+
+    DockerFleetClient(Map<String, RxDockerClient> clients, ConsistentHashRing ring, Scheduler scheduler, int concurrency, Duration timeout) {
+        validate(concurrency, c -> c < 1, "concurrency must be at least 1");
+        validate(timeout, t -> t == null || t.isNegative() || t.isZero(), "timeout must be positive");
+        this.clients = Collections.unmodifiableMap(clients);
+        this.ring = ring;
+        this.scheduler = scheduler;
+        this.concurrency = concurrency;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Creates a fleet client that queries 64 hosts at a time and gives every host 10 seconds.
+     *
+     * @param clients the client of every host, by host name
+     */
+    public static DockerFleetClient create(Map<String, ? extends RxDockerClient> clients) {
+        validate(clients, c -> c == null || c.isEmpty(), "clients can't be null or empty");
+        final Map<String, RxDockerClient> copy = new LinkedHashMap<>(clients);
+        return new DockerFleetClient(copy, ConsistentHashRing.of(copy.keySet()), Schedulers.io(), 64, Duration.ofSeconds(10));
+    }
+
+    /**
+     * Connects to every daemon, named by its host like <code>tcp://10.0.0.12:2376</code>.
+     */
+    public static DockerFleetClient connect(Collection<String> dockerHosts, String dockerCertPath) {
+        validate(dockerHosts, h -> h == null || h.isEmpty(), "dockerHosts can't be null or empty");
+        final Map<String, RxDockerClient> clients = new LinkedHashMap<>();
+        dockerHosts.forEach(host -> clients.put(host, RxDockerClient.newDockerClient(host, dockerCertPath)));
+        return create(clients);
+    }
+
+    public DockerFleetClient withConcurrency(int concurrency) {
+        return new DockerFleetClient(clients, ring, scheduler, concurrency, timeout);
+    }
+
+    public DockerFleetClient withTimeout(Duration timeout) {
+        return new DockerFleetClient(clients, ring, scheduler, concurrency, timeout);
+    }
+
+    public DockerFleetClient withHost(String host, RxDockerClient client) {
+        validate(client, c -> c == null, "client can't be null");
+        final Map<String, RxDockerClient> changed = new LinkedHashMap<>(clients);
+        changed.put(host, client);
+        return new DockerFleetClient(changed, ring.withHost(host), scheduler, concurrency, timeout);
+    }
+
+    public DockerFleetClient withoutHost(String host) {
+        final Map<String, RxDockerClient> changed = new LinkedHashMap<>(clients);
+        changed.remove(host);
+        return new DockerFleetClient(changed, ring.withoutHost(host), scheduler, concurrency, timeout);
+    }
+
+    public Set<String> hosts() {
+        return clients.keySet();
+    }
+
+    public RxDockerClient client(String host) {
+        final RxDockerClient client = clients.get(host);
+        validate(client, c -> c == null, () -> "unknown host " + host);
+        return client;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * @return the host a container name is routed to
+     */
+    public String hostFor(String containerName) {
+        return ring.hostFor(containerName);
+    }
+
+    public RxDockerClient clientFor(String containerName) {
+        return clients.get(hostFor(containerName));
+    }
+
+    ConsistentHashRing ring() {
+        return ring;
+    }
+
+    /**
+     * Runs the query against every host. Responses are emitted in completion order, one per host.
+     */
+    public <T> Observable<HostResponse<T>> fanOut(Function<? super RxDockerClient, Observable<T>> query) {
+        validate(query, q -> q == null, "query can't be null");
+        return fanOut(clients.keySet(), query);
+    }
+
+    /**
+     * Runs the query against the given hosts of the fleet.
+     */
+    public <T> Observable<HostResponse<T>> fanOut(Collection<String> hosts, Function<? super RxDockerClient, Observable<T>> query) {
+        return fanOut(hosts, (host, client) -> query.apply(client));
+    }
+
+    <T> Observable<HostResponse<T>> fanOut(Collection<String> hosts, BiFunction<String, ? super RxDockerClient, Observable<T>> query) {
+        return Observable.from(new ArrayList<>(hosts)).flatMap(host -> query(host, query), concurrency);
+    }
+
+    public Observable<HostResponse<DockerContainer>> listContainersObs(QueryParameters queryParameters) {
+        return fanOut(client -> client.listContainersObs(queryParameters));
+    }
+
+    public Observable<HostResponse<DockerImage>> listImagesObs(ImageListQueryParameters queryParameters) {
+        return fanOut(client -> client.listImagesObs(queryParameters));
+    }
+
+    /**
+     * Finds the hosts running a container. Hosts that don't know the container answer nothing, hosts that fail
+     * answer their error.
+     *
+     * @param containerId id or name of the container
+     */
+    public Observable<HostResponse<ContainerInspectResponse>> locateContainerObs(String containerId) {
+        return fanOut(client -> client.inspectContainerObs(containerId)
+                .onErrorResumeNext(e -> isNotFound(e) ? Observable.empty() : Observable.error(e)))
+                .filter(response -> !response.isSuccessful() || !response.values().isEmpty());
+    }
+
+    private <T> Observable<HostResponse<T>> query(String host, BiFunction<String, ? super RxDockerClient, Observable<T>> query) {
+        return Observable.defer(() -> {
+            final long startedAt = System.nanoTime();
+            return Observable.defer(() -> query.apply(host, client(host)))
+                    .subscribeOn(scheduler)
+                    .toList()
+                    .timeout(timeout.toMillis(), TimeUnit.MILLISECONDS, scheduler)
+                    .map(values -> HostResponse.succeeded(host, values, elapsedSince(startedAt)))
+                    .onErrorReturn(e -> {
+                        logger.debug("query of host {} failed", host, e);
+                        return HostResponse.failed(host, e, elapsedSince(startedAt));
+                    });
+        });
+    }
+
+    private static boolean isNotFound(Throwable e) {
+        return e instanceof ServiceException && ((ServiceException) e).getCode() == 404;
+    }
+
+    private static Duration elapsedSince(long startedAt) {
+        return Duration.ofNanos(System.nanoTime() - startedAt);
+    }
+}
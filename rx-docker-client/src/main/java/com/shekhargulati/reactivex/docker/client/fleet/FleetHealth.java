@@ -0,0 +1,322 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.fleet;
+
+import com.shekhargulati.reactivex.docker.client.QueryParameters;
+import com.shekhargulati.reactivex.docker.client.RxDockerClient;
+import com.shekhargulati.reactivex.docker.client.representations.ContainerInspectResponse;
+import com.shekhargulati.reactivex.docker.client.representations.DockerContainer;
+import com.shekhargulati.reactivex.rxokhttp.ServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscription;
+import rx.schedulers.Schedulers;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import static com.shekhargulati.reactivex.docker.client.utils.Validations.validate;
+
+/**
+ * Tracks the health of every host of a fleet and keeps reads away from hosts that fail. A host whose requests or
+ * pings fail <code>failureThreshold</code> times in a row has its circuit opened: reads to it fail fast with a
+ * {@link HostUnavailableException} for <code>openDuration</code>, after which a single request probes it again.
+ * Answers of the daemon like 404 are not failures, errors and timeouts are.
+ * <p>
+ * With hedging enabled, a read that has not been answered after the host's latency percentile, like p95 of the last
+ * minute, is sent a second time and the first answer wins. A routed read sends the second request to the next
+ * available host of the ring, a read from one host sends it to the same host. An error of either request, like a
+ * fast 404 from a host without the container, only ends the read once the other request has failed too, and the
+ * error of the first request is the one reported. Only use it for idempotent reads, it
+ * costs up to <code>100 - percentile</code> percent more requests.
+ */
+public class FleetHealth {
+
+    private static final Logger logger = LoggerFactory.getLogger(FleetHealth.class);
+
+    private final DockerFleetClient fleet;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Duration pingInterval;
+    private final Duration latencyWindow;
+    private final OptionalDouble hedgePercentile;
+    private final Scheduler scheduler;
+    private final LongSupplier clock;
+    private final Map<String, HostHealth> health = new LinkedHashMap<>();
+
+    FleetHealth(DockerFleetClient fleet, int failureThreshold, Duration openDuration, Duration pingInterval, Duration latencyWindow,
+                OptionalDouble hedgePercentile, Scheduler scheduler, LongSupplier clock) {
+        validate(failureThreshold, f -> f < 1, "failureThreshold must be at least 1");
+        validate(openDuration, d -> d == null || d.isNegative() || d.isZero(), "openDuration must be positive");
+        validate(pingInterval, d -> d == null || d.isNegative() || d.isZero(), "pingInterval must be positive");
+        validate(latencyWindow, d -> d == null || d.isNegative() || d.isZero(), "latencyWindow must be positive");
+        validate(hedgePercentile, p -> p.isPresent() && (p.getAsDouble() <= 0 || p.getAsDouble() >= 100), "hedge percentile must be between 0 and 100");
+        this.fleet = fleet;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.pingInterval = pingInterval;
+        this.latencyWindow = latencyWindow;
+        this.hedgePercentile = hedgePercentile;
+        this.scheduler = scheduler;
+        this.clock = clock;
+        for (String host : fleet.hosts()) {
+            health.put(host, new HostHealth(host, new CircuitBreaker(failureThreshold, openDuration.toNanos(), clock), latencyWindow.toNanos(), clock));
+        }
+    }
+
+    /**
+     * Tracks the hosts of the fleet with circuits that open after 5 consecutive failures for 30 seconds, pings every
+     * 5 seconds and latencies per minute, without hedging.
+     */
+    public static FleetHealth create(DockerFleetClient fleet) {
+        validate(fleet, f -> f == null, "fleet can't be null");
+        return new FleetHealth(fleet, 5, Duration.ofSeconds(30), Duration.ofSeconds(5), Duration.ofMinutes(1), OptionalDouble.empty(),
+                Schedulers.computation(), System::nanoTime);
+    }
+
+    public FleetHealth withFailureThreshold(int failureThreshold) {
+        return new FleetHealth(fleet, failureThreshold, openDuration, pingInterval, latencyWindow, hedgePercentile, scheduler, clock);
+    }
+
+    public FleetHealth withOpenDuration(Duration openDuration) {
+        return new FleetHealth(fleet, failureThreshold, openDuration, pingInterval, latencyWindow, hedgePercentile, scheduler, clock);
+    }
+
+    public FleetHealth withPingInterval(Duration pingInterval) {
+        return new FleetHealth(fleet, failureThreshold, openDuration, pingInterval, latencyWindow, hedgePercentile, scheduler, clock);
+    }
+
+    public FleetHealth withLatencyWindow(Duration latencyWindow) {
+        return new FleetHealth(fleet, failureThreshold, openDuration, pingInterval, latencyWindow, hedgePercentile, scheduler, clock);
+    }
+
+    /**
+     * Sends a second request for reads not answered after the given latency percentile of their host, like 95.
+     */
+    public FleetHealth withHedging(double percentile) {
+        return new FleetHealth(fleet, failureThreshold, openDuration, pingInterval, latencyWindow, OptionalDouble.of(percentile), scheduler, clock);
+    }
+
+    public FleetHealth withoutHedging() {
+        return new FleetHealth(fleet, failureThreshold, openDuration, pingInterval, latencyWindow, OptionalDouble.empty(), scheduler, clock);
+    }
+
+    /**
+     * Pings every host now and then every ping interval, until the subscription is unsubscribed. Hosts with an open
+     * circuit are only pinged once their probe is due.
+     */
+    public Subscription start() {
+        return Observable.interval(0, pingInterval.toMillis(), TimeUnit.MILLISECONDS, scheduler)
+                .onBackpressureDrop()
+                .concatMap(tick -> pingObs())
+                .subscribe(available -> logger.debug("{} of {} hosts are available", available, health.size()),
+                        e -> logger.warn("stopped pinging the hosts", e));
+    }
+
+    /**
+     * Pings every host whose circuit lets a request through.
+     *
+     * @return the number of available hosts after the pings
+     */
+    public Observable<Integer> pingObs() {
+        return Observable.from(new ArrayList<>(health.values()))
+                .flatMap(host -> {
+                    if (!host.tryAcquire()) {
+                        return Observable.empty();
+                    }
+                    return attempt(host, client -> client.pingObs().flatMap(status -> status.code() == 200
+                            ? Observable.just(status)
+                            : Observable.error(new IllegalStateException("ping of " + host.host() + " answered " + status.code()))))
+                            .onErrorResumeNext(Observable.empty());
+                }, fleet.getConcurrency())
+                .ignoreElements()
+                .cast(Integer.class)
+                .concatWith(Observable.defer(() -> Observable.just(availableHosts().size())));
+    }
+
+    public HostHealth health(String host) {
+        final HostHealth hostHealth = health.get(host);
+        validate(hostHealth, h -> h == null, () -> "unknown host " + host);
+        return hostHealth;
+    }
+
+    /**
+     * @return the hosts whose circuit is closed
+     */
+    public Set<String> availableHosts() {
+        final Set<String> available = new LinkedHashSet<>();
+        health.values().stream().filter(HostHealth::isAvailable).forEach(h -> available.add(h.host()));
+        return available;
+    }
+
+    /**
+     * Reads from one host, failing fast with a {@link HostUnavailableException} when its circuit is open. The
+     * answer is collected before it is emitted, so a hedged read never mixes items of two requests.
+     * <p>
+     * The hedged request goes to the same host, so it only helps when a single request stalls, like one stuck behind
+     * a slow operation. When the daemon itself is slow it adds load without cutting the latency, prefer
+     * {@link #readRouted(String, Function)} which hedges to another host.
+     */
+    public <T> Observable<T> read(String host, Function<? super RxDockerClient, Observable<T>> query) {
+        return read(host, Collections.emptyList(), query);
+    }
+
+    /**
+     * @param hedgeHosts the hosts a hedged request may go to, in order of preference. The first available one is
+     *                   used, the host itself when none is.
+     */
+    private <T> Observable<T> read(String host, List<String> hedgeHosts, Function<? super RxDockerClient, Observable<T>> query) {
+        validate(query, q -> q == null, "query can't be null");
+        final HostHealth hostHealth = health(host);
+        return Observable.defer(() -> {
+            if (!hostHealth.tryAcquire()) {
+                return Observable.<List<T>>error(new HostUnavailableException(host, "the circuit of host " + host + " is open"));
+            }
+            final Optional<Duration> hedgeDelay = hedgePercentile.isPresent() && hostHealth.isAvailable()
+                    ? hostHealth.latency(hedgePercentile.getAsDouble())
+                    : Optional.empty();
+            if (!hedgeDelay.isPresent()) {
+                return attempt(hostHealth, query);
+            }
+            final HostHealth hedgeHealth = hedgeHosts.stream().map(this::health).filter(HostHealth::isAvailable).findFirst().orElse(hostHealth);
+            final Race race = new Race();
+            final Observable<List<T>> primary = attempt(hostHealth, query).onErrorResumeNext(race::onPrimaryError);
+            final Observable<List<T>> hedge = Observable.timer(hedgeDelay.get().toNanos(), TimeUnit.NANOSECONDS, scheduler)
+                    .flatMap(tick -> {
+                        // another host may have opened its circuit since, then only the first request runs
+                        if (hedgeHealth != hostHealth && !hedgeHealth.tryAcquire()) {
+                            return Observable.<List<T>>empty();
+                        }
+                        race.onHedgeStarted();
+                        hedgeHealth.onHedge();
+                        return attempt(hedgeHealth, query).onErrorResumeNext(race::onHedgeError);
+                    });
+            // the first answer wins, an error only ends the read once both requests have failed
+            return Observable.merge(primary, hedge).take(1);
+        }).flatMapIterable(values -> values);
+    }
+
+    /**
+     * Reads from the host a key like a container name is routed to, failing over to the next hosts of the ring when
+     * it is unavailable or fails. A hedged request goes to the next available host of the ring, so a slow daemon
+     * does not get the hedge too.
+     */
+    public <T> Observable<T> readRouted(String key, Function<? super RxDockerClient, Observable<T>> query) {
+        final List<String> hosts = fleet.ring().hostsFor(key, fleet.hosts().size());
+        Observable<T> read = Observable.error(new HostUnavailableException(null, "no host is available for " + key));
+        for (int i = hosts.size() - 1; i >= 0; i--) {
+            final Observable<T> failover = read;
+            read = read(hosts.get(i), hosts.subList(i + 1, hosts.size()), query).onErrorResumeNext(e -> isAnswer(e) ? Observable.error(e) : failover);
+        }
+        return read;
+    }
+
+    /**
+     * Reads from every host of the fleet like {@link DockerFleetClient#fanOut(Function)} does, hosts with an open
+     * circuit answer a {@link HostUnavailableException} right away.
+     */
+    public <T> Observable<HostResponse<T>> fanOut(Function<? super RxDockerClient, Observable<T>> query) {
+        return Observable.from(new ArrayList<>(health.keySet())).flatMap(host -> Observable.defer(() -> {
+            final long startedAt = System.nanoTime();
+            return read(host, query).toList()
+                    .map(values -> HostResponse.succeeded(host, values, Duration.ofNanos(System.nanoTime() - startedAt)))
+                    .onErrorReturn(e -> HostResponse.failed(host, e, Duration.ofNanos(System.nanoTime() - startedAt)));
+        }), fleet.getConcurrency());
+    }
+
+    public Observable<ContainerInspectResponse> inspectContainerObs(String host, String containerId) {
+        return read(host, client -> client.inspectContainerObs(containerId));
+    }
+
+    public Observable<HostResponse<DockerContainer>> listContainersObs(QueryParameters queryParameters) {
+        return fanOut(client -> client.listContainersObs(queryParameters));
+    }
+
+    private <T> Observable<List<T>> attempt(HostHealth hostHealth, Function<? super RxDockerClient, Observable<T>> query) {
+        return Observable.defer(() -> {
+            final long startedAt = clock.getAsLong();
+            final AtomicBoolean answered = new AtomicBoolean();
+            return Observable.defer(() -> query.apply(fleet.client(hostHealth.host())))
+                    .subscribeOn(Schedulers.io())
+                    .timeout(fleet.getTimeout().toMillis(), TimeUnit.MILLISECONDS, scheduler)
+                    .toList()
+                    .doOnNext(values -> {
+                        answered.set(true);
+                        hostHealth.onSuccess(clock.getAsLong() - startedAt);
+                    })
+                    .doOnError(e -> {
+                        answered.set(true);
+                        if (isAnswer(e)) {
+                            hostHealth.onSuccess(clock.getAsLong() - startedAt);
+                        } else {
+                            logger.debug("request to host {} failed", hostHealth.host(), e);
+                            hostHealth.onFailure();
+                        }
+                    })
+                    .doOnUnsubscribe(() -> {
+                        if (!answered.get()) {
+                            hostHealth.onCancel();
+                        }
+                    });
+        });
+    }
+
+    /**
+     * The state of a hedged read. The error of the first request is the one reported, the hedged request may have
+     * gone to a host that can't answer, like one without the container.
+     */
+    private static final class Race {
+        private Throwable primaryError;
+        private boolean hedgeStarted;
+        private boolean hedgeFailed;
+
+        synchronized void onHedgeStarted() {
+            hedgeStarted = true;
+        }
+
+        synchronized <R> Observable<R> onPrimaryError(Throwable e) {
+            primaryError = e;
+            return hedgeStarted && !hedgeFailed ? Observable.empty() : Observable.error(e);
+        }
+
+        synchronized <R> Observable<R> onHedgeError(Throwable e) {
+            hedgeFailed = true;
+            return primaryError != null ? Observable.error(primaryError) : Observable.empty();
+        }
+    }
+
+    /**
+     * @return true when the daemon answered with a client error like 404, which says nothing about its health
+     */
+    private static boolean isAnswer(Throwable e) {
+        return e instanceof ServiceException && ((ServiceException) e).getCode() >= 400 && ((ServiceException) e).getCode() < 500;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.fleet;
+
+import com.shekhargulati.reactivex.docker.client.metrics.HistogramSnapshot;
+import com.shekhargulati.reactivex.docker.client.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * The health of one host of a fleet: the state of its circuit and the latencies of its successful requests. The
+ * latencies are kept per window, the percentiles of the last complete window are the ones reported, so a host that
+ * slows down is noticed within two windows.
+ */
+public class HostHealth {
+
+    public enum CircuitState {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    static final int MIN_SAMPLES = 20;
+
+    private final String host;
+    private final CircuitBreaker breaker;
+    private final long windowNanos;
+    private final LongSupplier clock;
+    private final AtomicLong hedges = new AtomicLong();
+
+    private volatile LatencyHistogram current = new LatencyHistogram();
+    private volatile long windowStart;
+    private volatile HistogramSnapshot lastWindow;
+
+    HostHealth(String host, CircuitBreaker breaker, long windowNanos, LongSupplier clock) {
+        this.host = host;
+        this.breaker = breaker;
+        this.windowNanos = windowNanos;
+        this.clock = clock;
+        this.windowStart = clock.getAsLong();
+    }
+
+    public String host() {
+        return host;
+    }
+
+    public CircuitState circuitState() {
+        return breaker.state();
+    }
+
+    public boolean isAvailable() {
+        return breaker.state() == CircuitState.CLOSED;
+    }
+
+    public int consecutiveFailures() {
+        return breaker.consecutiveFailures();
+    }
+
+    /**
+     * @return the latency percentile of the last complete window, empty while it had too few requests
+     */
+    public Optional<Duration> latency(double percentile) {
+        rotate();
+        final HistogramSnapshot window = lastWindow;
+        return window == null || window.count() < MIN_SAMPLES ? Optional.empty() : Optional.of(window.percentileDuration(percentile));
+    }
+
+    /**
+     * @return how many hedged requests were sent to this host
+     */
+    public long hedges() {
+        return hedges.get();
+    }
+
+    boolean tryAcquire() {
+        return breaker.tryAcquire();
+    }
+
+    void onSuccess(long latencyNanos) {
+        rotate();
+        current.record(latencyNanos);
+        breaker.onSuccess();
+    }
+
+    void onFailure() {
+        breaker.onFailure();
+    }
+
+    void onCancel() {
+        breaker.onCancel();
+    }
+
+    void onHedge() {
+        hedges.incrementAndGet();
+    }
+
+    private void rotate() {
+        final long now = clock.getAsLong();
+        if (now - windowStart < windowNanos) {
+            return;
+        }
+        synchronized (this) {
+            if (now - windowStart >= windowNanos) {
+                // a window without any request leaves nothing to compare against
+                final HistogramSnapshot finished = current.snapshot();
+                lastWindow = finished.count() == 0 ? null : finished;
+                current = new LatencyHistogram();
+                windowStart = now;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "HostHealth{" +
+                "host='" + host + '\'' +
+                ", circuit=" + circuitState() +
+                ", consecutiveFailures=" + consecutiveFailures() +
+                ", p95=" + latency(95).map(Duration::toString).orElse("n/a") +
+                '}';
+    }
+}
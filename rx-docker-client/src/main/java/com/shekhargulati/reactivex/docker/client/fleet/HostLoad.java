@@ -0,0 +1,127 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.fleet;
+
+import java.time.Instant;
+
+/**
+ * The load of one daemon when it was last sampled, plus the containers placed on it since then.
+ */
+public final class HostLoad {
+
+    private final String host;
+    private final int cpus;
+    private final long memTotal;
+    private final int containersRunning;
+    private final int containersUnsampled;
+    private final long memoryUsed;
+    private final double cpusUsed;
+    private final Instant sampledAt;
+
+    HostLoad(String host, int cpus, long memTotal, int containersRunning, int containersUnsampled, long memoryUsed, double cpusUsed,
+             Instant sampledAt) {
+        this.host = host;
+        this.cpus = cpus;
+        this.memTotal = memTotal;
+        this.containersRunning = containersRunning;
+        this.containersUnsampled = containersUnsampled;
+        this.memoryUsed = memoryUsed;
+        this.cpusUsed = cpusUsed;
+        this.sampledAt = sampledAt;
+    }
+
+    /**
+     * @return this load with one more container using <code>memory</code> bytes
+     */
+    HostLoad withPlacement(long memory) {
+        return new HostLoad(host, cpus, memTotal, containersRunning + 1, containersUnsampled, memoryUsed + memory, cpusUsed, sampledAt);
+    }
+
+    public String host() {
+        return host;
+    }
+
+    public int cpus() {
+        return cpus;
+    }
+
+    public long memTotal() {
+        return memTotal;
+    }
+
+    public int containersRunning() {
+        return containersRunning;
+    }
+
+    /**
+     * @return the running containers whose stats could not be read. Their usage is missing from
+     * {@link #memoryUsed()} and {@link #cpusUsed()}, so the host is busier than it looks.
+     */
+    public int containersUnsampled() {
+        return containersUnsampled;
+    }
+
+    public long memoryUsed() {
+        return memoryUsed;
+    }
+
+    public long freeMemory() {
+        return Math.max(0, memTotal - memoryUsed);
+    }
+
+    /**
+     * @return the number of CPUs the running containers kept busy
+     */
+    public double cpusUsed() {
+        return cpusUsed;
+    }
+
+    public Instant sampledAt() {
+        return sampledAt;
+    }
+
+    /**
+     * @return the larger of the used fractions of memory and of CPUs, between 0 and 1
+     */
+    public double utilization() {
+        double memory = memTotal <= 0 ? 1 : (double) memoryUsed / memTotal;
+        double cpu = cpus <= 0 ? 1 : cpusUsed / cpus;
+        return Math.min(1, Math.max(memory, cpu));
+    }
+
+    @Override
+    public String toString() {
+        return "HostLoad{" +
+                "host='" + host + '\'' +
+                ", cpus=" + cpus +
+                ", memTotal=" + memTotal +
+                ", containersRunning=" + containersRunning +
+                ", containersUnsampled=" + containersUnsampled +
+                ", memoryUsed=" + memoryUsed +
+                ", cpusUsed=" + cpusUsed +
+                ", sampledAt=" + sampledAt +
+                '}';
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.fleet;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * What one host of a fleet answered to a fan-out query: the values it returned or the error it failed with, and how
+ * long it took.
+ */
+public class HostResponse<T> {
+
+    private final String host;
+    private final List<T> values;
+    private final Throwable error;
+    private final Duration duration;
+
+    private HostResponse(String host, List<T> values, Throwable error, Duration duration) {
+        this.host = host;
+        this.values = values;
+        this.error = error;
+        this.duration = duration;
+    }
+
+    public static <T> HostResponse<T> succeeded(String host, List<T> values, Duration duration) {
+        return new HostResponse<>(host, Collections.unmodifiableList(values), null, duration);
+    }
+
+    public static <T> HostResponse<T> failed(String host, Throwable error, Duration duration) {
+        return new HostResponse<>(host, Collections.emptyList(), error, duration);
+    }
+
+    public String host() {
+        return host;
+    }
+
+    /**
+     * @return the values the host returned, empty when it failed
+     */
+    public List<T> values() {
+        return values;
+    }
+
+    public Optional<Throwable> error() {
+        return Optional.ofNullable(error);
+    }
+
+    public boolean isSuccessful() {
+        return error == null;
+    }
+
+    public Duration duration() {
+        return duration;
+    }
+
+    @Override
+    public String toString() {
+        return "HostResponse{" +
+                "host='" + host + '\'' +
+                ", values=" + values.size() +
+                ", error=" + error +
+                ", duration=" + duration +
+                '}';
+    }
+}
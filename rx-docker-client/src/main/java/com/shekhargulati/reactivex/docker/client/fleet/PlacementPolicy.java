@@ -0,0 +1,57 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.fleet;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Optional;
+
+/**
+ * Chooses the host for a new container among the hosts with enough free memory for it.
+ */
+@FunctionalInterface
+public interface PlacementPolicy {
+
+    Optional<HostLoad> choose(Collection<HostLoad> candidates);
+
+    /**
+     * Places containers on the least utilized host, then on the one running the fewest containers.
+     */
+    static PlacementPolicy spread() {
+        return candidates -> candidates.stream().min(Comparator.comparingDouble(HostLoad::utilization)
+                .thenComparingInt(HostLoad::containersRunning)
+                .thenComparing(HostLoad::host));
+    }
+
+    /**
+     * Places containers on the most utilized host that still fits them, keeping the other hosts free for large
+     * containers or for being drained.
+     */
+    static PlacementPolicy binPack() {
+        return candidates -> candidates.stream().max(Comparator.comparingDouble(HostLoad::utilization)
+                .thenComparingInt(HostLoad::containersRunning)
+                .thenComparing(Comparator.comparing(HostLoad::host).reversed()));
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.http;
+
+import okio.Okio;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Executes request/response calls on the calling thread over pooled keep-alive connections. Every call does plain
+ * blocking socket I/O without locks or extra threads, which makes it a good fit for virtual threads.
+ */
+public class BlockingHttpClient implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlockingHttpClient.class);
+
+    /**
+     * A pooled connection may have been closed by the daemon while idle. An idempotent request is retried on another
+     * connection this many times before the error is reported.
+     */
+    private static final int MAX_STALE_CONNECTION_RETRIES = 3;
+
+    private final ConnectionPool pool;
+    private final int readTimeoutMillis;
+    private final long acquireTimeoutMillis;
+
+    public BlockingHttpClient(ConnectionPool pool, int readTimeoutMillis, long acquireTimeoutMillis) {
+        this.pool = pool;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    public HttpResponse get(String path) throws IOException {
+        return execute("GET", path, Collections.emptyMap(), null, readTimeoutMillis, true);
+    }
+
+    /**
+     * @param idempotent whether the request may be sent again when a pooled connection turns out to be closed. The
+     *                   daemon may have received the request before the connection broke.
+     */
+    public HttpResponse post(String path, String json, boolean idempotent) throws IOException {
+        return post(path, json, readTimeoutMillis, idempotent);
+    }
+
+    /**
+     * @param readTimeoutMillis maximum time to wait for the daemon to answer this request, 0 to wait as long as it takes
+     */
+    public HttpResponse post(String path, String json, int readTimeoutMillis, boolean idempotent) throws IOException {
+        Map<String, String> headers = Collections.singletonMap("Content-Type", "application/json");
+        return execute("POST", path, headers, json == null ? new byte[0] : json.getBytes(UTF_8), readTimeoutMillis, idempotent);
+    }
+
+    public HttpResponse delete(String path, boolean idempotent) throws IOException {
+        return execute("DELETE", path, Collections.emptyMap(), null, readTimeoutMillis, idempotent);
+    }
+
+    /**
+     * Sends the request and reads the whole response. A request that is not idempotent is never sent twice, it fails
+     * when its pooled connection turns out to be closed.
+     *
+     * @param path              request path starting with a slash, including the query string
+     * @param body              request body or null for no body
+     * @param readTimeoutMillis maximum time to wait for the daemon to answer, 0 to wait as long as it takes
+     */
+    public HttpResponse execute(String method, String path, Map<String, String> headers, byte[] body, int readTimeoutMillis,
+                                boolean idempotent) throws IOException {
+        Map<String, String> requestHeaders = new LinkedHashMap<>(headers);
+        for (int attempt = 0; ; attempt++) {
+            ConnectionPool.Lease lease = pool.acquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+            HttpConnection connection = lease.connection();
+            ResponseHead head = null;
+            try {
+                connection.setReadTimeout(readTimeoutMillis);
+                connection.writeRequest(method, path, requestHeaders, body);
+                head = connection.readResponseHead();
+                String responseBody = Okio.buffer(connection.body(head)).readString(UTF_8);
+                pool.release(connection, head.isKeepAlive());
+                return new HttpResponse(head, responseBody);
+            } catch (IOException | RuntimeException e) {
+                pool.release(connection, false);
+                if (!idempotent || head != null || !lease.isReused() || attempt >= MAX_STALE_CONNECTION_RETRIES || !(e instanceof IOException)) {
+                    throw e;
+                }
+                logger.debug("Pooled connection failed before the response of {} {}, retrying", method, path, e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.close();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.http;
+
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.Source;
+import okio.Timeout;
+
+import java.io.IOException;
+import java.net.ProtocolException;
+
+/**
+ * Decodes a <code>Transfer-Encoding: chunked</code> body.
+ */
+class ChunkedSource implements Source {
+
+    private final BufferedSource source;
+    private long remainingInChunk = 0;
+    private boolean exhausted = false;
+
+    ChunkedSource(BufferedSource source) {
+        this.source = source;
+    }
+
+    @Override
+    public long read(Buffer sink, long byteCount) throws IOException {
+        if (exhausted) {
+            return -1;
+        }
+        if (remainingInChunk == 0) {
+            readChunkSize();
+            if (exhausted) {
+                return -1;
+            }
+        }
+        long read = source.read(sink, Math.min(byteCount, remainingInChunk));
+        if (read == -1) {
+            throw new ProtocolException("unexpected end of chunked body");
+        }
+        remainingInChunk -= read;
+        if (remainingInChunk == 0) {
+            source.readUtf8LineStrict();
+        }
+        return read;
+    }
+
+    private void readChunkSize() throws IOException {
+        String line = source.readUtf8LineStrict();
+        int extension = line.indexOf(';');
+        String size = (extension == -1 ? line : line.substring(0, extension)).trim();
+        try {
+            remainingInChunk = Long.parseLong(size, 16);
+        } catch (NumberFormatException e) {
+            throw new ProtocolException("invalid chunk size " + line);
+        }
+        if (remainingInChunk == 0) {
+            exhausted = true;
+            while (!source.readUtf8LineStrict().isEmpty()) {
+                // skip trailers
+            }
+        }
+    }
+
+    @Override
+    public Timeout timeout() {
+        return source.timeout();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // the connection owns the socket
+    }
+}
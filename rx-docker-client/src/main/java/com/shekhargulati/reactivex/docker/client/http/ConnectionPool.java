@@ -0,0 +1,233 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.http;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded pool of keep-alive connections to one daemon. At most <code>maxConnections</code> connections are open at
+ * any time, callers wait for a free one when they are all leased.
+ * <p>
+ * The pool is guarded by a {@link ReentrantLock} instead of <code>synchronized</code> and never holds the lock while
+ * connecting or closing sockets, so callers on virtual threads unmount while they wait instead of pinning their
+ * carrier thread. It starts no threads of its own: idle connections past their keep-alive are closed by the next
+ * caller that acquires a connection.
+ */
+public class ConnectionPool implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+
+    private final HttpEndpoint endpoint;
+    private final int maxConnections;
+    private final long keepAliveNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final ArrayDeque<IdleConnection> idle = new ArrayDeque<>();
+    private int leased;
+    private boolean closed;
+
+    public ConnectionPool(HttpEndpoint endpoint, int maxConnections, long keepAlive, TimeUnit unit) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("maxConnections must be at least 1");
+        }
+        this.endpoint = endpoint;
+        this.maxConnections = maxConnections;
+        this.keepAliveNanos = unit.toNanos(keepAlive);
+    }
+
+    /**
+     * Leases the most recently used idle connection, or opens a new one when none is idle and the pool is not full.
+     *
+     * @param timeout how long to wait for a connection when all of them are leased
+     * @throws InterruptedIOException when no connection became available in time or the caller was interrupted
+     */
+    public Lease acquire(long timeout, TimeUnit unit) throws IOException {
+        List<HttpConnection> expired = new ArrayList<>();
+        long remainingNanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (true) {
+                if (closed) {
+                    throw new IOException("connection pool is closed");
+                }
+                evictExpired(expired);
+                IdleConnection reusable = idle.pollLast();
+                if (reusable != null) {
+                    leased++;
+                    return new Lease(reusable.connection, true);
+                }
+                if (leased < maxConnections) {
+                    leased++;
+                    break;
+                }
+                if (remainingNanos <= 0) {
+                    throw new InterruptedIOException("timed out waiting for a connection to " + endpoint.hostAndPort());
+                }
+                try {
+                    remainingNanos = released.awaitNanos(remainingNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("interrupted while waiting for a connection");
+                }
+            }
+        } finally {
+            lock.unlock();
+            closeAll(expired);
+        }
+        try {
+            return new Lease(endpoint.connect(), false);
+        } catch (IOException | RuntimeException e) {
+            release(null, false);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a leased connection. A connection that is not reusable, e.g. because its response was not fully read,
+     * is closed.
+     */
+    public void release(HttpConnection connection, boolean reusable) {
+        boolean keep;
+        lock.lock();
+        try {
+            leased--;
+            keep = reusable && !closed && connection != null && !connection.isClosed();
+            if (keep) {
+                idle.addLast(new IdleConnection(connection, System.nanoTime()));
+            }
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (!keep && connection != null) {
+            closeQuietly(connection);
+        }
+    }
+
+    public int idleConnections() {
+        lock.lock();
+        try {
+            return idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int leasedConnections() {
+        lock.lock();
+        try {
+            return leased;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the idle connections, leased connections are closed when they are released.
+     */
+    @Override
+    public void close() {
+        List<HttpConnection> toClose = new ArrayList<>();
+        lock.lock();
+        try {
+            closed = true;
+            idle.forEach(i -> toClose.add(i.connection));
+            idle.clear();
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        closeAll(toClose);
+    }
+
+    private void evictExpired(List<HttpConnection> expired) {
+        long now = System.nanoTime();
+        for (Iterator<IdleConnection> it = idle.iterator(); it.hasNext(); ) {
+            IdleConnection connection = it.next();
+            if (now - connection.idleSince < keepAliveNanos) {
+                break;
+            }
+            it.remove();
+            expired.add(connection.connection);
+        }
+    }
+
+    private static void closeAll(List<HttpConnection> connections) {
+        connections.forEach(ConnectionPool::closeQuietly);
+    }
+
+    private static void closeQuietly(HttpConnection connection) {
+        try {
+            connection.close();
+        } catch (IOException e) {
+            logger.debug("Unable to close connection", e);
+        }
+    }
+
+    /**
+     * A connection leased from the pool. <code>reused</code> tells whether it has carried a request before, in which
+     * case the daemon may have closed it in the meantime.
+     */
+    public static class Lease {
+        private final HttpConnection connection;
+        private final boolean reused;
+
+        private Lease(HttpConnection connection, boolean reused) {
+            this.connection = connection;
+            this.reused = reused;
+        }
+
+        public HttpConnection connection() {
+            return connection;
+        }
+
+        public boolean isReused() {
+            return reused;
+        }
+    }
+
+    private static class IdleConnection {
+        private final HttpConnection connection;
+        private final long idleSince;
+
+        private IdleConnection(HttpConnection connection, long idleSince) {
+            this.connection = connection;
+            this.idleSince = idleSince;
+        }
+    }
+}
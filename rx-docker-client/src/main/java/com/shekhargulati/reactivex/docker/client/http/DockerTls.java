@@ -0,0 +1,304 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.http;
+
+import com.shekhargulati.reactivex.docker.client.metrics.HistogramSnapshot;
+import com.shekhargulati.reactivex.docker.client.metrics.LatencyHistogram;
+
+import javax.net.ssl.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateFactory;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.shekhargulati.reactivex.docker.client.utils.Validations.validate;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * TLS to a daemon secured with the <code>ca.pem</code>, <code>cert.pem</code> and <code>key.pem</code> files of
+ * <code>DOCKER_CERT_PATH</code>. The files are read once into an {@link SSLContext} that every connection made with
+ * this configuration shares, so a new connection resumes the TLS session of an earlier one instead of doing a full
+ * handshake, as long as the session is in the cache of the context.
+ * <p>
+ * The copies made by the <code>with</code> methods share the context, its session cache and the handshake statistics.
+ * <p>
+ * Only connections made by this library's own HTTP code use it: the blocking and Flowable clients, and the attach and
+ * exec streams of {@link com.shekhargulati.reactivex.docker.client.RxDockerClient}. The other requests of the Rx
+ * client, including its log and stats streams, go through rx-okhttp, which builds its own SSL context from the
+ * cert path. The session cache settings, cipher suites, protocols and handshake statistics don't apply to them.
+ */
+public class DockerTls {
+
+    public static final int DEFAULT_SESSION_CACHE_SIZE = 256;
+    public static final Duration DEFAULT_SESSION_TIMEOUT = Duration.ofHours(8);
+
+    private static final Pattern PEM = Pattern.compile("-----BEGIN ([A-Z ]+)-----([^-]+)-----END \\1-----");
+    private static final byte[] RSA_ALGORITHM_IDENTIFIER = {0x30, 0x0d, 0x06, 0x09, 0x2a, (byte) 0x86, 0x48, (byte) 0x86, (byte) 0xf7, 0x0d, 0x01, 0x01, 0x01, 0x05, 0x00};
+
+    private final SSLContext sslContext;
+    private final List<String> cipherSuites;
+    private final List<String> protocols;
+    private final Handshakes handshakes;
+
+    DockerTls(SSLContext sslContext, List<String> cipherSuites, List<String> protocols, Handshakes handshakes) {
+        this.sslContext = sslContext;
+        this.cipherSuites = cipherSuites;
+        this.protocols = protocols;
+        this.handshakes = handshakes;
+    }
+
+    /**
+     * Reads the CA certificate, the client certificate and its private key from <code>certPath</code>. The key may be
+     * a PKCS#8 or a PKCS#1 RSA key, as written by docker-machine.
+     *
+     * @throws UncheckedIOException     when a file can't be read
+     * @throws IllegalArgumentException when a file doesn't hold what it should
+     */
+    public static DockerTls fromCertPath(Path certPath) {
+        validate(certPath, path -> path == null || !Files.isDirectory(path), () -> certPath + " is not a directory.");
+        try {
+            final CertificateFactory certificates = CertificateFactory.getInstance("X.509");
+            final KeyStore trustStore = emptyKeyStore();
+            int i = 0;
+            for (Certificate ca : certificates.generateCertificates(new ByteArrayInputStream(read(certPath.resolve("ca.pem"))))) {
+                trustStore.setCertificateEntry("ca-" + i++, ca);
+            }
+            final TrustManagerFactory trustManagers = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+            trustManagers.init(trustStore);
+
+            final Collection<? extends Certificate> chain = certificates.generateCertificates(new ByteArrayInputStream(read(certPath.resolve("cert.pem"))));
+            validate(chain, Collection::isEmpty, () -> "no certificate in " + certPath.resolve("cert.pem") + ".");
+            final KeyStore keyStore = emptyKeyStore();
+            keyStore.setKeyEntry("docker", privateKey(certPath.resolve("key.pem")), new char[0], chain.toArray(new Certificate[chain.size()]));
+            final KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            keyManagers.init(keyStore, new char[0]);
+
+            final SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(keyManagers.getKeyManagers(), trustManagers.getTrustManagers(), null);
+            sslContext.getClientSessionContext().setSessionCacheSize(DEFAULT_SESSION_CACHE_SIZE);
+            sslContext.getClientSessionContext().setSessionTimeout((int) DEFAULT_SESSION_TIMEOUT.getSeconds());
+            return new DockerTls(sslContext, Collections.emptyList(), Collections.emptyList(), new Handshakes());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Unable to load the TLS material of " + certPath + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param cipherSuites the cipher suites offered to the daemon, in order of preference. None means the defaults of
+     *                     the JDK.
+     */
+    public DockerTls withCipherSuites(String... cipherSuites) {
+        final List<String> supported = Arrays.asList(sslContext.getSupportedSSLParameters().getCipherSuites());
+        for (String cipherSuite : cipherSuites) {
+            validate(cipherSuite, suite -> !supported.contains(suite), () -> cipherSuite + " is not a supported cipher suite.");
+        }
+        return new DockerTls(sslContext, Collections.unmodifiableList(Arrays.asList(cipherSuites.clone())), protocols, handshakes);
+    }
+
+    /**
+     * @param protocols the TLS versions offered to the daemon, like <code>TLSv1.3</code>. None means the defaults of
+     *                  the JDK.
+     */
+    public DockerTls withProtocols(String... protocols) {
+        final List<String> supported = Arrays.asList(sslContext.getSupportedSSLParameters().getProtocols());
+        for (String protocol : protocols) {
+            validate(protocol, p -> !supported.contains(p), () -> protocol + " is not a supported protocol.");
+        }
+        return new DockerTls(sslContext, cipherSuites, Collections.unmodifiableList(Arrays.asList(protocols.clone())), handshakes);
+    }
+
+    /**
+     * Sizes the session cache of the shared context. Sessions older than <code>timeout</code> are not resumed.
+     */
+    public DockerTls withSessionCache(int size, Duration timeout) {
+        validate(size, s -> s < 1, () -> "size must be at least 1.");
+        validate(timeout, t -> t == null || t.getSeconds() < 1, () -> "timeout must be at least a second.");
+        sslContext.getClientSessionContext().setSessionCacheSize(size);
+        sslContext.getClientSessionContext().setSessionTimeout((int) Math.min(Integer.MAX_VALUE, timeout.getSeconds()));
+        return this;
+    }
+
+    public SSLContext sslContext() {
+        return sslContext;
+    }
+
+    public Stats stats() {
+        return new Stats(handshakes.time.snapshot(), handshakes.resumed.sum());
+    }
+
+    /**
+     * Layers TLS over a connected socket and does the handshake, verifying that the certificate of the daemon is
+     * issued for <code>host</code>.
+     */
+    Socket handshake(Socket socket, String host, int port) throws IOException {
+        final SSLSocket sslSocket = (SSLSocket) sslContext.getSocketFactory().createSocket(socket, host, port, true);
+        try {
+            final SSLParameters parameters = sslSocket.getSSLParameters();
+            parameters.setEndpointIdentificationAlgorithm("HTTPS");
+            if (!cipherSuites.isEmpty()) {
+                parameters.setCipherSuites(cipherSuites.toArray(new String[cipherSuites.size()]));
+            }
+            if (!protocols.isEmpty()) {
+                parameters.setProtocols(protocols.toArray(new String[protocols.size()]));
+            }
+            sslSocket.setSSLParameters(parameters);
+            final long startedAtMillis = System.currentTimeMillis();
+            final long startedAt = System.nanoTime();
+            sslSocket.startHandshake();
+            handshakes.time.record(System.nanoTime() - startedAt);
+            // a resumed session keeps the creation time of the handshake that created it
+            if (sslSocket.getSession().getCreationTime() < startedAtMillis) {
+                handshakes.resumed.increment();
+            }
+            return sslSocket;
+        } catch (IOException e) {
+            sslSocket.close();
+            throw e;
+        }
+    }
+
+    private static KeyStore emptyKeyStore() throws GeneralSecurityException {
+        final KeyStore keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+        try {
+            keyStore.load(null, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return keyStore;
+    }
+
+    private static PrivateKey privateKey(Path keyFile) throws GeneralSecurityException {
+        final Matcher pem = PEM.matcher(new String(read(keyFile), US_ASCII));
+        if (!pem.find()) {
+            throw new IllegalArgumentException("no PEM encoded key in " + keyFile + ".");
+        }
+        final byte[] der = Base64.getMimeDecoder().decode(pem.group(2));
+        switch (pem.group(1)) {
+            case "PRIVATE KEY":
+                return pkcs8Key(new PKCS8EncodedKeySpec(der));
+            case "RSA PRIVATE KEY":
+                return KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(pkcs1ToPkcs8(der)));
+            default:
+                throw new IllegalArgumentException(pem.group(1) + " in " + keyFile + " is not supported, convert it to PKCS#8 with openssl pkcs8 -topk8 -nocrypt.");
+        }
+    }
+
+    private static PrivateKey pkcs8Key(PKCS8EncodedKeySpec spec) throws GeneralSecurityException {
+        try {
+            return KeyFactory.getInstance("RSA").generatePrivate(spec);
+        } catch (GeneralSecurityException e) {
+            return KeyFactory.getInstance("EC").generatePrivate(spec);
+        }
+    }
+
+    /**
+     * Wraps a PKCS#1 RSA key in a PKCS#8 <code>PrivateKeyInfo</code>, the only encoding the JDK reads.
+     */
+    static byte[] pkcs1ToPkcs8(byte[] pkcs1) {
+        final ByteArrayOutputStream privateKeyInfo = new ByteArrayOutputStream();
+        privateKeyInfo.write(new byte[]{0x02, 0x01, 0x00}, 0, 3);
+        privateKeyInfo.write(RSA_ALGORITHM_IDENTIFIER, 0, RSA_ALGORITHM_IDENTIFIER.length);
+        writeDer(privateKeyInfo, 0x04, pkcs1);
+        final ByteArrayOutputStream sequence = new ByteArrayOutputStream();
+        writeDer(sequence, 0x30, privateKeyInfo.toByteArray());
+        return sequence.toByteArray();
+    }
+
+    private static void writeDer(ByteArrayOutputStream out, int tag, byte[] content) {
+        out.write(tag);
+        if (content.length < 0x80) {
+            out.write(content.length);
+        } else {
+            final int bytes = 4 - Integer.numberOfLeadingZeros(content.length) / 8;
+            out.write(0x80 | bytes);
+            for (int i = bytes - 1; i >= 0; i--) {
+                out.write(content.length >>> (8 * i));
+            }
+        }
+        out.write(content, 0, content.length);
+    }
+
+    private static byte[] read(Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read " + file, e);
+        }
+    }
+
+    static class Handshakes {
+        private final LatencyHistogram time = new LatencyHistogram();
+        private final LongAdder resumed = new LongAdder();
+    }
+
+    public static class Stats {
+        private final HistogramSnapshot handshakeTime;
+        private final long resumed;
+
+        Stats(HistogramSnapshot handshakeTime, long resumed) {
+            this.handshakeTime = handshakeTime;
+            this.resumed = resumed;
+        }
+
+        /**
+         * @return completed handshakes, full and resumed ones
+         */
+        public long handshakes() {
+            return handshakeTime.count();
+        }
+
+        public long resumed() {
+            return resumed;
+        }
+
+        public HistogramSnapshot handshakeTime() {
+            return handshakeTime;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{" +
+                    "handshakes=" + handshakes() +
+                    ", resumed=" + resumed +
+                    ", handshakeTime=" + handshakeTime +
+                    '}';
+        }
+    }
+}
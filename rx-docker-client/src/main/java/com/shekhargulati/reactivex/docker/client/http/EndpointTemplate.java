@@ -0,0 +1,118 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.http;
+
+import com.shekhargulati.reactivex.docker.client.utils.UrlEncoding;
+import okhttp3.HttpUrl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.shekhargulati.reactivex.docker.client.utils.Validations.validate;
+
+/**
+ * An endpoint with <code>%s</code> placeholders, like the <code>*_ENDPOINT</code> constants, parsed once so that
+ * expanding it only appends its parts and the encoded arguments. Arguments before the <code>?</code> are encoded as a
+ * path segment, arguments after it as a query value.
+ */
+public final class EndpointTemplate {
+
+    private static final String PLACEHOLDER = "%s";
+
+    private final String template;
+    private final String[] literals;
+    private final boolean[] inQuery;
+    private final int literalsLength;
+
+    private EndpointTemplate(String template) {
+        this.template = template;
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        int placeholder;
+        while ((placeholder = template.indexOf(PLACEHOLDER, start)) >= 0) {
+            parts.add(template.substring(start, placeholder));
+            start = placeholder + PLACEHOLDER.length();
+        }
+        parts.add(template.substring(start));
+        this.literals = parts.toArray(new String[parts.size()]);
+        this.inQuery = new boolean[literals.length - 1];
+        int queryStart = template.indexOf('?');
+        int offset = 0;
+        for (int i = 0; i < inQuery.length; i++) {
+            offset += literals[i].length();
+            inQuery[i] = queryStart >= 0 && queryStart < offset + i * PLACEHOLDER.length();
+        }
+        this.literalsLength = template.length() - inQuery.length * PLACEHOLDER.length();
+    }
+
+    public static EndpointTemplate compile(String template) {
+        validate(template, t -> t == null, "template can't be null");
+        return new EndpointTemplate(template);
+    }
+
+    public String template() {
+        return template;
+    }
+
+    public int placeholders() {
+        return inQuery.length;
+    }
+
+    /**
+     * @return the endpoint with the encoded arguments in place of the placeholders
+     */
+    public String expand(Object... args) {
+        if (args.length != inQuery.length) {
+            throw new IllegalArgumentException(String.format("%s expects %d arguments", template, inQuery.length));
+        }
+        int capacity = literalsLength;
+        for (Object arg : args) {
+            capacity += arg instanceof CharSequence ? ((CharSequence) arg).length() : 16;
+        }
+        StringBuilder builder = new StringBuilder(capacity);
+        for (int i = 0; i < inQuery.length; i++) {
+            builder.append(literals[i]);
+            String value = String.valueOf(args[i]);
+            if (inQuery[i]) {
+                UrlEncoding.appendQueryValue(builder, value);
+            } else {
+                UrlEncoding.appendPathSegment(builder, value);
+            }
+        }
+        return builder.append(literals[inQuery.length]).toString();
+    }
+
+    /**
+     * @param base url of the daemon, like <code>http://127.0.0.1:2375/</code>
+     */
+    public HttpUrl toUrl(HttpUrl base, Object... args) {
+        return base.resolve(expand(args));
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+}
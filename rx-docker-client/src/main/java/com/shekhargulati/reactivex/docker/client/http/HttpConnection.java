@@ -0,0 +1,175 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.http;
+
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.Okio;
+import okio.Source;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A single HTTP/1.1 connection to the daemon. It writes requests and parses response heads, and after a
+ * <code>101 UPGRADED</code> response gives direct access to the socket for hijacked streams.
+ * A connection is not thread safe, it is owned by one caller at a time.
+ */
+public class HttpConnection implements Closeable {
+
+    private final Socket socket;
+    private final String hostHeader;
+    private final BufferedSource source;
+    private final BufferedSink sink;
+
+    HttpConnection(Socket socket, String hostHeader) throws IOException {
+        this.socket = socket;
+        this.hostHeader = hostHeader;
+        this.source = Okio.buffer(Okio.source(socket));
+        this.sink = Okio.buffer(Okio.sink(socket));
+    }
+
+    /**
+     * Writes a request, adding the <code>Host</code> and <code>Content-Length</code> headers.
+     *
+     * @param path request path starting with a slash, including the query string
+     * @param body request body or null for no body
+     */
+    public void writeRequest(String method, String path, Map<String, String> headers, byte[] body) throws IOException {
+        sink.writeUtf8(method).writeUtf8(" ").writeUtf8(path).writeUtf8(" HTTP/1.1\r\n");
+        sink.writeUtf8("Host: ").writeUtf8(hostHeader).writeUtf8("\r\n");
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            sink.writeUtf8(header.getKey()).writeUtf8(": ").writeUtf8(header.getValue()).writeUtf8("\r\n");
+        }
+        if (body != null) {
+            sink.writeUtf8("Content-Length: ").writeUtf8(String.valueOf(body.length)).writeUtf8("\r\n");
+        }
+        sink.writeUtf8("\r\n");
+        if (body != null) {
+            sink.write(body);
+        }
+        sink.flush();
+    }
+
+    public ResponseHead readResponseHead() throws IOException {
+        String statusLine = source.readUtf8LineStrict();
+        String[] parts = statusLine.split(" ", 3);
+        if (parts.length < 2 || !parts[0].startsWith("HTTP/")) {
+            throw new ProtocolException("unexpected status line " + statusLine);
+        }
+        int code;
+        try {
+            code = Integer.parseInt(parts[1]);
+        } catch (NumberFormatException e) {
+            throw new ProtocolException("unexpected status line " + statusLine);
+        }
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String line = source.readUtf8LineStrict(); !line.isEmpty(); line = source.readUtf8LineStrict()) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.put(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+            }
+        }
+        return new ResponseHead(code, parts.length == 3 ? parts[2] : "", headers);
+    }
+
+    /**
+     * The body of a response, delimited by its <code>Content-Length</code> or chunked encoding. A body without either
+     * lasts until the daemon closes the connection.
+     */
+    public Source body(ResponseHead head) {
+        if (head.header("Transfer-Encoding").map(te -> te.equalsIgnoreCase("chunked")).orElse(false)) {
+            return new ChunkedSource(source);
+        }
+        if (head.code() == 204 || head.code() == 304) {
+            return new FixedLengthSource(source, 0);
+        }
+        return head.header("Content-Length")
+                .map(length -> (Source) new FixedLengthSource(source, Long.parseLong(length)))
+                .orElse(source);
+    }
+
+    /**
+     * Reads the whole body and throws an {@link HttpResponseException} when the response is not successful.
+     */
+    public String readBody(ResponseHead head) throws IOException {
+        String body = Okio.buffer(body(head)).readString(UTF_8);
+        if (!head.isSuccessful()) {
+            throw new HttpResponseException(head.code(), head.message(), body);
+        }
+        return body;
+    }
+
+    /**
+     * Reads the body of an unsuccessful response and throws it as an {@link HttpResponseException}, does nothing
+     * for a successful response.
+     */
+    public void readBodyIfUnsuccessful(ResponseHead head) throws IOException {
+        if (!head.isSuccessful()) {
+            readBody(head);
+        }
+    }
+
+    public BufferedSource source() {
+        return source;
+    }
+
+    public BufferedSink sink() {
+        return sink;
+    }
+
+    public void setReadTimeout(int timeoutMillis) throws SocketException {
+        socket.setSoTimeout(timeoutMillis);
+    }
+
+    /**
+     * Closes the write side of the socket, which tells the daemon that stdin is closed. TLS connections can be half
+     * closed from Java 11 on.
+     */
+    public void shutdownOutput() throws IOException {
+        sink.flush();
+        try {
+            socket.shutdownOutput();
+        } catch (UnsupportedOperationException e) {
+            throw new IOException("Unable to close stdin, half closing a TLS connection needs Java 11", e);
+        }
+    }
+
+    public boolean isClosed() {
+        return socket.isClosed();
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.http;
+
+import com.shekhargulati.reactivex.docker.client.HostAndPort;
+
+import javax.net.SocketFactory;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Optional;
+
+/**
+ * Address of a Docker daemon, the socket factory used to connect to it and the TLS configuration of a secured daemon.
+ */
+public class HttpEndpoint {
+
+    public static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 10_000;
+
+    private final HostAndPort hostAndPort;
+    private final SocketFactory socketFactory;
+    private final int connectTimeoutMillis;
+    private final Optional<DockerTls> tls;
+
+    public HttpEndpoint(HostAndPort hostAndPort, SocketFactory socketFactory, int connectTimeoutMillis) {
+        this(hostAndPort, socketFactory, connectTimeoutMillis, Optional.empty());
+    }
+
+    public HttpEndpoint(HostAndPort hostAndPort, SocketFactory socketFactory, int connectTimeoutMillis, Optional<DockerTls> tls) {
+        this.hostAndPort = hostAndPort;
+        this.socketFactory = socketFactory;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.tls = tls;
+    }
+
+    public static HttpEndpoint plain(HostAndPort hostAndPort) {
+        return new HttpEndpoint(hostAndPort, SocketFactory.getDefault(), DEFAULT_CONNECT_TIMEOUT_MILLIS);
+    }
+
+    public static HttpEndpoint secure(HostAndPort hostAndPort, DockerTls tls) {
+        return new HttpEndpoint(hostAndPort, SocketFactory.getDefault(), DEFAULT_CONNECT_TIMEOUT_MILLIS, Optional.of(tls));
+    }
+
+    public HostAndPort hostAndPort() {
+        return hostAndPort;
+    }
+
+    public boolean isSecure() {
+        return tls.isPresent();
+    }
+
+    /**
+     * Opens a new connection, doing the TLS handshake within the connect timeout for a secured daemon. TCP keep-alive
+     * is on, so that a daemon gone away in the middle of a quiet stream is noticed. Reads block until data is
+     * available, use {@link Socket#setSoTimeout(int)} through {@link HttpConnection#setReadTimeout(int)} for
+     * request/response calls.
+     */
+    public HttpConnection connect() throws IOException {
+        Socket socket = socketFactory.createSocket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setKeepAlive(true);
+            socket.connect(new InetSocketAddress(hostAndPort.getHost(), hostAndPort.getPort()), connectTimeoutMillis);
+            if (!tls.isPresent()) {
+                return new HttpConnection(socket, hostAndPort.getHost() + ":" + hostAndPort.getPort());
+            }
+            socket.setSoTimeout(connectTimeoutMillis);
+            final Socket connected = tls.get().handshake(socket, hostAndPort.getHost(), hostAndPort.getPort());
+            connected.setSoTimeout(0);
+            return new HttpConnection(connected, hostAndPort.getHost() + ":" + hostAndPort.getPort());
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+}
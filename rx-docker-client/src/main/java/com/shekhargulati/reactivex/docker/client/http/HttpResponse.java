@@ -0,0 +1,66 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.http;
+
+/**
+ * A fully read response.
+ */
+public class HttpResponse {
+
+    private final ResponseHead head;
+    private final String body;
+
+    HttpResponse(ResponseHead head, String body) {
+        this.head = head;
+        this.body = body;
+    }
+
+    public ResponseHead head() {
+        return head;
+    }
+
+    public int code() {
+        return head.code();
+    }
+
+    public String body() {
+        return body;
+    }
+
+    public boolean isSuccessful() {
+        return head.isSuccessful();
+    }
+
+    /**
+     * @return this response when it is successful
+     * @throws HttpResponseException otherwise
+     */
+    public HttpResponse ensureSuccessful() {
+        if (!isSuccessful()) {
+            throw new HttpResponseException(head.code(), head.message(), body);
+        }
+        return this;
+    }
+}
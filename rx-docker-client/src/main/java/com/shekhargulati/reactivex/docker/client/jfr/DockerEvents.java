@@ -0,0 +1,97 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.jfr;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+
+/**
+ * Emits Java Flight Recorder events for the calls made to the Docker daemon, so daemon latency can be correlated
+ * with GC and CPU in one recording:
+ * <ul>
+ * <li><code>com.shekhargulati.reactivex.docker.DockerRequest</code>, one per request</li>
+ * <li><code>com.shekhargulati.reactivex.docker.DockerStreamChunk</code>, one per chunk of a streamed body, disabled
+ * by default</li>
+ * <li><code>com.shekhargulati.reactivex.docker.DockerExport</code>, one per export written to a file</li>
+ * </ul>
+ * The events are switched on and off at runtime through the recording settings, e.g.
+ * <code>recording.enable("com.shekhargulati.reactivex.docker.DockerStreamChunk")</code>. When they are disabled, or the
+ * JVM has no flight recorder, recording does not allocate.
+ */
+public final class DockerEvents {
+
+    private static final Logger logger = LoggerFactory.getLogger(DockerEvents.class);
+
+    private static final Request NO_REQUEST = (statusCode, bytesOut, bytesIn) -> {
+    };
+    private static final Export NO_EXPORT = bytes -> {
+    };
+
+    private static final boolean AVAILABLE = flightRecorderAvailable();
+
+    private DockerEvents() {
+    }
+
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * @param resourceId id of the container, image or exec the request is about, may be null
+     */
+    public static Request beginRequest(final String endpoint, final String resourceId) {
+        return AVAILABLE ? FlightRecorderEvents.beginRequest(endpoint, resourceId, NO_REQUEST) : NO_REQUEST;
+    }
+
+    public static void streamChunk(final String endpoint, final String resourceId, final long bytes) {
+        if (AVAILABLE) {
+            FlightRecorderEvents.streamChunk(endpoint, resourceId, bytes);
+        }
+    }
+
+    public static Export beginExport(final String endpoint, final String resourceId, final Path path) {
+        return AVAILABLE ? FlightRecorderEvents.beginExport(endpoint, resourceId, path, NO_EXPORT) : NO_EXPORT;
+    }
+
+    private static boolean flightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            logger.debug("Flight recorder is not available, Docker events are disabled");
+            return false;
+        }
+    }
+
+    public interface Request {
+        void end(int statusCode, long bytesOut, long bytesIn);
+    }
+
+    public interface Export {
+        void end(long bytes);
+    }
+}
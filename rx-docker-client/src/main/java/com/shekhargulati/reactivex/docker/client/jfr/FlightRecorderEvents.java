@@ -0,0 +1,83 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.jfr;
+
+import java.nio.file.Path;
+
+/**
+ * Only loaded when the JVM has a flight recorder, {@link DockerEvents} checks before calling it.
+ */
+final class FlightRecorderEvents {
+
+    private FlightRecorderEvents() {
+    }
+
+    static DockerEvents.Request beginRequest(final String endpoint, final String resourceId, final DockerEvents.Request disabled) {
+        final DockerRequestEvent event = new DockerRequestEvent();
+        if (!event.isEnabled()) {
+            return disabled;
+        }
+        event.begin();
+        return (statusCode, bytesOut, bytesIn) -> {
+            event.end();
+            if (event.shouldCommit()) {
+                event.endpoint = endpoint;
+                event.resourceId = resourceId;
+                event.statusCode = statusCode;
+                event.bytesOut = bytesOut;
+                event.bytesIn = bytesIn;
+                event.commit();
+            }
+        };
+    }
+
+    static void streamChunk(final String endpoint, final String resourceId, final long bytes) {
+        final DockerStreamChunkEvent event = new DockerStreamChunkEvent();
+        if (event.shouldCommit()) {
+            event.endpoint = endpoint;
+            event.resourceId = resourceId;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    static DockerEvents.Export beginExport(final String endpoint, final String resourceId, final Path path, final DockerEvents.Export disabled) {
+        final DockerExportEvent event = new DockerExportEvent();
+        if (!event.isEnabled()) {
+            return disabled;
+        }
+        event.begin();
+        return bytes -> {
+            event.end();
+            if (event.shouldCommit()) {
+                event.endpoint = endpoint;
+                event.resourceId = resourceId;
+                event.path = path.toString();
+                event.bytes = bytes;
+                event.commit();
+            }
+        };
+    }
+}
@@ -0,0 +1,347 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.limits;
+
+import com.shekhargulati.reactivex.rxokhttp.HttpStatus;
+import com.shekhargulati.reactivex.rxokhttp.ServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Observable;
+import rx.Scheduler;
+import rx.schedulers.Schedulers;
+import rx.subscriptions.Subscriptions;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.ObjLongConsumer;
+
+import static com.shekhargulati.reactivex.docker.client.utils.Validations.validate;
+
+/**
+ * Limits how many requests are sent to a daemon at once and queues the rest, adapting the limit to how the daemon
+ * copes. The limit grows by one for every request answered within <code>tolerance</code> times the fastest answer of
+ * its endpoint in the last minute while the limit was in use, and shrinks to <code>backoffRatio</code> of itself, at
+ * most once per round trip, when a request fails, times out, gets a 5xx or takes longer than that. Answers like 404
+ * are not failures.
+ * <p>
+ * A limiter configured with an early release gives the permit of a stream back on its first item, or after the
+ * given time when none arrives, so that long lived streams only count while they are being opened.
+ */
+public class AdaptiveLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveLimiter.class);
+
+    private static final long BASELINE_WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+    // answers this much slower than the baseline are jitter rather than congestion, whatever the ratio
+    private static final long TOLERANCE_FLOOR_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double tolerance;
+    private final int maxQueued;
+    private final Optional<Duration> earlyRelease;
+    private final Scheduler scheduler;
+    private final LongSupplier clock;
+
+    private final Deque<Permit> queue = new ArrayDeque<>();
+    private final Map<String, Baseline> baselines = new HashMap<>();
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseAt;
+
+    AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, double tolerance, int maxQueued,
+                    Optional<Duration> earlyRelease, Scheduler scheduler, LongSupplier clock) {
+        validate(minLimit, l -> l < 1, "minLimit must be at least 1");
+        validate(maxLimit, l -> l < minLimit, "maxLimit can't be less than minLimit");
+        validate(initialLimit, l -> l < 1, "initialLimit must be at least 1");
+        validate(backoffRatio, r -> r <= 0 || r >= 1, "backoffRatio must be between 0 and 1");
+        validate(tolerance, t -> t < 1, "tolerance can't be less than 1");
+        validate(maxQueued, q -> q < 0, "maxQueued can't be negative");
+        validate(earlyRelease, d -> d.isPresent() && (d.get().isNegative() || d.get().isZero()), "earlyRelease must be positive");
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.tolerance = tolerance;
+        this.maxQueued = maxQueued;
+        this.earlyRelease = earlyRelease;
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.limit = Math.min(maxLimit, Math.max(minLimit, initialLimit));
+        this.lastDecreaseAt = clock.getAsLong() - TimeUnit.DAYS.toNanos(1);
+    }
+
+    /**
+     * Starts at 20 requests at once, between 1 and 200, backs off to 90% of the limit and tolerates answers twice as
+     * slow as the fastest, queueing up to 4096 requests.
+     */
+    public static AdaptiveLimiter create() {
+        return new AdaptiveLimiter(20, 1, 200, 0.9, 2, 4096, Optional.empty(), Schedulers.io(), System::nanoTime);
+    }
+
+    public AdaptiveLimiter withInitialLimit(int initialLimit) {
+        return new AdaptiveLimiter(initialLimit, minLimit, maxLimit, backoffRatio, tolerance, maxQueued, earlyRelease, scheduler, clock);
+    }
+
+    public AdaptiveLimiter withMinLimit(int minLimit) {
+        return new AdaptiveLimiter(initialLimit, minLimit, maxLimit, backoffRatio, tolerance, maxQueued, earlyRelease, scheduler, clock);
+    }
+
+    public AdaptiveLimiter withMaxLimit(int maxLimit) {
+        return new AdaptiveLimiter(initialLimit, minLimit, maxLimit, backoffRatio, tolerance, maxQueued, earlyRelease, scheduler, clock);
+    }
+
+    /**
+     * @param backoffRatio fraction of the limit kept when the daemon is congested, between 0 and 1
+     */
+    public AdaptiveLimiter withBackoffRatio(double backoffRatio) {
+        return new AdaptiveLimiter(initialLimit, minLimit, maxLimit, backoffRatio, tolerance, maxQueued, earlyRelease, scheduler, clock);
+    }
+
+    /**
+     * @param tolerance how many times slower than the fastest answer of an endpoint an answer may be before the daemon
+     *                  counts as congested
+     */
+    public AdaptiveLimiter withTolerance(double tolerance) {
+        return new AdaptiveLimiter(initialLimit, minLimit, maxLimit, backoffRatio, tolerance, maxQueued, earlyRelease, scheduler, clock);
+    }
+
+    /**
+     * @param maxQueued requests waiting for a permit beyond which requests fail with a
+     *                  {@link ConcurrencyLimitExceededException}
+     */
+    public AdaptiveLimiter withMaxQueued(int maxQueued) {
+        return new AdaptiveLimiter(initialLimit, minLimit, maxLimit, backoffRatio, tolerance, maxQueued, earlyRelease, scheduler, clock);
+    }
+
+    /**
+     * Gives the permit of a request back on its first item, or after <code>after</code> when no item arrived by then.
+     */
+    public AdaptiveLimiter withEarlyRelease(Duration after) {
+        return new AdaptiveLimiter(initialLimit, minLimit, maxLimit, backoffRatio, tolerance, maxQueued, Optional.of(after), scheduler, clock);
+    }
+
+    /**
+     * Sends the request once a permit is available. The request is queued until then, and removed from the queue when
+     * it is unsubscribed.
+     *
+     * @param endpoint endpoint template of the request, its latencies are compared with those of the same endpoint
+     * @param onQueued told how long, in nanoseconds, the request waited for its permit
+     */
+    public <T> Observable<T> limit(String endpoint, Observable<T> request, ObjLongConsumer<String> onQueued) {
+        return Observable.create(subscriber -> {
+            final long enqueuedAt = clock.getAsLong();
+            final Permit permit = new Permit(endpoint);
+            permit.onGrant = () -> {
+                onQueued.accept(endpoint, clock.getAsLong() - enqueuedAt);
+                if (subscriber.isUnsubscribed()) {
+                    permit.release(false, false);
+                } else {
+                    send(request, permit, subscriber);
+                }
+            };
+            final Admission admission = enqueue(permit);
+            if (admission == Admission.REJECTED) {
+                subscriber.onError(new ConcurrencyLimitExceededException(maxQueued + " requests are already waiting for " + endpoint));
+                return;
+            }
+            subscriber.add(Subscriptions.create(() -> cancel(permit)));
+            if (admission == Admission.GRANTED) {
+                permit.run();
+            }
+        });
+    }
+
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    public synchronized int queued() {
+        return queue.size();
+    }
+
+    private <T> void send(Observable<T> request, Permit permit, rx.Subscriber<? super T> subscriber) {
+        if (earlyRelease.isPresent()) {
+            final Scheduler.Worker worker = scheduler.createWorker();
+            subscriber.add(worker);
+            worker.schedule(() -> permit.release(false, false), earlyRelease.get().toNanos(), TimeUnit.NANOSECONDS);
+        }
+        request
+                .doOnNext(item -> {
+                    permit.responded();
+                    if (item instanceof HttpStatus && ((HttpStatus) item).code() >= 500) {
+                        permit.serverError = true;
+                    }
+                    if (earlyRelease.isPresent()) {
+                        permit.release(true, permit.serverError);
+                    }
+                })
+                .doOnCompleted(() -> permit.release(true, permit.serverError))
+                .doOnError(e -> permit.release(true, isOverload(e)))
+                .unsafeSubscribe(subscriber);
+    }
+
+    private static boolean isOverload(Throwable e) {
+        if (e instanceof ServiceException) {
+            final int code = ((ServiceException) e).getCode();
+            return code < 400 || code >= 500;
+        }
+        return true;
+    }
+
+    private synchronized Admission enqueue(Permit permit) {
+        if (queue.isEmpty() && inFlight < (int) limit) {
+            grant(permit);
+            return Admission.GRANTED;
+        }
+        if (queue.size() >= maxQueued) {
+            return Admission.REJECTED;
+        }
+        queue.addLast(permit);
+        return Admission.QUEUED;
+    }
+
+    private void cancel(Permit permit) {
+        synchronized (this) {
+            if (queue.remove(permit)) {
+                return;
+            }
+        }
+        permit.release(false, false);
+    }
+
+    private void release(Permit permit, boolean sampled, boolean dropped) {
+        final List<Permit> granted = new ArrayList<>();
+        synchronized (this) {
+            inFlight--;
+            if (sampled) {
+                adapt(permit, dropped);
+            }
+            while (!queue.isEmpty() && inFlight < (int) limit) {
+                final Permit next = queue.removeFirst();
+                grant(next);
+                granted.add(next);
+            }
+        }
+        for (Permit next : granted) {
+            final Scheduler.Worker worker = scheduler.createWorker();
+            worker.schedule(() -> {
+                try {
+                    next.run();
+                } finally {
+                    worker.unsubscribe();
+                }
+            });
+        }
+    }
+
+    private void grant(Permit permit) {
+        inFlight++;
+        permit.grantedAt = clock.getAsLong();
+        permit.inFlightAtGrant = inFlight;
+    }
+
+    private void adapt(Permit permit, boolean dropped) {
+        final long now = clock.getAsLong();
+        final long rtt = (permit.respondedAt >= 0 ? permit.respondedAt : now) - permit.grantedAt;
+        final long baseline = baselines.computeIfAbsent(permit.endpoint, e -> new Baseline(now)).update(rtt, now);
+        final boolean congested = dropped || rtt > baseline * tolerance + TOLERANCE_FLOOR_NANOS;
+        if (congested) {
+            if (now - lastDecreaseAt >= rtt) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseAt = now;
+                logger.debug("{} took {}ms, limit lowered to {}", permit.endpoint, TimeUnit.NANOSECONDS.toMillis(rtt), (int) limit);
+            }
+        } else if (permit.inFlightAtGrant * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    private enum Admission {
+        GRANTED, QUEUED, REJECTED
+    }
+
+    private final class Permit {
+        private final String endpoint;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private Runnable onGrant;
+        private long grantedAt;
+        private int inFlightAtGrant;
+        private volatile long respondedAt = -1;
+        private volatile boolean serverError;
+
+        private Permit(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        void run() {
+            onGrant.run();
+        }
+
+        void responded() {
+            if (respondedAt < 0) {
+                respondedAt = clock.getAsLong();
+            }
+        }
+
+        void release(boolean sampled, boolean dropped) {
+            if (released.compareAndSet(false, true)) {
+                AdaptiveLimiter.this.release(this, sampled, dropped);
+            }
+        }
+    }
+
+    /**
+     * The fastest answer of an endpoint over the last one to two windows.
+     */
+    private static final class Baseline {
+        private long windowStart;
+        private long current = Long.MAX_VALUE;
+        private long previous = Long.MAX_VALUE;
+
+        private Baseline(long now) {
+            this.windowStart = now;
+        }
+
+        long update(long rtt, long now) {
+            if (now - windowStart >= BASELINE_WINDOW_NANOS) {
+                previous = now - windowStart >= 2 * BASELINE_WINDOW_NANOS ? Long.MAX_VALUE : current;
+                current = Long.MAX_VALUE;
+                windowStart = now;
+            }
+            current = Math.min(current, rtt);
+            return Math.min(current, previous);
+        }
+    }
+}
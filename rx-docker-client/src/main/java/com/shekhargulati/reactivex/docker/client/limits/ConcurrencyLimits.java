@@ -0,0 +1,98 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.limits;
+
+import rx.Observable;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.ObjLongConsumer;
+
+import static com.shekhargulati.reactivex.docker.client.utils.Validations.validate;
+
+/**
+ * One {@link AdaptiveLimiter} per {@link EndpointClass}, requests of a class without a limiter are sent right away.
+ * Copies share the limiters they did not replace, so clients talking to the same daemon can share their limits.
+ */
+public class ConcurrencyLimits {
+
+    private static final ConcurrencyLimits UNLIMITED = new ConcurrencyLimits(Collections.emptyMap());
+
+    private final Map<EndpointClass, AdaptiveLimiter> limiters;
+
+    private ConcurrencyLimits(Map<EndpointClass, AdaptiveLimiter> limiters) {
+        this.limiters = limiters;
+    }
+
+    /**
+     * Reads start at 32 requests at once and may grow to 256, mutations start at 8 and may grow to 64, streams start
+     * at 16 openings at once and may grow to 128, giving their permit back on their first item or after a second.
+     */
+    public static ConcurrencyLimits adaptive() {
+        return unlimited()
+                .withLimiter(EndpointClass.READ, AdaptiveLimiter.create().withInitialLimit(32).withMaxLimit(256))
+                .withLimiter(EndpointClass.MUTATION, AdaptiveLimiter.create().withInitialLimit(8).withMaxLimit(64))
+                .withLimiter(EndpointClass.STREAM, AdaptiveLimiter.create().withInitialLimit(16).withMaxLimit(128)
+                        .withEarlyRelease(Duration.ofSeconds(1)));
+    }
+
+    public static ConcurrencyLimits unlimited() {
+        return UNLIMITED;
+    }
+
+    public ConcurrencyLimits withLimiter(EndpointClass endpointClass, AdaptiveLimiter limiter) {
+        validate(endpointClass, c -> c == null, "endpointClass can't be null");
+        validate(limiter, l -> l == null, "limiter can't be null");
+        final Map<EndpointClass, AdaptiveLimiter> copy = new EnumMap<>(EndpointClass.class);
+        copy.putAll(limiters);
+        copy.put(endpointClass, limiter);
+        return new ConcurrencyLimits(copy);
+    }
+
+    public ConcurrencyLimits withoutLimiter(EndpointClass endpointClass) {
+        final Map<EndpointClass, AdaptiveLimiter> copy = new EnumMap<>(EndpointClass.class);
+        copy.putAll(limiters);
+        copy.remove(endpointClass);
+        return new ConcurrencyLimits(copy);
+    }
+
+    public Optional<AdaptiveLimiter> limiter(EndpointClass endpointClass) {
+        return Optional.ofNullable(limiters.get(endpointClass));
+    }
+
+    /**
+     * @see AdaptiveLimiter#limit(String, Observable, ObjLongConsumer)
+     */
+    public <T> Observable<T> limit(String endpointTemplate, Observable<T> request, ObjLongConsumer<String> onQueued) {
+        final AdaptiveLimiter limiter = limiters.get(EndpointClass.of(endpointTemplate));
+        if (limiter == null) {
+            return request;
+        }
+        return limiter.limit(endpointTemplate, request, onQueued);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.limits;
+
+/**
+ * The kinds of requests a daemon copes with differently, each limited on its own. Reads are cheap for the daemon,
+ * mutations like create and start take its locks, streams like logs and pulls hold a connection open for a long time.
+ */
+public enum EndpointClass {
+
+    READ, MUTATION, STREAM;
+
+    /**
+     * @param endpointTemplate an endpoint constant of the operations interfaces, like <code>containers/%s/json</code>
+     */
+    public static EndpointClass of(String endpointTemplate) {
+        final String endpoint = endpointTemplate.startsWith("/") ? endpointTemplate.substring(1) : endpointTemplate;
+        if (endpoint.startsWith("images/create") || endpoint.equals("build") || endpoint.startsWith("exec/") && endpoint.endsWith("/start")
+                || endsWithAny(endpoint, "/logs", "/stats", "/attach", "/export", "/wait", "/archive", "/get", "/push")) {
+            return STREAM;
+        }
+        if (endpoint.endsWith("json") || endsWithAny(endpoint, "/top", "/changes", "/history", "/search")
+                || endpoint.equals("version") || endpoint.equals("info") || endpoint.equals("_ping") || endpoint.equals("auth")) {
+            return READ;
+        }
+        return MUTATION;
+    }
+
+    private static boolean endsWithAny(String endpoint, String... suffixes) {
+        for (String suffix : suffixes) {
+            if (endpoint.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.logs;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The segments of a single container, stored as <code>(container dir)/(sequence).segment</code>. Only the last
+ * segment is appended to, a new one is started when it is full.
+ */
+class ContainerLogSegments {
+
+    private static final String SEGMENT_SUFFIX = ".segment";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final List<LogSegment> segments = new ArrayList<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private ContainerLogSegments(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    static ContainerLogSegments open(Path directory, int segmentSize) throws IOException {
+        Files.createDirectories(directory);
+        ContainerLogSegments logSegments = new ContainerLogSegments(directory, segmentSize);
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        Collections.sort(files);
+        for (Path file : files) {
+            logSegments.segments.add(LogSegment.open(file, segmentSize));
+        }
+        return logSegments;
+    }
+
+    void append(Instant timestamp, String message) throws IOException {
+        final byte[] original = message.getBytes(UTF_8);
+        final int maxMessageBytes = segmentSize - LogSegment.RECORD_HEADER_SIZE;
+        byte[] bytes = original;
+        for (int cut = maxMessageBytes; bytes.length > maxMessageBytes; cut--) {
+            // a cut in the middle of a multi byte character is re-encoded longer, so cut until it fits
+            message = new String(original, 0, cut, UTF_8);
+            bytes = message.getBytes(UTF_8);
+        }
+        lock.writeLock().lock();
+        try {
+            LogSegment active = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (active == null || !active.hasRoomFor(bytes.length)) {
+                active = LogSegment.open(directory.resolve(String.format("%020d%s", segments.size(), SEGMENT_SUFFIX)), segmentSize);
+                segments.add(active);
+            }
+            active.append(timestamp, message, bytes);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<LogSegment.View> views(long fromNanos, long toNanos, String substring) {
+        lock.readLock().lock();
+        try {
+            List<LogSegment.View> views = new ArrayList<>();
+            for (LogSegment segment : segments) {
+                LogSegment.View view = segment.view(fromNanos, toNanos, substring);
+                if (view != null) {
+                    views.add(view);
+                }
+            }
+            return views;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void force() {
+        lock.readLock().lock();
+        try {
+            segments.forEach(LogSegment::force);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.logs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * A fixed size, memory-mapped file of log records. Every record is laid out as
+ * <pre>[int length][long epoch second][int nano][utf-8 message]</pre>
+ * where length counts the bytes after the length field, and a zero length marks the end of the segment.
+ * <p>
+ * Two in-memory indexes are kept per segment and rebuilt by scanning the file when it is opened. The time index
+ * records, every {@link #CHECKPOINT_INTERVAL} records, the offset and the highest timestamp seen before it, so a
+ * query can skip the records that are all older than its start. The trigram filter has one bit per hashed trigram of
+ * every message, so a substring query can skip a segment that can't contain its trigrams.
+ * <p>
+ * There is a single writer. Records below {@link #end} are never modified so readers work on duplicates of the buffer.
+ */
+class LogSegment {
+
+    static final int RECORD_HEADER_SIZE = 4 + 8 + 4;
+    private static final int CHECKPOINT_INTERVAL = 128;
+    private static final int TRIGRAM_BITS = 1 << 20;
+
+    private final Path file;
+    private final int capacity;
+    private final MappedByteBuffer buffer;
+
+    private volatile int end;
+    private int records;
+    private long minTimestamp = Long.MAX_VALUE;
+    private long maxTimestamp = Long.MIN_VALUE;
+    private int checkpoints;
+    private int[] checkpointOffsets = new int[16];
+    private long[] checkpointMaxBefore = new long[16];
+    private final BitSet trigrams = new BitSet(TRIGRAM_BITS);
+
+    private LogSegment(Path file, int capacity, MappedByteBuffer buffer) {
+        this.file = file;
+        this.capacity = capacity;
+        this.buffer = buffer;
+    }
+
+    static LogSegment open(Path file, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, CREATE, READ, WRITE)) {
+            int size = (int) Math.max(channel.size(), capacity);
+            LogSegment segment = new LogSegment(file, size, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            segment.recover();
+            return segment;
+        }
+    }
+
+    private void recover() {
+        int position = 0;
+        while (position + RECORD_HEADER_SIZE <= capacity) {
+            int length = buffer.getInt(position);
+            if (length < RECORD_HEADER_SIZE - 4 || position + 4 + length > capacity) {
+                break;
+            }
+            long timestamp = toNanos(buffer.getLong(position + 4), buffer.getInt(position + 12));
+            index(position, timestamp, readMessage(buffer, position, length));
+            position += 4 + length;
+        }
+        end = position;
+    }
+
+    boolean hasRoomFor(int messageBytes) {
+        return end + RECORD_HEADER_SIZE + messageBytes <= capacity;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    void append(Instant timestamp, String message, byte[] messageBytes) {
+        int position = end;
+        ByteBuffer target = buffer.duplicate();
+        target.position(position);
+        target.putInt(RECORD_HEADER_SIZE - 4 + messageBytes.length);
+        target.putLong(timestamp.getEpochSecond());
+        target.putInt(timestamp.getNano());
+        target.put(messageBytes);
+        index(position, toNanos(timestamp.getEpochSecond(), timestamp.getNano()), message);
+        end = target.position();
+    }
+
+    private void index(int position, long timestamp, String message) {
+        if (records % CHECKPOINT_INTERVAL == 0) {
+            if (checkpoints == checkpointOffsets.length) {
+                checkpointOffsets = Arrays.copyOf(checkpointOffsets, checkpoints * 2);
+                checkpointMaxBefore = Arrays.copyOf(checkpointMaxBefore, checkpoints * 2);
+            }
+            checkpointOffsets[checkpoints] = position;
+            checkpointMaxBefore[checkpoints] = maxTimestamp;
+            checkpoints++;
+        }
+        records++;
+        minTimestamp = Math.min(minTimestamp, timestamp);
+        maxTimestamp = Math.max(maxTimestamp, timestamp);
+        forEachTrigram(message, trigrams::set);
+    }
+
+    /**
+     * Must be called with the writer excluded, the returned view is safe to scan concurrently with appends.
+     */
+    View view(long fromNanos, long toNanos, String substring) {
+        if (records == 0 || maxTimestamp < fromNanos || minTimestamp > toNanos || !mightContain(substring)) {
+            return null;
+        }
+        int start = 0;
+        int low = 0;
+        int high = checkpoints - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (checkpointMaxBefore[mid] < fromNanos) {
+                start = checkpointOffsets[mid];
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return new View(buffer.duplicate(), start, end);
+    }
+
+    private boolean mightContain(String substring) {
+        if (substring == null) {
+            return true;
+        }
+        boolean[] all = {true};
+        forEachTrigram(substring, bit -> all[0] &= trigrams.get(bit));
+        return all[0];
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    Path file() {
+        return file;
+    }
+
+    static void forEachTrigram(String text, IntConsumer consumer) {
+        for (int i = 0; i + 2 < text.length(); i++) {
+            int hash = (text.charAt(i) * 31 + text.charAt(i + 1)) * 31 + text.charAt(i + 2);
+            consumer.accept((hash * 0x9E3779B1) >>> 12);
+        }
+    }
+
+    static long toNanos(long epochSecond, int nano) {
+        return epochSecond * 1_000_000_000L + nano;
+    }
+
+    private static String readMessage(ByteBuffer buffer, int position, int length) {
+        byte[] bytes = new byte[length - (RECORD_HEADER_SIZE - 4)];
+        ByteBuffer source = buffer.duplicate();
+        source.position(position + RECORD_HEADER_SIZE);
+        source.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    /**
+     * Records of a segment between two offsets.
+     */
+    static class View {
+        private final ByteBuffer buffer;
+        private int position;
+        private final int end;
+
+        private View(ByteBuffer buffer, int position, int end) {
+            this.buffer = buffer;
+            this.position = position;
+            this.end = end;
+        }
+
+        /**
+         * Reads the next record whose timestamp is in range, if any.
+         *
+         * @return false once there are no records left
+         */
+        boolean next(long fromNanos, long toNanos, Consumer<Record> consumer) {
+            while (position < end) {
+                int length = buffer.getInt(position);
+                long epochSecond = buffer.getLong(position + 4);
+                int nano = buffer.getInt(position + 12);
+                long timestamp = toNanos(epochSecond, nano);
+                int recordStart = position;
+                position += 4 + length;
+                if (timestamp >= fromNanos && timestamp <= toNanos) {
+                    consumer.accept(new Record(Instant.ofEpochSecond(epochSecond, nano), readMessage(buffer, recordStart, length)));
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    static class Record {
+        final Instant timestamp;
+        final String message;
+
+        Record(Instant timestamp, String message) {
+            this.timestamp = timestamp;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.logs;
+
+import com.shekhargulati.reactivex.docker.client.ContainerLogQueryParameters;
+import com.shekhargulati.reactivex.docker.client.ContainerOperations;
+import com.shekhargulati.reactivex.docker.client.representations.ContainerLogLine;
+import com.shekhargulati.reactivex.docker.client.utils.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Observable;
+import rx.Subscription;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.shekhargulati.reactivex.docker.client.utils.Validations.validate;
+
+/**
+ * A local, persistent store of container logs that can be queried by time range and substring without contacting
+ * the daemon. Logs are appended to memory-mapped segment files, one directory per container under the store
+ * directory. Each segment keeps a time index and a trigram filter in memory, so queries only read the segments, and
+ * the part of a segment, that can match.
+ *
+ * <pre>
+ * LogStore store = LogStore.open(Paths.get("/var/lib/docker-logs"));
+ * store.record(client, containerId, ContainerLogQueryParameters.withDefaultValues().withFollow(true));
+ * store.query(containerId, from, to, "request-id=42").forEach(System.out::println);
+ * </pre>
+ */
+public class LogStore implements AutoCloseable {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    private final Logger logger = LoggerFactory.getLogger(LogStore.class);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final Map<String, ContainerLogSegments> containers = new ConcurrentHashMap<>();
+
+    private LogStore(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    public static LogStore open(Path directory) {
+        return open(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public static LogStore open(Path directory, int segmentSize) {
+        validate(directory, d -> d == null, "directory can't be null");
+        validate(segmentSize, s -> s <= LogSegment.RECORD_HEADER_SIZE, "segmentSize is too small");
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return new LogStore(directory, segmentSize);
+    }
+
+    /**
+     * Subscribes to the logs of the container and appends every line to the store.
+     *
+     * @return subscription to stop recording
+     */
+    public Subscription record(ContainerOperations client, String containerId, ContainerLogQueryParameters queryParameters) {
+        return record(containerId, client.containerLogsObs(containerId, queryParameters));
+    }
+
+    /**
+     * Appends every line of <code>logs</code> to the store, for example the Observable returned by
+     * {@link ContainerOperations#containerLogsObs(String, ContainerLogQueryParameters)}.
+     *
+     * @return subscription to stop recording
+     */
+    public Subscription record(String containerId, Observable<String> logs) {
+        validate(containerId, Strings::isEmptyOrNull, "containerId can't be null or empty.");
+        return logs.map(raw -> ContainerLogLine.parse(containerId, raw))
+                .subscribe(line -> append(containerId, line),
+                        e -> logger.error("Stopped recording logs of container {}", containerId, e));
+    }
+
+    /**
+     * Appends a line to the store. Lines without a timestamp are stored with the current time.
+     */
+    public void append(String containerId, ContainerLogLine line) {
+        try {
+            segments(containerId).append(line.timestamp().orElseGet(Instant::now), line.message());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public Stream<ContainerLogLine> query(String containerId, Instant from, Instant to) {
+        return query(containerId, from, to, null);
+    }
+
+    /**
+     * Finds the lines of a container written between <code>from</code> and <code>to</code>, both inclusive, that
+     * contain <code>substring</code>.
+     *
+     * @param substring text the message should contain, or null to return every line in range
+     * @return the matching lines in the order they were appended
+     */
+    public Stream<ContainerLogLine> query(String containerId, Instant from, Instant to, String substring) {
+        validate(containerId, Strings::isEmptyOrNull, "containerId can't be null or empty.");
+        validate(from, f -> f == null || to == null || f.isAfter(to), "from should be before to");
+        final long fromNanos = LogSegment.toNanos(from.getEpochSecond(), from.getNano());
+        final long toNanos = LogSegment.toNanos(to.getEpochSecond(), to.getNano());
+        List<LogSegment.View> views = segments(containerId).views(fromNanos, toNanos, substring);
+        return views.stream().flatMap(view -> StreamSupport.stream(new Spliterators.AbstractSpliterator<LogSegment.Record>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(Consumer<? super LogSegment.Record> action) {
+                return view.next(fromNanos, toNanos, action::accept);
+            }
+        }, false))
+                .filter(record -> substring == null || record.message.contains(substring))
+                .map(record -> ContainerLogLine.of(containerId, record.timestamp, record.message));
+    }
+
+    /**
+     * Flushes the segments of every container to disk.
+     */
+    @Override
+    public void close() {
+        containers.values().forEach(ContainerLogSegments::force);
+    }
+
+    private ContainerLogSegments segments(String containerId) {
+        validate(containerId, id -> !id.matches("[\\w.-]+") || id.startsWith("."), () -> String.format("%s is not a valid container id or name", containerId));
+        return containers.computeIfAbsent(containerId, id -> {
+            try {
+                return ContainerLogSegments.open(directory.resolve(id), segmentSize);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, queue time, status codes, retries, cache hits and misses, requests in flight and bytes sent and received per endpoint template, e.g.
+ * <code>containers/%s/json</code>. Recording is lock-free. Every measurement is also passed to the registered
+ * {@link MetricsSink}s.
+ */
+public class DockerClientMetrics {
+
+    /**
+     * Status recorded for requests that failed or were cancelled before a response arrived.
+     */
+    public static final int NO_RESPONSE = 0;
+
+    private final ConcurrentMap<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private final List<MetricsSink> sinks = new CopyOnWriteArrayList<>();
+
+    public void addSink(MetricsSink sink) {
+        sinks.add(sink);
+    }
+
+    public void removeSink(MetricsSink sink) {
+        sinks.remove(sink);
+    }
+
+    /**
+     * Starts timing a request.
+     *
+     * @param bytesOut size of the request body
+     */
+    public Request start(String endpoint, long bytesOut) {
+        EndpointMetrics metrics = endpoint(endpoint);
+        metrics.inFlight.incrementAndGet();
+        sinks.forEach(sink -> sink.requestStarted(endpoint));
+        if (bytesOut > 0) {
+            metrics.bytesOut.add(bytesOut);
+            sinks.forEach(sink -> sink.bytesSent(endpoint, bytesOut));
+        }
+        return new Request(endpoint, metrics);
+    }
+
+    public void recordBytesIn(String endpoint, long bytes) {
+        endpoint(endpoint).bytesIn.add(bytes);
+        sinks.forEach(sink -> sink.bytesReceived(endpoint, bytes));
+    }
+
+    /**
+     * Records how long a request waited for a permit of the concurrency limiter, zero when it got one right away.
+     */
+    public void recordQueued(String endpoint, long queueNanos) {
+        endpoint(endpoint).queueTime.record(queueNanos);
+        sinks.forEach(sink -> sink.requestQueued(endpoint, queueNanos));
+    }
+
+    /**
+     * Records that a failed request is sent again after <code>delayNanos</code>.
+     */
+    public void recordRetry(String endpoint, long delayNanos) {
+        endpoint(endpoint).retries.increment();
+        sinks.forEach(sink -> sink.requestRetried(endpoint, delayNanos));
+    }
+
+    /**
+     * Records that a failed request was not sent again because the retry budget was spent.
+     */
+    public void recordRetryDenied(String endpoint) {
+        endpoint(endpoint).retriesDenied.increment();
+        sinks.forEach(sink -> sink.retryDenied(endpoint));
+    }
+
+    /**
+     * Records whether a response was served from the cache.
+     */
+    public void recordCacheLookup(String endpoint, boolean hit) {
+        EndpointMetrics metrics = endpoint(endpoint);
+        (hit ? metrics.cacheHits : metrics.cacheMisses).increment();
+        sinks.forEach(sink -> sink.cacheLookup(endpoint, hit));
+    }
+
+    public MetricsSnapshot snapshot() {
+        Map<String, MetricsSnapshot.EndpointSnapshot> snapshots = new TreeMap<>();
+        endpoints.forEach((endpoint, metrics) -> snapshots.put(endpoint, metrics.snapshot(endpoint)));
+        return new MetricsSnapshot(snapshots);
+    }
+
+    private EndpointMetrics endpoint(String endpoint) {
+        EndpointMetrics metrics = endpoints.get(endpoint);
+        return metrics != null ? metrics : endpoints.computeIfAbsent(endpoint, e -> new EndpointMetrics());
+    }
+
+    /**
+     * A request in flight. The latency is taken when the response arrives, which for a stream is its first item, so
+     * that long lived streams do not distort the histogram.
+     */
+    public class Request {
+        private final String endpoint;
+        private final EndpointMetrics metrics;
+        private final long startedAt = System.nanoTime();
+        private final AtomicLong respondedAt = new AtomicLong();
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        private Request(String endpoint, EndpointMetrics metrics) {
+            this.endpoint = endpoint;
+            this.metrics = metrics;
+        }
+
+        public void responded() {
+            if (respondedAt.get() == 0) {
+                respondedAt.compareAndSet(0, System.nanoTime());
+            }
+        }
+
+        public boolean hasResponded() {
+            return respondedAt.get() != 0;
+        }
+
+        public void addBytesIn(long bytes) {
+            recordBytesIn(endpoint, bytes);
+        }
+
+        /**
+         * Completes the request, only the first call is recorded.
+         *
+         * @return true if this call completed the request
+         */
+        public boolean finish(int statusCode) {
+            if (!finished.compareAndSet(false, true)) {
+                return false;
+            }
+            long end = respondedAt.get() != 0 ? respondedAt.get() : System.nanoTime();
+            long latency = end - startedAt;
+            metrics.inFlight.decrementAndGet();
+            metrics.latency.record(latency);
+            LongAdder statusCount = metrics.statusCounts.get(statusCode);
+            if (statusCount == null) {
+                statusCount = metrics.statusCounts.computeIfAbsent(statusCode, c -> new LongAdder());
+            }
+            statusCount.increment();
+            sinks.forEach(sink -> sink.requestCompleted(endpoint, statusCode, latency));
+            return true;
+        }
+    }
+
+    private static class EndpointMetrics {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LatencyHistogram queueTime = new LatencyHistogram();
+        private final ConcurrentMap<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+        private final AtomicLong inFlight = new AtomicLong();
+        private final LongAdder bytesIn = new LongAdder();
+        private final LongAdder bytesOut = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder retriesDenied = new LongAdder();
+        private final LongAdder cacheHits = new LongAdder();
+        private final LongAdder cacheMisses = new LongAdder();
+
+        private MetricsSnapshot.EndpointSnapshot snapshot(String endpoint) {
+            Map<Integer, Long> statuses = new TreeMap<>();
+            statusCounts.forEach((code, adder) -> statuses.put(code, adder.sum()));
+            return new MetricsSnapshot.EndpointSnapshot(endpoint, inFlight.get(), statuses, bytesIn.sum(), bytesOut.sum(), latency.snapshot(), queueTime.snapshot(),
+                    retries.sum(), retriesDenied.sum(), cacheHits.sum(), cacheMisses.sum());
+        }
+    }
+}
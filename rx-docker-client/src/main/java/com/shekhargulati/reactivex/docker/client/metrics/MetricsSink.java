@@ -0,0 +1,65 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.metrics;
+
+/**
+ * Receives every measurement of a {@link DockerClientMetrics}, e.g. to forward it to a monitoring system. Callbacks
+ * are invoked on the thread doing the request and must not block.
+ */
+public interface MetricsSink {
+
+    void requestStarted(String endpoint);
+
+    /**
+     * @param statusCode     HTTP status code, {@link DockerClientMetrics#NO_RESPONSE} when no response was received
+     * @param latencyNanos   time until the response, or the first item of a stream, arrived
+     */
+    void requestCompleted(String endpoint, int statusCode, long latencyNanos);
+
+    void bytesSent(String endpoint, long bytes);
+
+    void bytesReceived(String endpoint, long bytes);
+
+    /**
+     * @param queueNanos time the request waited for the concurrency limiter before it was sent
+     */
+    default void requestQueued(String endpoint, long queueNanos) {
+    }
+
+    /**
+     * @param delayNanos time before the failed request is sent again
+     */
+    default void requestRetried(String endpoint, long delayNanos) {
+    }
+
+    default void retryDenied(String endpoint) {
+    }
+
+    /**
+     * @param hit whether the response was served from the cache
+     */
+    default void cacheLookup(String endpoint, boolean hit) {
+    }
+}
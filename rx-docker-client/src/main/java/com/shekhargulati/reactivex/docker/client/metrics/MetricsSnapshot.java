@@ -0,0 +1,158 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Metrics of all endpoints at one point in time, keyed by endpoint template.
+ */
+public class MetricsSnapshot {
+
+    private final Map<String, EndpointSnapshot> endpoints;
+
+    MetricsSnapshot(Map<String, EndpointSnapshot> endpoints) {
+        this.endpoints = Collections.unmodifiableMap(endpoints);
+    }
+
+    public Map<String, EndpointSnapshot> endpoints() {
+        return endpoints;
+    }
+
+    public Optional<EndpointSnapshot> endpoint(String endpoint) {
+        return Optional.ofNullable(endpoints.get(endpoint));
+    }
+
+    public static class EndpointSnapshot {
+        private final String endpoint;
+        private final long inFlight;
+        private final Map<Integer, Long> statusCounts;
+        private final long bytesIn;
+        private final long bytesOut;
+        private final HistogramSnapshot latency;
+        private final HistogramSnapshot queueTime;
+        private final long retries;
+        private final long retriesDenied;
+        private final long cacheHits;
+        private final long cacheMisses;
+
+        EndpointSnapshot(String endpoint, long inFlight, Map<Integer, Long> statusCounts, long bytesIn, long bytesOut, HistogramSnapshot latency,
+                         HistogramSnapshot queueTime, long retries, long retriesDenied, long cacheHits, long cacheMisses) {
+            this.endpoint = endpoint;
+            this.inFlight = inFlight;
+            this.statusCounts = Collections.unmodifiableMap(statusCounts);
+            this.bytesIn = bytesIn;
+            this.bytesOut = bytesOut;
+            this.latency = latency;
+            this.queueTime = queueTime;
+            this.retries = retries;
+            this.retriesDenied = retriesDenied;
+            this.cacheHits = cacheHits;
+            this.cacheMisses = cacheMisses;
+        }
+
+        public String endpoint() {
+            return endpoint;
+        }
+
+        /**
+         * @return number of completed requests
+         */
+        public long requests() {
+            return latency.count();
+        }
+
+        public long inFlight() {
+            return inFlight;
+        }
+
+        public Map<Integer, Long> statusCounts() {
+            return statusCounts;
+        }
+
+        public long bytesIn() {
+            return bytesIn;
+        }
+
+        public long bytesOut() {
+            return bytesOut;
+        }
+
+        public HistogramSnapshot latency() {
+            return latency;
+        }
+
+        /**
+         * @return how long requests waited for the concurrency limiter before they were sent
+         */
+        public HistogramSnapshot queueTime() {
+            return queueTime;
+        }
+
+        /**
+         * @return number of times failed requests were sent again
+         */
+        public long retries() {
+            return retries;
+        }
+
+        /**
+         * @return number of failed requests not sent again because the retry budget was spent
+         */
+        public long retriesDenied() {
+            return retriesDenied;
+        }
+
+        /**
+         * @return number of calls answered from the cache without a request
+         */
+        public long cacheHits() {
+            return cacheHits;
+        }
+
+        public long cacheMisses() {
+            return cacheMisses;
+        }
+
+        @Override
+        public String toString() {
+            return "EndpointSnapshot{" +
+                    "endpoint='" + endpoint + '\'' +
+                    ", inFlight=" + inFlight +
+                    ", statusCounts=" + statusCounts +
+                    ", bytesIn=" + bytesIn +
+                    ", bytesOut=" + bytesOut +
+                    ", latency=" + latency +
+                    ", queueTime=" + queueTime +
+                    ", retries=" + retries +
+                    ", retriesDenied=" + retriesDenied +
+                    ", cacheHits=" + cacheHits +
+                    ", cacheMisses=" + cacheMisses +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the client metrics to a Micrometer {@link MeterRegistry}:
+ * <ul>
+ * <li><code>docker.client.requests</code> timer tagged with <code>endpoint</code> and <code>status</code></li>
+ * <li><code>docker.client.requests.in.flight</code> gauge tagged with <code>endpoint</code></li>
+ * <li><code>docker.client.requests.queued</code> timer of the time spent waiting for the concurrency limiter, tagged
+ * with <code>endpoint</code></li>
+ * <li><code>docker.client.requests.retries</code> counter tagged with <code>endpoint</code> and <code>outcome</code>,
+ * <code>retried</code> or <code>denied</code> when the retry budget was spent</li>
+ * <li><code>docker.client.cache.lookups</code> counter tagged with <code>endpoint</code> and <code>result</code>,
+ * <code>hit</code> or <code>miss</code></li>
+ * <li><code>docker.client.bytes.sent</code> and <code>docker.client.bytes.received</code> counters tagged with
+ * <code>endpoint</code></li>
+ * </ul>
+ * Micrometer is an optional dependency, it has to be on the classpath to use this sink.
+ */
+public class MicrometerMetricsSink implements MetricsSink {
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, AtomicLong> inFlight = new ConcurrentHashMap<>();
+
+    public MicrometerMetricsSink(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void requestStarted(String endpoint) {
+        inFlight(endpoint).incrementAndGet();
+    }
+
+    @Override
+    public void requestCompleted(String endpoint, int statusCode, long latencyNanos) {
+        inFlight(endpoint).decrementAndGet();
+        Timer.builder("docker.client.requests")
+                .tags("endpoint", endpoint, "status", String.valueOf(statusCode))
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void requestQueued(String endpoint, long queueNanos) {
+        Timer.builder("docker.client.requests.queued")
+                .tag("endpoint", endpoint)
+                .register(registry)
+                .record(queueNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void requestRetried(String endpoint, long delayNanos) {
+        Counter.builder("docker.client.requests.retries").tags("endpoint", endpoint, "outcome", "retried").register(registry).increment();
+    }
+
+    @Override
+    public void retryDenied(String endpoint) {
+        Counter.builder("docker.client.requests.retries").tags("endpoint", endpoint, "outcome", "denied").register(registry).increment();
+    }
+
+    @Override
+    public void cacheLookup(String endpoint, boolean hit) {
+        Counter.builder("docker.client.cache.lookups").tags("endpoint", endpoint, "result", hit ? "hit" : "miss").register(registry).increment();
+    }
+
+    @Override
+    public void bytesSent(String endpoint, long bytes) {
+        Counter.builder("docker.client.bytes.sent").baseUnit("bytes").tag("endpoint", endpoint).register(registry).increment(bytes);
+    }
+
+    @Override
+    public void bytesReceived(String endpoint, long bytes) {
+        Counter.builder("docker.client.bytes.received").baseUnit("bytes").tag("endpoint", endpoint).register(registry).increment(bytes);
+    }
+
+    private AtomicLong inFlight(String endpoint) {
+        return inFlight.computeIfAbsent(endpoint,
+                e -> registry.gauge("docker.client.requests.in.flight", Tags.of("endpoint", e), new AtomicLong()));
+    }
+}
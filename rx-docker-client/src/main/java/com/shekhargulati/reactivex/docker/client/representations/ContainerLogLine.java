@@ -0,0 +1,123 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.representations;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A single line received from <code>GET /containers/(id)/logs</code>. When the logs are requested with
+ * <code>timestamps=true</code> the daemon prefixes every line with an RFC3339 timestamp with nanosecond precision,
+ * which is parsed into {@link #timestamp()}.
+ */
+public class ContainerLogLine {
+
+    // Non-tty containers prefix each frame with an 8 byte stream header, so the timestamp may not start the line.
+    private static final Pattern TIMESTAMP_PREFIX = Pattern.compile("^[\\s\\S]{0,8}?(\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}(?:\\.\\d{1,9})?(?:Z|[+-]\\d{2}:\\d{2})) ?");
+
+    private final Optional<String> containerId;
+    private final String raw;
+    private final Optional<Instant> timestamp;
+    private final String message;
+
+    private ContainerLogLine(Optional<String> containerId, String raw, Optional<Instant> timestamp, String message) {
+        this.containerId = containerId;
+        this.raw = raw;
+        this.timestamp = timestamp;
+        this.message = message;
+    }
+
+    public static ContainerLogLine parse(String raw) {
+        return parse(Optional.empty(), raw);
+    }
+
+    public static ContainerLogLine parse(String containerId, String raw) {
+        return parse(Optional.of(containerId), raw);
+    }
+
+    public static ContainerLogLine of(String containerId, Instant timestamp, String message) {
+        return new ContainerLogLine(Optional.of(containerId), timestamp + " " + message, Optional.of(timestamp), message);
+    }
+
+    private static ContainerLogLine parse(Optional<String> containerId, String raw) {
+        Objects.requireNonNull(raw, "raw log line can't be null");
+        Matcher matcher = TIMESTAMP_PREFIX.matcher(raw);
+        if (matcher.find()) {
+            try {
+                Instant timestamp = OffsetDateTime.parse(matcher.group(1)).toInstant();
+                return new ContainerLogLine(containerId, raw, Optional.of(timestamp), raw.substring(matcher.end()));
+            } catch (DateTimeParseException e) {
+                // not a timestamp after all, keep the line as it is
+            }
+        }
+        return new ContainerLogLine(containerId, raw, Optional.empty(), raw);
+    }
+
+    /**
+     * @return id of the container that wrote this line, when the line was received through a multi container call
+     */
+    public Optional<String> containerId() {
+        return containerId;
+    }
+
+    public String raw() {
+        return raw;
+    }
+
+    public Optional<Instant> timestamp() {
+        return timestamp;
+    }
+
+    public String message() {
+        return message;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ContainerLogLine that = (ContainerLogLine) o;
+        return containerId.equals(that.containerId) && raw.equals(that.raw);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * containerId.hashCode() + raw.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "ContainerLogLine{" +
+                "containerId=" + containerId +
+                ", timestamp=" + timestamp +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
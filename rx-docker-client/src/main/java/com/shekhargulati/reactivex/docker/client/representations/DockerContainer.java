@@ -26,7 +26,10 @@ package com.shekhargulati.reactivex.docker.client.representations;
 
 import com.google.gson.annotations.SerializedName;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class DockerContainer {
     @SerializedName("Id")
@@ -35,12 +38,20 @@ public class DockerContainer {
     private List<String> names;
     @SerializedName("Image")
     private String image;
+    @SerializedName("ImageID")
+    private String imageId;
     @SerializedName("Command")
     private String command;
     @SerializedName("Created")
     private Long created;
+    @SerializedName("State")
+    private String state;
     @SerializedName("Status")
     private String status;
+    @SerializedName("Labels")
+    private Map<String, String> labels;
+    @SerializedName("NetworkSettings")
+    private NetworkSettings networkSettings;
     @SerializedName("SizeRw")
     private Long sizeRw;
     @SerializedName("SizeRootFs")
@@ -58,6 +69,10 @@ public class DockerContainer {
         return image;
     }
 
+    public String getImageId() {
+        return imageId;
+    }
+
     public String getCommand() {
         return command;
     }
@@ -66,10 +81,28 @@ public class DockerContainer {
         return created;
     }
 
+    /**
+     * @return state like <code>running</code>, since API version 1.23
+     */
+    public String getState() {
+        return state;
+    }
+
     public String getStatus() {
         return status;
     }
 
+    public Map<String, String> getLabels() {
+        return labels;
+    }
+
+    public Set<String> getNetworkNames() {
+        if (networkSettings == null || networkSettings.getNetworks() == null) {
+            return Collections.emptySet();
+        }
+        return networkSettings.getNetworks().keySet();
+    }
+
     public Long getSizeRw() {
         return sizeRw;
     }
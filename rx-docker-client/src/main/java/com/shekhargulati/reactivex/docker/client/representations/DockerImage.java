@@ -27,6 +27,7 @@ package com.shekhargulati.reactivex.docker.client.representations;
 import com.google.gson.annotations.SerializedName;
 
 import java.util.List;
+import java.util.Map;
 
 public class DockerImage {
 
@@ -42,6 +43,8 @@ public class DockerImage {
     private Long size;
     @SerializedName("VirtualSize")
     private Long virtualSize;
+    @SerializedName("Labels")
+    private Map<String, String> labels;
 
     public String created() {
         return created;
@@ -67,6 +70,10 @@ public class DockerImage {
         return virtualSize;
     }
 
+    public Map<String, String> labels() {
+        return labels;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,89 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.representations;
+
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A chunk of output read from an attached container or exec instance. When the container has no tty the daemon
+ * multiplexes stdout and stderr on the same connection and every frame carries its stream, otherwise the output is
+ * not framed and every chunk is {@link StreamType#RAW}.
+ */
+public class DockerStreamFrame {
+
+    public enum StreamType {
+        STDIN, STDOUT, STDERR, RAW;
+
+        public static StreamType fromHeader(byte header) {
+            switch (header) {
+                case 0:
+                    return STDIN;
+                case 1:
+                    return STDOUT;
+                case 2:
+                    return STDERR;
+                default:
+                    throw new IllegalArgumentException(String.format("unknown stream type %d", header));
+            }
+        }
+    }
+
+    private final StreamType type;
+    private final ByteBuffer payload;
+
+    public DockerStreamFrame(StreamType type, ByteBuffer payload) {
+        this.type = type;
+        this.payload = payload;
+    }
+
+    public StreamType type() {
+        return type;
+    }
+
+    /**
+     * @return a read-only view of the payload, positioned at its start
+     */
+    public ByteBuffer payload() {
+        return payload.asReadOnlyBuffer();
+    }
+
+    public int size() {
+        return payload.remaining();
+    }
+
+    public String asString() {
+        return UTF_8.decode(payload()).toString();
+    }
+
+    @Override
+    public String toString() {
+        return "DockerStreamFrame{" +
+                "type=" + type +
+                ", size=" + size() +
+                '}';
+    }
+}
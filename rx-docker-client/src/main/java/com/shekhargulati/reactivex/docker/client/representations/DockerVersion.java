@@ -29,6 +29,8 @@ import com.google.gson.annotations.SerializedName;
 public class DockerVersion {
     @SerializedName("ApiVersion")
     private String apiVersion;
+    @SerializedName("MinAPIVersion")
+    private String minApiVersion;
     @SerializedName("Arch")
     private String arch;
     @SerializedName("GitCommit")
@@ -46,6 +48,13 @@ public class DockerVersion {
         return apiVersion;
     }
 
+    /**
+     * @return the oldest API version the daemon accepts, null for daemons older than API 1.25
+     */
+    public String minApiVersion() {
+        return minApiVersion;
+    }
+
     public String arch() {
         return arch;
     }
@@ -85,6 +94,9 @@ public class DockerVersion {
                 : version1.apiVersion != null) {
             return false;
         }
+        if (minApiVersion != null ? !minApiVersion.equals(version1.minApiVersion) : version1.minApiVersion != null) {
+            return false;
+        }
         if (arch != null ? !arch.equals(version1.arch) : version1.arch != null) {
             return false;
         }
@@ -111,6 +123,7 @@ public class DockerVersion {
     @Override
     public int hashCode() {
         int result = apiVersion != null ? apiVersion.hashCode() : 0;
+        result = 31 * result + (minApiVersion != null ? minApiVersion.hashCode() : 0);
         result = 31 * result + (arch != null ? arch.hashCode() : 0);
         result = 31 * result + (gitCommit != null ? gitCommit.hashCode() : 0);
         result = 31 * result + (goVersion != null ? goVersion.hashCode() : 0);
@@ -124,6 +137,7 @@ public class DockerVersion {
     public String toString() {
         return "DockerVersion{" +
                 "apiVersion='" + apiVersion + '\'' +
+                ", minApiVersion='" + minApiVersion + '\'' +
                 ", arch='" + arch + '\'' +
                 ", gitCommit='" + gitCommit + '\'' +
                 ", goVersion='" + goVersion + '\'' +
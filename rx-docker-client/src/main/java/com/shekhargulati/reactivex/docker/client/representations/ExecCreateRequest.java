@@ -55,6 +55,16 @@ public class ExecCreateRequest {
         return new ExecCreateRequest(cmd);
     }
 
+    public ExecCreateRequest withAttachStdin(boolean attachStdin) {
+        this.attachStdin = attachStdin;
+        return this;
+    }
+
+    public ExecCreateRequest withTty(boolean tty) {
+        this.tty = tty;
+        return this;
+    }
+
     public boolean isAttachStdin() {
         return attachStdin;
     }
@@ -0,0 +1,100 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.representations;
+
+import com.google.gson.annotations.SerializedName;
+
+public class ExecInspectResponse {
+
+    @SerializedName("ID")
+    private String id;
+
+    @SerializedName("ContainerID")
+    private String containerId;
+
+    @SerializedName("Running")
+    private boolean running;
+
+    @SerializedName("ExitCode")
+    private Integer exitCode;
+
+    @SerializedName("Pid")
+    private Integer pid;
+
+    @SerializedName("OpenStdin")
+    private boolean openStdin;
+
+    @SerializedName("OpenStdout")
+    private boolean openStdout;
+
+    @SerializedName("OpenStderr")
+    private boolean openStderr;
+
+    public String id() {
+        return id;
+    }
+
+    public String containerId() {
+        return containerId;
+    }
+
+    public boolean running() {
+        return running;
+    }
+
+    /**
+     * @return exit code of the command, null while it is still running
+     */
+    public Integer exitCode() {
+        return exitCode;
+    }
+
+    public Integer pid() {
+        return pid;
+    }
+
+    public boolean openStdin() {
+        return openStdin;
+    }
+
+    public boolean openStdout() {
+        return openStdout;
+    }
+
+    public boolean openStderr() {
+        return openStderr;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecInspectResponse{" +
+                "id='" + id + '\'' +
+                ", containerId='" + containerId + '\'' +
+                ", running=" + running +
+                ", exitCode=" + exitCode +
+                ", pid=" + pid +
+                '}';
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.representations;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Outcome of running a command in one container. A result either carries the exit code and the captured output of
+ * the command or the error that stopped it from completing, e.g. a {@link java.util.concurrent.TimeoutException}.
+ */
+public class ExecResult {
+
+    private final String containerId;
+    private final String execId;
+    private final Integer exitCode;
+    private final String stdout;
+    private final String stderr;
+    private final boolean truncated;
+    private final Duration duration;
+    private final Throwable error;
+
+    private ExecResult(String containerId, String execId, Integer exitCode, String stdout, String stderr, boolean truncated, Duration duration, Throwable error) {
+        this.containerId = containerId;
+        this.execId = execId;
+        this.exitCode = exitCode;
+        this.stdout = stdout;
+        this.stderr = stderr;
+        this.truncated = truncated;
+        this.duration = duration;
+        this.error = error;
+    }
+
+    public static ExecResult completed(String containerId, String execId, int exitCode, String stdout, String stderr, boolean truncated, Duration duration) {
+        return new ExecResult(containerId, execId, exitCode, stdout, stderr, truncated, duration, null);
+    }
+
+    public static ExecResult failed(String containerId, String execId, String stdout, String stderr, boolean truncated, Duration duration, Throwable error) {
+        return new ExecResult(containerId, execId, null, stdout, stderr, truncated, duration, error);
+    }
+
+    public String containerId() {
+        return containerId;
+    }
+
+    /**
+     * @return id of the exec instance, empty when it could not be created
+     */
+    public Optional<String> execId() {
+        return Optional.ofNullable(execId);
+    }
+
+    /**
+     * @return exit code of the command, empty when the command did not complete
+     */
+    public Optional<Integer> exitCode() {
+        return Optional.ofNullable(exitCode);
+    }
+
+    public String stdout() {
+        return stdout;
+    }
+
+    public String stderr() {
+        return stderr;
+    }
+
+    /**
+     * @return true when the command wrote more output than the runner keeps
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * @return time from creating the exec instance until its exit code was known or it failed
+     */
+    public Duration duration() {
+        return duration;
+    }
+
+    public Optional<Throwable> error() {
+        return Optional.ofNullable(error);
+    }
+
+    public boolean isSuccessful() {
+        return exitCode != null && exitCode == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecResult{" +
+                "containerId='" + containerId + '\'' +
+                ", execId='" + execId + '\'' +
+                ", exitCode=" + exitCode +
+                ", truncated=" + truncated +
+                ", duration=" + duration +
+                ", error=" + error +
+                '}';
+    }
+}
@@ -45,6 +45,8 @@ public class NetworkSettings {
     private Map<String, List<PortBinding>> ports;
     @SerializedName("MacAddress")
     private String macAddress;
+    @SerializedName("Networks")
+    private Map<String, Object> networks;
 
     public String getIpAddress() {
         return ipAddress;
@@ -73,4 +75,11 @@ public class NetworkSettings {
     public String getMacAddress() {
         return macAddress;
     }
+
+    /**
+     * @return settings of the networks the container is connected to by network name, since API version 1.21
+     */
+    public Map<String, Object> getNetworks() {
+        return networks;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.retry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static com.shekhargulati.reactivex.docker.client.utils.Validations.validate;
+
+/**
+ * Caps retries so that a failing daemon is not hit with more retries than requests. Every request adds
+ * <code>ratio</code> of a retry to the budget and every second adds <code>minPerSecond</code> retries, so that a
+ * client sending few requests can still retry. Every retry takes one, and the budget never holds more than
+ * <code>maxRetries</code>. One budget is shared by all the requests of a client.
+ */
+public class RetryBudget {
+
+    private final double ratio;
+    private final double minPerSecond;
+    private final int maxRetries;
+    private final LongSupplier clock;
+
+    private double balance;
+    private long refilledAt;
+
+    RetryBudget(double ratio, double minPerSecond, int maxRetries, LongSupplier clock) {
+        validate(ratio, r -> r < 0, "ratio can't be negative");
+        validate(minPerSecond, m -> m < 0, "minPerSecond can't be negative");
+        validate(maxRetries, m -> m < 1, "maxRetries must be at least 1");
+        this.ratio = ratio;
+        this.minPerSecond = minPerSecond;
+        this.maxRetries = maxRetries;
+        this.clock = clock;
+        this.balance = Math.min(maxRetries, minPerSecond);
+        this.refilledAt = clock.getAsLong();
+    }
+
+    /**
+     * Allows retrying 10% of the requests plus 10 retries per second, holding at most 100 retries.
+     */
+    public static RetryBudget create() {
+        return new RetryBudget(0.1, 10, 100, System::nanoTime);
+    }
+
+    /**
+     * A new budget with the given share of requests that may be retried.
+     */
+    public RetryBudget withRatio(double ratio) {
+        return new RetryBudget(ratio, minPerSecond, maxRetries, clock);
+    }
+
+    public RetryBudget withMinPerSecond(double minPerSecond) {
+        return new RetryBudget(ratio, minPerSecond, maxRetries, clock);
+    }
+
+    public RetryBudget withMaxRetries(int maxRetries) {
+        return new RetryBudget(ratio, minPerSecond, maxRetries, clock);
+    }
+
+    synchronized void onRequest() {
+        refill();
+        balance = Math.min(maxRetries, balance + ratio);
+    }
+
+    synchronized boolean tryRetry() {
+        refill();
+        if (balance < 1) {
+            return false;
+        }
+        balance--;
+        return true;
+    }
+
+    /**
+     * @return retries the budget allows right now
+     */
+    public synchronized int available() {
+        refill();
+        return (int) balance;
+    }
+
+    private void refill() {
+        final long now = clock.getAsLong();
+        balance = Math.min(maxRetries, balance + minPerSecond * (now - refilledAt) / TimeUnit.SECONDS.toNanos(1));
+        refilledAt = now;
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.retry;
+
+import com.shekhargulati.reactivex.docker.client.ContainerOperations;
+import com.shekhargulati.reactivex.docker.client.ImageOperations;
+import com.shekhargulati.reactivex.docker.client.limits.EndpointClass;
+import com.shekhargulati.reactivex.rxokhttp.ServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Observable;
+import rx.Scheduler;
+import rx.schedulers.Schedulers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.ObjLongConsumer;
+
+import static com.shekhargulati.reactivex.docker.client.utils.Validations.validate;
+
+/**
+ * Sends idempotent requests again when they fail with a transient error: an I/O error like a connection reset, a
+ * timeout or a 5xx answer of the daemon. Requests that change the daemon in ways that repeating them would change
+ * again, like creating a container without a name or killing one, are never retried, nor are streams that already
+ * emitted an item.
+ * <p>
+ * Retries wait with decorrelated jitter: each delay is random between <code>baseDelay</code> and three times the
+ * previous delay, capped at <code>maxDelay</code>, so that clients failing together do not retry together. Retries
+ * are also limited by a {@link RetryBudget} shared by all requests of the client.
+ */
+public class RetryPolicy {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryPolicy.class);
+
+    private static final Set<String> IDEMPOTENT_ENDPOINTS = new HashSet<>(Arrays.asList(
+            ContainerOperations.CONTAINER_START_ENDPOINT,
+            ContainerOperations.CONTAINER_STOP_ENDPOINT,
+            ContainerOperations.CONTAINER_WAIT_ENDPOINT,
+            ContainerOperations.CONTAINER_RESIZE_ENDPOINT,
+            ContainerOperations.CONTAINER_LOGS_ENDPOINT,
+            ContainerOperations.CONTAINER_STATS_ENDPOINT,
+            ContainerOperations.CONTAINER_EXPORT_ENDPOINT,
+            ContainerOperations.CONTAINER_ARCHIVE_ENDPOINT,
+            ImageOperations.IMAGE_TAG_ENDPOINT,
+            ImageOperations.IMAGE_GET_ARCHIVE_TARBALL_FOR_REPOSITORY));
+
+    private static final RetryPolicy DISABLED = new RetryPolicy(1, Duration.ofMillis(50), Duration.ofSeconds(2), RetryBudget.create(),
+            Schedulers.computation(), () -> ThreadLocalRandom.current().nextDouble());
+
+    private final int maxAttempts;
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+    private final RetryBudget budget;
+    private final Scheduler scheduler;
+    private final DoubleSupplier random;
+
+    RetryPolicy(int maxAttempts, Duration baseDelay, Duration maxDelay, RetryBudget budget, Scheduler scheduler, DoubleSupplier random) {
+        validate(maxAttempts, a -> a < 1, "maxAttempts must be at least 1");
+        validate(baseDelay, d -> d == null || d.isNegative() || d.isZero(), "baseDelay must be positive");
+        validate(maxDelay, d -> d == null || d.compareTo(baseDelay) < 0, "maxDelay can't be less than baseDelay");
+        validate(budget, b -> b == null, "budget can't be null");
+        this.maxAttempts = maxAttempts;
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+        this.budget = budget;
+        this.scheduler = scheduler;
+        this.random = random;
+    }
+
+    /**
+     * Sends idempotent requests up to 3 times, waiting between 50 milliseconds and 2 seconds, within the default
+     * {@link RetryBudget}.
+     */
+    public static RetryPolicy create() {
+        return new RetryPolicy(3, Duration.ofMillis(50), Duration.ofSeconds(2), RetryBudget.create(), Schedulers.computation(),
+                () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    public static RetryPolicy disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * @param maxAttempts times a request is sent at most, 1 to never retry
+     */
+    public RetryPolicy withMaxAttempts(int maxAttempts) {
+        return new RetryPolicy(maxAttempts, baseDelay, maxDelay, budget, scheduler, random);
+    }
+
+    public RetryPolicy withBaseDelay(Duration baseDelay) {
+        return new RetryPolicy(maxAttempts, baseDelay, maxDelay, budget, scheduler, random);
+    }
+
+    public RetryPolicy withMaxDelay(Duration maxDelay) {
+        return new RetryPolicy(maxAttempts, baseDelay, maxDelay, budget, scheduler, random);
+    }
+
+    public RetryPolicy withBudget(RetryBudget budget) {
+        return new RetryPolicy(maxAttempts, baseDelay, maxDelay, budget, scheduler, random);
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public RetryBudget getBudget() {
+        return budget;
+    }
+
+    /**
+     * Whether sending a request twice leaves the daemon as sending it once. Reads are, and so are starting and
+     * stopping a container by id. Creating a container is only when it is named, a second create then fails with a
+     * conflict instead of creating a second container.
+     *
+     * @param endpointTemplate an endpoint constant of the operations interfaces
+     * @param resourceId       id or name of the container or image the request is about, may be null
+     */
+    public static boolean isIdempotent(String endpointTemplate, String resourceId) {
+        if (ContainerOperations.CREATE_CONTAINER_ENDPOINT.equals(endpointTemplate)) {
+            return resourceId != null;
+        }
+        return EndpointClass.of(endpointTemplate) == EndpointClass.READ || IDEMPOTENT_ENDPOINTS.contains(endpointTemplate);
+    }
+
+    /**
+     * Whether a request that failed with the given error may succeed when sent again.
+     */
+    public static boolean isTransient(Throwable e) {
+        if (e instanceof ServiceException) {
+            return ((ServiceException) e).getCode() >= 500;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Subscribes to the request again while it fails with a transient error, when it is idempotent.
+     *
+     * @param onRetry  told the endpoint and the delay, in nanoseconds, of every retry
+     * @param onDenied told the endpoint of every retry the budget did not allow
+     */
+    public <T> Observable<T> retrying(String endpointTemplate, String resourceId, Observable<T> request,
+                                      ObjLongConsumer<String> onRetry, Consumer<String> onDenied) {
+        if (maxAttempts == 1 || !isIdempotent(endpointTemplate, resourceId)) {
+            return request;
+        }
+        return Observable.defer(() -> {
+            budget.onRequest();
+            final AtomicBoolean emitted = new AtomicBoolean();
+            final AtomicInteger attempts = new AtomicInteger(1);
+            final AtomicLong delay = new AtomicLong(baseDelay.toNanos());
+            return request
+                    .doOnNext(item -> emitted.set(true))
+                    .retryWhen(errors -> errors.flatMap(e -> {
+                        if (emitted.get() || attempts.get() >= maxAttempts || !isTransient(e)) {
+                            return Observable.error(e);
+                        }
+                        if (!budget.tryRetry()) {
+                            onDenied.accept(endpointTemplate);
+                            return Observable.error(e);
+                        }
+                        final long next = nextDelay(delay.get());
+                        delay.set(next);
+                        logger.debug("attempt {} of {} failed with {}, retrying in {}ms", attempts.getAndIncrement(), endpointTemplate, e.toString(),
+                                TimeUnit.NANOSECONDS.toMillis(next));
+                        onRetry.accept(endpointTemplate, next);
+                        return Observable.timer(next, TimeUnit.NANOSECONDS, scheduler);
+                    }));
+        });
+    }
+
+    long nextDelay(long previousNanos) {
+        final long base = baseDelay.toNanos();
+        final long upper = Math.max(base, previousNanos * 3);
+        return Math.min(maxDelay.toNanos(), base + (long) (random.getAsDouble() * (upper - base)));
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.utils;
+
+import rx.Notification;
+import rx.Observable;
+import rx.Subscriber;
+import rx.exceptions.Exceptions;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * A spliterator over the items of an observable. It subscribes on the first call to {@link #tryAdvance(Consumer)},
+ * requests at most <code>batchSize</code> items ahead of the consumer and unsubscribes on {@link #close()}. Splitting
+ * is inherited from {@link Spliterators.AbstractSpliterator}, which hands out arrays of the next items.
+ */
+class ObservableSpliterator<T> extends Spliterators.AbstractSpliterator<T> implements AutoCloseable {
+
+    private final Observable<T> observable;
+    private final int batchSize;
+    private final int replenishAt;
+    private final BlockingQueue<Notification<T>> notifications = new LinkedBlockingQueue<>();
+
+    private QueueingSubscriber subscriber;
+    private int consumed;
+    private boolean done;
+    private volatile boolean closed;
+
+    ObservableSpliterator(Observable<T> observable, int batchSize) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED);
+        this.observable = observable;
+        this.batchSize = batchSize;
+        this.replenishAt = batchSize - (batchSize >> 2);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (done || closed) {
+            return false;
+        }
+        if (subscriber == null) {
+            subscriber = new QueueingSubscriber();
+            observable.subscribe(subscriber);
+        }
+        final Notification<T> notification = next();
+        if (notification.isOnNext()) {
+            if (++consumed == replenishAt) {
+                subscriber.requestMore(consumed);
+                consumed = 0;
+            }
+            action.accept(notification.getValue());
+            return true;
+        }
+        done = true;
+        if (notification.isOnError()) {
+            throw Exceptions.propagate(notification.getThrowable());
+        }
+        return false;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        final QueueingSubscriber current = subscriber;
+        if (current != null) {
+            current.unsubscribe();
+        }
+    }
+
+    private Notification<T> next() {
+        try {
+            return notifications.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new IllegalStateException("interrupted while waiting for the next item", e);
+        }
+    }
+
+    private class QueueingSubscriber extends Subscriber<T> {
+
+        @Override
+        public void onStart() {
+            request(batchSize);
+        }
+
+        @Override
+        public void onNext(T item) {
+            notifications.offer(Notification.createOnNext(item));
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            notifications.offer(Notification.createOnError(e));
+        }
+
+        @Override
+        public void onCompleted() {
+            notifications.offer(Notification.createOnCompleted());
+        }
+
+        void requestMore(long n) {
+            request(n);
+        }
+    }
+}
@@ -24,6 +24,8 @@
 
 package com.shekhargulati.reactivex.docker.client.utils;
 
+import rx.Observable;
+
 import java.util.Iterator;
 import java.util.Spliterator;
 import java.util.Spliterators;
@@ -32,7 +34,24 @@ import java.util.stream.StreamSupport;
 
 public abstract class StreamUtils {
 
+    static final int BATCH_SIZE = 128;
+
+    /**
+     * @deprecated unused by the client, a stream over the blocking iterator of an Observable never unsubscribes from
+     * it. Use {@link #observableToStream(Observable)}, which unsubscribes when the stream is closed.
+     */
+    @Deprecated
     public static <T> Stream<T> iteratorToStream(Iterator<T> iterator) {
         return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
     }
+
+    /**
+     * A stream over the items of <code>observable</code> that subscribes when a terminal operation starts and pulls
+     * the items in batches. Closing the stream unsubscribes, which cancels a running HTTP call, so use it in a
+     * try-with-resources block when the stream is not fully consumed.
+     */
+    public static <T> Stream<T> observableToStream(Observable<T> observable) {
+        final ObservableSpliterator<T> spliterator = new ObservableSpliterator<>(observable, BATCH_SIZE);
+        return StreamSupport.stream(() -> spliterator, Spliterator.ORDERED, false).onClose(spliterator::close);
+    }
 }
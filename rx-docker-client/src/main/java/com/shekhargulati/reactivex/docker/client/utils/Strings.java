@@ -32,4 +32,28 @@ public abstract class Strings {
         Optional<String> optional = Optional.ofNullable(str);
         return optional.flatMap(s -> s.trim().length() == 0 ? Optional.of(true) : Optional.of(false)).orElse(true);
     }
+
+    /**
+     * The number of bytes the string takes encoded as UTF-8, counted without encoding it. An unpaired surrogate counts
+     * as the one byte replacement character the encoder writes for it.
+     */
+    public static long utf8Length(CharSequence str) {
+        long length = 0;
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < str.length() && Character.isLowSurrogate(str.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
 }
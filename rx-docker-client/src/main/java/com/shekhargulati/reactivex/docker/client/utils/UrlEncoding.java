@@ -0,0 +1,84 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.utils;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Percent-encoding of path segments and query values. Values that need no encoding, which are nearly all ids and
+ * names, are appended as they are without allocating.
+ */
+public final class UrlEncoding {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private UrlEncoding() {
+    }
+
+    public static StringBuilder appendPathSegment(StringBuilder builder, String value) {
+        return append(builder, value, false);
+    }
+
+    public static StringBuilder appendQueryValue(StringBuilder builder, String value) {
+        return append(builder, value, true);
+    }
+
+    public static String encodeQueryValue(String value) {
+        return needsEncoding(value, true) ? append(new StringBuilder(value.length() + 16), value, true).toString() : value;
+    }
+
+    private static StringBuilder append(StringBuilder builder, String value, boolean query) {
+        if (!needsEncoding(value, query)) {
+            return builder.append(value);
+        }
+        for (byte b : value.getBytes(UTF_8)) {
+            char c = (char) (b & 0xff);
+            if (isAllowed(c, query)) {
+                builder.append(c);
+            } else {
+                builder.append('%').append(HEX[(b >> 4) & 0xf]).append(HEX[b & 0xf]);
+            }
+        }
+        return builder;
+    }
+
+    private static boolean needsEncoding(String value, boolean query) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!isAllowed(value.charAt(i), query)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Unreserved characters, plus ':' and '@' which are common in image references. A query value may also keep '/'.
+     */
+    private static boolean isAllowed(char c, boolean query) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '.' || c == '_' || c == '~' || c == ':' || c == '@'
+                || (query && c == '/');
+    }
+}
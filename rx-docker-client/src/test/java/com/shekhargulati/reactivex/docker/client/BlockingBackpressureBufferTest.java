@@ -0,0 +1,105 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import org.junit.Test;
+import rx.Observable;
+import rx.Subscriber;
+import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class BlockingBackpressureBufferTest {
+
+    private static final int LINES = 10_000;
+    private static final int CAPACITY = 16;
+
+    private final AtomicInteger emitted = new AtomicInteger();
+    private final CountDownLatch sourceDone = new CountDownLatch(1);
+
+    @Test
+    public void shouldBlockTheSourceInsteadOfFailingWhenTheSubscriberIsSlow() throws Exception {
+        TestSubscriber<Integer> subscriber = new TestSubscriber<>(5L);
+        ignoringRequests().lift(new BlockingBackpressureBuffer<>(CAPACITY)).subscribe(subscriber);
+
+        Thread.sleep(200);
+
+        subscriber.assertValueCount(5);
+        subscriber.assertNoErrors();
+        assertThat(emitted.get(), is(lessThanOrEqualTo(5 + CAPACITY + 1)));
+
+        subscriber.requestMore(Long.MAX_VALUE);
+        subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS);
+
+        subscriber.assertCompleted();
+        subscriber.assertValueCount(LINES);
+    }
+
+    @Test
+    public void shouldReleaseABlockedSourceWhenUnsubscribed() throws Exception {
+        TestSubscriber<Integer> subscriber = new TestSubscriber<>(0L);
+        ignoringRequests().lift(new BlockingBackpressureBuffer<>(CAPACITY)).subscribe(subscriber);
+        Thread.sleep(100);
+
+        subscriber.unsubscribe();
+
+        assertThat(sourceDone.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(emitted.get(), is(lessThan(LINES)));
+    }
+
+    @Test
+    public void shouldDeliverTheErrorAfterTheBufferedItems() throws Exception {
+        TestSubscriber<Integer> subscriber = new TestSubscriber<>();
+
+        Observable.just(1, 2).concatWith(Observable.error(new IllegalStateException("daemon gone")))
+                .lift(new BlockingBackpressureBuffer<>(CAPACITY)).subscribe(subscriber);
+
+        subscriber.assertValues(1, 2);
+        subscriber.assertError(IllegalStateException.class);
+    }
+
+    /**
+     * Emits on its own thread as fast as it can, like a socket reader, and stops once unsubscribed.
+     */
+    private Observable<Integer> ignoringRequests() {
+        return Observable.create((Subscriber<? super Integer> s) -> {
+            try {
+                for (int i = 0; i < LINES && !s.isUnsubscribed(); i++) {
+                    emitted.incrementAndGet();
+                    s.onNext(i);
+                }
+                s.onCompleted();
+            } finally {
+                sourceDone.countDown();
+            }
+        }).subscribeOn(Schedulers.newThread());
+    }
+}
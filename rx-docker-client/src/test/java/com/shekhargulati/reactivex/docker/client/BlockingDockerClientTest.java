@@ -0,0 +1,257 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.google.gson.Gson;
+import com.shekhargulati.reactivex.docker.client.http.HttpEndpoint;
+import com.shekhargulati.reactivex.docker.client.http.HttpResponseException;
+import com.shekhargulati.reactivex.docker.client.junit.FakeDockerDaemon;
+import com.shekhargulati.reactivex.docker.client.representations.ContainerInspectResponse;
+import com.shekhargulati.reactivex.docker.client.representations.DockerContainer;
+import com.shekhargulati.reactivex.docker.client.representations.DockerContainerRequestBuilder;
+import com.shekhargulati.reactivex.docker.client.representations.DockerContainerResponse;
+import com.shekhargulati.reactivex.docker.client.representations.DockerVersion;
+import com.shekhargulati.reactivex.rxokhttp.HttpStatus;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import rx.Observable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class BlockingDockerClientTest {
+
+    private static final String CONTAINER_JSON = "{\"Id\":\"abc123\",\"Name\":\"/web\",\"State\":{\"Running\":true}}";
+    private static final int MAX_CONNECTIONS = 16;
+
+    @Rule
+    public FakeDockerDaemon daemon = new FakeDockerDaemon()
+            .route("GET", "/version", 200, "{\"ApiVersion\":\"1.41\",\"MinAPIVersion\":\"1.12\"}")
+            .route("GET", "/v1\\.41/containers/abc123/json", 200, CONTAINER_JSON)
+            .route("GET", "/v1\\.41/containers/json\\?.*", 200, "[{\"Id\":\"abc123\"},{\"Id\":\"def456\"}]")
+            .route("POST", "/v1\\.41/containers/abc123/start", 204, "")
+            .route("POST", "/v1\\.41/containers/abc123/stop\\?t=5", 304, "")
+            .route("POST", "/v1\\.41/containers/slow/wait", path -> {
+                sleep(500);
+                return new FakeDockerDaemon.Response(200, "{\"StatusCode\":0}");
+            })
+            .route("POST", "/v1\\.41/containers/create", 201, "{\"Id\":\"abc123\"}")
+            .route("POST", "/v1\\.41/containers/create\\?name=web%20app%26x%3D1%23%2B2", 201, "{\"Id\":\"abc123\"}");
+
+    private BlockingDockerClient client;
+
+    @After
+    public void tearDown() throws Exception {
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    @Test
+    public void shouldInspectContainer() throws Exception {
+        client = BlockingDockerClient.newBlockingClient(daemon.hostAndPort());
+
+        ContainerInspectResponse container = client.inspectContainer("abc123");
+
+        assertThat(container.id(), is(equalTo("abc123")));
+        assertThat(container.state().running(), is(true));
+    }
+
+    @Test
+    public void shouldListContainers() throws Exception {
+        client = BlockingDockerClient.newBlockingClient(daemon.hostAndPort());
+
+        List<DockerContainer> containers = client.listAllContainers();
+
+        assertThat(containers, hasSize(2));
+    }
+
+    @Test
+    public void shouldReturnStatusOfOperations() throws Exception {
+        client = BlockingDockerClient.newBlockingClient(daemon.hostAndPort());
+
+        HttpStatus started = client.startContainer("abc123");
+        HttpStatus stopped = client.stopContainer("abc123", 5);
+
+        assertThat(started.code(), is(equalTo(204)));
+        assertThat(stopped.code(), is(equalTo(304)));
+    }
+
+    @Test
+    public void shouldEncodeTheNameOfANewContainer() throws Exception {
+        client = BlockingDockerClient.newBlockingClient(daemon.hostAndPort());
+
+        DockerContainerResponse created = client.createContainer(new DockerContainerRequestBuilder().setImage("ubuntu").createDockerContainerRequest(), "web app&x=1#+2");
+
+        assertThat(created.getId(), is(equalTo("abc123")));
+    }
+
+    @Test
+    public void shouldPrefixPathsWithTheNegotiatedApiVersion() throws Exception {
+        client = BlockingDockerClient.newBlockingClient(daemon.hostAndPort());
+
+        client.inspectContainer("abc123");
+        client.inspectContainer("abc123");
+
+        assertThat("the version is asked once", daemon.requestsServed(), is(equalTo(3)));
+    }
+
+    @Test
+    public void shouldShareTheApiVersionNegotiatedOnATransport() throws Exception {
+        DockerTransport transport = DockerTransport.create(daemon.hostAndPort().getHost() + ":" + daemon.hostAndPort().getPort(), null);
+        transport.negotiate(() -> Observable.just(new Gson().fromJson("{\"ApiVersion\":\"1.41\"}", DockerVersion.class))).toBlocking().single();
+        client = BlockingDockerClient.newBlockingClient(transport);
+
+        client.inspectContainer("abc123");
+
+        assertThat(daemon.requestsServed(), is(equalTo(1)));
+    }
+
+    @Test
+    public void shouldThrowHttpResponseExceptionForUnknownContainer() throws Exception {
+        client = BlockingDockerClient.newBlockingClient(daemon.hostAndPort());
+        try {
+            client.inspectContainer("missing");
+            fail("expected HttpResponseException");
+        } catch (HttpResponseException e) {
+            assertThat(e.getCode(), is(equalTo(404)));
+        }
+    }
+
+    @Test
+    public void shouldReuseOneConnectionForSequentialCalls() throws Exception {
+        client = BlockingDockerClient.newBlockingClient(daemon.hostAndPort());
+
+        for (int i = 0; i < 100; i++) {
+            client.inspectContainer("abc123");
+        }
+
+        assertThat(daemon.connectionsAccepted(), is(equalTo(1)));
+    }
+
+    @Test
+    public void shouldReconnectWhenPooledConnectionWasClosedByDaemon() throws Exception {
+        client = BlockingDockerClient.newBlockingClient(daemon.hostAndPort());
+        client.inspectContainer("abc123");
+
+        daemon.dropConnections();
+
+        assertThat(client.inspectContainer("abc123").id(), is(equalTo("abc123")));
+        assertThat(daemon.connectionsAccepted(), is(equalTo(2)));
+    }
+
+    @Test
+    public void shouldNotResendARequestThatIsNotIdempotentOnAStaleConnection() throws Exception {
+        client = BlockingDockerClient.newBlockingClient(daemon.hostAndPort());
+        client.inspectContainer("abc123");
+
+        daemon.dropConnections();
+
+        try {
+            client.createContainer(new DockerContainerRequestBuilder().setImage("ubuntu").createDockerContainerRequest());
+            fail("expected the create to fail rather than be sent again");
+        } catch (RuntimeException e) {
+            assertThat(daemon.connectionsAccepted(), is(equalTo(1)));
+        }
+    }
+
+    @Test
+    public void shouldWaitForAContainerLongerThanTheReadTimeout() throws Exception {
+        client = BlockingDockerClient.newBlockingClient(daemon.hostAndPort(), MAX_CONNECTIONS, Duration.ofMillis(100));
+
+        assertThat(client.waitContainer("slow").code(), is(equalTo(200)));
+    }
+
+    @Test
+    public void shouldTimeOutWaitingForAFreeConnectionWithTheAcquireTimeout() throws Exception {
+        client = BlockingDockerClient.newBlockingClient(HttpEndpoint.plain(daemon.hostAndPort()), 1, Duration.ofSeconds(30),
+                Duration.ofMillis(50), BlockingDockerClient.DEFAULT_KEEP_ALIVE);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<HttpStatus> waiting = executor.submit(() -> client.waitContainer("slow"));
+            Thread.sleep(100);
+            try {
+                client.inspectContainer("abc123");
+                fail("expected the pool to be exhausted");
+            } catch (RuntimeException e) {
+                assertThat(e.getMessage(), containsString("timed out waiting for a connection"));
+            }
+            assertThat(waiting.get().code(), is(equalTo(200)));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Runs 10,000 concurrent inspect calls, each on its own virtual thread when the JVM supports them. On a JVM with
+     * virtual threads run with <code>-Djdk.tracePinnedThreads=short</code> to see any carrier thread pinning in the
+     * test output. Older JVMs fall back to a pool of platform threads.
+     */
+    @Test
+    public void shouldServeTenThousandConcurrentInspectCalls() throws Exception {
+        client = BlockingDockerClient.newBlockingClient(HttpEndpoint.plain(daemon.hostAndPort()), MAX_CONNECTIONS, Duration.ofSeconds(30),
+                Duration.ofSeconds(30), BlockingDockerClient.DEFAULT_KEEP_ALIVE);
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        try {
+            List<Future<ContainerInspectResponse>> calls = new ArrayList<>();
+            for (int i = 0; i < 10_000; i++) {
+                calls.add(executor.submit(() -> client.inspectContainer("abc123")));
+            }
+            for (Future<ContainerInspectResponse> call : calls) {
+                assertThat(call.get().id(), is(equalTo("abc123")));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        // and the version request of the negotiation
+        assertThat(daemon.requestsServed(), is(equalTo(10_001)));
+        assertThat(daemon.connectionsAccepted(), is(lessThanOrEqualTo(MAX_CONNECTIONS)));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(256);
+        }
+    }
+}
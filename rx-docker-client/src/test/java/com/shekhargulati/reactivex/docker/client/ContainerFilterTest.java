@@ -0,0 +1,95 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.shekhargulati.reactivex.docker.client.ContainerFilter.Status;
+import com.shekhargulati.reactivex.docker.client.representations.DockerContainer;
+import com.shekhargulati.reactivex.docker.client.utils.Gsons;
+import com.shekhargulati.reactivex.docker.client.utils.UrlEncoding;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static com.shekhargulati.reactivex.docker.client.ContainerFilter.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class ContainerFilterTest {
+
+    private static final ApiVersion V1_24 = ApiVersion.of(1, 24);
+    private static final ApiVersion V1_20 = ApiVersion.of(1, 20);
+
+    @Test
+    public void shouldPushEverythingDownWhenTheDaemonSupportsIt() throws Exception {
+        FilterPushDown<DockerContainer> pushDown = label("env", "prod").and(status(Status.RUNNING, Status.PAUSED)).pushDown(V1_24);
+
+        assertThat(pushDown.hasResidual(), is(false));
+        assertThat(pushDown.serverFilters(), hasEntry("label", Collections.singletonList("env=prod")));
+        assertThat(pushDown.serverFilters(), hasEntry("status", Arrays.asList("running", "paused")));
+    }
+
+    @Test
+    public void shouldEvaluateFiltersUnknownToOlderDaemonsOnTheClient() throws Exception {
+        FilterPushDown<DockerContainer> pushDown = label("env").and(network("backend")).pushDown(V1_20);
+
+        assertThat(pushDown.serverFilters().keySet(), contains("label"));
+        assertThat(pushDown.hasResidual(), is(true));
+        assertThat(pushDown.residual().test(container("{\"NetworkSettings\":{\"Networks\":{\"backend\":{}}}}")), is(true));
+        assertThat(pushDown.residual().test(container("{\"NetworkSettings\":{\"Networks\":{\"bridge\":{}}}}")), is(false));
+    }
+
+    @Test
+    public void shouldUseLegacyParametersForBeforeAndSince() throws Exception {
+        assertThat(before("abc123").pushDown(V1_20).serverParameters(), hasEntry("before", "abc123"));
+        assertThat(before("abc123").pushDown(V1_24).serverFilters(), hasEntry("before", Collections.singletonList("abc123")));
+    }
+
+    @Test
+    public void shouldMergeFiltersIntoTheQuery() throws Exception {
+        QueryParameters queryParameters = new QueryParameters();
+
+        String query = queryParameters.toQuery(label("env", "prod").and(label("tier")).pushDown(V1_24));
+
+        assertThat(query, endsWith("&filters=" + UrlEncoding.encodeQueryValue("{\"label\":[\"env=prod\",\"tier\"]}")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectTheSameKeyTwice() throws Exception {
+        status(Status.RUNNING).and(status(Status.EXITED));
+    }
+
+    @Test
+    public void shouldDeriveStatusFromTheDescriptionOfOlderDaemons() throws Exception {
+        assertThat(statusOf(container("{\"Status\":\"Up 2 hours (Paused)\"}")), is(equalTo("paused")));
+        assertThat(statusOf(container("{\"Status\":\"Exited (0) 3 minutes ago\"}")), is(equalTo("exited")));
+        assertThat(statusOf(container("{\"State\":\"restarting\",\"Status\":\"Up 1 second\"}")), is(equalTo("restarting")));
+        assertThat(healthOf(container("{\"Status\":\"Up 5 minutes (unhealthy)\"}")), is(equalTo("unhealthy")));
+    }
+
+    private static DockerContainer container(String json) {
+        return Gsons.dockerGson().fromJson(json, DockerContainer.class);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.shekhargulati.reactivex.docker.client.representations.ContainerLogLine;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class ContainerLogCollectorTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private final ContainerLogCollector collector = new ContainerLogCollector(
+            (containerId, queryParameters) -> Observable.just(containerId + " line 1", containerId + " line 2"),
+            Schedulers.io(),
+            ContainerLogCollector.DEFAULT_BUFFER_SIZE);
+
+    @Test
+    public void shouldTagEveryLineWithItsContainer() throws Exception {
+        List<ContainerLogLine> lines = collector.collect(Arrays.asList("a", "b", "c"), ContainerLogQueryParameters.withDefaultValues(), 2)
+                .toList().toBlocking().single();
+
+        assertThat(lines, hasSize(6));
+        lines.forEach(line -> assertThat(line.message(), startsWith(line.containerId().get() + " ")));
+    }
+
+    @Test
+    public void shouldNotOpenMoreStreamsThanParallelism() throws Exception {
+        AtomicInteger open = new AtomicInteger();
+        AtomicInteger maxOpen = new AtomicInteger();
+        ContainerLogCollector collector = new ContainerLogCollector((containerId, queryParameters) -> Observable.just(containerId)
+                .doOnSubscribe(() -> maxOpen.accumulateAndGet(open.incrementAndGet(), Math::max))
+                .doOnTerminate(open::decrementAndGet),
+                Schedulers.io(),
+                ContainerLogCollector.DEFAULT_BUFFER_SIZE);
+
+        List<ContainerLogLine> lines = collector.collect(Arrays.asList("a", "b", "c", "d", "e"), ContainerLogQueryParameters.withDefaultValues(), 2)
+                .toList().toBlocking().single();
+
+        assertThat(lines, hasSize(5));
+        assertThat(maxOpen.get(), lessThanOrEqualTo(2));
+    }
+
+    @Test
+    public void shouldWriteLogsOfEveryContainerToItsOwnFile() throws Exception {
+        Path outputDir = tmp.newFolder().toPath();
+
+        List<Path> files = collector.collectToFiles(Arrays.asList("a", "b"), ContainerLogQueryParameters.withDefaultValues(), 2, outputDir)
+                .toList().toBlocking().single();
+
+        assertThat(files.stream().map(f -> f.getFileName().toString()).collect(toList()), containsInAnyOrder("a.log", "b.log"));
+        assertThat(new String(Files.readAllBytes(outputDir.resolve("a.log")), UTF_8), is(equalTo("a line 1\na line 2\n")));
+    }
+}
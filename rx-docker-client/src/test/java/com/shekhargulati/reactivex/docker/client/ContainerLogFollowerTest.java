@@ -0,0 +1,126 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.shekhargulati.reactivex.docker.client.representations.ContainerLogLine;
+import org.junit.Test;
+import rx.Observable;
+import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ContainerLogFollowerTest {
+
+    private final TestScheduler scheduler = new TestScheduler();
+    private final List<ContainerLogQueryParameters> requests = new ArrayList<>();
+
+    @Test
+    public void shouldParseTimestampAfterStreamHeader() throws Exception {
+        ContainerLogLine line = ContainerLogLine.parse("\u0001\u0000\u0000\u0000\u0000\u0000\u0000$2016-03-01T10:15:30.000000123Z hello world");
+        assertThat(line.timestamp().get(), is(equalTo(Instant.parse("2016-03-01T10:15:30.000000123Z"))));
+        assertThat(line.message(), is(equalTo("hello world")));
+    }
+
+    @Test
+    public void shouldKeepLineWithoutTimestamp() throws Exception {
+        ContainerLogLine line = ContainerLogLine.parse("hello world");
+        assertThat(line.timestamp().isPresent(), is(false));
+        assertThat(line.message(), is(equalTo("hello world")));
+    }
+
+    @Test
+    public void shouldResumeFromLastTimestampWithoutDuplicates() throws Exception {
+        List<Observable<String>> attempts = Arrays.asList(
+                Observable.just(
+                        "2016-03-01T10:15:30.000000001Z one",
+                        "2016-03-01T10:15:30.000000002Z two",
+                        "2016-03-01T10:15:30.000000002Z three")
+                        .concatWith(Observable.error(new IOException("connection reset"))),
+                Observable.just(
+                        "2016-03-01T10:15:30.000000002Z two",
+                        "2016-03-01T10:15:30.000000002Z three",
+                        "2016-03-01T10:15:30.000000003Z four"));
+        ContainerLogFollower follower = new ContainerLogFollower((id, q) -> {
+            requests.add(q);
+            return attempts.get(requests.size() - 1);
+        }, id -> Observable.just(false), scheduler);
+
+        TestSubscriber<ContainerLogLine> subscriber = new TestSubscriber<>();
+        follower.follow("container", ContainerLogQueryParameters.withDefaultValues(), LogFollowPolicy.defaultPolicy()).subscribe(subscriber);
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        subscriber.assertCompleted();
+        assertThat(subscriber.getOnNextEvents().stream().map(ContainerLogLine::message).collect(toList()),
+                is(equalTo(Arrays.asList("one", "two", "three", "four"))));
+        assertThat(requests.get(1).getSince().get(), is(equalTo(Instant.parse("2016-03-01T10:15:30.000000002Z"))));
+        assertThat(requests.get(1).isFollow(), is(true));
+    }
+
+    @Test
+    public void shouldReconnectWhenStreamCompletesWhileContainerIsRunning() throws Exception {
+        List<Observable<String>> attempts = Arrays.asList(
+                Observable.just("2016-03-01T10:15:30.000000001Z one"),
+                Observable.just("2016-03-01T10:15:30.000000001Z one", "2016-03-01T10:15:31Z two"));
+        List<Boolean> running = Arrays.asList(true, false);
+        int[] inspections = {0};
+        ContainerLogFollower follower = new ContainerLogFollower((id, q) -> {
+            requests.add(q);
+            return attempts.get(requests.size() - 1);
+        }, id -> Observable.just(running.get(inspections[0]++)), scheduler);
+
+        TestSubscriber<ContainerLogLine> subscriber = new TestSubscriber<>();
+        follower.follow("container", ContainerLogQueryParameters.withDefaultValues(), LogFollowPolicy.defaultPolicy()).subscribe(subscriber);
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        subscriber.assertCompleted();
+        assertThat(subscriber.getOnNextEvents().stream().map(ContainerLogLine::message).collect(toList()),
+                is(equalTo(Arrays.asList("one", "two"))));
+    }
+
+    @Test
+    public void shouldGiveUpAfterMaxRetries() throws Exception {
+        ContainerLogFollower follower = new ContainerLogFollower((id, q) -> Observable.error(new IOException("daemon down")),
+                id -> Observable.just(true), scheduler);
+        LogFollowPolicy policy = LogFollowPolicy.defaultPolicy().withInitialBackoff(Duration.ofMillis(10)).withMaxRetries(2);
+
+        TestSubscriber<ContainerLogLine> subscriber = new TestSubscriber<>();
+        follower.follow("container", ContainerLogQueryParameters.withDefaultValues(), policy).subscribe(subscriber);
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        subscriber.assertError(IOException.class);
+    }
+}
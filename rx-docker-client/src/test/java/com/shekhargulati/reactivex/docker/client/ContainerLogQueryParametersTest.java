@@ -3,6 +3,8 @@ package com.shekhargulati.reactivex.docker.client;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.time.Instant;
+
 import static org.hamcrest.CoreMatchers.equalTo;
 
 public class ContainerLogQueryParametersTest {
@@ -13,5 +15,22 @@ public class ContainerLogQueryParametersTest {
         Assert.assertThat(queryParameters.toQueryParametersString(), equalTo("?stderr=true&stdout=true&timestamps=true&tail=all"));
     }
 
+    @Test
+    public void shouldAddFollowWhenFollowIsEnabled() throws Exception {
+        ContainerLogQueryParameters queryParameters = ContainerLogQueryParameters.withDefaultValues().withFollow(true);
+        Assert.assertThat(queryParameters.toQueryParametersString(), equalTo("?stderr=true&stdout=true&timestamps=true&follow=true&tail=all"));
+    }
+
+    @Test
+    public void shouldKeepNanosecondsInSince() throws Exception {
+        ContainerLogQueryParameters queryParameters = ContainerLogQueryParameters.withDefaultValues().withSince(Instant.parse("2016-03-01T10:15:30.000000123Z"));
+        Assert.assertThat(queryParameters.toQueryParametersString(), equalTo("?stderr=true&stdout=true&timestamps=true&tail=all&since=1456827330.000000123"));
+    }
+
+    @Test
+    public void shouldUseSecondsInSinceWhenThereAreNoNanoseconds() throws Exception {
+        ContainerLogQueryParameters queryParameters = new ContainerLogQueryParameters(true, false, true, 10, Instant.ofEpochSecond(1456827330));
+        Assert.assertThat(queryParameters.toQueryParametersString(), equalTo("?stderr=true&stdout=false&timestamps=true&tail=10&since=1456827330"));
+    }
 
 }
\ No newline at end of file
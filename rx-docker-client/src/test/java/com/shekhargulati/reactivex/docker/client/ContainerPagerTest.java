@@ -0,0 +1,119 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.shekhargulati.reactivex.docker.client.representations.DockerContainer;
+import com.shekhargulati.reactivex.docker.client.utils.Gsons;
+import org.junit.Test;
+import rx.Observable;
+import rx.observers.TestSubscriber;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class ContainerPagerTest {
+
+    private final List<DockerContainer> host = new ArrayList<>();
+    private final List<Optional<String>> cursors = new ArrayList<>();
+
+    private final ContainerPager pager = new ContainerPager(cursor -> {
+        cursors.add(cursor);
+        int from = cursor.map(id -> ids(host).indexOf(id) + 1).orElse(0);
+        return Observable.just(new ArrayList<>(host.subList(from, Math.min(from + 3, host.size()))));
+    });
+
+    @Test
+    public void shouldWalkAllContainersNewestFirst() throws Exception {
+        createContainers(7);
+
+        List<DockerContainer> containers = pager.pages(Optional.empty(), 3).toList().toBlocking().single();
+
+        assertThat(ids(containers), contains("c7", "c6", "c5", "c4", "c3", "c2", "c1"));
+        assertThat(cursors, contains(Optional.empty(), Optional.of("c5"), Optional.of("c2")));
+    }
+
+    @Test
+    public void shouldStopAtTheFirstPageThatIsNotFull() throws Exception {
+        createContainers(6);
+
+        List<DockerContainer> containers = pager.pages(Optional.empty(), 3).toList().toBlocking().single();
+
+        assertThat(containers, hasSize(6));
+        assertThat(cursors, hasSize(3));
+    }
+
+    @Test
+    public void shouldStartBeforeTheGivenContainer() throws Exception {
+        createContainers(7);
+
+        List<DockerContainer> containers = pager.pages(Optional.of("c5"), 3).toList().toBlocking().single();
+
+        assertThat(ids(containers), contains("c4", "c3", "c2", "c1"));
+    }
+
+    @Test
+    public void shouldOnlyListPagesTheSubscriberAskedFor() throws Exception {
+        createContainers(30);
+        TestSubscriber<DockerContainer> subscriber = TestSubscriber.create(1);
+
+        pager.pages(Optional.empty(), 3).subscribe(subscriber);
+
+        subscriber.assertValueCount(1);
+        assertThat(cursors, hasSize(1));
+
+        subscriber.requestMore(4);
+
+        subscriber.assertValueCount(5);
+        assertThat(cursors, hasSize(2));
+    }
+
+    @Test
+    public void shouldReplaceABeforeFilterWithTheCursor() throws Exception {
+        ContainerFilter filter = ContainerFilter.before("c9").and(ContainerFilter.label("app"));
+
+        assertThat(ContainerPager.filterFor(Optional.of(filter), Optional.empty()).get().toMap(), hasEntry("before", Collections.singletonList("c9")));
+        Map<String, List<String>> page = ContainerPager.filterFor(Optional.of(filter), Optional.of("c5")).get().toMap();
+        assertThat(page, hasEntry("before", Collections.singletonList("c5")));
+        assertThat(page, hasEntry("label", Collections.singletonList("app")));
+        assertThat(ContainerPager.filterFor(Optional.empty(), Optional.of("c5")).get().toMap(), hasEntry("before", Collections.singletonList("c5")));
+    }
+
+    private void createContainers(int count) {
+        for (int i = count; i > 0; i--) {
+            host.add(Gsons.dockerGson().fromJson("{\"Id\":\"c" + i + "\"}", DockerContainer.class));
+        }
+    }
+
+    private static List<String> ids(List<DockerContainer> containers) {
+        return containers.stream().map(DockerContainer::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import org.junit.Test;
+import rx.Observable;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class DefaultAsyncDockerClientTest {
+
+    private final TestScheduler scheduler = new TestScheduler();
+
+    @Test
+    public void shouldSubscribeOnSchedulerAndCompleteWithValue() throws Exception {
+        CompletableFuture<String> future = DefaultAsyncDockerClient.toFuture(Observable.just("ok").single(), scheduler);
+        assertThat(future.isDone(), is(false));
+
+        scheduler.triggerActions();
+
+        assertThat(future.get(), is(equalTo("ok")));
+    }
+
+    @Test
+    public void shouldCompleteExceptionallyWhenObservableFails() throws Exception {
+        CompletableFuture<String> future = DefaultAsyncDockerClient.toFuture(Observable.<String>empty().single(), scheduler);
+        scheduler.triggerActions();
+        try {
+            future.get();
+            fail("expected the future to fail");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(NoSuchElementException.class)));
+        }
+    }
+
+    @Test
+    public void shouldUnsubscribeWhenCancelled() throws Exception {
+        PublishSubject<String> response = PublishSubject.create();
+        CompletableFuture<String> future = DefaultAsyncDockerClient.toFuture(response.single(), scheduler);
+        scheduler.triggerActions();
+        assertThat(response.hasObservers(), is(true));
+
+        future.cancel(true);
+
+        assertThat(response.hasObservers(), is(false));
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.shekhargulati.reactivex.docker.client.http.HttpEndpoint;
+import com.shekhargulati.reactivex.docker.client.http.HttpResponseException;
+import com.shekhargulati.reactivex.docker.client.representations.DockerStreamFrame;
+import com.shekhargulati.reactivex.docker.client.representations.DockerStreamFrame.StreamType;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.Okio;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class DockerStreamSessionTest {
+
+    private ServerSocket server;
+
+    @After
+    public void tearDown() throws Exception {
+        server.close();
+    }
+
+    @Test
+    public void shouldWriteToStdinAndReadDemultiplexedOutput() throws Exception {
+        startDaemon((source, sink) -> {
+            try {
+                sink.writeUtf8("HTTP/1.1 101 UPGRADED\r\nContent-Type: application/vnd.docker.raw-stream\r\nConnection: Upgrade\r\nUpgrade: tcp\r\n\r\n").flush();
+                String stdin = source.readUtf8();
+                writeFrame(sink, 1, stdin);
+                writeFrame(sink, 2, "bye");
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        DockerStreamSession session = DockerStreamSession.open(endpoint(), "/exec/123/start", "application/json", "{}".getBytes(UTF_8), Optional.empty());
+
+        session.write("hello");
+        session.closeStdin();
+        List<DockerStreamFrame> frames = session.frames().toList().toBlocking().single();
+
+        assertThat(frames, hasSize(2));
+        assertThat(frames.get(0).type(), is(StreamType.STDOUT));
+        assertThat(frames.get(0).asString(), is(equalTo("hello")));
+        assertThat(frames.get(1).type(), is(StreamType.STDERR));
+        assertThat(frames.get(1).asString(), is(equalTo("bye")));
+        assertThat(session.isClosed(), is(true));
+    }
+
+    @Test
+    public void shouldReadTtyOutputAsRawFrames() throws Exception {
+        startDaemon((source, sink) -> {
+            try {
+                sink.writeUtf8("HTTP/1.1 101 UPGRADED\r\n\r\n").writeUtf8("$ ls\r\n").flush();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        DockerStreamSession session = DockerStreamSession.open(endpoint(), "/containers/web/attach", "text/plain", null, Optional.of(true));
+
+        List<DockerStreamFrame> frames = session.frames().toList().toBlocking().single();
+
+        assertThat(frames, hasSize(1));
+        assertThat(frames.get(0).type(), is(StreamType.RAW));
+        assertThat(frames.get(0).asString(), is(equalTo("$ ls\r\n")));
+    }
+
+    @Test(expected = HttpResponseException.class)
+    public void shouldThrowWhenDaemonRefusesTheUpgrade() throws Exception {
+        startDaemon((source, sink) -> {
+            try {
+                sink.writeUtf8("HTTP/1.1 404 Not Found\r\nContent-Length: 21\r\n\r\nno such exec instance").flush();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        DockerStreamSession.open(endpoint(), "/exec/123/start", "application/json", "{}".getBytes(UTF_8), Optional.empty());
+    }
+
+    private void startDaemon(BiConsumer<BufferedSource, BufferedSink> handler) throws IOException {
+        server = new ServerSocket(0);
+        Thread daemon = new Thread(() -> {
+            try (Socket socket = server.accept()) {
+                BufferedSource source = Okio.buffer(Okio.source(socket));
+                BufferedSink sink = Okio.buffer(Okio.sink(socket));
+                long contentLength = 0;
+                for (String line = source.readUtf8LineStrict(); !line.isEmpty(); line = source.readUtf8LineStrict()) {
+                    if (line.startsWith("Content-Length:")) {
+                        contentLength = Long.parseLong(line.substring("Content-Length:".length()).trim());
+                    }
+                }
+                source.skip(contentLength);
+                handler.accept(source, sink);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        daemon.setDaemon(true);
+        daemon.start();
+    }
+
+    private HttpEndpoint endpoint() {
+        return HttpEndpoint.plain(HostAndPort.using("127.0.0.1", server.getLocalPort()));
+    }
+
+    private static void writeFrame(BufferedSink sink, int stream, String payload) throws IOException {
+        byte[] bytes = payload.getBytes(UTF_8);
+        sink.writeByte(stream).writeByte(0).writeByte(0).writeByte(0).writeInt(bytes.length).write(bytes).flush();
+    }
+}
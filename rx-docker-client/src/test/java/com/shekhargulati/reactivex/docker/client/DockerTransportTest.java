@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.google.gson.Gson;
+import com.shekhargulati.reactivex.docker.client.representations.DockerVersion;
+import org.junit.Test;
+import rx.Observable;
+import rx.observers.TestSubscriber;
+
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class DockerTransportTest {
+
+    @Test
+    public void shouldNotReadTheCertPathBeforeItIsNeeded() throws Exception {
+        DockerTransport transport = DockerTransport.create("192.168.99.100:2376", Paths.get("no", "such", "dir").toString());
+
+        RxDockerClient client = RxDockerClient.newDockerClient(transport);
+
+        assertThat(client.getApiUri(), is(equalTo("https://192.168.99.100:2376")));
+        assertThat(client.transport(), is(sameInstance(transport)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReportAnInvalidCertPathWhenTheTlsMaterialIsNeeded() throws Exception {
+        DockerTransport.create("192.168.99.100:2376", Paths.get("no", "such", "dir").toString()).tls();
+    }
+
+    @Test
+    public void shouldLoadTheTlsMaterialOnce() throws Exception {
+        DockerTransport transport = DockerTransport.create("127.0.0.1:2376", Paths.get("src", "test", "resources", "certs", "client").toString());
+
+        assertThat(transport.tls().get(), is(sameInstance(transport.tls().get())));
+    }
+
+    @Test
+    public void shouldNegotiateOnceForEveryClientOfTheTransport() throws Exception {
+        DockerTransport transport = DockerTransport.create(null, null);
+        AtomicInteger versionRequests = new AtomicInteger();
+        Observable<DockerVersion> version = Observable.defer(() -> {
+            versionRequests.incrementAndGet();
+            return Observable.just(new Gson().fromJson("{\"ApiVersion\":\"1.24\"}", DockerVersion.class));
+        });
+
+        EndpointTable first = transport.negotiate(() -> version).toBlocking().single();
+        EndpointTable second = transport.negotiate(() -> version).toBlocking().single();
+
+        assertThat(versionRequests.get(), is(equalTo(1)));
+        assertThat(second, is(sameInstance(first)));
+        assertThat(transport.endpointTable(), is(sameInstance(first)));
+        assertThat(first.path("info"), is(equalTo("v1.24/info")));
+    }
+
+    @Test
+    public void shouldNegotiateAgainAfterAFailure() throws Exception {
+        DockerTransport transport = DockerTransport.create(null, null);
+
+        TestSubscriber<EndpointTable> failed = new TestSubscriber<>();
+        transport.negotiate(() -> Observable.error(new IllegalStateException("daemon down"))).subscribe(failed);
+        failed.assertError(IllegalStateException.class);
+        EndpointTable table = transport.negotiate(() -> Observable.just(new Gson().fromJson("{\"ApiVersion\":\"1.41\"}", DockerVersion.class))).toBlocking().single();
+
+        assertThat(table.path("info"), is(equalTo("v1.41/info")));
+    }
+}
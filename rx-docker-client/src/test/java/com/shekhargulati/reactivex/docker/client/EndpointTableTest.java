@@ -0,0 +1,80 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.google.gson.Gson;
+import com.shekhargulati.reactivex.docker.client.EndpointTable.Feature;
+import com.shekhargulati.reactivex.docker.client.representations.DockerVersion;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class EndpointTableTest {
+
+    @Test
+    public void shouldPinTheDaemonVersionWhenTheClientKnowsIt() throws Exception {
+        EndpointTable table = EndpointTable.negotiate(daemon("1.24", null));
+
+        assertThat(table.path("containers/json"), is(equalTo("v1.24/containers/json")));
+        assertThat(table.path("/exec/abc123/start"), is(equalTo("/v1.24/exec/abc123/start")));
+    }
+
+    @Test
+    public void shouldPinTheNewestKnownVersionForNewerDaemons() throws Exception {
+        EndpointTable table = EndpointTable.negotiate(daemon("1.43", "1.12"));
+
+        assertThat(table.version().get(), is(equalTo(EndpointTable.MAX_API_VERSION)));
+    }
+
+    @Test
+    public void shouldPinTheOldestVersionTheDaemonStillAccepts() throws Exception {
+        EndpointTable table = EndpointTable.negotiate(daemon("1.50", "1.44"));
+
+        assertThat(table.path("info"), is(equalTo("v1.44/info")));
+    }
+
+    @Test
+    public void shouldSelectFeaturesByVersion() throws Exception {
+        assertThat(EndpointTable.pinned(ApiVersion.of(1, 18)).supports(Feature.STATS_WITHOUT_STREAM), is(false));
+        assertThat(EndpointTable.pinned(ApiVersion.of(1, 24)).supports(Feature.STATS_WITHOUT_STREAM), is(true));
+        assertThat(EndpointTable.pinned(ApiVersion.of(1, 24)).supports(Feature.ONE_SHOT_STATS), is(false));
+        assertThat(EndpointTable.pinned(ApiVersion.of(1, 41)).supports(Feature.ONE_SHOT_STATS), is(true));
+    }
+
+    @Test
+    public void shouldLeaveUnversionedPathsAlone() throws Exception {
+        EndpointTable table = EndpointTable.unversioned();
+
+        assertThat(table.path("version"), is(equalTo("version")));
+        assertThat(table.supports(Feature.STATS_WITHOUT_STREAM), is(false));
+    }
+
+    private static DockerVersion daemon(String apiVersion, String minApiVersion) {
+        String json = "{\"ApiVersion\":\"" + apiVersion + "\"" + (minApiVersion == null ? "" : ",\"MinAPIVersion\":\"" + minApiVersion + "\"") + "}";
+        return new Gson().fromJson(json, DockerVersion.class);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.google.gson.Gson;
+import com.shekhargulati.reactivex.docker.client.representations.DockerStreamFrame;
+import com.shekhargulati.reactivex.docker.client.representations.ExecCreateResponse;
+import com.shekhargulati.reactivex.docker.client.representations.ExecInspectResponse;
+import com.shekhargulati.reactivex.docker.client.representations.ExecResult;
+import org.junit.Test;
+import rx.Observable;
+import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ExecRunnerTest {
+
+    private final Gson gson = new Gson();
+    private final TestScheduler scheduler = new TestScheduler();
+    private final List<String> created = new ArrayList<>();
+
+    @Test
+    public void shouldCollectOutputAndWaitForExitCode() throws Exception {
+        AtomicInteger inspections = new AtomicInteger();
+        ExecRunner runner = runner(
+                execId -> Observable.just(frame(DockerStreamFrame.StreamType.STDOUT, "ok\n"), frame(DockerStreamFrame.StreamType.STDERR, "warn\n")),
+                execId -> Observable.just(inspections.incrementAndGet() < 3 ? inspect(true, null) : inspect(false, 3)),
+                2, 1024);
+
+        TestSubscriber<ExecResult> subscriber = new TestSubscriber<>();
+        runner.run(Collections.singletonList("c1"), "health-check").subscribe(subscriber);
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        subscriber.assertCompleted();
+        ExecResult result = subscriber.getOnNextEvents().get(0);
+        assertThat(result.containerId(), is(equalTo("c1")));
+        assertThat(result.execId().get(), is(equalTo("exec-c1")));
+        assertThat(result.exitCode().get(), is(equalTo(3)));
+        assertThat(result.stdout(), is(equalTo("ok\n")));
+        assertThat(result.stderr(), is(equalTo("warn\n")));
+        assertThat(result.isTruncated(), is(false));
+        assertThat(result.isSuccessful(), is(false));
+        assertThat(inspections.get(), is(equalTo(3)));
+    }
+
+    @Test
+    public void shouldKeepOnlyMaxOutputBytes() throws Exception {
+        ExecRunner runner = runner(
+                execId -> Observable.just(frame(DockerStreamFrame.StreamType.STDOUT, "0123"), frame(DockerStreamFrame.StreamType.STDOUT, "4567")),
+                execId -> Observable.just(inspect(false, 0)),
+                2, 6);
+
+        TestSubscriber<ExecResult> subscriber = new TestSubscriber<>();
+        runner.run(Collections.singletonList("c1"), "cat", "big-file").subscribe(subscriber);
+
+        ExecResult result = subscriber.getOnNextEvents().get(0);
+        assertThat(result.stdout(), is(equalTo("012345")));
+        assertThat(result.isTruncated(), is(true));
+        assertThat(result.isSuccessful(), is(true));
+    }
+
+    @Test
+    public void shouldReportTimeoutAsFailedResult() throws Exception {
+        ExecRunner runner = runner(execId -> Observable.never(), execId -> Observable.just(inspect(false, 0)), 2, 1024)
+                .withTimeout(Duration.ofSeconds(5));
+
+        TestSubscriber<ExecResult> subscriber = new TestSubscriber<>();
+        runner.run(Collections.singletonList("c1"), "sleep", "60").subscribe(subscriber);
+        scheduler.advanceTimeBy(4, TimeUnit.SECONDS);
+        subscriber.assertNoValues();
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        subscriber.assertCompleted();
+        ExecResult result = subscriber.getOnNextEvents().get(0);
+        assertThat(result.exitCode().isPresent(), is(false));
+        assertThat(result.error().get(), is(instanceOf(TimeoutException.class)));
+    }
+
+    @Test
+    public void shouldLimitExecutionsInFlight() throws Exception {
+        ExecRunner runner = runner(execId -> Observable.never(), execId -> Observable.just(inspect(false, 0)), 2, 1024);
+
+        TestSubscriber<ExecResult> subscriber = new TestSubscriber<>();
+        runner.run(Arrays.asList("c1", "c2", "c3"), "true").subscribe(subscriber);
+
+        assertThat(created, is(equalTo(Arrays.asList("c1", "c2"))));
+        scheduler.advanceTimeBy(30, TimeUnit.SECONDS);
+        assertThat(created, is(equalTo(Arrays.asList("c1", "c2", "c3"))));
+        scheduler.advanceTimeBy(30, TimeUnit.SECONDS);
+        subscriber.assertCompleted();
+        subscriber.assertValueCount(3);
+    }
+
+    private ExecRunner runner(Function<String, Observable<DockerStreamFrame>> start,
+                              Function<String, Observable<ExecInspectResponse>> inspect,
+                              int concurrency, int maxOutputBytes) {
+        return new ExecRunner((containerId, request) -> {
+            created.add(containerId);
+            return Observable.just(gson.fromJson("{\"Id\":\"exec-" + containerId + "\"}", ExecCreateResponse.class));
+        }, start, inspect, scheduler, concurrency, Duration.ofSeconds(30), maxOutputBytes);
+    }
+
+    private ExecInspectResponse inspect(boolean running, Integer exitCode) {
+        return gson.fromJson("{\"Running\":" + running + ",\"ExitCode\":" + exitCode + "}", ExecInspectResponse.class);
+    }
+
+    private static DockerStreamFrame frame(DockerStreamFrame.StreamType type, String payload) {
+        return new DockerStreamFrame(type, ByteBuffer.wrap(payload.getBytes(UTF_8)));
+    }
+}
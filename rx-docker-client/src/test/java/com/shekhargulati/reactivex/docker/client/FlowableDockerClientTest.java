@@ -0,0 +1,140 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.shekhargulati.reactivex.docker.client.http.HttpEndpoint;
+import com.shekhargulati.reactivex.docker.client.http.HttpResponseException;
+import com.shekhargulati.reactivex.docker.client.junit.FakeDockerDaemon;
+import com.shekhargulati.reactivex.docker.client.representations.ContainerStats;
+import com.shekhargulati.reactivex.docker.client.representations.DockerStreamFrame;
+import com.shekhargulati.reactivex.docker.client.representations.DockerStreamFrame.StreamType;
+import io.reactivex.rxjava3.subscribers.TestSubscriber;
+import okio.BufferedSink;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class FlowableDockerClientTest {
+
+    private static final long ENDLESS = 1L << 30;
+
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final CountDownLatch writerStopped = new CountDownLatch(1);
+
+    @Rule
+    public FakeDockerDaemon daemon = new FakeDockerDaemon()
+            .route("GET", "/version", 200, "{\"ApiVersion\":\"1.24\"}")
+            .route("GET", "/v1\\.24/containers/abc123/stats", path -> FakeDockerDaemon.Response.streaming(200, sink ->
+                    sink.writeUtf8("{\"read\":\"2016-03-01T10:15:30.000000001Z\"}\n\n{\"read\":\"2016-03-01T10:15:31.000000001Z\"}\n")))
+            .route("GET", "/v1\\.24/containers/abc123/logs\\?.*", path -> FakeDockerDaemon.Response.streaming(200, sink -> {
+                // a size of 10 puts a newline byte in the frame header, a line based reader would split there
+                writeFrame(sink, 1, "0123456789");
+                writeFrame(sink, 2, "oops\n");
+            }))
+            .route("GET", "/v1\\.24/containers/chatty/logs\\?.*", path -> FakeDockerDaemon.Response.streaming(200, this::writeEndlessly));
+
+    @Test
+    public void shouldStreamStatsSkippingBlankLines() throws Exception {
+        TestSubscriber<ContainerStats> subscriber = client().containerStats("abc123").test();
+
+        subscriber.await(5, TimeUnit.SECONDS);
+
+        subscriber.assertComplete().assertValueCount(2);
+    }
+
+    @Test
+    public void shouldDemultiplexLogFrames() throws Exception {
+        TestSubscriber<DockerStreamFrame> subscriber = client().containerLogs("abc123").test();
+
+        subscriber.await(5, TimeUnit.SECONDS);
+
+        subscriber.assertComplete().assertValueCount(2);
+        DockerStreamFrame stdout = subscriber.values().get(0);
+        DockerStreamFrame stderr = subscriber.values().get(1);
+        assertThat(stdout.type(), is(StreamType.STDOUT));
+        assertThat(stdout.size(), is(equalTo(10)));
+        assertThat(stderr.type(), is(StreamType.STDERR));
+        assertThat(stderr.asString(), is(equalTo("oops\n")));
+    }
+
+    @Test
+    public void shouldFailWithHttpResponseExceptionForUnknownContainer() throws Exception {
+        TestSubscriber<ContainerStats> subscriber = client().containerStats("missing").test();
+
+        subscriber.await(5, TimeUnit.SECONDS);
+
+        subscriber.assertError(e -> e instanceof HttpResponseException && ((HttpResponseException) e).getCode() == 404);
+    }
+
+    @Test
+    public void shouldStopReadingWhenSubscriberStopsRequesting() throws Exception {
+        TestSubscriber<DockerStreamFrame> subscriber = client().containerLogs("chatty").test(5);
+        subscriber.awaitCount(5);
+
+        Thread.sleep(500);
+        long writtenWhileIdle = bytesWritten.get();
+        Thread.sleep(500);
+
+        subscriber.assertValueCount(5).assertNotComplete();
+        assertThat("the daemon is throttled by the socket buffers", bytesWritten.get(), is(equalTo(writtenWhileIdle)));
+        assertThat(writtenWhileIdle, is(lessThan(ENDLESS / 16)));
+
+        subscriber.cancel();
+
+        assertThat("cancelling closes the connection", writerStopped.await(5, TimeUnit.SECONDS), is(true));
+    }
+
+    private FlowableDockerClient client() {
+        return FlowableDockerClient.newFlowableClient(HttpEndpoint.plain(daemon.hostAndPort()));
+    }
+
+    private void writeEndlessly(BufferedSink sink) throws IOException {
+        byte[] payload = new byte[1024];
+        Arrays.fill(payload, (byte) 'x');
+        try {
+            while (bytesWritten.get() < ENDLESS) {
+                sink.writeByte(1).write(new byte[3]).writeInt(payload.length).write(payload);
+                sink.emit();
+                bytesWritten.addAndGet(payload.length + 8);
+            }
+        } finally {
+            writerStopped.countDown();
+        }
+    }
+
+    private static void writeFrame(BufferedSink sink, int stream, String payload) throws IOException {
+        byte[] bytes = payload.getBytes(UTF_8);
+        sink.writeByte(stream).write(new byte[3]).writeInt(bytes.length).write(bytes);
+    }
+}
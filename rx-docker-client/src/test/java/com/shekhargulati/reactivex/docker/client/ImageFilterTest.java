@@ -0,0 +1,73 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import com.shekhargulati.reactivex.docker.client.representations.DockerImage;
+import com.shekhargulati.reactivex.docker.client.utils.Gsons;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static com.shekhargulati.reactivex.docker.client.ImageFilter.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class ImageFilterTest {
+
+    @Test
+    public void shouldMatchReferencesOnTheClientForOlderDaemons() throws Exception {
+        FilterPushDown<DockerImage> pushDown = dangling(false).and(reference("busybox")).pushDown(ApiVersion.of(1, 24));
+
+        assertThat(pushDown.serverFilters(), hasEntry("dangling", Collections.singletonList("false")));
+        assertThat(pushDown.serverFilters(), not(hasKey("reference")));
+        assertThat(pushDown.residual().test(image("{\"RepoTags\":[\"busybox:latest\"]}")), is(true));
+        assertThat(pushDown.residual().test(image("{\"RepoTags\":[\"busybox-extra:latest\"]}")), is(false));
+    }
+
+    @Test
+    public void shouldPushReferencesDownForNewerDaemons() throws Exception {
+        FilterPushDown<DockerImage> pushDown = reference("busybox:*").pushDown(ApiVersion.of(1, 25));
+
+        assertThat(pushDown.hasResidual(), is(false));
+        assertThat(pushDown.serverFilters(), hasEntry("reference", Collections.singletonList("busybox:*")));
+    }
+
+    @Test
+    public void shouldTreatUntaggedImagesAsDangling() throws Exception {
+        FilterPushDown<DockerImage> pushDown = dangling(true).pushDown(ApiVersion.of(1, 15));
+
+        assertThat(pushDown.residual().test(image("{\"RepoTags\":[\"<none>:<none>\"]}")), is(true));
+        assertThat(pushDown.residual().test(image("{\"RepoTags\":[\"busybox:latest\"]}")), is(false));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldRefuseFiltersNeitherSideCanEvaluate() throws Exception {
+        since("busybox").pushDown(ApiVersion.of(1, 23));
+    }
+
+    private static DockerImage image(String json) {
+        return Gsons.dockerGson().fromJson(json, DockerImage.class);
+    }
+}
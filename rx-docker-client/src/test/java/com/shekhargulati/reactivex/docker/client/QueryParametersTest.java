@@ -27,6 +27,24 @@ public class QueryParametersTest {
         assertThat(queryParameters.toQuery(), equalTo(expectedQuery));
     }
 
+    @Test
+    public void shouldBuildQueryWithLimitOfOne() throws Exception {
+        QueryParameters queryParameters = new QueryParametersBuilder().withLimit(1).createQueryParameters();
+
+        assertThat(queryParameters.toQuery(), equalTo("?all=false&size=false&limit=1"));
+    }
+
+    @Test
+    public void shouldReplaceLimitAndDropBeforeForPage() throws Exception {
+        QueryParameters queryParameters = new QueryParametersBuilder().
+                withAll(true).
+                withBefore("beforeId").
+                withLimit(5).
+                createQueryParameters();
+
+        assertThat(queryParameters.forPage(100).toQuery(), equalTo("?all=true&size=false&limit=100"));
+    }
+
     @Test
     public void shouldBuildQueryWithBefore() throws Exception {
         QueryParameters queryParameters = new QueryParametersBuilder().
@@ -43,7 +61,7 @@ public class QueryParametersTest {
                 withFilter("exited", "1").
                 createQueryParameters();
 
-        String expectedQuery = "?all=false&size=false&exited=1;status=created";
+        String expectedQuery = "?all=false&size=false&filters=%7B%22exited%22:%5B%221%22%5D%2C%22status%22:%5B%22created%22%5D%7D";
         assertThat(queryParameters.toQuery(), equalTo(expectedQuery));
     }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import org.junit.Test;
+import rx.Observable;
+import rx.observers.TestSubscriber;
+import rx.subjects.PublishSubject;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class RequestCoalescerTest {
+
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+    private final AtomicInteger sent = new AtomicInteger();
+    private final AtomicInteger cancelled = new AtomicInteger();
+    private final PublishSubject<String> response = PublishSubject.create();
+
+    @Test
+    public void shouldShareOneRequestBetweenIdenticalCalls() throws Exception {
+        TestSubscriber<String> first = inspect("abc123");
+        TestSubscriber<String> second = inspect("abc123");
+
+        response.onNext("running");
+        response.onCompleted();
+
+        assertThat(sent.get(), is(1));
+        first.assertValue("running");
+        second.assertValue("running");
+        second.assertCompleted();
+        assertThat(coalescer.inFlight(), is(0));
+    }
+
+    @Test
+    public void shouldNotShareRequestsForDifferentKeys() throws Exception {
+        inspect("abc123");
+        inspect("def456");
+
+        assertThat(sent.get(), is(2));
+    }
+
+    @Test
+    public void shouldSendANewRequestOnceTheResponseArrived() throws Exception {
+        inspect("abc123");
+        response.onNext("running");
+        response.onCompleted();
+
+        inspect("abc123");
+
+        assertThat(sent.get(), is(2));
+    }
+
+    @Test
+    public void shouldShareErrors() throws Exception {
+        TestSubscriber<String> first = inspect("abc123");
+        TestSubscriber<String> second = inspect("abc123");
+
+        response.onError(new IllegalStateException("no such container"));
+
+        first.assertError(IllegalStateException.class);
+        second.assertError(IllegalStateException.class);
+        assertThat(sent.get(), is(1));
+    }
+
+    @Test
+    public void shouldCancelTheRequestOnlyWhenAllCallersUnsubscribed() throws Exception {
+        TestSubscriber<String> first = inspect("abc123");
+        TestSubscriber<String> second = inspect("abc123");
+
+        first.unsubscribe();
+        assertThat(cancelled.get(), is(0));
+        second.unsubscribe();
+
+        assertThat(cancelled.get(), is(1));
+        assertThat(coalescer.inFlight(), is(0));
+    }
+
+    private TestSubscriber<String> inspect(String containerId) {
+        TestSubscriber<String> subscriber = new TestSubscriber<>();
+        coalescer.coalesce("containers/" + containerId + "/json", () -> response
+                .doOnSubscribe(sent::incrementAndGet)
+                .doOnUnsubscribe(cancelled::incrementAndGet))
+                .subscribe(subscriber);
+        return subscriber;
+    }
+}
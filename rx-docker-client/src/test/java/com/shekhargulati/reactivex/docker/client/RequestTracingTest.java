@@ -0,0 +1,52 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class RequestTracingTest {
+
+    @Test
+    public void shouldBeDisabledByDefault() throws Exception {
+        assertThat(RequestTracing.disabled().getSampleRate(), is(equalTo(0.0)));
+        assertThat(RequestTracing.disabled().sample(), is(false));
+    }
+
+    @Test
+    public void shouldCapBodies() throws Exception {
+        RequestTracing tracing = RequestTracing.allRequests().withMaxBodyChars(5);
+
+        assertThat(tracing.abbreviate("{\"a\":1}"), is(equalTo("{\"a\":... (2 more chars)")));
+        assertThat(tracing.abbreviate("{}"), is(equalTo("{}")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectSampleRateAboveOne() throws Exception {
+        RequestTracing.allRequests().withSampleRate(1.5);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.cache;
+
+import org.junit.Test;
+import rx.Observable;
+import rx.observers.TestSubscriber;
+import rx.subjects.PublishSubject;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class ImageCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final List<Boolean> lookups = new ArrayList<>();
+    private final ImageCache cache = new ImageCache(1000, Duration.ofMinutes(10), clock::get);
+
+    @Test
+    public void shouldServeTheSecondCallFromTheCache() throws Exception {
+        assertThat(inspect("nginx:1.9", "sha256:abc", 100), contains("sha256:abc"));
+        assertThat(inspect("nginx:1.9", "sha256:abc", 100), contains("sha256:abc"));
+
+        assertThat(loads.get(), is(1));
+        assertThat(lookups, contains(false, true));
+        assertThat(cache.stats().hits(), is(1L));
+        assertThat(cache.stats().bytes(), is(100L));
+    }
+
+    @Test
+    public void shouldExpireResponses() throws Exception {
+        inspect("nginx:1.9", "sha256:abc", 100);
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(10));
+        inspect("nginx:1.9", "sha256:abc", 100);
+
+        assertThat(loads.get(), is(2));
+    }
+
+    @Test
+    public void shouldEvictTheLeastRecentlyUsedResponsesBeyondMaxBytes() throws Exception {
+        inspect("nginx:1.9", "sha256:abc", 400);
+        inspect("redis:3", "sha256:def", 400);
+        inspect("nginx:1.9", "sha256:abc", 400);
+
+        inspect("mysql:5", "sha256:123", 400);
+
+        assertThat(cache.stats().evictions(), is(1L));
+        assertThat(cache.stats().bytes(), is(800L));
+        inspect("nginx:1.9", "sha256:abc", 400);
+        assertThat("nginx was used last and kept", loads.get(), is(3));
+    }
+
+    @Test
+    public void shouldNotKeepResponsesLargerThanTheCache() throws Exception {
+        inspect("nginx:1.9", "sha256:abc", 2000);
+
+        assertThat(cache.stats().entries(), is(0));
+    }
+
+    @Test
+    public void shouldInvalidateTheResponsesOfAllNamesOfAnImage() throws Exception {
+        inspect("nginx", "sha256:abc", 100);
+        inspect("sha256:abc", "sha256:abc", 100);
+        inspect("redis:3", "sha256:def", 100);
+
+        cache.invalidate("sha256:abc");
+
+        assertThat(cache.stats().entries(), is(1));
+        inspect("nginx:latest", "sha256:abc", 100);
+        assertThat("nginx and nginx:latest are the same image", loads.get(), is(4));
+    }
+
+    @Test
+    public void shouldNotKeepResponsesThatRacedWithAnInvalidation() throws Exception {
+        PublishSubject<String> response = PublishSubject.create();
+        cache.cached("images/nginx/json", response, values -> Collections.singleton("nginx"), values -> 100, lookups::add).subscribe();
+
+        cache.invalidate("nginx");
+        response.onNext("sha256:abc");
+        response.onCompleted();
+
+        assertThat(cache.stats().entries(), is(0));
+    }
+
+    @Test
+    public void shouldPassThroughWhenDisabled() throws Exception {
+        Observable<String> load = Observable.just("sha256:abc");
+
+        assertThat(ImageCache.disabled().cached("images/nginx/json", load, values -> Collections.emptySet(), values -> 1, lookups::add),
+                is(sameInstance(load)));
+    }
+
+    @Test
+    public void shouldWeighResponsesByTheSizeTheyWereLoadedWith() throws Exception {
+        String json = "{\"Id\":\"sha256:abc\"}";
+        Observable<ImageCache.Weighed<String>> load = Observable.just(ImageCache.Weighed.of(Collections.singletonList("sha256:abc"), json.length()));
+
+        List<String> first = cache.cached("images/nginx/json", load, values -> Collections.singleton("nginx"), lookups::add).toList().toBlocking().single();
+        List<String> second = cache.cached("images/nginx/json", load, values -> Collections.singleton("nginx"), lookups::add).toList().toBlocking().single();
+
+        assertThat(first, contains("sha256:abc"));
+        assertThat(second, contains("sha256:abc"));
+        assertThat(lookups, contains(false, true));
+        assertThat(cache.stats().bytes(), is((long) json.length()));
+    }
+
+    private List<String> inspect(String image, String id, long bytes) {
+        Observable<String> load = Observable.defer(() -> {
+            loads.incrementAndGet();
+            return Observable.just(id);
+        });
+        TestSubscriber<String> subscriber = new TestSubscriber<>();
+        cache.cached("images/" + ImageCache.normalize(image) + "/json", load, values -> Arrays.asList(image, values.get(0)), values -> bytes, lookups::add)
+                .subscribe(subscriber);
+        return subscriber.getOnNextEvents();
+    }
+}
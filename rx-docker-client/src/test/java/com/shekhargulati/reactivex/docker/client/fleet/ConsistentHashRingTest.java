@@ -0,0 +1,95 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.fleet;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class ConsistentHashRingTest {
+
+    private final List<String> hosts = IntStream.range(0, 10).mapToObj(i -> "tcp://10.0.0." + i + ":2376").collect(Collectors.toList());
+
+    @Test
+    public void shouldSpreadKeysEvenlyOverHosts() throws Exception {
+        ConsistentHashRing ring = ConsistentHashRing.of(hosts);
+
+        Map<String, Integer> keysPerHost = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            keysPerHost.merge(ring.hostFor("container-" + i), 1, Integer::sum);
+        }
+
+        assertThat(keysPerHost.keySet(), hasSize(10));
+        assertThat(Collections.min(keysPerHost.values()), is(greaterThan(7_000)));
+        assertThat(Collections.max(keysPerHost.values()), is(lessThan(13_000)));
+    }
+
+    @Test
+    public void shouldOnlyMoveKeysOfTheAddedHost() throws Exception {
+        ConsistentHashRing ring = ConsistentHashRing.of(hosts);
+        ConsistentHashRing grown = ring.withHost("tcp://10.0.0.10:2376");
+
+        int moved = 0;
+        for (int i = 0; i < 10_000; i++) {
+            String before = ring.hostFor("container-" + i);
+            String after = grown.hostFor("container-" + i);
+            if (!before.equals(after)) {
+                assertThat(after, is(equalTo("tcp://10.0.0.10:2376")));
+                moved++;
+            }
+        }
+        assertThat(moved, is(both(greaterThan(500)).and(lessThan(1_500))));
+    }
+
+    @Test
+    public void shouldNotDependOnTheOrderOfHosts() throws Exception {
+        List<String> reversed = new ArrayList<>(hosts);
+        Collections.reverse(reversed);
+
+        assertThat(ConsistentHashRing.of(reversed).hostFor("web-1"), is(equalTo(ConsistentHashRing.of(hosts).hostFor("web-1"))));
+    }
+
+    @Test
+    public void shouldListDistinctHostsStartingWithTheOwner() throws Exception {
+        ConsistentHashRing ring = ConsistentHashRing.of(hosts);
+
+        List<String> preference = ring.hostsFor("web-1", 3);
+
+        assertThat(preference, hasSize(3));
+        assertThat(new HashSet<>(preference), hasSize(3));
+        assertThat(preference.get(0), is(equalTo(ring.hostFor("web-1"))));
+        assertThat(ring.hostsFor("web-1", 20), hasSize(10));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldFailToRouteWithoutHosts() throws Exception {
+        ConsistentHashRing.of(Collections.emptyList()).hostFor("web-1");
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.fleet;
+
+import com.shekhargulati.reactivex.docker.client.RxDockerClient;
+import com.shekhargulati.reactivex.docker.client.representations.*;
+import com.shekhargulati.reactivex.docker.client.utils.Gsons;
+import org.junit.Test;
+import rx.Observable;
+import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class ContainerPlacerTest {
+
+    private static final long GB = 1L << 30;
+
+    private final Map<String, HostLoad> samples = new HashMap<>();
+    private final List<String> createdOn = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    public void shouldSpreadContainersOverTheLeastUtilizedHosts() throws Exception {
+        samples.put("a", load("a", 4, 16 * GB, 8 * GB));
+        samples.put("b", load("b", 4, 16 * GB, 2 * GB));
+        ContainerPlacer placer = placer(PlacementPolicy.spread());
+
+        for (int i = 0; i < 4; i++) {
+            placer.createContainerObs(request(2 * GB)).toBlocking().single();
+        }
+
+        assertThat(createdOn, contains("b", "b", "b", "a"));
+        assertThat(placer.loads().get("b").memoryUsed(), is(equalTo(8 * GB)));
+    }
+
+    @Test
+    public void shouldPackContainersOnTheMostUtilizedHostThatFits() throws Exception {
+        samples.put("a", load("a", 4, 16 * GB, 12 * GB));
+        samples.put("b", load("b", 4, 16 * GB, 2 * GB));
+        ContainerPlacer placer = placer(PlacementPolicy.binPack());
+
+        for (int i = 0; i < 3; i++) {
+            placer.createContainerObs(request(2 * GB)).toBlocking().single();
+        }
+
+        assertThat(createdOn, contains("a", "a", "b"));
+    }
+
+    @Test
+    public void shouldNotPlaceOnHostsThatCouldNotBeSampled() throws Exception {
+        samples.put("a", load("a", 4, 16 * GB, 0));
+        ContainerPlacer placer = placer(PlacementPolicy.spread());
+
+        placer.refreshObs().toBlocking().single();
+
+        assertThat(placer.loads().keySet(), contains("a"));
+        assertThat(placer.choose(request(GB)), is(Optional.of("a")));
+    }
+
+    @Test
+    public void shouldFailWhenNoHostHasEnoughMemory() throws Exception {
+        samples.put("a", load("a", 4, 16 * GB, 15 * GB));
+        samples.put("b", load("b", 4, 16 * GB, 15 * GB));
+        TestSubscriber<Placement> subscriber = new TestSubscriber<>();
+
+        placer(PlacementPolicy.spread()).createContainerObs(request(2 * GB)).subscribe(subscriber);
+        subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS);
+
+        subscriber.assertError(IllegalStateException.class);
+        assertThat(createdOn, is(empty()));
+    }
+
+    @Test
+    public void shouldSampleMemoryAndCpuOfRunningContainers() throws Exception {
+        RxDockerClient client = new FakeRxDockerClient()
+                .answer("infoObs", args -> Observable.just(json("{\"NCPU\":4,\"MemTotal\":" + 16 * GB + "}", DockerInfo.class)))
+                .answer("listRunningContainerObs", args -> Observable.just(json("{\"Id\":\"c1\"}", DockerContainer.class), json("{\"Id\":\"c2\"}", DockerContainer.class)))
+                .answer("containerStatsSnapshotObs", args -> Observable.just(stats(GB, 100, 50)))
+                .build();
+
+        HostLoad load = ContainerPlacer.sample("a", client, 2, Duration.ofSeconds(5), new HashMap<>()).toBlocking().single();
+
+        assertThat(load.containersRunning(), is(2));
+        assertThat(load.containersUnsampled(), is(0));
+        assertThat(load.memoryUsed(), is(equalTo(2 * GB)));
+        // each container used half of the time of a 2 CPU host between the two readings
+        assertThat(load.cpusUsed(), is(closeTo(2.0, 0.001)));
+    }
+
+    @Test
+    public void shouldMeasureTheCpuOfOneShotSnapshotsSinceThePreviousSample() throws Exception {
+        AtomicInteger tick = new AtomicInteger(50);
+        RxDockerClient client = new FakeRxDockerClient()
+                .answer("infoObs", args -> Observable.just(json("{\"NCPU\":2,\"MemTotal\":" + 16 * GB + "}", DockerInfo.class)))
+                .answer("listRunningContainerObs", args -> Observable.just(json("{\"Id\":\"c1\"}", DockerContainer.class)))
+                .answer("containerStatsSnapshotObs", args -> Observable.just(stats(GB, tick.get(), 0)))
+                .build();
+        Map<String, CpuStats> previousCpu = new HashMap<>();
+
+        HostLoad first = ContainerPlacer.sample("a", client, 2, Duration.ofSeconds(5), previousCpu).toBlocking().single();
+        tick.set(100);
+        HostLoad second = ContainerPlacer.sample("a", client, 2, Duration.ofSeconds(5), previousCpu).toBlocking().single();
+
+        assertThat(first.cpusUsed(), is(0.0));
+        assertThat(second.cpusUsed(), is(closeTo(1.0, 0.001)));
+    }
+
+    @Test
+    public void shouldCountContainersWhoseStatsCouldNotBeRead() throws Exception {
+        RxDockerClient client = new FakeRxDockerClient()
+                .answer("infoObs", args -> Observable.just(json("{\"NCPU\":4,\"MemTotal\":" + 16 * GB + "}", DockerInfo.class)))
+                .answer("listRunningContainerObs", args -> Observable.just(json("{\"Id\":\"c1\"}", DockerContainer.class),
+                        json("{\"Id\":\"slow\"}", DockerContainer.class), json("{\"Id\":\"broken\"}", DockerContainer.class)))
+                .answer("containerStatsSnapshotObs", args -> {
+                    if ("slow".equals(args[0])) {
+                        return Observable.never();
+                    }
+                    return "broken".equals(args[0]) ? Observable.error(new IllegalStateException("no stats")) : Observable.just(stats(GB, 100, 50));
+                })
+                .build();
+
+        HostLoad load = ContainerPlacer.sample("a", client, 2, Duration.ofMillis(100), new HashMap<>()).toBlocking().single();
+
+        assertThat(load.containersRunning(), is(3));
+        assertThat(load.containersUnsampled(), is(2));
+        assertThat(load.memoryUsed(), is(equalTo(GB)));
+    }
+
+    private ContainerPlacer placer(PlacementPolicy policy) {
+        Map<String, RxDockerClient> clients = new LinkedHashMap<>();
+        for (String host : Arrays.asList("a", "b")) {
+            clients.put(host, new FakeRxDockerClient().answer("createContainerObs", args -> {
+                createdOn.add(host);
+                return Observable.just(json("{\"Id\":\"" + UUID.randomUUID() + "\"}", DockerContainerResponse.class));
+            }).build());
+        }
+        return new ContainerPlacer(DockerFleetClient.create(clients), policy, Duration.ofSeconds(5), Duration.ofSeconds(5),
+                (host, client) -> samples.containsKey(host) ? Observable.just(samples.get(host)) : Observable.error(new IllegalStateException("down")),
+                Schedulers.computation());
+    }
+
+    private static HostLoad load(String host, int cpus, long memTotal, long memoryUsed) {
+        return new HostLoad(host, cpus, memTotal, 0, 0, memoryUsed, 0, Instant.now());
+    }
+
+    private static DockerContainerRequest request(long memory) {
+        return json("{\"Image\":\"busybox\",\"HostConfig\":{\"Memory\":" + memory + "}}", DockerContainerRequest.class);
+    }
+
+    /**
+     * @param pretick the tick of the previous reading, 0 for a one-shot snapshot without one
+     */
+    private static ContainerStats stats(long memory, long tick, long pretick) {
+        return json("{\"memory_stats\":{\"usage\":" + memory + "}," +
+                "\"cpu_stats\":{\"cpu_usage\":{\"total_usage\":" + tick * 50 + ",\"percpu_usage\":[0,0]},\"system_cpu_usage\":" + tick * 100 + "}," +
+                "\"precpu_stats\":{\"cpu_usage\":{\"total_usage\":" + pretick * 50 + "},\"system_cpu_usage\":" + pretick * 100 + "}}", ContainerStats.class);
+    }
+
+    private static <T> T json(String json, Class<T> type) {
+        return Gsons.dockerGson().fromJson(json, type);
+    }
+}
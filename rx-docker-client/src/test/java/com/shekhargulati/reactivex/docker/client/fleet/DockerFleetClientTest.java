@@ -0,0 +1,127 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.fleet;
+
+import com.shekhargulati.reactivex.docker.client.QueryParameters;
+import com.shekhargulati.reactivex.docker.client.RxDockerClient;
+import com.shekhargulati.reactivex.docker.client.representations.DockerContainer;
+import com.shekhargulati.reactivex.docker.client.utils.Gsons;
+import org.junit.Test;
+import rx.Observable;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class DockerFleetClientTest {
+
+    @Test
+    public void shouldTagResultsWithTheirHost() throws Exception {
+        DockerFleetClient fleet = fleet(hosts("a", containers("a1", "a2"), "b", containers("b1")));
+
+        Map<String, List<String>> idsByHost = fleet.listContainersObs(new QueryParameters()).toList().toBlocking().single().stream()
+                .collect(Collectors.toMap(HostResponse::host, r -> r.values().stream().map(DockerContainer::getId).collect(Collectors.toList())));
+
+        assertThat(idsByHost, hasEntry("a", Arrays.asList("a1", "a2")));
+        assertThat(idsByHost, hasEntry("b", Arrays.asList("b1")));
+    }
+
+    @Test
+    public void shouldReportSlowHostsWithoutWaitingForThem() throws Exception {
+        DockerFleetClient fleet = fleet(hosts("fast", containers("f1"), "slow", containers("s1").delay(1, TimeUnit.MINUTES)))
+                .withTimeout(Duration.ofMillis(200));
+
+        long startedAt = System.nanoTime();
+        Map<String, HostResponse<DockerContainer>> responses = fleet.listContainersObs(new QueryParameters()).toMap(HostResponse::host).toBlocking().single();
+
+        assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startedAt), is(lessThan(5L)));
+        assertThat(responses.get("fast").isSuccessful(), is(true));
+        assertThat(responses.get("slow").isSuccessful(), is(false));
+        assertThat(responses.get("slow").error().get(), is(instanceOf(TimeoutException.class)));
+    }
+
+    @Test
+    public void shouldTimeOutHostsThatKeepAnsweringTooSlowly() throws Exception {
+        Observable<DockerContainer> trickling = containers("t1", "t2", "t3", "t4", "t5", "t6", "t7", "t8", "t9", "t10")
+                .concatMap(c -> Observable.just(c).delay(100, TimeUnit.MILLISECONDS));
+        DockerFleetClient fleet = fleet(hosts("fast", containers("f1"), "trickling", trickling))
+                .withTimeout(Duration.ofMillis(300));
+
+        Map<String, HostResponse<DockerContainer>> responses = fleet.listContainersObs(new QueryParameters()).toMap(HostResponse::host).toBlocking().single();
+
+        assertThat(responses.get("fast").isSuccessful(), is(true));
+        assertThat(responses.get("trickling").error().get(), is(instanceOf(TimeoutException.class)));
+        assertThat(responses.get("trickling").duration().toMillis(), is(lessThan(1_000L)));
+    }
+
+    @Test
+    public void shouldQueryHostsConcurrently() throws Exception {
+        Map<String, RxDockerClient> clients = new LinkedHashMap<>();
+        for (int i = 0; i < 20; i++) {
+            clients.put("host-" + i, client(containers("c" + i).delay(300, TimeUnit.MILLISECONDS)));
+        }
+
+        long startedAt = System.nanoTime();
+        List<HostResponse<DockerContainer>> responses = fleet(clients).listContainersObs(new QueryParameters()).toList().toBlocking().single();
+
+        assertThat(responses, hasSize(20));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt), is(lessThan(3_000L)));
+    }
+
+    @Test
+    public void shouldRouteContainerNamesConsistently() throws Exception {
+        DockerFleetClient fleet = fleet(hosts("a", containers(), "b", containers()));
+
+        assertThat(fleet.hostFor("web-1"), is(equalTo(fleet.ring().hostFor("web-1"))));
+        assertThat(fleet.withoutHost("a").hostFor("web-1"), is(equalTo("b")));
+    }
+
+    private static DockerFleetClient fleet(Map<String, RxDockerClient> clients) {
+        return DockerFleetClient.create(clients);
+    }
+
+    private static Map<String, RxDockerClient> hosts(String host1, Observable<DockerContainer> containers1, String host2, Observable<DockerContainer> containers2) {
+        Map<String, RxDockerClient> clients = new LinkedHashMap<>();
+        clients.put(host1, client(containers1));
+        clients.put(host2, client(containers2));
+        return clients;
+    }
+
+    private static RxDockerClient client(Observable<DockerContainer> containers) {
+        return new FakeRxDockerClient().answer("listContainersObs", args -> containers).build();
+    }
+
+    private static Observable<DockerContainer> containers(String... ids) {
+        return Observable.from(ids).map(id -> Gsons.dockerGson().fromJson("{\"Id\":\"" + id + "\"}", DockerContainer.class));
+    }
+}
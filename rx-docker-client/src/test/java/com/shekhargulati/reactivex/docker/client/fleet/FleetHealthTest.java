@@ -0,0 +1,239 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.fleet;
+
+import com.shekhargulati.reactivex.docker.client.RxDockerClient;
+import com.shekhargulati.reactivex.docker.client.fleet.HostHealth.CircuitState;
+import com.shekhargulati.reactivex.docker.client.representations.DockerVersion;
+import com.shekhargulati.reactivex.docker.client.utils.Gsons;
+import com.shekhargulati.reactivex.rxokhttp.HttpStatus;
+import com.shekhargulati.reactivex.rxokhttp.ServiceException;
+import org.junit.Test;
+import rx.Observable;
+import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class FleetHealthTest {
+
+    private static final Duration OPEN = Duration.ofSeconds(30);
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final Map<String, AtomicInteger> calls = new HashMap<>();
+    private final Set<String> down = new HashSet<>();
+
+    @Test
+    public void shouldOpenTheCircuitAfterConsecutiveFailures() throws Exception {
+        down.add("a");
+        FleetHealth health = health(fleet("a", "b"), OptionalDouble.empty());
+
+        for (int i = 0; i < 3; i++) {
+            readVersion(health, "a").awaitTerminalEvent();
+        }
+        TestSubscriber<DockerVersion> failFast = readVersion(health, "a");
+        failFast.awaitTerminalEvent();
+
+        failFast.assertError(HostUnavailableException.class);
+        assertThat(calls.get("a").get(), is(3));
+        assertThat(health.health("a").circuitState(), is(CircuitState.OPEN));
+        assertThat(health.availableHosts(), contains("b"));
+    }
+
+    @Test
+    public void shouldCloseTheCircuitWhenTheProbeSucceeds() throws Exception {
+        down.add("a");
+        FleetHealth health = health(fleet("a"), OptionalDouble.empty());
+        for (int i = 0; i < 3; i++) {
+            readVersion(health, "a").awaitTerminalEvent();
+        }
+        down.remove("a");
+
+        clock.addAndGet(OPEN.toNanos());
+        health.pingObs().toBlocking().single();
+
+        assertThat(health.health("a").circuitState(), is(CircuitState.CLOSED));
+        readVersion(health, "a").assertNoErrors();
+    }
+
+    @Test
+    public void shouldFailOverToTheNextHostOfTheRing() throws Exception {
+        DockerFleetClient fleet = fleet("a", "b", "c");
+        String owner = fleet.hostFor("web-1");
+        down.add(owner);
+        FleetHealth health = health(fleet, OptionalDouble.empty());
+
+        DockerVersion version = health.readRouted("web-1", RxDockerClient::serverVersionObs).toBlocking().single();
+
+        assertThat(version.version(), is(not(equalTo(owner))));
+        assertThat(version.version(), is(equalTo(fleet.ring().hostsFor("web-1", 2).get(1))));
+    }
+
+    @Test
+    public void shouldHedgeReadsSlowerThanTheLatencyPercentile() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        RxDockerClient client = new FakeRxDockerClient().answer("serverVersionObs", args -> {
+            Observable<DockerVersion> version = Observable.just(version("a"));
+            // the first request after warming up stalls, the hedged one does not
+            return requests.incrementAndGet() == 21 ? version.delay(1, TimeUnit.MINUTES) : version;
+        }).build();
+        FleetHealth health = health(DockerFleetClient.create(Collections.singletonMap("a", client)), OptionalDouble.of(95));
+        for (int i = 0; i < 20; i++) {
+            health.read("a", RxDockerClient::serverVersionObs).toBlocking().single();
+        }
+        clock.addAndGet(WINDOW.toNanos());
+
+        long startedAt = System.nanoTime();
+        health.read("a", RxDockerClient::serverVersionObs).toBlocking().single();
+
+        assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startedAt), is(lessThan(5L)));
+        assertThat(requests.get(), is(22));
+        assertThat(health.health("a").hedges(), is(1L));
+    }
+
+    @Test
+    public void shouldHedgeRoutedReadsToTheNextHostOfTheRing() throws Exception {
+        Map<String, AtomicInteger> requests = new HashMap<>();
+        Map<String, RxDockerClient> clients = new LinkedHashMap<>();
+        for (String host : Arrays.asList("a", "b")) {
+            requests.put(host, new AtomicInteger());
+            clients.put(host, new FakeRxDockerClient().answer("serverVersionObs", args -> {
+                Observable<DockerVersion> version = Observable.just(version(host));
+                return requests.get(host).incrementAndGet() == 21 ? version.delay(1, TimeUnit.MINUTES) : version;
+            }).build());
+        }
+        DockerFleetClient fleet = DockerFleetClient.create(clients);
+        FleetHealth health = health(fleet, OptionalDouble.of(95));
+        List<String> hosts = fleet.ring().hostsFor("web", 2);
+        for (int i = 0; i < 20; i++) {
+            health.read(hosts.get(0), RxDockerClient::serverVersionObs).toBlocking().single();
+        }
+        clock.addAndGet(WINDOW.toNanos());
+
+        DockerVersion version = health.readRouted("web", RxDockerClient::serverVersionObs).toBlocking().single();
+
+        assertThat(version, is(equalTo(version(hosts.get(1)))));
+        assertThat(requests.get(hosts.get(1)).get(), is(1));
+        assertThat(health.health(hosts.get(1)).hedges(), is(1L));
+    }
+
+    @Test
+    public void shouldAnswerASlowRoutedReadRatherThanTheFastErrorOfItsHedge() throws Exception {
+        List<String> hosts = DockerFleetClient.create(clients("a", "b", host -> Observable.just(version(host)))).ring().hostsFor("web", 2);
+        AtomicInteger requests = new AtomicInteger();
+        DockerFleetClient fleet = DockerFleetClient.create(clients("a", "b", host -> {
+            if (!host.equals(hosts.get(0))) {
+                return Observable.error(new ServiceException("no such container: web", 404));
+            }
+            Observable<DockerVersion> version = Observable.just(version(host));
+            return requests.incrementAndGet() == 21 ? version.delay(300, TimeUnit.MILLISECONDS) : version;
+        }));
+        FleetHealth health = health(fleet, OptionalDouble.of(95));
+        for (int i = 0; i < 20; i++) {
+            health.read(hosts.get(0), RxDockerClient::serverVersionObs).toBlocking().single();
+        }
+        clock.addAndGet(WINDOW.toNanos());
+
+        DockerVersion version = health.readRouted("web", RxDockerClient::serverVersionObs).toBlocking().single();
+
+        assertThat(version, is(equalTo(version(hosts.get(0)))));
+        assertThat(health.health(hosts.get(1)).hedges(), is(1L));
+    }
+
+    @Test
+    public void shouldReportTheErrorOfTheFirstRequestWhenItsHedgeFailsToo() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        RxDockerClient client = new FakeRxDockerClient().answer("serverVersionObs", args -> {
+            int request = requests.incrementAndGet();
+            if (request == 21) {
+                return Observable.<DockerVersion>error(new IOException("connection reset")).delaySubscription(300, TimeUnit.MILLISECONDS);
+            }
+            if (request > 21) {
+                return Observable.error(new IllegalStateException("hedge failed"));
+            }
+            // answers take 100ms, so the hedged request surely starts after the first one
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+            return Observable.just(version("a"));
+        }).build();
+        FleetHealth health = health(DockerFleetClient.create(Collections.singletonMap("a", client)), OptionalDouble.of(95));
+        for (int i = 0; i < 20; i++) {
+            health.read("a", RxDockerClient::serverVersionObs).toBlocking().single();
+        }
+        clock.addAndGet(WINDOW.toNanos());
+
+        TestSubscriber<DockerVersion> subscriber = readVersion(health, "a");
+
+        subscriber.assertNoValues();
+        assertThat(requests.get(), is(22));
+        assertThat(subscriber.getOnErrorEvents().get(0), is(instanceOf(IOException.class)));
+    }
+
+    private Map<String, RxDockerClient> clients(String first, String second, Function<String, Observable<DockerVersion>> version) {
+        Map<String, RxDockerClient> clients = new LinkedHashMap<>();
+        for (String host : Arrays.asList(first, second)) {
+            clients.put(host, new FakeRxDockerClient().answer("serverVersionObs", args -> version.apply(host)).build());
+        }
+        return clients;
+    }
+
+    private TestSubscriber<DockerVersion> readVersion(FleetHealth health, String host) {
+        TestSubscriber<DockerVersion> subscriber = new TestSubscriber<>();
+        health.read(host, RxDockerClient::serverVersionObs).toBlocking().subscribe(subscriber);
+        return subscriber;
+    }
+
+    private FleetHealth health(DockerFleetClient fleet, OptionalDouble hedgePercentile) {
+        return new FleetHealth(fleet, 3, OPEN, Duration.ofSeconds(5), WINDOW, hedgePercentile, Schedulers.computation(), clock::get);
+    }
+
+    private DockerFleetClient fleet(String... hosts) {
+        Map<String, RxDockerClient> clients = new LinkedHashMap<>();
+        for (String host : hosts) {
+            calls.put(host, new AtomicInteger());
+            clients.put(host, new FakeRxDockerClient()
+                    .answer("serverVersionObs", args -> {
+                        calls.get(host).incrementAndGet();
+                        return down.contains(host) ? Observable.error(new IOException("connection refused")) : Observable.just(version(host));
+                    })
+                    .answer("pingObs", args -> Observable.just(down.contains(host) ? HttpStatus.of(500, "down") : HttpStatus.of(200, "OK")))
+                    .build());
+        }
+        return DockerFleetClient.create(clients);
+    }
+
+    private static DockerVersion version(String host) {
+        return Gsons.dockerGson().fromJson("{\"Version\":\"" + host + "\"}", DockerVersion.class);
+    }
+}
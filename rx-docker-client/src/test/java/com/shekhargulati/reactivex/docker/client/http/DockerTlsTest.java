@@ -0,0 +1,87 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.http;
+
+import com.shekhargulati.reactivex.docker.client.junit.FakeDockerDaemon;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class DockerTlsTest {
+
+    private static final Path CLIENT_CERTS = Paths.get("src", "test", "resources", "certs", "client");
+    private static final Path DAEMON_CERTS = Paths.get("src", "test", "resources", "certs", "daemon");
+
+    @Rule
+    public FakeDockerDaemon daemon = new FakeDockerDaemon()
+            .secured(DockerTls.fromCertPath(DAEMON_CERTS).sslContext())
+            .route("GET", "/_ping", 200, "OK");
+
+    @Test
+    public void shouldTalkToADaemonRequiringAClientCertificate() throws Exception {
+        DockerTls tls = DockerTls.fromCertPath(CLIENT_CERTS);
+
+        assertThat(ping(HttpEndpoint.secure(daemon.hostAndPort(), tls)), is(equalTo(200)));
+        assertThat(tls.stats().handshakes(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void shouldResumeTheSessionOfAnEarlierConnection() throws Exception {
+        DockerTls tls = DockerTls.fromCertPath(CLIENT_CERTS);
+
+        ping(HttpEndpoint.secure(daemon.hostAndPort(), tls));
+        ping(HttpEndpoint.secure(daemon.hostAndPort(), tls.withProtocols("TLSv1.2", "TLSv1.3")));
+
+        assertThat(tls.stats().handshakes(), is(equalTo(2L)));
+        assertThat(tls.stats().resumed(), is(equalTo(1L)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnsupportedCipherSuites() throws Exception {
+        DockerTls.fromCertPath(CLIENT_CERTS).withCipherSuites("TLS_NOT_A_CIPHER");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectAMissingCertPath() throws Exception {
+        DockerTls.fromCertPath(Paths.get("no", "such", "dir"));
+    }
+
+    private static int ping(HttpEndpoint endpoint) throws IOException {
+        try (HttpConnection connection = endpoint.connect()) {
+            connection.writeRequest("GET", "/_ping", Collections.emptyMap(), null);
+            ResponseHead head = connection.readResponseHead();
+            connection.readBody(head);
+            return head.code();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.http;
+
+import okhttp3.HttpUrl;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class EndpointTemplateTest {
+
+    @Test
+    public void shouldExpandPlaceholders() throws Exception {
+        EndpointTemplate template = EndpointTemplate.compile("containers/%s/stop?t=%s");
+
+        assertThat(template.placeholders(), is(equalTo(2)));
+        assertThat(template.expand("abc123", 10), is(equalTo("containers/abc123/stop?t=10")));
+    }
+
+    @Test
+    public void shouldEncodePathSegments() throws Exception {
+        EndpointTemplate template = EndpointTemplate.compile("images/%s/json");
+
+        assertThat(template.expand("ubuntu:14.04"), is(equalTo("images/ubuntu:14.04/json")));
+        assertThat(template.expand("my repo/../x"), is(equalTo("images/my%20repo%2F..%2Fx/json")));
+    }
+
+    @Test
+    public void shouldEncodeQueryValues() throws Exception {
+        EndpointTemplate template = EndpointTemplate.compile("containers/%s/rename?name=%s");
+
+        assertThat(template.expand("abc", "a&b=c/d \u00e9"), is(equalTo("containers/abc/rename?name=a%26b%3Dc/d%20%C3%A9")));
+    }
+
+    @Test
+    public void shouldEncodeReservedCharactersOfContainerNames() throws Exception {
+        EndpointTemplate template = EndpointTemplate.compile("containers/create?name=%s");
+
+        assertThat(template.expand("web app&x=1#+2"), is(equalTo("containers/create?name=web%20app%26x%3D1%23%2B2")));
+    }
+
+    @Test
+    public void shouldBuildUrl() throws Exception {
+        HttpUrl url = EndpointTemplate.compile("/exec/%s/json").toUrl(HttpUrl.parse("http://127.0.0.1:2375/"), "e1");
+
+        assertThat(url.toString(), is(equalTo("http://127.0.0.1:2375/exec/e1/json")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectWrongNumberOfArguments() throws Exception {
+        EndpointTemplate.compile("containers/%s/json").expand("a", "b");
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class DockerEventsTest {
+
+    private static final String PREFIX = "com.shekhargulati.reactivex.docker.";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldRecordRequestAndExportEvents() throws Exception {
+        List<RecordedEvent> events = record(recording -> {
+            recording.enable(PREFIX + "DockerRequest");
+            recording.enable(PREFIX + "DockerExport");
+        }, () -> {
+            DockerEvents.beginRequest("containers/%s/json", "abc123").end(200, 0, 512);
+            DockerEvents.beginExport("containers/%s/export", "abc123", Paths.get("abc123.tar")).end(4096);
+        });
+
+        assertThat(events, hasSize(2));
+        RecordedEvent request = events.stream().filter(e -> e.getEventType().getName().equals(PREFIX + "DockerRequest")).findFirst().get();
+        assertThat(request.getString("endpoint"), is(equalTo("containers/%s/json")));
+        assertThat(request.getString("resourceId"), is(equalTo("abc123")));
+        assertThat(request.getInt("statusCode"), is(equalTo(200)));
+        assertThat(request.getLong("bytesIn"), is(equalTo(512L)));
+        RecordedEvent export = events.stream().filter(e -> e.getEventType().getName().equals(PREFIX + "DockerExport")).findFirst().get();
+        assertThat(export.getString("path"), is(equalTo("abc123.tar")));
+        assertThat(export.getLong("bytes"), is(equalTo(4096L)));
+    }
+
+    @Test
+    public void shouldNotRecordStreamChunksUnlessEnabled() throws Exception {
+        List<RecordedEvent> events = record(recording -> {
+        }, () -> DockerEvents.streamChunk("containers/%s/logs", "abc123", 1024));
+
+        assertThat(events, is(empty()));
+
+        events = record(recording -> recording.enable(PREFIX + "DockerStreamChunk"),
+                () -> DockerEvents.streamChunk("containers/%s/logs", "abc123", 1024));
+
+        assertThat(events, hasSize(1));
+        assertThat(events.get(0).getLong("bytes"), is(equalTo(1024L)));
+    }
+
+    private List<RecordedEvent> record(java.util.function.Consumer<Recording> settings, Runnable action) throws Exception {
+        Path file = folder.newFile().toPath();
+        try (Recording recording = new Recording()) {
+            settings.accept(recording);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().startsWith(PREFIX))
+                .collect(toList());
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.junit;
+
+import com.shekhargulati.reactivex.docker.client.HostAndPort;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.Okio;
+import org.junit.rules.ExternalResource;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLServerSocket;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A minimal in-process Docker daemon answering canned JSON responses over keep-alive HTTP/1.1 connections. Every
+ * connection is served by its own thread.
+ */
+public class FakeDockerDaemon extends ExternalResource {
+
+    private final List<Route> routes = new CopyOnWriteArrayList<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final List<Socket> sockets = new CopyOnWriteArrayList<>();
+    private SSLContext sslContext;
+    private ServerSocket server;
+
+    /**
+     * Answers requests whose method matches and whose path, including the query string, matches the regex.
+     */
+    public FakeDockerDaemon route(String method, String pathRegex, int code, String json) {
+        return route(method, pathRegex, path -> new Response(code, json));
+    }
+
+    public FakeDockerDaemon route(String method, String pathRegex, Function<String, Response> handler) {
+        routes.add(new Route(method, Pattern.compile(pathRegex), handler));
+        return this;
+    }
+
+    /**
+     * Serves TLS with the key and certificate of <code>sslContext</code>, requiring a client certificate like a daemon
+     * started with <code>--tlsverify</code>.
+     */
+    public FakeDockerDaemon secured(SSLContext sslContext) {
+        this.sslContext = sslContext;
+        return this;
+    }
+
+    public HostAndPort hostAndPort() {
+        return HostAndPort.using(server.getInetAddress().getHostAddress(), server.getLocalPort());
+    }
+
+    public int connectionsAccepted() {
+        return connections.get();
+    }
+
+    public int requestsServed() {
+        return requests.get();
+    }
+
+    /**
+     * Closes every open connection, like a daemon restart would.
+     */
+    public void dropConnections() throws IOException {
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+        sockets.clear();
+    }
+
+    @Override
+    protected void before() throws Throwable {
+        if (sslContext != null) {
+            SSLServerSocket sslServer = (SSLServerSocket) sslContext.getServerSocketFactory().createServerSocket(0, 1024, InetAddress.getLoopbackAddress());
+            sslServer.setNeedClientAuth(true);
+            server = sslServer;
+        } else {
+            server = new ServerSocket(0, 1024, InetAddress.getLoopbackAddress());
+        }
+        Thread acceptor = new Thread(this::accept, "fake-docker-daemon");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    @Override
+    protected void after() {
+        try {
+            server.close();
+            dropConnections();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                connections.incrementAndGet();
+                sockets.add(socket);
+                Thread worker = new Thread(() -> serve(socket), "fake-docker-daemon-connection");
+                worker.setDaemon(true);
+                worker.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (BufferedSource source = Okio.buffer(Okio.source(socket)); BufferedSink sink = Okio.buffer(Okio.sink(socket))) {
+            while (true) {
+                String requestLine = source.readUtf8Line();
+                if (requestLine == null) {
+                    return;
+                }
+                String[] parts = requestLine.split(" ");
+                long contentLength = 0;
+                for (String line = source.readUtf8LineStrict(); !line.isEmpty(); line = source.readUtf8LineStrict()) {
+                    if (line.toLowerCase().startsWith("content-length:")) {
+                        contentLength = Long.parseLong(line.substring("content-length:".length()).trim());
+                    }
+                }
+                source.skip(contentLength);
+                Response response = routes.stream()
+                        .filter(r -> r.method.equals(parts[0]) && r.path.matcher(parts[1]).matches())
+                        .findFirst()
+                        .map(r -> r.handler.apply(parts[1]))
+                        .orElse(new Response(404, "{\"message\":\"no such route " + parts[1] + "\"}"));
+                if (response.streamingBody != null) {
+                    sink.writeUtf8("HTTP/1.1 " + response.code + " OK\r\n")
+                            .writeUtf8("Content-Type: application/json\r\n")
+                            .writeUtf8("Connection: close\r\n\r\n");
+                    response.streamingBody.writeTo(sink);
+                    sink.flush();
+                    requests.incrementAndGet();
+                    return;
+                }
+                byte[] body = response.body.getBytes(UTF_8);
+                sink.writeUtf8("HTTP/1.1 " + response.code + " " + (response.code < 300 ? "OK" : "Error") + "\r\n")
+                        .writeUtf8("Content-Type: application/json\r\n")
+                        .writeUtf8("Content-Length: " + body.length + "\r\n\r\n")
+                        .write(body)
+                        .flush();
+                requests.incrementAndGet();
+            }
+        } catch (IOException e) {
+            // connection closed by the client or by dropConnections
+        } finally {
+            sockets.remove(socket);
+        }
+    }
+
+    public static class Response {
+        private final int code;
+        private final String body;
+        private final StreamingBody streamingBody;
+
+        public Response(int code, String body) {
+            this(code, body, null);
+        }
+
+        private Response(int code, String body, StreamingBody streamingBody) {
+            this.code = code;
+            this.body = body;
+            this.streamingBody = streamingBody;
+        }
+
+        /**
+         * A body written by <code>writer</code> and delimited by closing the connection, like the streams of the
+         * daemon. Writes block once the client stops reading.
+         */
+        public static Response streaming(int code, StreamingBody writer) {
+            return new Response(code, null, writer);
+        }
+    }
+
+    @FunctionalInterface
+    public interface StreamingBody {
+        void writeTo(BufferedSink sink) throws IOException;
+    }
+
+    private static class Route {
+        private final String method;
+        private final Pattern path;
+        private final Function<String, Response> handler;
+
+        private Route(String method, Pattern path, Function<String, Response> handler) {
+            this.method = method;
+            this.path = path;
+            this.handler = handler;
+        }
+    }
+}
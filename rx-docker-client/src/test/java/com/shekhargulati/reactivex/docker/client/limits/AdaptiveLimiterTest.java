@@ -0,0 +1,183 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.limits;
+
+import org.junit.Test;
+import rx.Observable;
+import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class AdaptiveLimiterTest {
+
+    private final TestScheduler scheduler = new TestScheduler();
+    private final List<Long> queueTimes = new ArrayList<>();
+
+    @Test
+    public void shouldQueueRequestsBeyondTheLimit() throws Exception {
+        AdaptiveLimiter limiter = limiter(2);
+        List<PublishSubject<String>> requests = new ArrayList<>();
+        AtomicInteger sent = new AtomicInteger();
+        List<TestSubscriber<String>> subscribers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            PublishSubject<String> request = PublishSubject.create();
+            requests.add(request);
+            subscribers.add(send(limiter, request.doOnSubscribe(sent::incrementAndGet)));
+        }
+
+        assertThat(sent.get(), is(2));
+        assertThat(limiter.inFlight(), is(2));
+        assertThat(limiter.queued(), is(1));
+
+        scheduler.advanceTimeBy(5, TimeUnit.MILLISECONDS);
+        requests.get(0).onNext("done");
+        requests.get(0).onCompleted();
+        scheduler.triggerActions();
+
+        assertThat(sent.get(), is(3));
+        assertThat(limiter.queued(), is(0));
+        assertThat(queueTimes, contains(0L, 0L, TimeUnit.MILLISECONDS.toNanos(5)));
+        subscribers.get(0).assertValue("done");
+    }
+
+    @Test
+    public void shouldRemoveUnsubscribedRequestsFromTheQueue() throws Exception {
+        AdaptiveLimiter limiter = limiter(1);
+        PublishSubject<String> first = PublishSubject.create();
+        AtomicInteger sent = new AtomicInteger();
+        send(limiter, first);
+        TestSubscriber<String> queued = send(limiter, Observable.<String>never().doOnSubscribe(sent::incrementAndGet));
+
+        queued.unsubscribe();
+        first.onCompleted();
+        scheduler.triggerActions();
+
+        assertThat(limiter.queued(), is(0));
+        assertThat(limiter.inFlight(), is(0));
+        assertThat(sent.get(), is(0));
+    }
+
+    @Test
+    public void shouldFailWhenTheQueueIsFull() throws Exception {
+        AdaptiveLimiter limiter = limiter(1).withMaxQueued(1);
+        send(limiter, Observable.never());
+        send(limiter, Observable.never());
+
+        TestSubscriber<String> rejected = send(limiter, Observable.never());
+
+        rejected.assertError(ConcurrencyLimitExceededException.class);
+    }
+
+    @Test
+    public void shouldGrowTheLimitWhileItIsInUse() throws Exception {
+        AdaptiveLimiter limiter = limiter(2);
+        PublishSubject<String> first = PublishSubject.create();
+        PublishSubject<String> second = PublishSubject.create();
+        send(limiter, first);
+        send(limiter, second);
+
+        first.onCompleted();
+        second.onCompleted();
+
+        assertThat(limiter.limit(), is(4));
+    }
+
+    @Test
+    public void shouldNotGrowTheLimitWhileItIsMostlyIdle() throws Exception {
+        AdaptiveLimiter limiter = limiter(10);
+
+        send(limiter, Observable.just("ok"));
+
+        assertThat(limiter.limit(), is(10));
+    }
+
+    @Test
+    public void shouldBackOffOnFailuresOncePerRoundTrip() throws Exception {
+        AdaptiveLimiter limiter = limiter(10);
+        PublishSubject<String> first = PublishSubject.create();
+        PublishSubject<String> second = PublishSubject.create();
+        send(limiter, first);
+        send(limiter, second);
+
+        scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS);
+        first.onError(new IllegalStateException("connection reset"));
+        second.onError(new IllegalStateException("connection reset"));
+
+        assertThat(limiter.limit(), is(9));
+    }
+
+    @Test
+    public void shouldBackOffWhenAnswersSlowDown() throws Exception {
+        AdaptiveLimiter limiter = limiter(10);
+        send(limiter, Observable.just("fast").delay(20, TimeUnit.MILLISECONDS, scheduler));
+        scheduler.advanceTimeBy(20, TimeUnit.MILLISECONDS);
+
+        send(limiter, Observable.just("slow").delay(100, TimeUnit.MILLISECONDS, scheduler));
+        scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS);
+
+        assertThat(limiter.limit(), is(9));
+    }
+
+    @Test
+    public void shouldReleaseStreamsOnTheirFirstItem() throws Exception {
+        AdaptiveLimiter limiter = limiter(1).withMaxLimit(1).withEarlyRelease(Duration.ofSeconds(1));
+        PublishSubject<String> logs = PublishSubject.create();
+        TestSubscriber<String> follower = send(limiter, logs);
+        TestSubscriber<String> events = send(limiter, Observable.never());
+        AtomicInteger sent = new AtomicInteger();
+        send(limiter, Observable.<String>never().doOnSubscribe(sent::incrementAndGet));
+
+        logs.onNext("line");
+        scheduler.triggerActions();
+
+        assertThat("the events stream got the permit of the logs", limiter.queued(), is(1));
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        assertThat("and gave it back after a second without items", sent.get(), is(1));
+        follower.assertValue("line");
+        follower.assertNotCompleted();
+        events.assertNoTerminalEvent();
+    }
+
+    private AdaptiveLimiter limiter(int initialLimit) {
+        return new AdaptiveLimiter(initialLimit, 1, 100, 0.9, 2, 100, Optional.empty(), scheduler,
+                () -> TimeUnit.MILLISECONDS.toNanos(scheduler.now()));
+    }
+
+    private TestSubscriber<String> send(AdaptiveLimiter limiter, Observable<String> request) {
+        TestSubscriber<String> subscriber = new TestSubscriber<>();
+        limiter.limit("containers/%s/json", request, (endpoint, nanos) -> queueTimes.add(nanos)).subscribe(subscriber);
+        return subscriber;
+    }
+}
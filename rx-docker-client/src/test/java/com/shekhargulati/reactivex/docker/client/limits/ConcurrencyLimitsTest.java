@@ -0,0 +1,64 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.limits;
+
+import com.shekhargulati.reactivex.docker.client.ContainerOperations;
+import com.shekhargulati.reactivex.docker.client.ImageOperations;
+import com.shekhargulati.reactivex.docker.client.MiscOperations;
+import org.junit.Test;
+import rx.Observable;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class ConcurrencyLimitsTest {
+
+    @Test
+    public void shouldClassifyEndpoints() throws Exception {
+        assertThat(EndpointClass.of(ContainerOperations.CONTAINER_JSON_ENDPOINT), is(EndpointClass.READ));
+        assertThat(EndpointClass.of(ContainerOperations.CONTAINER_EXEC_INSPECT_ENDPOINT), is(EndpointClass.READ));
+        assertThat(EndpointClass.of(ImageOperations.IMAGE_LIST_ENDPOINT), is(EndpointClass.READ));
+        assertThat(EndpointClass.of(MiscOperations.PING_ENDPOINT), is(EndpointClass.READ));
+        assertThat(EndpointClass.of(ContainerOperations.CREATE_CONTAINER_ENDPOINT), is(EndpointClass.MUTATION));
+        assertThat(EndpointClass.of(ContainerOperations.CONTAINER_START_ENDPOINT), is(EndpointClass.MUTATION));
+        assertThat(EndpointClass.of(ContainerOperations.CONTAINER_REMOVE_ENDPOINT), is(EndpointClass.MUTATION));
+        assertThat(EndpointClass.of(ImageOperations.IMAGE_TAG_ENDPOINT), is(EndpointClass.MUTATION));
+        assertThat(EndpointClass.of(ContainerOperations.CONTAINER_LOGS_ENDPOINT), is(EndpointClass.STREAM));
+        assertThat(EndpointClass.of(ContainerOperations.CONTAINER_WAIT_ENDPOINT), is(EndpointClass.STREAM));
+        assertThat(EndpointClass.of(ContainerOperations.CONTAINER_EXEC_START_ENDPOINT), is(EndpointClass.STREAM));
+        assertThat(EndpointClass.of(ImageOperations.IMAGE_CREATE_ENDPOINT), is(EndpointClass.STREAM));
+    }
+
+    @Test
+    public void shouldSendRequestsOfClassesWithoutLimiterRightAway() throws Exception {
+        ConcurrencyLimits limits = ConcurrencyLimits.adaptive().withoutLimiter(EndpointClass.MUTATION);
+        Observable<String> request = Observable.just("ok");
+
+        assertThat(limits.limit(ContainerOperations.CONTAINER_START_ENDPOINT, request, (endpoint, nanos) -> {
+        }), is(sameInstance(request)));
+        assertThat(limits.limiter(EndpointClass.MUTATION).isPresent(), is(false));
+        assertThat(limits.limiter(EndpointClass.READ).get().limit(), is(32));
+    }
+}
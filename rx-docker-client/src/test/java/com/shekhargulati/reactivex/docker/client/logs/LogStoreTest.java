@@ -0,0 +1,93 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.logs;
+
+import com.shekhargulati.reactivex.docker.client.representations.ContainerLogLine;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import rx.Observable;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class LogStoreTest {
+
+    private static final Instant START = Instant.parse("2016-03-01T10:00:00Z");
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void shouldQueryLinesByTimeRange() throws Exception {
+        LogStore store = LogStore.open(tmp.newFolder().toPath());
+        IntStream.range(0, 1000).forEach(i -> store.append("web", ContainerLogLine.of("web", START.plusSeconds(i), "line " + i)));
+
+        List<String> messages = store.query("web", START.plusSeconds(500), START.plusSeconds(502))
+                .map(ContainerLogLine::message).collect(toList());
+
+        assertThat(messages, contains("line 500", "line 501", "line 502"));
+    }
+
+    @Test
+    public void shouldQueryLinesBySubstring() throws Exception {
+        LogStore store = LogStore.open(tmp.newFolder().toPath());
+        store.record("web", Observable.just(
+                "2016-03-01T10:00:00.000000001Z GET /health request-id=41",
+                "2016-03-01T10:00:00.000000002Z GET /orders request-id=42",
+                "2016-03-01T10:00:00.000000003Z POST /orders request-id=43"));
+
+        List<ContainerLogLine> lines = store.query("web", START, START.plusSeconds(1), "request-id=42").collect(toList());
+
+        assertThat(lines, hasSize(1));
+        assertThat(lines.get(0).message(), is(equalTo("GET /orders request-id=42")));
+        assertThat(lines.get(0).timestamp().get(), is(equalTo(Instant.parse("2016-03-01T10:00:00.000000002Z"))));
+    }
+
+    @Test
+    public void shouldRollOverToNewSegmentAndKeepLinesAfterReopening() throws Exception {
+        Path directory = tmp.newFolder().toPath();
+        LogStore store = LogStore.open(directory, 1024);
+        IntStream.range(0, 200).forEach(i -> store.append("web", ContainerLogLine.of("web", START.plusMillis(i), "line " + i)));
+        store.close();
+
+        assertThat(Files.list(directory.resolve("web")).count(), is(greaterThan(1L)));
+        LogStore reopened = LogStore.open(directory, 1024);
+        assertThat(reopened.query("web", START, START.plusSeconds(1)).count(), is(equalTo(200L)));
+        assertThat(reopened.query("web", START, START.plusSeconds(1), "line 199").count(), is(equalTo(1L)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectContainerIdThatIsNotAFileName() throws Exception {
+        LogStore.open(tmp.newFolder().toPath()).query("../web", START, START.plusSeconds(1));
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class DockerClientMetricsTest {
+
+    private final DockerClientMetrics metrics = new DockerClientMetrics();
+
+    @Test
+    public void shouldRecordRequestsPerEndpoint() throws Exception {
+        DockerClientMetrics.Request inspect = metrics.start("containers/%s/json", 0);
+        DockerClientMetrics.Request create = metrics.start("containers/create", 42);
+
+        assertThat(metrics.snapshot().endpoint("containers/%s/json").get().inFlight(), is(equalTo(1L)));
+
+        inspect.responded();
+        inspect.addBytesIn(100);
+        inspect.finish(200);
+        create.finish(409);
+        create.finish(200);
+
+        MetricsSnapshot.EndpointSnapshot inspected = metrics.snapshot().endpoint("containers/%s/json").get();
+        assertThat(inspected.inFlight(), is(equalTo(0L)));
+        assertThat(inspected.requests(), is(equalTo(1L)));
+        assertThat(inspected.bytesIn(), is(equalTo(100L)));
+        assertThat(inspected.statusCounts(), hasEntry(200, 1L));
+
+        MetricsSnapshot.EndpointSnapshot created = metrics.snapshot().endpoint("containers/create").get();
+        assertThat("only the first finish is recorded", created.statusCounts().size(), is(equalTo(1)));
+        assertThat(created.statusCounts(), hasEntry(409, 1L));
+        assertThat(created.bytesOut(), is(equalTo(42L)));
+    }
+
+    @Test
+    public void shouldRecordQueueTimeApartFromLatency() throws Exception {
+        metrics.recordQueued("containers/create", 5_000_000);
+        metrics.recordQueued("containers/create", 0);
+
+        MetricsSnapshot.EndpointSnapshot created = metrics.snapshot().endpoint("containers/create").get();
+
+        assertThat(created.queueTime().count(), is(equalTo(2L)));
+        assertThat(created.queueTime().max(), is(greaterThanOrEqualTo(5_000_000L)));
+        assertThat(created.latency().count(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void shouldCountRetries() throws Exception {
+        metrics.recordRetry("containers/%s/json", 50_000_000);
+        metrics.recordRetry("containers/%s/json", 120_000_000);
+        metrics.recordRetryDenied("containers/%s/json");
+
+        MetricsSnapshot.EndpointSnapshot inspected = metrics.snapshot().endpoint("containers/%s/json").get();
+
+        assertThat(inspected.retries(), is(equalTo(2L)));
+        assertThat(inspected.retriesDenied(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void shouldCountCacheHitsAndMisses() throws Exception {
+        metrics.recordCacheLookup("images/%s/json", false);
+        metrics.recordCacheLookup("images/%s/json", true);
+        metrics.recordCacheLookup("images/%s/json", true);
+
+        MetricsSnapshot.EndpointSnapshot inspected = metrics.snapshot().endpoint("images/%s/json").get();
+
+        assertThat(inspected.cacheHits(), is(equalTo(2L)));
+        assertThat(inspected.cacheMisses(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void shouldTakeLatencyWhenTheResponseArrives() throws Exception {
+        DockerClientMetrics.Request logs = metrics.start("containers/%s/logs", 0);
+        logs.responded();
+        Thread.sleep(200);
+        logs.finish(200);
+
+        long latency = metrics.snapshot().endpoint("containers/%s/logs").get().latency().max();
+
+        assertThat(latency, is(lessThan(100_000_000L)));
+    }
+
+    @Test
+    public void shouldNotifySinks() throws Exception {
+        List<String> events = new ArrayList<>();
+        metrics.addSink(new MetricsSink() {
+            @Override
+            public void requestStarted(String endpoint) {
+                events.add("started " + endpoint);
+            }
+
+            @Override
+            public void requestCompleted(String endpoint, int statusCode, long latencyNanos) {
+                events.add("completed " + endpoint + " " + statusCode);
+            }
+
+            @Override
+            public void bytesSent(String endpoint, long bytes) {
+                events.add("sent " + bytes);
+            }
+
+            @Override
+            public void bytesReceived(String endpoint, long bytes) {
+                events.add("received " + bytes);
+            }
+        });
+
+        DockerClientMetrics.Request request = metrics.start("info", 10);
+        request.addBytesIn(20);
+        request.finish(DockerClientMetrics.NO_RESPONSE);
+
+        assertThat(events, contains("started info", "sent 10", "received 20", "completed info 0"));
+    }
+
+    @Test
+    public void shouldPublishToMicrometer() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        metrics.addSink(new MicrometerMetricsSink(registry));
+
+        DockerClientMetrics.Request request = metrics.start("version", 0);
+        assertThat(registry.get("docker.client.requests.in.flight").tag("endpoint", "version").gauge().value(), is(equalTo(1.0)));
+        request.addBytesIn(64);
+        request.finish(200);
+
+        assertThat(registry.get("docker.client.requests").tags("endpoint", "version", "status", "200").timer().count(), is(equalTo(1L)));
+        assertThat(registry.get("docker.client.bytes.received").tag("endpoint", "version").counter().count(), is(equalTo(64.0)));
+        assertThat(registry.get("docker.client.requests.in.flight").tag("endpoint", "version").gauge().value(), is(equalTo(0.0)));
+    }
+}
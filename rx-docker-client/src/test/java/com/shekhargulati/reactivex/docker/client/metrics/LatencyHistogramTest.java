@@ -0,0 +1,77 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.metrics;
+
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void shouldKeepEveryValueWithinItsBucketBounds() throws Exception {
+        long[] values = {0, 1, 31, 32, 33, 1_000, 123_456, 10_000_000, Long.MAX_VALUE};
+        for (long value : values) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertThat(bucket, is(lessThan(LatencyHistogram.BUCKETS)));
+            assertThat(LatencyHistogram.highestValueOf(bucket), is(greaterThanOrEqualTo(value)));
+            assertThat((double) LatencyHistogram.highestValueOf(bucket) - value, is(lessThanOrEqualTo(Math.max(1, value * 0.035))));
+        }
+    }
+
+    @Test
+    public void shouldComputePercentiles() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        IntStream.rangeClosed(1, 1000).forEach(i -> histogram.record(TimeUnit.MICROSECONDS.toNanos(i)));
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.count(), is(equalTo(1000L)));
+        assertThat(snapshot.min(), is(equalTo(1_000L)));
+        assertThat(snapshot.max(), is(equalTo(1_000_000L)));
+        assertThat((double) snapshot.percentile(50), is(closeTo(500_000, 500_000 * 0.035)));
+        assertThat((double) snapshot.percentile(99), is(closeTo(990_000, 990_000 * 0.035)));
+        assertThat(snapshot.percentile(100), is(equalTo(1_000_000L)));
+        assertThat(snapshot.mean(), is(closeTo(500_500, 1)));
+    }
+
+    @Test
+    public void shouldNotLoseConcurrentRecordings() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        IntStream.range(0, 8).forEach(t -> executor.execute(() -> IntStream.range(0, 10_000).forEach(histogram::record)));
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertThat(histogram.snapshot().count(), is(equalTo(80_000L)));
+        assertThat(histogram.snapshot().max(), is(equalTo(9_999L)));
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.retry;
+
+import com.shekhargulati.reactivex.docker.client.ContainerOperations;
+import org.junit.Test;
+import rx.Observable;
+import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleSupplier;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class RetryPolicyTest {
+
+    private static final String INSPECT = ContainerOperations.CONTAINER_JSON_ENDPOINT;
+
+    private final TestScheduler scheduler = new TestScheduler();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final List<Long> delays = new ArrayList<>();
+    private final List<String> denied = new ArrayList<>();
+
+    @Test
+    public void shouldKnowWhichRequestsAreIdempotent() throws Exception {
+        assertThat(RetryPolicy.isIdempotent(INSPECT, "abc123"), is(true));
+        assertThat(RetryPolicy.isIdempotent(ContainerOperations.CONTAINER_LIST_ENDPOINT, null), is(true));
+        assertThat(RetryPolicy.isIdempotent(ContainerOperations.CONTAINER_STOP_ENDPOINT, "abc123"), is(true));
+        assertThat(RetryPolicy.isIdempotent(ContainerOperations.CREATE_CONTAINER_ENDPOINT, "web"), is(true));
+        assertThat(RetryPolicy.isIdempotent(ContainerOperations.CREATE_CONTAINER_ENDPOINT, null), is(false));
+        assertThat(RetryPolicy.isIdempotent(ContainerOperations.CONTAINER_KILL_ENDPOINT, "abc123"), is(false));
+        assertThat(RetryPolicy.isIdempotent(ContainerOperations.CONTAINER_EXEC_CREATE_ENDPOINT, "abc123"), is(false));
+    }
+
+    @Test
+    public void shouldRetryIdempotentRequestsFailingWithIoErrors() throws Exception {
+        TestSubscriber<String> subscriber = send(policy(() -> 0.5), INSPECT, "abc123", failing(2, new IOException("connection reset")));
+
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        subscriber.assertValue("ok");
+        assertThat(calls.get(), is(3));
+        assertThat(delays, hasSize(2));
+    }
+
+    @Test
+    public void shouldNotRetryRequestsThatAreNotIdempotent() throws Exception {
+        TestSubscriber<String> subscriber = send(policy(() -> 0.5), ContainerOperations.CREATE_CONTAINER_ENDPOINT, null,
+                failing(1, new IOException("connection reset")));
+
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        subscriber.assertError(IOException.class);
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    public void shouldNotRetryErrorsThatAreNotTransient() throws Exception {
+        TestSubscriber<String> subscriber = send(policy(() -> 0.5), INSPECT, "abc123", failing(1, new IllegalArgumentException("bad json")));
+
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        subscriber.assertError(IllegalArgumentException.class);
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    public void shouldGiveUpAfterMaxAttempts() throws Exception {
+        TestSubscriber<String> subscriber = send(policy(() -> 0.5), INSPECT, "abc123", failing(5, new IOException("connection reset")));
+
+        scheduler.advanceTimeBy(10, TimeUnit.SECONDS);
+
+        subscriber.assertError(IOException.class);
+        assertThat(calls.get(), is(3));
+    }
+
+    @Test
+    public void shouldNotRetryStreamsThatAlreadyEmitted() throws Exception {
+        Observable<String> logs = Observable.defer(() -> {
+            calls.incrementAndGet();
+            return Observable.just("line").concatWith(Observable.error(new IOException("connection reset")));
+        });
+
+        TestSubscriber<String> subscriber = send(policy(() -> 0.5), ContainerOperations.CONTAINER_LOGS_ENDPOINT, "abc123", logs);
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        subscriber.assertValue("line");
+        subscriber.assertError(IOException.class);
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    public void shouldStopRetryingWhenTheBudgetIsSpent() throws Exception {
+        RetryPolicy policy = policy(() -> 0.5).withBudget(new RetryBudget(0, 1, 1, () -> 0));
+
+        send(policy, INSPECT, "abc123", failing(1, new IOException("connection reset")));
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        TestSubscriber<String> second = send(policy, INSPECT, "abc123", failing(1, new IOException("connection reset")));
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        second.assertError(IOException.class);
+        assertThat(delays, hasSize(1));
+        assertThat(denied, contains(INSPECT));
+    }
+
+    @Test
+    public void shouldGrowDelaysWithDecorrelatedJitter() throws Exception {
+        RetryPolicy slowest = policy(() -> 1);
+        long first = slowest.nextDelay(TimeUnit.MILLISECONDS.toNanos(50));
+
+        assertThat(first, is(equalTo(TimeUnit.MILLISECONDS.toNanos(150))));
+        assertThat(slowest.nextDelay(first), is(equalTo(TimeUnit.MILLISECONDS.toNanos(450))));
+        assertThat("capped at maxDelay", slowest.nextDelay(TimeUnit.SECONDS.toNanos(1)), is(equalTo(TimeUnit.SECONDS.toNanos(2))));
+        assertThat(policy(() -> 0).nextDelay(TimeUnit.SECONDS.toNanos(1)), is(equalTo(TimeUnit.MILLISECONDS.toNanos(50))));
+    }
+
+    private RetryPolicy policy(DoubleSupplier random) {
+        return new RetryPolicy(3, Duration.ofMillis(50), Duration.ofSeconds(2), new RetryBudget(0.1, 10, 100, () -> 0), scheduler, random);
+    }
+
+    private Observable<String> failing(int failures, Throwable error) {
+        AtomicInteger attempts = new AtomicInteger();
+        return Observable.defer(() -> {
+            calls.incrementAndGet();
+            return attempts.incrementAndGet() <= failures ? Observable.<String>error(error) : Observable.just("ok");
+        });
+    }
+
+    private TestSubscriber<String> send(RetryPolicy policy, String endpoint, String resourceId, Observable<String> request) {
+        TestSubscriber<String> subscriber = new TestSubscriber<>();
+        policy.retrying(endpoint, resourceId, request, (e, delay) -> delays.add(delay), denied::add).subscribe(subscriber);
+        return subscriber;
+    }
+}
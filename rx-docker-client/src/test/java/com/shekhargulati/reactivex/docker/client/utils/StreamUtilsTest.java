@@ -0,0 +1,90 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Shekhar Gulati <shekhargulati84@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.shekhargulati.reactivex.docker.client.utils;
+
+import org.junit.Test;
+import rx.Observable;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class StreamUtilsTest {
+
+    private final AtomicInteger subscriptions = new AtomicInteger();
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicBoolean unsubscribed = new AtomicBoolean();
+
+    @Test
+    public void shouldNotSubscribeBeforeTheTerminalOperation() throws Exception {
+        Stream<Integer> stream = StreamUtils.observableToStream(numbers(10)).map(i -> i * 2);
+
+        assertThat(subscriptions.get(), is(0));
+        assertThat(stream.collect(Collectors.toList()), contains(0, 2, 4, 6, 8, 10, 12, 14, 16, 18));
+        assertThat(subscriptions.get(), is(1));
+    }
+
+    @Test
+    public void shouldOnlyRequestOneBatchForShortCircuitingOperations() throws Exception {
+        Optional<Integer> first = StreamUtils.observableToStream(numbers(100_000)).filter(i -> i > 5).findFirst();
+
+        assertThat(first.get(), is(6));
+        assertThat(requested.get(), is((long) StreamUtils.BATCH_SIZE));
+    }
+
+    @Test
+    public void shouldUnsubscribeOnClose() throws Exception {
+        try (Stream<Integer> stream = StreamUtils.observableToStream(numbers(100_000))) {
+            assertThat(stream.limit(3).count(), is(3L));
+        }
+
+        assertThat(unsubscribed.get(), is(true));
+    }
+
+    @Test
+    public void shouldSplitForParallelProcessing() throws Exception {
+        long sum = StreamUtils.observableToStream(numbers(10_000)).parallel().mapToLong(Integer::longValue).sum();
+
+        assertThat(sum, is(equalTo(49_995_000L)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRethrowTheErrorOfTheObservable() throws Exception {
+        StreamUtils.observableToStream(Observable.concat(Observable.just(1), Observable.error(new IllegalStateException("boom")))).count();
+    }
+
+    private Observable<Integer> numbers(int count) {
+        return Observable.range(0, count)
+                .doOnSubscribe(subscriptions::incrementAndGet)
+                .doOnRequest(requested::addAndGet)
+                .doOnUnsubscribe(() -> unsubscribed.set(true));
+    }
+}
@@ -2,6 +2,8 @@ package com.shekhargulati.reactivex.docker.client.utils;
 
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
@@ -31,4 +33,11 @@ public class StringUtilsTest {
         boolean emptyOrNull = Strings.isEmptyOrNull("shekhar");
         assertThat(emptyOrNull, is(equalTo(false)));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldCountTheUtf8BytesOfAString() throws Exception {
+        for (String str : new String[]{"", "docker", "caf\u00e9", "\u20ac 5", "\ud83d\udc33 whale", "\ud83d broken \udc33"}) {
+            assertThat(Strings.utf8Length(str), is(equalTo((long) str.getBytes(StandardCharsets.UTF_8).length)));
+        }
+    }
+}